@@ -29,13 +29,22 @@ import java.awt.Point;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferInt;
 import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 
@@ -64,6 +73,10 @@ public final class ToolsAwt
     private static final GraphicsConfiguration CONFIG = DEV.getDefaultConfiguration();
     /** Image loading strategy. */
     private static volatile ImageLoadStrategy imageLoadStragegy = ImageLoadStrategy.FAST_RENDERING;
+    /** Minimum number of pixels to process rows in parallel. */
+    private static final int PARALLEL_PIXELS = 256 * 256;
+    /** Opaque alpha mask. */
+    private static final int OPAQUE = 0xFF_00_00_00;
 
     /**
      * Set image load strategy.
@@ -316,22 +329,27 @@ public final class ToolsAwt
      */
     public static BufferedImage applyMask(BufferedImage image, int rgba)
     {
-        final BufferedImage mask = copyImage(image);
-        final int height = mask.getHeight();
-        final int width = mask.getWidth();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = getPixels(image);
+        final int masked = rgba & ~OPAQUE;
 
-        for (int y = 0; y < height; y++)
+        forEachRow(width, height, y ->
         {
+            final int offset = y * width;
             for (int x = 0; x < width; x++)
             {
-                final int col = mask.getRGB(x, y);
-                final int flag = 0x00_FF_FF_FF;
-                if (col == rgba)
+                if (pixels[offset + x] == rgba)
                 {
-                    mask.setRGB(x, y, col & flag);
+                    pixels[offset + x] = masked;
                 }
             }
-        }
+        });
+
+        final int transparency = Math.max(image.getColorModel().getTransparency(),
+                                          getTransparency(Transparency.BITMASK));
+        final BufferedImage mask = createImage(width, height, transparency);
+        setPixels(mask, pixels);
         return mask;
     }
 
@@ -401,13 +419,21 @@ public final class ToolsAwt
     {
         final int width = image.getWidth();
         final int height = image.getHeight();
-        final BufferedImage flipped = createImage(width, height, image.getColorModel().getTransparency());
-        final Graphics2D g = flipped.createGraphics();
+        final int[] pixels = getPixels(image);
+        final int[] data = new int[pixels.length];
 
-        optimizeGraphicsSpeed(g);
-        g.drawImage(image, 0, 0, width, height, width, 0, 0, height, null);
-        g.dispose();
+        forEachRow(width, height, y ->
+        {
+            final int offset = y * width;
+            final int last = offset + width - 1;
+            for (int x = 0; x < width; x++)
+            {
+                data[offset + x] = pixels[last - x];
+            }
+        });
 
+        final BufferedImage flipped = createImage(width, height, image.getColorModel().getTransparency());
+        setPixels(flipped, data);
         return flipped;
     }
 
@@ -421,13 +447,16 @@ public final class ToolsAwt
     {
         final int width = image.getWidth();
         final int height = image.getHeight();
-        final BufferedImage flipped = createImage(width, height, image.getColorModel().getTransparency());
-        final Graphics2D g = flipped.createGraphics();
+        final int[] pixels = getPixels(image);
+        final int[] data = new int[pixels.length];
 
-        optimizeGraphicsSpeed(g);
-        g.drawImage(image, 0, 0, width, height, 0, height, width, 0, null);
-        g.dispose();
+        for (int y = 0; y < height; y++)
+        {
+            System.arraycopy(pixels, (height - 1 - y) * width, data, y * width, width);
+        }
 
+        final BufferedImage flipped = createImage(width, height, image.getColorModel().getTransparency());
+        setPixels(flipped, data);
         return flipped;
     }
 
@@ -443,7 +472,9 @@ public final class ToolsAwt
     {
         final int width = image.getWidth() / h;
         final int height = image.getHeight() / v;
+        final int stride = image.getWidth();
         final int transparency = image.getColorModel().getTransparency();
+        final int[] pixels = getPixels(image);
         final BufferedImage[] images = new BufferedImage[h * v];
         int frame = 0;
 
@@ -451,11 +482,14 @@ public final class ToolsAwt
         {
             for (int x = 0; x < h; x++)
             {
+                final int[] data = new int[width * height];
+                final int start = y * height * stride + x * width;
+                for (int row = 0; row < height; row++)
+                {
+                    System.arraycopy(pixels, start + row * stride, data, row * width, width);
+                }
                 images[frame] = createImage(width, height, transparency);
-                final Graphics2D g = images[frame].createGraphics();
-                optimizeGraphicsSpeed(g);
-                g.drawImage(image, 0, 0, width, height, x * width, y * height, (x + 1) * width, (y + 1) * height, null);
-                g.dispose();
+                setPixels(images[frame], data);
                 frame++;
             }
         }
@@ -465,6 +499,10 @@ public final class ToolsAwt
 
     /**
      * Get raster buffers from palette.
+     * <p>
+     * With {@link ImageLoadStrategy#LOW_MEMORY}, if image has at most {@link Constant#UNSIGNED_BYTE} colors, image is
+     * stored once as color indexes shared by all rasters, each raster only owning its colors table.
+     * </p>
      * 
      * @param image The image buffer (must not be <code>null</code>).
      * @param palette The raster palette (must not be <code>null</code>).
@@ -474,91 +512,187 @@ public final class ToolsAwt
     public static BufferedImage[] getRasterBuffer(BufferedImage image, BufferedImage palette)
     {
         final int rastersCount = palette.getHeight() - 1;
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = getPixels(image);
+        final int[] indexes = new int[pixels.length];
+        final int[] colors = getColorIndexes(pixels, indexes);
+        final RasterPalette lookup = new RasterPalette(palette);
+
+        if (imageLoadStragegy == ImageLoadStrategy.LOW_MEMORY && colors.length <= Constant.UNSIGNED_BYTE)
+        {
+            return getRasterBufferIndexed(width, height, indexes, colors, lookup, rastersCount);
+        }
+
         final BufferedImage[] rasters = new BufferedImage[rastersCount];
+        final int[] rastered = new int[colors.length];
+        final int[] data = new int[pixels.length];
         for (int rasterIndex = 0; rasterIndex < rastersCount; rasterIndex++)
         {
-            rasters[rasterIndex] = getRasterBuffer(image, palette, rasterIndex);
+            for (int i = 0; i < colors.length; i++)
+            {
+                rastered[i] = lookup.find(colors[i], rasterIndex);
+            }
+            forEachRow(width, height, y ->
+            {
+                final int offset = y * width;
+                for (int x = offset; x < offset + width; x++)
+                {
+                    data[x] = rastered[indexes[x]];
+                }
+            });
+            rasters[rasterIndex] = createImage(width, height, image.getTransparency());
+            setPixels(rasters[rasterIndex], data);
         }
         return rasters;
     }
 
     /**
-     * Get raster buffers from palette with raster inside each line.
+     * Get raster buffers sharing the same color indexes, with a colors table per raster.
      * 
-     * @param image The image buffer (must not be <code>null</code>).
-     * @param palette The raster palette (must not be <code>null</code>).
-     * @param th The tile height.
+     * @param width The image width.
+     * @param height The image height.
+     * @param indexes The color index of each pixel.
+     * @param colors The image colors (at most {@link Constant#UNSIGNED_BYTE}).
+     * @param lookup The raster palette.
+     * @param rastersCount The number of rasters.
      * @return The rastered images.
-     * @throws LionEngineException If invalid arguments.
      */
-    public static BufferedImage[] getRasterBufferInside(BufferedImage image, BufferedImage palette, int th)
+    private static BufferedImage[] getRasterBufferIndexed(int width,
+                                                          int height,
+                                                          int[] indexes,
+                                                          int[] colors,
+                                                          RasterPalette lookup,
+                                                          int rastersCount)
     {
-        final int rastersCount = (int) Math.ceil((palette.getHeight() - 1.0) / th);
+        final byte[] data = new byte[indexes.length];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) indexes[i];
+        }
+        final WritableRaster shared = Raster.createInterleavedRaster(new DataBufferByte(data, data.length),
+                                                                     width,
+                                                                     height,
+                                                                     width,
+                                                                     1,
+                                                                     new int[]
+                                                                     {
+                                                                         0
+                                                                     },
+                                                                     null);
+
         final BufferedImage[] rasters = new BufferedImage[rastersCount];
         for (int rasterIndex = 0; rasterIndex < rastersCount; rasterIndex++)
         {
-            rasters[rasterIndex] = getRasterBuffer(image, palette, th, rasterIndex);
+            final int[] rastered = new int[colors.length];
+            for (int i = 0; i < colors.length; i++)
+            {
+                rastered[i] = lookup.find(colors[i], rasterIndex);
+            }
+            final IndexColorModel model = new IndexColorModel(Constant.BYTE_2,
+                                                               rastered.length,
+                                                               rastered,
+                                                               0,
+                                                               true,
+                                                               -1,
+                                                               DataBuffer.TYPE_BYTE);
+            rasters[rasterIndex] = new BufferedImage(model, shared, false, null);
         }
         return rasters;
     }
 
     /**
-     * Get raster buffer from palette at specified index.
+     * Get the distinct colors of pixels, and the color index of each pixel.
+     * 
+     * @param pixels The pixels color.
+     * @param indexes The color index of each pixel (filled).
+     * @return The distinct colors, by index.
+     */
+    private static int[] getColorIndexes(int[] pixels, int[] indexes)
+    {
+        final Map<Integer, Integer> found = new HashMap<>();
+        int[] colors = new int[Constant.UNSIGNED_BYTE];
+        int last = pixels.length > 0 ? ~pixels[0] : 0;
+        int lastIndex = -1;
+        for (int i = 0; i < pixels.length; i++)
+        {
+            final int color = pixels[i];
+            if (color != last)
+            {
+                final Integer index = found.get(Integer.valueOf(color));
+                if (index == null)
+                {
+                    lastIndex = found.size();
+                    found.put(Integer.valueOf(color), Integer.valueOf(lastIndex));
+                    if (lastIndex == colors.length)
+                    {
+                        colors = Arrays.copyOf(colors, colors.length * 2);
+                    }
+                    colors[lastIndex] = color;
+                }
+                else
+                {
+                    lastIndex = index.intValue();
+                }
+                last = color;
+            }
+            indexes[i] = lastIndex;
+        }
+        return Arrays.copyOf(colors, found.size());
+    }
+
+    /**
+     * Get raster buffers from palette with raster inside each line.
      * 
      * @param image The image buffer (must not be <code>null</code>).
      * @param palette The raster palette (must not be <code>null</code>).
-     * @param rasterIndex The raster index on palette.
+     * @param th The tile height.
      * @return The rastered images.
      * @throws LionEngineException If invalid arguments.
      */
-    private static BufferedImage getRasterBuffer(BufferedImage image, BufferedImage palette, int rasterIndex)
+    public static BufferedImage[] getRasterBufferInside(BufferedImage image, BufferedImage palette, int th)
     {
-        final int width = image.getWidth();
-        final int height = image.getHeight();
-        final int paletteColors = palette.getWidth();
-
-        final BufferedImage raster = createImage(width, height, image.getTransparency());
-        for (int x = 0; x < width; x++)
+        final int rastersCount = (int) Math.ceil((palette.getHeight() - 1.0) / th);
+        final RasterPalette lookup = new RasterPalette(palette);
+        final int[] pixels = getPixels(image);
+        final BufferedImage[] rasters = new BufferedImage[rastersCount];
+        for (int rasterIndex = 0; rasterIndex < rastersCount; rasterIndex++)
         {
-            for (int y = 0; y < height; y++)
-            {
-                final int originalRgb = image.getRGB(x, y);
-                raster.setRGB(x, y, findRaster(paletteColors, palette, originalRgb, rasterIndex));
-            }
+            rasters[rasterIndex] = getRasterBuffer(image, pixels, lookup, th, rasterIndex);
         }
-        return raster;
+        return rasters;
     }
 
     /**
      * Get raster buffer from palette at specified index.
      * 
-     * @param image The image buffer (must not be <code>null</code>).
-     * @param palette The raster palette (must not be <code>null</code>).
+     * @param image The image buffer.
+     * @param pixels The image pixels.
+     * @param palette The raster palette.
      * @param th The tile height.
      * @param rasterIndex The raster index on palette.
      * @return The rastered images.
-     * @throws LionEngineException If invalid arguments.
      */
-    private static BufferedImage getRasterBuffer(BufferedImage image, BufferedImage palette, int th, int rasterIndex)
+    private static BufferedImage getRasterBuffer(BufferedImage image,
+                                                 int[] pixels,
+                                                 RasterPalette palette,
+                                                 int th,
+                                                 int rasterIndex)
     {
         final int width = image.getWidth();
         final int height = image.getHeight();
-        final int paletteColors = palette.getWidth();
-
-        final BufferedImage raster = createImage(width, height, image.getTransparency());
-        for (int x = 0; x < width; x++)
+        final int[] data = new int[pixels.length];
+        forEachRow(width, height, y ->
         {
-            for (int y = 0; y < height; y++)
+            final int index = (height - y - 1) % th + rasterIndex * th;
+            final int offset = y * width;
+            for (int x = offset; x < offset + width; x++)
             {
-                final int originalRgb = image.getRGB(x, y);
-                raster.setRGB(x,
-                              y,
-                              findRaster(paletteColors,
-                                         palette,
-                                         originalRgb,
-                                         (height - y - 1) % th + rasterIndex * th));
+                data[x] = palette.find(pixels[x], index);
             }
-        }
+        });
+        final BufferedImage raster = createImage(width, height, image.getTransparency());
+        setPixels(raster, data);
         return raster;
     }
 
@@ -573,17 +707,22 @@ public final class ToolsAwt
      */
     public static BufferedImage[] getRasterBufferSmooth(BufferedImage image, BufferedImage palette, int tileHeight)
     {
+        final int width = image.getWidth();
         final int height = image.getHeight();
+        final int[] pixels = getPixels(image);
+        final int rows = height / tileHeight * tileHeight;
+        final int[] rastered = getRastered(width, rows, pixels, new RasterPalette(palette));
         final BufferedImage[] rasters = new BufferedImage[tileHeight];
 
         for (int maxHeight = 0; maxHeight < tileHeight; maxHeight++)
         {
-            final BufferedImage raster = createImage(image.getWidth(), height, image.getTransparency());
+            final int[] data = new int[pixels.length];
             for (int ty = 0; ty < height / tileHeight; ty++)
             {
-                fillBuffer(image, palette, raster, tileHeight, maxHeight, ty);
+                fillBuffer(pixels, rastered, data, width, tileHeight, maxHeight, ty);
             }
-            rasters[maxHeight] = raster;
+            rasters[maxHeight] = createImage(width, height, image.getTransparency());
+            setPixels(rasters[maxHeight], data);
         }
         return rasters;
     }
@@ -600,76 +739,77 @@ public final class ToolsAwt
      */
     public static BufferedImage[] getRasterBufferSmooth(BufferedImage image, BufferedImage palette, int fh, int fv)
     {
+        final int width = image.getWidth();
         final int height = image.getHeight();
         final int frameHeight = height / fv;
+        final int[] pixels = getPixels(image);
+        final int[] rastered = getRastered(width, frameHeight, pixels, new RasterPalette(palette));
         final BufferedImage[] rasters = new BufferedImage[frameHeight];
 
         for (int maxHeight = 0; maxHeight < frameHeight; maxHeight++)
         {
-            final BufferedImage raster = createImage(image.getWidth(), height, image.getTransparency());
-            fillBuffer(image, palette, raster, frameHeight, maxHeight, 0);
-            rasters[maxHeight] = raster;
+            final int[] data = new int[pixels.length];
+            fillBuffer(pixels, rastered, data, width, frameHeight, maxHeight, 0);
+            rasters[maxHeight] = createImage(width, height, image.getTransparency());
+            setPixels(rasters[maxHeight], data);
         }
         return rasters;
     }
 
     /**
-     * Fill raster buffer from palette.
+     * Get pixels with their first raster color, for the first rows only.
      * 
-     * @param image The image buffer (must not be <code>null</code>).
-     * @param palette The raster palette (must not be <code>null</code>).
-     * @param raster The raster to fill (must not be <code>null</code>).
-     * @param tileHeight The tile height.
-     * @param maxHeight The max height for palette fill on raster tile.
-     * @param ty The vertical tile to fill.
-     * @throws LionEngineException If invalid arguments.
+     * @param width The image width.
+     * @param rows The number of rows to raster.
+     * @param pixels The image pixels.
+     * @param palette The raster palette.
+     * @return The rastered pixels.
      */
-    private static void fillBuffer(BufferedImage image,
-                                   BufferedImage palette,
-                                   BufferedImage raster,
-                                   int tileHeight,
-                                   int maxHeight,
-                                   int ty)
+    private static int[] getRastered(int width, int rows, int[] pixels, RasterPalette palette)
     {
-        final int paletteColors = palette.getWidth();
-        for (int y = 0; y < tileHeight; y++)
+        final int[] rastered = new int[pixels.length];
+        forEachRow(width, rows, y ->
         {
-            for (int x = 0; x < image.getWidth(); x++)
+            final int offset = y * width;
+            for (int x = offset; x < offset + width; x++)
             {
-                final int ry = tileHeight - 1 - y + ty * tileHeight;
-                final int originalRgb = image.getRGB(x, ry);
-                if (y <= maxHeight)
-                {
-                    final int rasterRgb = findRaster(paletteColors, palette, originalRgb, 0);
-                    raster.setRGB(x, ry, rasterRgb);
-                }
-                else
-                {
-                    raster.setRGB(x, ry, originalRgb);
-                }
+                rastered[x] = palette.find(pixels[x], 0);
             }
-        }
+        });
+        return rastered;
     }
 
     /**
-     * Find corresponding raster color from original one.
+     * Fill raster buffer rows of a tile, rastered rows until max height, original rows else.
      * 
-     * @param paletteColors The number of rasters in palette.
-     * @param palette The palette data.
-     * @param originalRgb The original color.
-     * @param rasterIndex The raster index to use.
-     * @return The associated raster color.
+     * @param pixels The original pixels.
+     * @param rastered The rastered pixels.
+     * @param data The raster pixels to fill.
+     * @param width The image width.
+     * @param tileHeight The tile height.
+     * @param maxHeight The max height for palette fill on raster tile.
+     * @param ty The vertical tile to fill.
      */
-    private static int findRaster(int paletteColors, BufferedImage palette, int originalRgb, int rasterIndex)
+    private static void fillBuffer(int[] pixels,
+                                   int[] rastered,
+                                   int[] data,
+                                   int width,
+                                   int tileHeight,
+                                   int maxHeight,
+                                   int ty)
     {
-        for (int p = 0; p < paletteColors; p++)
+        for (int y = 0; y < tileHeight; y++)
         {
-            if (palette.getRGB(p, 0) == originalRgb && rasterIndex + 1 < palette.getHeight())
+            final int offset = (tileHeight - 1 - y + ty * tileHeight) * width;
+            if (y <= maxHeight)
             {
-                return palette.getRGB(p, rasterIndex + 1);
+                System.arraycopy(rastered, offset, data, offset, width);
+            }
+            else
+            {
+                System.arraycopy(pixels, offset, data, offset, width);
             }
         }
-        return originalRgb;
     }
 
     /**
@@ -691,70 +831,141 @@ public final class ToolsAwt
         final BufferedImage[] rasters = new BufferedImage[rasterHeight];
         final int width = image.getWidth();
         final int height = image.getHeight();
+        final int[] pixels = getPixels(image);
+        final int[] colors = raster.getRGB(0, 0, 1, rasterHeight, null, 0, 1);
+        final int[] shifts = getPaletteOffsets(width, height, pixels, palette);
 
         for (int rasterNumber = 0; rasterNumber < rasters.length; rasterNumber++)
         {
-            final BufferedImage buffer = createImage(width, height, image.getTransparency());
-            fillBufferOffset(image, palette, raster, buffer, offsets, rasterNumber);
-            rasters[rasterNumber] = buffer;
+            final int[] data = new int[pixels.length];
+            final int first = rasterHeight - 1 - rasterNumber;
+            forEachRow(width, height, y ->
+            {
+                final int start = first - (height - 1 - y) / offsets * offsets;
+                final int offset = y * width;
+                for (int x = offset; x < offset + width; x++)
+                {
+                    if ((pixels[x] >> Constant.BYTE_4 & 0xFF) != 0)
+                    {
+                        data[x] = colors[UtilMath.clamp(start - shifts[x], 0, rasterHeight - 1)];
+                    }
+                }
+            });
+            rasters[rasterNumber] = createImage(width, height, image.getTransparency());
+            setPixels(rasters[rasterNumber], data);
         }
         return rasters;
     }
 
     /**
-     * Fill buffer offset.
+     * Get the raster shift of each pixel, from the first palette line where its color is found.
      * 
-     * @param image The image source reference.
+     * @param width The image width.
+     * @param height The image height.
+     * @param pixels The image pixels.
      * @param palette The palette reference.
-     * @param raster The raster colors.
-     * @param buffer The created buffer to fill.
-     * @param offsets The offsets value.
-     * @param rasterNumber The current raster number.
-     */
-    private static void fillBufferOffset(BufferedImage image,
-                                         BufferedImage palette,
-                                         BufferedImage raster,
-                                         BufferedImage buffer,
-                                         int offsets,
-                                         int rasterNumber)
+     * @return The raster shifts.
+     */
+    private static int[] getPaletteOffsets(int width, int height, int[] pixels, BufferedImage palette)
     {
-        final int rasterHeight = raster.getHeight();
-        final int width = image.getWidth();
-        final int height = image.getHeight();
+        final int paletteHeight = palette.getHeight();
+        final int[] column = palette.getRGB(0, 0, 1, paletteHeight, null, 0, 1);
+        final Map<Integer, Integer> lines = new HashMap<>();
+        for (int y = 0; y < paletteHeight; y++)
+        {
+            lines.putIfAbsent(Integer.valueOf(column[y]), Integer.valueOf(y));
+        }
 
-        for (int y = 0; y < height; y++)
+        final int[] shifts = new int[pixels.length];
+        forEachRow(width, height, y ->
         {
-            for (int x = 0; x < width; x++)
+            final int offset = y * width;
+            for (int x = offset; x < offset + width; x++)
             {
-                final int color = image.getRGB(x, y);
-                if ((color >> Constant.BYTE_4 & 0xFF) != 0)
+                final Integer line = lines.get(Integer.valueOf(pixels[x]));
+                if (line != null)
                 {
-                    final int currentOffset = (height - 1 - y) / offsets;
-                    final int paletteOffset = findPaletteOffset(palette, color);
-                    final int py = rasterHeight - 1 - rasterNumber - currentOffset * offsets - paletteOffset * 3;
-                    buffer.setRGB(x, y, raster.getRGB(0, UtilMath.clamp(py, 0, rasterHeight - 1)));
+                    shifts[x] = line.intValue() * 3;
                 }
             }
+        });
+        return shifts;
+    }
+
+    /**
+     * Get the image pixels as ARGB, row after row. Integer images are read from their raster as a copy, keeping them
+     * managed (accessing their data buffer directly would prevent their acceleration).
+     * 
+     * @param image The image reference.
+     * @return The image pixels.
+     */
+    private static int[] getPixels(BufferedImage image)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_ARGB)
+        {
+            return (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
         }
+        if (type == BufferedImage.TYPE_INT_RGB)
+        {
+            final int[] pixels = (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
+            forEachRow(width, height, y ->
+            {
+                final int offset = y * width;
+                for (int x = offset; x < offset + width; x++)
+                {
+                    pixels[x] |= OPAQUE;
+                }
+            });
+            return pixels;
+        }
+        return image.getRGB(0, 0, width, height, null, 0, width);
     }
 
     /**
-     * Find palette offset.
+     * Set the image pixels from ARGB, row after row. Integer images are written to their raster as a copy, keeping
+     * them managed.
      * 
-     * @param palette The palette reference.
-     * @param color The color to find.
-     * @return The palette offset.
+     * @param image The image reference.
+     * @param pixels The image pixels.
+     */
+    private static void setPixels(BufferedImage image, int[] pixels)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+        {
+            image.getRaster().setDataElements(0, 0, width, height, pixels);
+        }
+        else
+        {
+            image.setRGB(0, 0, width, height, pixels, 0, width);
+        }
+    }
+
+    /**
+     * Process each row, in parallel for large images.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @param row The row action, called with the row index.
      */
-    private static int findPaletteOffset(BufferedImage palette, int color)
+    private static void forEachRow(int width, int height, IntConsumer row)
     {
-        for (int y = 0; y < palette.getHeight(); y++)
+        if ((long) width * height >= PARALLEL_PIXELS)
+        {
+            IntStream.range(0, height).parallel().forEach(row);
+        }
+        else
         {
-            if (palette.getRGB(0, y) == color)
+            for (int y = 0; y < height; y++)
             {
-                return y;
+                row.accept(y);
             }
         }
-        return 0;
     }
 
     /**
@@ -852,4 +1063,57 @@ public final class ToolsAwt
     {
         throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
     }
+
+    /**
+     * Raster palette, with original colors on first line, and their raster colors on next lines.
+     */
+    private static final class RasterPalette
+    {
+        /** Palette column by original color. */
+        private final Map<Integer, Integer> columns = new HashMap<>();
+        /** Palette colors. */
+        private final int[] colors;
+        /** Palette width. */
+        private final int width;
+        /** Palette height. */
+        private final int height;
+
+        /**
+         * Create palette.
+         * 
+         * @param palette The palette image.
+         */
+        RasterPalette(BufferedImage palette)
+        {
+            super();
+
+            width = palette.getWidth();
+            height = palette.getHeight();
+            colors = palette.getRGB(0, 0, width, height, null, 0, width);
+            for (int p = 0; p < width; p++)
+            {
+                columns.putIfAbsent(Integer.valueOf(colors[p]), Integer.valueOf(p));
+            }
+        }
+
+        /**
+         * Find corresponding raster color from original one.
+         * 
+         * @param originalRgb The original color.
+         * @param rasterIndex The raster index to use.
+         * @return The associated raster color, original color if not in palette.
+         */
+        int find(int originalRgb, int rasterIndex)
+        {
+            if (rasterIndex + 1 < height)
+            {
+                final Integer column = columns.get(Integer.valueOf(originalRgb));
+                if (column != null)
+                {
+                    return colors[(rasterIndex + 1) * width + column.intValue()];
+                }
+            }
+            return originalRgb;
+        }
+    }
 }
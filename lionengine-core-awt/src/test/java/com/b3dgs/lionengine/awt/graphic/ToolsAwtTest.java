@@ -138,6 +138,50 @@ final class ToolsAwtTest
         assertEquals(image.getWidth(), copy.getWidth());
     }
 
+    /**
+     * Test raster buffer, with and without shared color indexes.
+     */
+    @Test
+    void testRasterBuffer()
+    {
+        final BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFF_FF_00_00);
+        image.setRGB(1, 0, 0xFF_00_FF_00);
+        image.setRGB(0, 1, 0x00_00_00_00);
+        image.setRGB(1, 1, 0xFF_FF_00_00);
+
+        final BufferedImage palette = new BufferedImage(1, 3, BufferedImage.TYPE_INT_ARGB);
+        palette.setRGB(0, 0, 0xFF_FF_00_00);
+        palette.setRGB(0, 1, 0xFF_00_00_FF);
+        palette.setRGB(0, 2, 0xFF_FF_FF_FF);
+
+        try
+        {
+            for (final ImageLoadStrategy strategy : ImageLoadStrategy.values())
+            {
+                ToolsAwt.setLoadStrategy(strategy);
+                final BufferedImage[] rasters = ToolsAwt.getRasterBuffer(image, palette);
+
+                assertEquals(2, rasters.length);
+                assertEquals(0xFF_00_00_FF, rasters[0].getRGB(0, 0));
+                assertEquals(0xFF_00_FF_00, rasters[0].getRGB(1, 0));
+                assertEquals(0, rasters[0].getRGB(0, 1) >>> Constant.BYTE_4);
+                assertEquals(0xFF_00_00_FF, rasters[0].getRGB(1, 1));
+                assertEquals(0xFF_FF_FF_FF, rasters[1].getRGB(0, 0));
+                assertEquals(0xFF_FF_FF_FF, rasters[1].getRGB(1, 1));
+            }
+            ToolsAwt.setLoadStrategy(ImageLoadStrategy.LOW_MEMORY);
+            final BufferedImage[] rasters = ToolsAwt.getRasterBuffer(image, palette);
+
+            assertEquals(BufferedImage.TYPE_BYTE_INDEXED, rasters[0].getType());
+            assertTrue(rasters[0].getRaster() == rasters[1].getRaster());
+        }
+        finally
+        {
+            ToolsAwt.setLoadStrategy(ImageLoadStrategy.FAST_RENDERING);
+        }
+    }
+
     /**
      * Test save.
      * 
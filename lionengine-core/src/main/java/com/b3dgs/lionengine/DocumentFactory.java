@@ -32,13 +32,13 @@ import org.xml.sax.SAXException;
 /**
  * Document factory implementation for DOM.
  * <p>
- * This class is Thread-Safe.
+ * This class is Thread-Safe. Each thread has its own document builder, so documents are parsed concurrently.
  * </p>
  */
 final class DocumentFactory
 {
-    /** Load factory. */
-    private static DocumentBuilder documentBuilder;
+    /** Load factory by thread (builder is not thread safe). */
+    private static volatile ThreadLocal<DocumentBuilder> documentBuilder;
     /** Save factory. */
     private static TransformerFactory transformerFactory;
 
@@ -61,7 +61,7 @@ final class DocumentFactory
      * @throws IOException If malformed document.
      * @throws LionEngineException If invalid argument or unable to create document.
      */
-    public static synchronized Document createDocument(InputStream input) throws IOException
+    public static Document createDocument(InputStream input) throws IOException
     {
         Check.notNull(input);
 
@@ -87,44 +87,79 @@ final class DocumentFactory
     }
 
     /**
-     * Get the document factory.
+     * Get the document factory of the current thread.
      * 
      * @return The document factory.
      * @throws LionEngineException If unable to create builder.
      */
-    private static synchronized DocumentBuilder getDocumentFactory()
+    private static DocumentBuilder getDocumentFactory()
     {
-        if (documentBuilder == null)
+        ThreadLocal<DocumentBuilder> builder = documentBuilder;
+        if (builder == null)
         {
-            final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            try
-            {
-                documentBuilderFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_DTD, "");
-            }
-            catch (final IllegalArgumentException exception)
+            synchronized (DocumentFactory.class)
             {
-                Verbose.exception(exception);
+                if (documentBuilder == null)
+                {
+                    final DocumentBuilderFactory factory = createDocumentBuilderFactory();
+                    documentBuilder = ThreadLocal.withInitial(() -> createDocumentBuilder(factory));
+                }
+                builder = documentBuilder;
             }
+        }
+        return builder.get();
+    }
+
+    /**
+     * Create a document builder.
+     * 
+     * @param factory The factory to use (shared by threads).
+     * @return The created document builder.
+     * @throws LionEngineException If unable to create builder.
+     */
+    private static DocumentBuilder createDocumentBuilder(DocumentBuilderFactory factory)
+    {
+        synchronized (factory)
+        {
             try
             {
-                documentBuilderFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-            }
-            catch (final IllegalArgumentException exception)
-            {
-                Verbose.exception(exception);
-            }
-            documentBuilderFactory.setIgnoringElementContentWhitespace(true);
-            try
-            {
-                documentBuilder = documentBuilderFactory.newDocumentBuilder();
-                documentBuilder.setErrorHandler(null);
+                final DocumentBuilder builder = factory.newDocumentBuilder();
+                builder.setErrorHandler(null);
+                return builder;
             }
             catch (final ParserConfigurationException exception)
             {
                 throw new LionEngineException(exception);
             }
         }
-        return documentBuilder;
+    }
+
+    /**
+     * Create the document builder factory.
+     * 
+     * @return The created document builder factory.
+     */
+    private static DocumentBuilderFactory createDocumentBuilderFactory()
+    {
+        final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        try
+        {
+            documentBuilderFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            Verbose.exception(exception);
+        }
+        try
+        {
+            documentBuilderFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            Verbose.exception(exception);
+        }
+        documentBuilderFactory.setIgnoringElementContentWhitespace(true);
+        return documentBuilderFactory;
     }
 
     /**
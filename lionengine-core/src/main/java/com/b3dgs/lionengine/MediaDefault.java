@@ -22,7 +22,9 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.regex.Pattern;
@@ -54,6 +56,31 @@ final class MediaDefault implements Media
     private static final String JAR_FILE_PREFIX = "file:";
     /** Jar file suffix. */
     private static final String JAR_FILE_SUFFIX = ".jar!";
+    /** Resources JAR by class (<code>null</code> if not loaded from a JAR). */
+    private static final ClassValue<File> JARS = new ClassValue<File>()
+    {
+        @Override
+        protected File computeValue(Class<?> type)
+        {
+            final CodeSource source = type.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null)
+            {
+                try
+                {
+                    final File file = new File(source.getLocation().toURI());
+                    if (file.isFile())
+                    {
+                        return file;
+                    }
+                }
+                catch (final URISyntaxException | IllegalArgumentException exception)
+                {
+                    Verbose.exception(exception);
+                }
+            }
+            return null;
+        }
+    };
 
     /**
      * Check if path exists.
@@ -217,6 +244,46 @@ final class MediaDefault implements Media
         }
     }
 
+    /**
+     * Get the media input stream from the resources JAR index.
+     * 
+     * @return The input stream, <code>null</code> if resources are not loaded from a JAR or media not found in it.
+     */
+    private InputStream getInputStreamFromIndex()
+    {
+        final File jar = JARS.get(resourcesClass);
+        if (jar != null)
+        {
+            final ZipIndex index = ZipIndex.get(jar);
+            final String entry = getResourceName();
+            if (index.exists(entry))
+            {
+                return index.getInputStream(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the resource name as resolved by {@link Class#getResource(String)}.
+     * 
+     * @return The resource name.
+     */
+    private String getResourceName()
+    {
+        final String resource = UtilFolder.getPathSeparator(separator, getPath());
+        if (resource.startsWith(Constant.SLASH))
+        {
+            return resource.substring(1);
+        }
+        final Package pack = resourcesClass.getPackage();
+        if (pack == null || pack.getName().isEmpty())
+        {
+            return resource;
+        }
+        return pack.getName().replace(Constant.DOT, Constant.SLASH) + Constant.SLASH + resource;
+    }
+
     /**
      * Get the absolute media path.
      * 
@@ -346,7 +413,7 @@ final class MediaDefault implements Media
      * <li>Resources directory</li>
      * <li>User directory</li>
      * <li>Temp directory</li>
-     * <li>JAR resources</li>
+     * <li>JAR resources, from the JAR index if resources class is loaded from a JAR</li>
      * </ul>
      */
     @Override
@@ -362,6 +429,11 @@ final class MediaDefault implements Media
         }
         else
         {
+            final InputStream indexed = getInputStreamFromIndex();
+            if (indexed != null)
+            {
+                return indexed;
+            }
             final InputStream i = resourcesClass.getResourceAsStream(UtilFolder.getPathSeparator(separator, getPath()));
             if (i != null)
             {
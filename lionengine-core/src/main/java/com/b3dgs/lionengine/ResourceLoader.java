@@ -16,9 +16,19 @@
  */
 package com.b3dgs.lionengine;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -31,12 +41,19 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Call {@link #await()} where resources must be loaded, and access to them with {@link #get()}.
  * </p>
  * <p>
+ * Resources are loaded one by one in the loader thread, or concurrently if created with an {@link Executor} (such as
+ * a fork-join pool). A resource added with dependencies is loaded only once all its dependencies have been loaded.
+ * Each loaded resource is notified to the {@link ResourceLoaderListener} from the loading thread, allowing progress
+ * report. Steps which must be performed on a specific thread, such as preparing a surface for rendering, can be set
+ * with {@link #setPrepare(Enum, Runnable)}, and are performed by {@link #update()} or {@link #await()}.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  * 
  * @param <T> The resource enum type.
  */
-public final class ResourceLoader<T extends Enum<T>>
+public final class ResourceLoader<T extends Enum<T>> implements Listenable<ResourceLoaderListener<T>>
 {
     /** Error started. */
     static final String ERROR_STARTED = "Resource loader already started !";
@@ -46,22 +63,55 @@ public final class ResourceLoader<T extends Enum<T>>
     static final String ERROR_NOT_FINISHED = "Resource loader has not finished !";
     /** Error load skipped. */
     static final String ERROR_SKIPPED = "Resource loader interrupted !";
+    /** Error resource not found. */
+    static final String ERROR_RESOURCE = "Resource not found: ";
+    /** Error cyclic dependencies. */
+    static final String ERROR_CYCLE = "Resource cyclic dependencies: ";
+    /** Error load failed. */
+    static final String ERROR_FAILED = "Resource loading failed: ";
 
     /** Handled resources. */
-    private final Map<T, Resource> resources = new HashMap<>();
+    private final Map<T, Resource> resources = new LinkedHashMap<>();
+    /** Resources dependencies. */
+    private final Map<T, Collection<T>> dependencies = new HashMap<>();
+    /** Resources prepare steps. */
+    private final Map<T, Runnable> prepares = new HashMap<>();
+    /** Prepare steps of loaded resources. */
+    private final Queue<Runnable> prepared = new ConcurrentLinkedQueue<>();
+    /** Listeners. */
+    private final List<ResourceLoaderListener<T>> listeners = new CopyOnWriteArrayList<>();
     /** Done. */
     private final AtomicBoolean done = new AtomicBoolean(false);
     /** Started. */
     private final AtomicBoolean started = new AtomicBoolean(false);
     /** Thread used. */
-    private final ResourceLoaderThread thread = new ResourceLoaderThread(resources);
+    private final ResourceLoaderThread thread = new ResourceLoaderThread();
+    /** Executor used to load resources. */
+    private final Executor executor;
+    /** Loading failure (<code>null</code> if none). */
+    private volatile LionEngineException failure;
 
     /**
-     * Create the resource loader.
+     * Create the resource loader. Resources are loaded one by one in the loader thread.
      */
     public ResourceLoader()
+    {
+        this(Runnable::run);
+    }
+
+    /**
+     * Create the resource loader. Resources are loaded with the executor, concurrently if supported.
+     * 
+     * @param executor The executor used to load resources (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ResourceLoader(Executor executor)
     {
         super();
+
+        Check.notNull(executor);
+
+        this.executor = executor;
     }
 
     /**
@@ -72,21 +122,56 @@ public final class ResourceLoader<T extends Enum<T>>
      * @throws LionEngineException If invalid arguments or loader has already been started.
      */
     public synchronized void add(T key, Resource resource)
+    {
+        add(key, resource, Collections.emptyList());
+    }
+
+    /**
+     * Add a resource to load after its dependencies. Must be called before {@link #start()}.
+     * 
+     * @param key The associated key (must not be <code>null</code>).
+     * @param resource The resource to load (must not be <code>null</code>).
+     * @param dependencies The resources keys to load before (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments or loader has already been started.
+     */
+    public synchronized void add(T key, Resource resource, Collection<T> dependencies)
     {
         Check.notNull(key);
         Check.notNull(resource);
+        Check.notNull(dependencies);
 
         if (started.get())
         {
             throw new LionEngineException(ERROR_STARTED);
         }
         resources.put(key, resource);
+        this.dependencies.put(key, new ArrayList<>(dependencies));
+    }
+
+    /**
+     * Set the step to perform once resource has been loaded, by the thread calling {@link #update()} or
+     * {@link #await()}, such as preparing a surface for rendering. Must be called before {@link #start()}.
+     * 
+     * @param key The associated key (must not be <code>null</code>).
+     * @param prepare The step to perform (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments or loader has already been started.
+     */
+    public synchronized void setPrepare(T key, Runnable prepare)
+    {
+        Check.notNull(key);
+        Check.notNull(prepare);
+
+        if (started.get())
+        {
+            throw new LionEngineException(ERROR_STARTED);
+        }
+        prepares.put(key, prepare);
     }
 
     /**
      * Start to load resources in a separate thread.
      * 
-     * @throws LionEngineException If loader has already been started.
+     * @throws LionEngineException If loader has already been started, or dependency not found or cyclic.
      */
     public synchronized void start()
     {
@@ -94,14 +179,30 @@ public final class ResourceLoader<T extends Enum<T>>
         {
             throw new LionEngineException(ERROR_STARTED);
         }
+        checkDependencies();
         started.set(true);
         thread.start();
     }
 
     /**
-     * Wait for load to finish. Can be called only if {@link #start()} were performed somewhere before.
+     * Perform the prepare steps of resources loaded so far. Should be called by the thread which must perform them,
+     * such as on each frame of a loading screen.
+     */
+    public void update()
+    {
+        Runnable prepare;
+        // CHECKSTYLE IGNORE LINE: InnerAssignment
+        while ((prepare = prepared.poll()) != null)
+        {
+            prepare.run();
+        }
+    }
+
+    /**
+     * Wait for load to finish, and perform remaining prepare steps. Can be called only if {@link #start()} were
+     * performed somewhere before.
      * 
-     * @throws LionEngineException If loading skipped or loader has not been started.
+     * @throws LionEngineException If loading skipped or failed, or loader has not been started.
      */
     public synchronized void await()
     {
@@ -122,6 +223,11 @@ public final class ResourceLoader<T extends Enum<T>>
         {
             done.set(true);
         }
+        if (failure != null)
+        {
+            throw failure;
+        }
+        update();
     }
 
     /**
@@ -150,23 +256,198 @@ public final class ResourceLoader<T extends Enum<T>>
     }
 
     /**
-     * Resource loader thread.
+     * Check that all dependencies exist and are not cyclic.
+     * 
+     * @throws LionEngineException If dependency not found or cyclic.
+     */
+    private void checkDependencies()
+    {
+        final Map<T, Integer> waiting = new HashMap<>();
+        final Map<T, List<T>> dependents = getDependents(waiting);
+        final List<T> ready = new ArrayList<>();
+        for (final Map.Entry<T, Integer> entry : waiting.entrySet())
+        {
+            if (entry.getValue().intValue() == 0)
+            {
+                ready.add(entry.getKey());
+            }
+        }
+        for (int i = 0; i < ready.size(); i++)
+        {
+            for (final T dependent : dependents.get(ready.get(i)))
+            {
+                final int count = waiting.get(dependent).intValue() - 1;
+                waiting.put(dependent, Integer.valueOf(count));
+                if (count == 0)
+                {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ready.size() < resources.size())
+        {
+            final Collection<T> cyclic = new ArrayList<>(resources.keySet());
+            cyclic.removeAll(ready);
+            throw new LionEngineException(ERROR_CYCLE + cyclic);
+        }
+    }
+
+    /**
+     * Get the dependents of each resource, and the number of dependencies of each resource.
+     * 
+     * @param waiting The number of dependencies by resource key, filled.
+     * @return The dependents by resource key.
+     * @throws LionEngineException If dependency not found.
+     */
+    private Map<T, List<T>> getDependents(Map<T, Integer> waiting)
+    {
+        final Map<T, List<T>> dependents = new HashMap<>();
+        for (final T key : resources.keySet())
+        {
+            dependents.put(key, new ArrayList<>());
+        }
+        for (final T key : resources.keySet())
+        {
+            final Collection<T> required = dependencies.get(key);
+            for (final T dependency : required)
+            {
+                final List<T> list = dependents.get(dependency);
+                if (list == null)
+                {
+                    throw new LionEngineException(ERROR_RESOURCE + dependency);
+                }
+                list.add(key);
+            }
+            waiting.put(key, Integer.valueOf(required.size()));
+        }
+        return dependents;
+    }
+
+    /*
+     * Listenable
      */
-    private static final class ResourceLoaderThread extends Thread
+
+    @Override
+    public void addListener(ResourceLoaderListener<T> listener)
     {
-        /** Handled resources. */
-        private final Map<?, Resource> resources;
+        Check.notNull(listener);
+
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ResourceLoaderListener<T> listener)
+    {
+        Check.notNull(listener);
+
+        listeners.remove(listener);
+    }
+
+    /**
+     * Loaded resource.
+     */
+    private final class Loaded
+    {
+        /** Resource key. */
+        private final T key;
+        /** Loading time in milliseconds. */
+        private final double time;
+        /** Loading error (<code>null</code> if none). */
+        private final RuntimeException exception;
 
         /**
-         * Create the resource loader.
+         * Create loaded resource.
          * 
-         * @param resources The resources to load (must not be <code>null</code>).
+         * @param key The resource key.
+         * @param time The loading time in milliseconds.
+         * @param exception The loading error (<code>null</code> if none).
          */
-        ResourceLoaderThread(Map<?, Resource> resources)
+        Loaded(T key, double time, RuntimeException exception)
+        {
+            super();
+
+            this.key = key;
+            this.time = time;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Resource loader thread. Schedules resources once their dependencies are loaded, and notifies progress.
+     */
+    private final class ResourceLoaderThread extends Thread
+    {
+        /** Loaded resources. */
+        private final BlockingQueue<Loaded> loaded = new LinkedBlockingQueue<>();
+
+        /**
+         * Create the resource loader.
+         */
+        ResourceLoaderThread()
         {
             super(ResourceLoaderThread.class.getName());
+        }
+
+        /**
+         * Load resource with executor. Rejected load is reported as a loading failure.
+         * 
+         * @param key The resource key.
+         */
+        private void load(T key)
+        {
+            try
+            {
+                execute(key, resources.get(key));
+            }
+            catch (final RuntimeException exception)
+            {
+                loaded.add(new Loaded(key, 0.0, exception));
+            }
+        }
 
-            this.resources = resources;
+        /**
+         * Execute resource loading.
+         * 
+         * @param key The resource key.
+         * @param resource The resource to load.
+         */
+        private void execute(T key, Resource resource)
+        {
+            executor.execute(() ->
+            {
+                final long start = System.nanoTime();
+                RuntimeException error = null;
+                try
+                {
+                    resource.load();
+                }
+                catch (final RuntimeException exception)
+                {
+                    error = exception;
+                }
+                loaded.add(new Loaded(key, (System.nanoTime() - start) / Constant.NANO_TO_MILLI, error));
+            });
+        }
+
+        /**
+         * Notify resource loaded.
+         * 
+         * @param key The resource key.
+         * @param time The loading time in milliseconds.
+         * @param count The number of loaded resources.
+         */
+        private void notifyLoaded(T key, double time, int count)
+        {
+            final Runnable prepare = prepares.get(key);
+            if (prepare != null)
+            {
+                prepared.add(prepare);
+            }
+            final int total = resources.size();
+            for (final ResourceLoaderListener<T> listener : listeners)
+            {
+                listener.notifyResourceLoaded(key, time, count, total);
+            }
         }
 
         /*
@@ -176,7 +457,47 @@ public final class ResourceLoader<T extends Enum<T>>
         @Override
         public void run()
         {
-            resources.values().forEach(Resource::load);
+            final Map<T, Integer> waiting = new HashMap<>();
+            final Map<T, List<T>> dependents = getDependents(waiting);
+            for (final T key : resources.keySet())
+            {
+                if (waiting.get(key).intValue() == 0)
+                {
+                    load(key);
+                }
+            }
+
+            final int total = resources.size();
+            int count = 0;
+            try
+            {
+                while (count < total)
+                {
+                    final Loaded current = loaded.take();
+                    if (current.exception != null)
+                    {
+                        failure = new LionEngineException(current.exception, ERROR_FAILED + current.key);
+                        break;
+                    }
+                    count++;
+                    notifyLoaded(current.key, current.time, count);
+
+                    for (final T dependent : dependents.get(current.key))
+                    {
+                        final int remaining = waiting.get(dependent).intValue() - 1;
+                        waiting.put(dependent, Integer.valueOf(remaining));
+                        if (remaining == 0)
+                        {
+                            load(dependent);
+                        }
+                    }
+                }
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                failure = new LionEngineException(exception, ERROR_SKIPPED);
+            }
         }
     }
 }
@@ -31,8 +31,8 @@ public final class UtilChecksum
 {
     /** Instance error message. */
     static final String ERROR_ALGORITHM = "Unable to create algorithm: ";
-    /** Message digest instance. */
-    private static final MessageDigest SHA512 = create("SHA-512");
+    /** Message digest instance by thread (digest is not thread safe). */
+    private static final ThreadLocal<MessageDigest> SHA512 = ThreadLocal.withInitial(() -> create("SHA-512"));
     /** Maximum length. */
     private static final int MAX_LENGTH = 178;
 
@@ -82,7 +82,7 @@ public final class UtilChecksum
         Check.notNull(bytes);
 
         final StringBuilder builder = new StringBuilder(MAX_LENGTH);
-        for (final byte b : SHA512.digest(bytes))
+        for (final byte b : SHA512.get().digest(bytes))
         {
             builder.append(0xFF & b);
         }
@@ -25,7 +25,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +49,20 @@ public final class UtilReflection
     static final String ERROR_FIELD = "Unable to access to the following field: ";
     /** Method error. */
     static final String ERROR_METHOD = "Unable to access to the following method: ";
+    /** Reduced constructors by type, then by parameters type. */
+    private static final ClassValue<Map<List<Class<?>>, ConstructorReduced>> REDUCED;
+
+    static
+    {
+        REDUCED = new ClassValue<Map<List<Class<?>>, ConstructorReduced>>()
+        {
+            @Override
+            protected Map<List<Class<?>>, ConstructorReduced> computeValue(Class<?> type)
+            {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
 
     /**
      * Create a class instance with its parameters.
@@ -70,7 +87,8 @@ public final class UtilReflection
 
     /**
      * Create a class instance with its parameters. Use a compatible constructor with the following parameters, reducing
-     * parameter types array as a queue until empty in order to find a constructor.
+     * parameter types array as a queue until empty in order to find a constructor. Constructor found is cached by type
+     * and parameter types.
      * 
      * @param <T> The element type used.
      * @param type The class type (must not be <code>null</code>).
@@ -86,8 +104,29 @@ public final class UtilReflection
         Check.notNull(params);
 
         final Class<?>[] paramTypes = getParamTypes(params);
+        final Map<List<Class<?>>, ConstructorReduced> reduced = REDUCED.get(type);
+        final List<Class<?>> key = Arrays.asList(paramTypes);
+        ConstructorReduced constructor = reduced.get(key);
+        if (constructor == null)
+        {
+            constructor = getReduced(type, paramTypes);
+            reduced.put(key, constructor);
+        }
+        return newInstance(type, (Constructor<T>) constructor.constructor, constructor.reduce(params));
+    }
+
+    /**
+     * Get a compatible constructor with the following parameters types, reducing parameter types array as a queue
+     * until empty in order to find a constructor.
+     * 
+     * @param type The class type.
+     * @param paramTypes The maximum parameters types in sequential order.
+     * @return The constructor found, with the number of parameters to skip.
+     * @throws NoSuchMethodException If no constructor found.
+     */
+    private static ConstructorReduced getReduced(Class<?> type, Class<?>[] paramTypes) throws NoSuchMethodException
+    {
         final Queue<Class<?>> typesQueue = new ArrayDeque<>(Arrays.asList(paramTypes));
-        final Queue<Object> paramsQueue = new ArrayDeque<>(Arrays.asList(params));
         boolean stop = false;
         while (!stop)
         {
@@ -99,13 +138,13 @@ public final class UtilReflection
                 if (constructorTypes.length == typesLength
                     && (typesLength == 0 || hasCompatibleConstructor(typesArray, constructorTypes)))
                 {
-                    return create(type, (Constructor<T>) constructor, paramsQueue.toArray());
+                    setAccessible(constructor, true);
+                    return new ConstructorReduced(constructor, paramTypes.length - typesLength);
                 }
             }
 
-            stop = paramsQueue.isEmpty();
+            stop = typesQueue.isEmpty();
             typesQueue.poll();
-            paramsQueue.poll();
         }
         throw new NoSuchMethodException(ERROR_NO_CONSTRUCTOR_COMPATIBLE
                                         + type.getName()
@@ -271,9 +310,24 @@ public final class UtilReflection
         Check.notNull(constructor);
         Check.notNull(params);
 
+        setAccessible(constructor, true);
+        return newInstance(type, constructor, params);
+    }
+
+    /**
+     * Create a class instance with its parameters from an accessible constructor.
+     * 
+     * @param <T> The element type used.
+     * @param type The class type to instantiate.
+     * @param constructor The accessible constructor to use.
+     * @param params The constructor parameters.
+     * @return The class instance.
+     * @throws LionEngineException If unable to create the instance.
+     */
+    private static <T> T newInstance(Class<T> type, Constructor<T> constructor, Object... params)
+    {
         try
         {
-            setAccessible(constructor, true);
             return constructor.newInstance(params);
         }
         catch (final IllegalArgumentException exception)
@@ -384,4 +438,44 @@ public final class UtilReflection
     {
         throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
     }
+
+    /**
+     * Constructor found by parameters reduction.
+     */
+    private static final class ConstructorReduced
+    {
+        /** Constructor reference. */
+        private final Constructor<?> constructor;
+        /** Number of first parameters to skip. */
+        private final int skip;
+
+        /**
+         * Create reduced constructor.
+         * 
+         * @param constructor The constructor reference.
+         * @param skip The number of first parameters to skip.
+         */
+        ConstructorReduced(Constructor<?> constructor, int skip)
+        {
+            super();
+
+            this.constructor = constructor;
+            this.skip = skip;
+        }
+
+        /**
+         * Get the constructor parameters.
+         * 
+         * @param params The maximum parameters in sequential order.
+         * @return The constructor parameters.
+         */
+        Object[] reduce(Object... params)
+        {
+            if (skip == 0)
+            {
+                return params;
+            }
+            return Arrays.copyOfRange(params, skip, params.length);
+        }
+    }
 }
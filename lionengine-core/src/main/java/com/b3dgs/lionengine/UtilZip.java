@@ -17,17 +17,13 @@
 package com.b3dgs.lionengine;
 
 import java.io.File;
-import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 /**
- * Tools related to ZIP handling.
+ * Tools related to ZIP handling. Entries are read from the shared {@link ZipIndex}.
  * <p>
  * This class is Thread-Safe.
  * </p>
@@ -64,42 +60,20 @@ public final class UtilZip
         Check.notNull(jar);
         Check.notNull(path);
 
-        try (ZipFile zip = new ZipFile(URLDecoder.decode(jar.getAbsolutePath(), "UTF-8")
-                                                 .replaceAll("\\s", Constant.SPACE),
-                                       StandardCharsets.UTF_8))
+        final File zip;
+        try
         {
-            return checkEntries(zip, path, extension);
+            zip = new File(URLDecoder.decode(jar.getAbsolutePath(), "UTF-8").replaceAll("\\s", Constant.SPACE));
         }
-        catch (final IOException exception)
+        catch (final UnsupportedEncodingException exception)
         {
             throw new LionEngineException(exception, ERROR_OPEN_ZIP + jar.getAbsolutePath());
         }
-    }
-
-    /**
-     * Check all entries existing in the ZIP considering the extension.
-     * 
-     * @param zip The ZIP to check.
-     * @param path The path to check.
-     * @param extension The extension (without dot; eg: xml).
-     * @return The entries list.
-     */
-    private static Collection<ZipEntry> checkEntries(ZipFile zip, String path, String extension)
-    {
-        final Collection<ZipEntry> entries = new ArrayList<>();
-        final Enumeration<? extends ZipEntry> zipEntries = zip.entries();
-        while (zipEntries.hasMoreElements())
+        if (!zip.isFile())
         {
-            final ZipEntry entry = zipEntries.nextElement();
-            final String name = entry.getName();
-            if (name.startsWith(path)
-                && !name.endsWith(Constant.SLASH)
-                && (extension == null || UtilFile.getExtension(name).equals(extension)))
-            {
-                entries.add(entry);
-            }
+            throw new LionEngineException(ERROR_OPEN_ZIP + jar.getAbsolutePath());
         }
-        return entries;
+        return ZipIndex.get(zip).getEntries(path, extension);
     }
 
     /**
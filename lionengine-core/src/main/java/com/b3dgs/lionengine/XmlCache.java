@@ -0,0 +1,479 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Compiled XML cache, allowing to read XML medias without parsing them.
+ * <p>
+ * XML medias are compiled once with {@link #compile(Media, Collection)} to a binary cache file, storing each node
+ * tree by media path, with the checksum of its XML content. Once the cache file loaded with {@link #load(Media)}, an
+ * {@link XmlReader} created from a cached media builds its document from the compiled node tree instead of parsing it.
+ * </p>
+ * <p>
+ * A cached media is validated by its size and date if unchanged since compilation, read from its file, or from its
+ * resource (such as a JAR entry) if not a file. Media without date is validated by the checksum of its content. A
+ * modified XML media is then simply parsed again until the cache is compiled again.
+ * </p>
+ * <p>
+ * Usage example:
+ * </p>
+ * 
+ * <pre>
+ * // Build step
+ * XmlCache.compile(Medias.create("objects.cache"), Medias.getByExtension("xml", Medias.create("objects")));
+ * // Start-up
+ * XmlCache.load(Medias.create("objects.cache"));
+ * </pre>
+ * 
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ * 
+ * @see UtilChecksum
+ */
+public final class XmlCache
+{
+    /** Invalid cache error. */
+    static final String ERROR_CACHE = "Invalid XML cache: ";
+    /** Cache file magic. */
+    private static final int MAGIC = 0x4C45_5843;
+    /** Cache file version. */
+    private static final int VERSION = 1;
+    /** No file stamp. */
+    private static final long NO_STAMP = -1L;
+    /** Element node. */
+    private static final byte ELEMENT = 0;
+    /** Text node. */
+    private static final byte TEXT = 1;
+    /** CDATA node. */
+    private static final byte CDATA = 2;
+    /** Comment node. */
+    private static final byte COMMENT = 3;
+
+    /** Compiled XML by media path (empty if not loaded). */
+    private static volatile Map<String, Compiled> compiled = Collections.emptyMap();
+
+    /**
+     * Compile XML medias to a cache file. Medias which cannot be compiled are skipped, and will be parsed.
+     * 
+     * @param cache The cache file (must not be <code>null</code>).
+     * @param medias The XML medias to compile (must not be <code>null</code>).
+     * @return The number of compiled medias.
+     * @throws LionEngineException If invalid arguments, unable to read a media or to write the cache file.
+     */
+    public static int compile(Media cache, Collection<Media> medias)
+    {
+        Check.notNull(cache);
+        Check.notNull(medias);
+
+        final Map<String, Compiled> trees = new HashMap<>();
+        for (final Media media : medias)
+        {
+            final byte[] content = read(media);
+            try
+            {
+                final Document document = DocumentFactory.createDocument(new ByteArrayInputStream(content));
+                final ByteArrayOutputStream tree = new ByteArrayOutputStream();
+                try (DataOutputStream output = new DataOutputStream(tree))
+                {
+                    if (writeNode(output, document.getDocumentElement()))
+                    {
+                        trees.put(media.getPath(),
+                                  new Compiled(getStamp(media), UtilChecksum.getSha(content), tree.toByteArray()));
+                    }
+                }
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, media, XmlReader.ERROR_READING);
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(cache.getOutputStream()))
+        {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(trees.size());
+            for (final Map.Entry<String, Compiled> entry : trees.entrySet())
+            {
+                final Compiled tree = entry.getValue();
+                writeString(output, entry.getKey());
+                output.writeLong(tree.stamp);
+                writeString(output, tree.checksum);
+                output.writeInt(tree.tree.length);
+                output.write(tree.tree);
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, cache, ERROR_CACHE);
+        }
+        return trees.size();
+    }
+
+    /**
+     * Load a cache file previously compiled, replacing current one.
+     * 
+     * @param cache The cache file (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument or invalid cache file.
+     */
+    public static void load(Media cache)
+    {
+        Check.notNull(cache);
+
+        try (DataInputStream input = new DataInputStream(cache.getInputStream()))
+        {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION)
+            {
+                throw new LionEngineException(cache, ERROR_CACHE);
+            }
+            final int count = input.readInt();
+            final Map<String, Compiled> trees = new HashMap<>(count);
+            for (int i = 0; i < count; i++)
+            {
+                final String path = readString(input);
+                final long stamp = input.readLong();
+                final String checksum = readString(input);
+                final byte[] tree = new byte[input.readInt()];
+                input.readFully(tree);
+                trees.put(path, new Compiled(stamp, checksum, tree));
+            }
+            compiled = trees;
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, cache, ERROR_CACHE);
+        }
+    }
+
+    /**
+     * Clear loaded cache. XML medias are parsed again.
+     */
+    public static void clear()
+    {
+        compiled = Collections.emptyMap();
+    }
+
+    /**
+     * Get the number of compiled XML loaded.
+     * 
+     * @return The number of compiled XML.
+     */
+    public static int getCount()
+    {
+        return compiled.size();
+    }
+
+    /**
+     * Create a document from a media, built from its compiled node tree if cached and valid, parsed else.
+     * 
+     * @param media The XML media.
+     * @return The created document.
+     * @throws IOException If malformed document.
+     * @throws LionEngineException If unable to read media.
+     */
+    static Document createDocument(Media media) throws IOException
+    {
+        final Map<String, Compiled> trees = compiled;
+        final Compiled tree;
+        if (trees.isEmpty())
+        {
+            tree = null;
+        }
+        else
+        {
+            tree = trees.get(media.getPath());
+        }
+        if (tree == null)
+        {
+            try (InputStream input = media.getInputStream())
+            {
+                return DocumentFactory.createDocument(input);
+            }
+        }
+
+        final long stamp = getStamp(media);
+        if (stamp == NO_STAMP || stamp != tree.stamp)
+        {
+            final byte[] content = read(media);
+            if (!UtilChecksum.getSha(content).equals(tree.checksum))
+            {
+                return DocumentFactory.createDocument(new ByteArrayInputStream(content));
+            }
+        }
+
+        final Document document = DocumentFactory.createDocument();
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(tree.tree)))
+        {
+            document.appendChild(readNode(data, document));
+        }
+        return document;
+    }
+
+    /**
+     * Get the media stamp, from its file, or from its resource if not a file.
+     * 
+     * @param media The media reference.
+     * @return The media stamp, {@link #NO_STAMP} if no date available.
+     */
+    private static long getStamp(Media media)
+    {
+        final File file = media.getFile();
+        if (file != null && file.isFile())
+        {
+            return file.lastModified() * 31L + file.length();
+        }
+        try
+        {
+            final URL url = media.getUrl();
+            if (url != null)
+            {
+                final URLConnection connection = url.openConnection();
+                final long modified = connection.getLastModified();
+                if (modified > 0L)
+                {
+                    return modified * 31L + connection.getContentLengthLong();
+                }
+            }
+        }
+        catch (final IOException | LionEngineException exception)
+        {
+            Verbose.exception(exception);
+        }
+        return NO_STAMP;
+    }
+
+    /**
+     * Read media content.
+     * 
+     * @param media The media to read.
+     * @return The media content.
+     * @throws LionEngineException If unable to read media.
+     */
+    private static byte[] read(Media media)
+    {
+        try (InputStream input = media.getInputStream())
+        {
+            return read(input);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, media, XmlReader.ERROR_READING);
+        }
+    }
+
+    /**
+     * Read input content.
+     * 
+     * @param input The input to read.
+     * @return The input content.
+     * @throws IOException If unable to read input.
+     */
+    private static byte[] read(InputStream input) throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        UtilStream.copy(input, content);
+        return content.toByteArray();
+    }
+
+    /**
+     * Write node tree.
+     * 
+     * @param output The output stream.
+     * @param node The node to write.
+     * @return <code>true</code> if written, <code>false</code> if node cannot be compiled.
+     * @throws IOException If error on writing.
+     */
+    private static boolean writeNode(DataOutputStream output, Node node) throws IOException
+    {
+        final short type = node.getNodeType();
+        if (type == Node.ELEMENT_NODE)
+        {
+            output.writeByte(ELEMENT);
+            writeString(output, node.getNodeName());
+
+            final NamedNodeMap attributes = node.getAttributes();
+            final int attributesCount = attributes.getLength();
+            output.writeInt(attributesCount);
+            for (int i = 0; i < attributesCount; i++)
+            {
+                final Node attribute = attributes.item(i);
+                writeString(output, attribute.getNodeName());
+                writeString(output, attribute.getNodeValue());
+            }
+
+            final NodeList children = node.getChildNodes();
+            final int childrenCount = children.getLength();
+            output.writeInt(childrenCount);
+            for (int i = 0; i < childrenCount; i++)
+            {
+                if (!writeNode(output, children.item(i)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (type == Node.TEXT_NODE)
+        {
+            output.writeByte(TEXT);
+        }
+        else if (type == Node.CDATA_SECTION_NODE)
+        {
+            output.writeByte(CDATA);
+        }
+        else if (type == Node.COMMENT_NODE)
+        {
+            output.writeByte(COMMENT);
+        }
+        else
+        {
+            return false;
+        }
+        writeString(output, node.getNodeValue());
+        return true;
+    }
+
+    /**
+     * Read node tree.
+     * 
+     * @param input The input stream.
+     * @param document The document owner.
+     * @return The read node.
+     * @throws IOException If error on reading.
+     */
+    private static Node readNode(DataInputStream input, Document document) throws IOException
+    {
+        final byte type = input.readByte();
+        if (type == ELEMENT)
+        {
+            final Element element = document.createElement(readString(input));
+
+            final int attributesCount = input.readInt();
+            for (int i = 0; i < attributesCount; i++)
+            {
+                element.setAttribute(readString(input), readString(input));
+            }
+
+            final int childrenCount = input.readInt();
+            for (int i = 0; i < childrenCount; i++)
+            {
+                element.appendChild(readNode(input, document));
+            }
+            return element;
+        }
+        if (type == TEXT)
+        {
+            return document.createTextNode(readString(input));
+        }
+        if (type == CDATA)
+        {
+            return document.createCDATASection(readString(input));
+        }
+        if (type == COMMENT)
+        {
+            return document.createComment(readString(input));
+        }
+        throw new IOException(ERROR_CACHE + type);
+    }
+
+    /**
+     * Write string of any length.
+     * 
+     * @param output The output stream.
+     * @param value The string to write.
+     * @throws IOException If error on writing.
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException
+    {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Read string of any length.
+     * 
+     * @param input The input stream.
+     * @return The read string.
+     * @throws IOException If error on reading.
+     */
+    private static String readString(DataInputStream input) throws IOException
+    {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compiled XML.
+     */
+    private static final class Compiled
+    {
+        /** Media file stamp. */
+        private final long stamp;
+        /** Media content checksum. */
+        private final String checksum;
+        /** Node tree. */
+        private final byte[] tree;
+
+        /**
+         * Create compiled XML.
+         * 
+         * @param stamp The media file stamp.
+         * @param checksum The media content checksum.
+         * @param tree The node tree.
+         */
+        Compiled(long stamp, String checksum, byte[] tree)
+        {
+            super();
+
+            this.stamp = stamp;
+            this.checksum = checksum;
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private XmlCache()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
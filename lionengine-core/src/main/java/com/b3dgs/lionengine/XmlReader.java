@@ -17,7 +17,6 @@
 package com.b3dgs.lionengine;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -75,7 +74,7 @@ public class XmlReader implements AttributesReader
     protected final Element root;
 
     /**
-     * Create node from media.
+     * Create node from media. Built from {@link XmlCache} if compiled, parsed else.
      * 
      * @param media The XML media path (must not be <code>null</code>).
      * @throws LionEngineException If invalid argument or error when loading media.
@@ -86,9 +85,9 @@ public class XmlReader implements AttributesReader
 
         Check.notNull(media);
 
-        try (InputStream input = media.getInputStream())
+        try
         {
-            document = DocumentFactory.createDocument(input);
+            document = XmlCache.createDocument(media);
             root = document.getDocumentElement();
         }
         catch (final IOException exception)
@@ -0,0 +1,634 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * In memory index of a ZIP content, built once per file and shared until the file changes.
+ * <p>
+ * Entries are indexed by path and by extension, so listing a folder is a range lookup instead of a full ZIP scan. If
+ * enabled with {@link #setMapped(boolean)}, the ZIP is memory mapped and stored (not compressed) entries are read
+ * directly from the mapping.
+ * </p>
+ * <p>
+ * File change is checked at most once per check delay (see {@link #setCheckDelay(long)}). The ZIP of a changed file
+ * index is closed once all its opened entries streams are closed.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+public final class ZipIndex
+{
+    /** Default file change check delay in milli. */
+    public static final long DEFAULT_CHECK_DELAY = 1000L;
+    /** Error entry not found. */
+    static final String ERROR_ENTRY = "ZIP entry not found: ";
+    /** End of central directory signature. */
+    private static final int END_SIGNATURE = 0x06054B50;
+    /** End of central directory length. */
+    private static final int END_LENGTH = 22;
+    /** End of central directory entries count offset. */
+    private static final int END_COUNT = 10;
+    /** End of central directory offset offset. */
+    private static final int END_OFFSET = 16;
+    /** Central header signature. */
+    private static final int CENTRAL_SIGNATURE = 0x02014B50;
+    /** Central header length. */
+    private static final int CENTRAL_LENGTH = 46;
+    /** Central header method offset. */
+    private static final int CENTRAL_METHOD = 10;
+    /** Central header compressed size offset. */
+    private static final int CENTRAL_SIZE = 20;
+    /** Central header name length offset. */
+    private static final int CENTRAL_NAME = 28;
+    /** Central header extra length offset. */
+    private static final int CENTRAL_EXTRA = 30;
+    /** Central header comment length offset. */
+    private static final int CENTRAL_COMMENT = 32;
+    /** Central header local header offset. */
+    private static final int CENTRAL_LOCAL = 42;
+    /** Local header signature. */
+    private static final int LOCAL_SIGNATURE = 0x04034B50;
+    /** Local header length. */
+    private static final int LOCAL_LENGTH = 30;
+    /** Local header name length offset. */
+    private static final int LOCAL_NAME = 26;
+    /** Local header extra length offset. */
+    private static final int LOCAL_EXTRA = 28;
+    /** Maximum comment length. */
+    private static final int COMMENT_MAX = 0xFFFF;
+    /** Unsigned byte mask. */
+    private static final int MASK_BYTE = 0xFF;
+    /** Unsigned short mask. */
+    private static final int MASK_SHORT = 0xFFFF;
+    /** Unsigned int mask. */
+    private static final long MASK_INT = 0xFFFFFFFFL;
+    /** Indexes by file. */
+    private static final Map<File, ZipIndex> INDEXES = new ConcurrentHashMap<>();
+    /** Memory mapping flag. */
+    private static boolean mapped;
+    /** File change check delay in nano. */
+    private static volatile long checkDelay = DEFAULT_CHECK_DELAY * (long) Constant.NANO_TO_MILLI;
+
+    /**
+     * Get the index of a ZIP, built if not indexed or if file has changed since last check.
+     * 
+     * @param zip The ZIP file (must not be <code>null</code>).
+     * @return The ZIP index.
+     * @throws LionEngineException If invalid argument or unable to read ZIP.
+     */
+    public static ZipIndex get(File zip)
+    {
+        Check.notNull(zip);
+
+        final File file = zip.getAbsoluteFile();
+        final ZipIndex index = INDEXES.get(file);
+        if (index != null && System.nanoTime() - index.checked < checkDelay)
+        {
+            return index;
+        }
+        return check(file);
+    }
+
+    /**
+     * Set the file change check delay. File is not checked again before delay elapsed since last check.
+     * 
+     * @param delay The check delay in milli, <code>0</code> to check on each access (must be positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public static void setCheckDelay(long delay)
+    {
+        Check.superiorOrEqual(delay, 0);
+
+        checkDelay = delay * (long) Constant.NANO_TO_MILLI;
+    }
+
+    /**
+     * Enable or disable memory mapping of indexed ZIP. Applies to indexes built after this call, use {@link #clear()}
+     * to rebuild existing ones. Disabled by default.
+     * 
+     * @param mapped <code>true</code> to read stored entries from a memory mapping, <code>false</code> else.
+     */
+    public static synchronized void setMapped(boolean mapped)
+    {
+        ZipIndex.mapped = mapped;
+    }
+
+    /**
+     * Remove all indexes and close their ZIP once their opened entries streams are closed.
+     */
+    public static synchronized void clear()
+    {
+        INDEXES.values().forEach(ZipIndex::close);
+        INDEXES.clear();
+    }
+
+    /**
+     * Check file index, built if not indexed or if file has changed.
+     * 
+     * @param file The absolute ZIP file.
+     * @return The ZIP index.
+     * @throws LionEngineException If unable to read ZIP.
+     */
+    private static synchronized ZipIndex check(File file)
+    {
+        final long now = System.nanoTime();
+        final long stamp = file.lastModified() * 31L + file.length();
+        final ZipIndex index = INDEXES.get(file);
+        if (index != null && index.stamp == stamp)
+        {
+            index.checked = now;
+            return index;
+        }
+        if (index != null)
+        {
+            index.close();
+        }
+        try
+        {
+            final ZipIndex created = new ZipIndex(file, stamp, mapped);
+            created.checked = now;
+            INDEXES.put(file, created);
+            return created;
+        }
+        catch (final IOException exception)
+        {
+            INDEXES.remove(file);
+            throw new LionEngineException(exception, UtilZip.ERROR_OPEN_ZIP + file.getPath());
+        }
+    }
+
+    /**
+     * Read an unsigned short.
+     * 
+     * @param buffer The buffer to read.
+     * @param index The absolute index.
+     * @return The read value.
+     */
+    private static int getShort(ByteBuffer buffer, int index)
+    {
+        return buffer.getShort(index) & MASK_SHORT;
+    }
+
+    /**
+     * Read an unsigned int.
+     * 
+     * @param buffer The buffer to read.
+     * @param index The absolute index.
+     * @return The read value.
+     */
+    private static long getInt(ByteBuffer buffer, int index)
+    {
+        return buffer.getInt(index) & MASK_INT;
+    }
+
+    /**
+     * Find the end of central directory record.
+     * 
+     * @param buffer The ZIP buffer.
+     * @return The record index, <code>-1</code> if not found.
+     */
+    private static int findEnd(ByteBuffer buffer)
+    {
+        final int last = buffer.limit() - END_LENGTH;
+        final int first = Math.max(0, last - COMMENT_MAX);
+        for (int i = last; i >= first; i--)
+        {
+            if (buffer.getInt(i) == END_SIGNATURE)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get entries in path range.
+     * 
+     * @param files The files by path.
+     * @param path The path prefix.
+     * @return The entries found.
+     */
+    private static Collection<ZipEntry> getEntries(NavigableMap<String, ZipEntry> files, String path)
+    {
+        return new ArrayList<>(files.subMap(path, true, path + Character.MAX_VALUE, false).values());
+    }
+
+    /** Files by path. */
+    private final NavigableMap<String, ZipEntry> entries = new TreeMap<>();
+    /** Files by extension then by path. */
+    private final Map<String, NavigableMap<String, ZipEntry>> extensions = new HashMap<>();
+    /** Mapped stored entries by path. */
+    private final Map<String, ByteBuffer> stored = new HashMap<>();
+    /** Indexed file. */
+    private final File file;
+    /** File stamp. */
+    private final long stamp;
+    /** Opened ZIP for compressed entries (<code>null</code> if not opened). */
+    private ZipFile zip;
+    /** Opened entries streams count. */
+    private int streams;
+    /** Closed flag, opened ZIP is closed once all streams are closed. */
+    private boolean closed;
+    /** Last file check time in nano. */
+    private volatile long checked;
+
+    /**
+     * Create index.
+     * 
+     * @param file The ZIP file.
+     * @param stamp The file stamp.
+     * @param mapped <code>true</code> to map stored entries, <code>false</code> else.
+     * @throws IOException If unable to read ZIP.
+     */
+    private ZipIndex(File file, long stamp, boolean mapped) throws IOException
+    {
+        super();
+
+        this.file = file;
+        this.stamp = stamp;
+
+        try (ZipFile current = new ZipFile(file, StandardCharsets.UTF_8))
+        {
+            final Enumeration<? extends ZipEntry> all = current.entries();
+            while (all.hasMoreElements())
+            {
+                final ZipEntry entry = all.nextElement();
+                final String name = entry.getName();
+                if (!name.endsWith(Constant.SLASH))
+                {
+                    entries.put(name, entry);
+                    extensions.computeIfAbsent(UtilFile.getExtension(name), e -> new TreeMap<>()).put(name, entry);
+                }
+            }
+        }
+        if (mapped)
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                if (channel.size() <= Integer.MAX_VALUE)
+                {
+                    final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    mapStored(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get all files existing in the path, including sub folders.
+     * 
+     * @param path The path prefix (must not be <code>null</code>).
+     * @return The entries found.
+     * @throws LionEngineException If invalid argument.
+     */
+    public Collection<ZipEntry> getEntries(String path)
+    {
+        Check.notNull(path);
+
+        return getEntries(entries, path);
+    }
+
+    /**
+     * Get all files existing in the path considering the extension, including sub folders.
+     * 
+     * @param path The path prefix (must not be <code>null</code>).
+     * @param extension The extension without dot; eg: xml (can be <code>null</code> to ignore).
+     * @return The entries found.
+     * @throws LionEngineException If invalid argument.
+     */
+    public Collection<ZipEntry> getEntries(String path, String extension)
+    {
+        Check.notNull(path);
+
+        if (extension == null)
+        {
+            return getEntries(entries, path);
+        }
+        final NavigableMap<String, ZipEntry> files = extensions.get(extension);
+        if (files == null)
+        {
+            return Collections.emptyList();
+        }
+        return getEntries(files, path);
+    }
+
+    /**
+     * Check if file exists.
+     * 
+     * @param name The file path (must not be <code>null</code>).
+     * @return <code>true</code> if exists, <code>false</code> else.
+     * @throws LionEngineException If invalid argument.
+     */
+    public boolean exists(String name)
+    {
+        Check.notNull(name);
+
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Get file input stream. Stored entries are read from memory mapping if enabled.
+     * 
+     * @param name The file path (must not be <code>null</code>).
+     * @return The input stream.
+     * @throws LionEngineException If invalid argument, entry not found or unable to read ZIP.
+     */
+    public InputStream getInputStream(String name)
+    {
+        Check.notNull(name);
+
+        final ByteBuffer buffer = stored.get(name);
+        if (buffer != null)
+        {
+            return new BufferInputStream(buffer.duplicate());
+        }
+        final ZipEntry entry = entries.get(name);
+        if (entry == null)
+        {
+            throw new LionEngineException(ERROR_ENTRY + name);
+        }
+        try
+        {
+            return open(entry);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, UtilZip.ERROR_OPEN_ZIP + file.getPath());
+        }
+    }
+
+    /**
+     * Check if file is read from memory mapping.
+     * 
+     * @param name The file path (must not be <code>null</code>).
+     * @return <code>true</code> if mapped, <code>false</code> else.
+     * @throws LionEngineException If invalid argument.
+     */
+    public boolean isMapped(String name)
+    {
+        Check.notNull(name);
+
+        return stored.containsKey(name);
+    }
+
+    /**
+     * Open entry stream from opened ZIP.
+     * 
+     * @param entry The entry to open.
+     * @return The entry stream.
+     * @throws IOException If unable to open ZIP.
+     */
+    private synchronized InputStream open(ZipEntry entry) throws IOException
+    {
+        if (zip == null)
+        {
+            zip = new ZipFile(file, StandardCharsets.UTF_8);
+        }
+        final InputStream input = new EntryInputStream(zip.getInputStream(entry));
+        streams++;
+        return input;
+    }
+
+    /**
+     * Release a closed entry stream. Opened ZIP is closed if index is closed and no more streams are opened.
+     */
+    private synchronized void release()
+    {
+        streams--;
+        if (closed && streams == 0)
+        {
+            closeZip();
+        }
+    }
+
+    /**
+     * Close index. Opened ZIP is closed once all streams are closed.
+     */
+    private synchronized void close()
+    {
+        closed = true;
+        if (streams == 0)
+        {
+            closeZip();
+        }
+    }
+
+    /**
+     * Close opened ZIP.
+     */
+    private void closeZip()
+    {
+        if (zip != null)
+        {
+            try
+            {
+                zip.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+            zip = null;
+        }
+    }
+
+    /**
+     * Reference stored entries data from central directory. Entries which cannot be located (such as ZIP64) are left
+     * to {@link ZipFile}.
+     * 
+     * @param buffer The mapped ZIP.
+     */
+    private void mapStored(ByteBuffer buffer)
+    {
+        final int end = findEnd(buffer);
+        if (end < 0)
+        {
+            return;
+        }
+        final int count = getShort(buffer, end + END_COUNT);
+        long offset = getInt(buffer, end + END_OFFSET);
+        for (int i = 0; i < count && offset + CENTRAL_LENGTH <= buffer.limit(); i++)
+        {
+            final int header = (int) offset;
+            if (buffer.getInt(header) != CENTRAL_SIGNATURE)
+            {
+                return;
+            }
+            final int nameLength = getShort(buffer, header + CENTRAL_NAME);
+            final byte[] bytes = new byte[nameLength];
+            final ByteBuffer name = buffer.duplicate();
+            name.position(header + CENTRAL_LENGTH);
+            name.get(bytes);
+
+            if (getShort(buffer, header + CENTRAL_METHOD) == ZipEntry.STORED)
+            {
+                mapEntry(buffer,
+                         new String(bytes, StandardCharsets.UTF_8),
+                         getInt(buffer, header + CENTRAL_LOCAL),
+                         getInt(buffer, header + CENTRAL_SIZE));
+            }
+            offset += CENTRAL_LENGTH
+                      + nameLength
+                      + getShort(buffer, header + CENTRAL_EXTRA)
+                      + getShort(buffer, header + CENTRAL_COMMENT);
+        }
+    }
+
+    /**
+     * Reference stored entry data if located inside buffer.
+     * 
+     * @param buffer The mapped ZIP.
+     * @param name The entry name.
+     * @param local The local header offset.
+     * @param size The entry size.
+     */
+    private void mapEntry(ByteBuffer buffer, String name, long local, long size)
+    {
+        if (entries.containsKey(name)
+            && local + LOCAL_LENGTH <= buffer.limit()
+            && buffer.getInt((int) local) == LOCAL_SIGNATURE)
+        {
+            final long data = local
+                              + LOCAL_LENGTH
+                              + getShort(buffer, (int) local + LOCAL_NAME)
+                              + getShort(buffer, (int) local + LOCAL_EXTRA);
+            if (data + size <= buffer.limit())
+            {
+                final ByteBuffer slice = buffer.duplicate();
+                slice.position((int) data);
+                slice.limit((int) (data + size));
+                stored.put(name, slice.slice().asReadOnlyBuffer());
+            }
+        }
+    }
+
+    /**
+     * Entry input stream, releasing its index on close.
+     */
+    private final class EntryInputStream extends FilterInputStream
+    {
+        /** Released flag. */
+        private boolean released;
+
+        /**
+         * Create stream.
+         * 
+         * @param input The entry stream.
+         */
+        EntryInputStream(InputStream input)
+        {
+            super(input);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try
+            {
+                super.close();
+            }
+            finally
+            {
+                if (!released)
+                {
+                    released = true;
+                    release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Input stream reading a buffer.
+     */
+    private static final class BufferInputStream extends InputStream
+    {
+        /** Buffer read. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Create stream.
+         * 
+         * @param buffer The buffer to read.
+         */
+        BufferInputStream(ByteBuffer buffer)
+        {
+            super();
+
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            if (buffer.hasRemaining())
+            {
+                return buffer.get() & MASK_BYTE;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        {
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+            final int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n)
+        {
+            final int skipped = (int) Math.max(0L, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available()
+        {
+            return buffer.remaining();
+        }
+    }
+}
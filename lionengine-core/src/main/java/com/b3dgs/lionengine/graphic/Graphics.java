@@ -31,15 +31,28 @@ public final class Graphics
 {
     /** Factory graphic implementation. */
     private static volatile FactoryGraphic factoryGraphic;
+    /** Shared images. */
+    private static final ImageCache CACHE = new ImageCache(media -> factoryGraphic.getImageBuffer(media));
 
     /**
-     * Set the graphic factory used.
+     * Set the graphic factory used. Clears the {@link #getImageCache()}.
      * 
      * @param factoryGraphic The graphic factory used.
      */
     public static void setFactoryGraphic(FactoryGraphic factoryGraphic)
     {
         Graphics.factoryGraphic = factoryGraphic;
+        CACHE.clear();
+    }
+
+    /**
+     * Get the shared images cache.
+     * 
+     * @return The shared images cache.
+     */
+    public static ImageCache getImageCache()
+    {
+        return CACHE;
     }
 
     /**
@@ -152,6 +165,32 @@ public final class Graphics
         return factoryGraphic.getImageBuffer(media);
     }
 
+    /**
+     * Get a shared image buffer from an image file, read only once until released by all users. Must be released with
+     * {@link #releaseImageBuffer(Media)} when not used anymore, and must not be modified.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @return The shared image buffer.
+     * @throws LionEngineException If an error occurred when reading the image.
+     * @see ImageCache#acquire(Media)
+     */
+    public static ImageBuffer getImageBufferShared(Media media)
+    {
+        return CACHE.acquire(media);
+    }
+
+    /**
+     * Release a shared image buffer previously retrieved with {@link #getImageBufferShared(Media)}.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     * @see ImageCache#release(Media)
+     */
+    public static void releaseImageBuffer(Media media)
+    {
+        CACHE.release(media);
+    }
+
     /**
      * Get an image buffer from an image buffer.
      * 
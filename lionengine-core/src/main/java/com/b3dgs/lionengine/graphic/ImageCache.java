@@ -0,0 +1,480 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Shared images by {@link Media}, with reference counting.
+ * <p>
+ * An image is read once and shared until all its references are released. Released images are kept while the memory
+ * used by released images does not exceed the capacity, the least recently released being dropped first. Dropped
+ * images are only softly referenced, and can still be shared until collected. An image is read again if its file has
+ * changed.
+ * </p>
+ * <p>
+ * This class is Thread-Safe. Images are read outside of the cache lock, concurrent requests of an image being read
+ * wait for it instead of reading it again.
+ * </p>
+ * 
+ * @see Graphics#getImageBufferShared(Media)
+ */
+public final class ImageCache
+{
+    /** Default capacity in bytes of released images kept. */
+    public static final long DEFAULT_CAPACITY = 64L * 1024L * 1024L;
+    /** Bytes per pixel. */
+    private static final int PIXEL_BYTES = 4;
+
+    /**
+     * Get the media stamp, changed when its file has changed.
+     * 
+     * @param media The media reference.
+     * @return The media stamp.
+     */
+    private static long getStamp(Media media)
+    {
+        final File file = media.getFile();
+        if (file == null)
+        {
+            return 0L;
+        }
+        return file.lastModified() * 31L + file.length();
+    }
+
+    /**
+     * Wait for image read by another request.
+     * 
+     * @param pending The pending read.
+     * @throws LionEngineException If an error occurred when reading the image.
+     */
+    private static void await(CompletableFuture<ImageBuffer> pending)
+    {
+        try
+        {
+            pending.join();
+        }
+        catch (final CompletionException exception)
+        {
+            if (exception.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new LionEngineException(exception.getCause());
+        }
+    }
+
+    /** Entries by media. */
+    private final Map<Media, Entry> entries = new HashMap<>();
+    /** Images being read by media. */
+    private final Map<Media, CompletableFuture<ImageBuffer>> reading = new HashMap<>();
+    /** Released entries, least recently released first. */
+    private final Map<Media, Entry> released = new LinkedHashMap<>();
+    /** Image loader. */
+    private final Function<Media, ImageBuffer> loader;
+    /** Capacity in bytes of released images kept. */
+    private long capacity;
+    /** Bytes of images kept. */
+    private long bytes;
+    /** Bytes of released images kept. */
+    private long releasedBytes;
+    /** Number of shared images. */
+    private int hits;
+    /** Number of read images. */
+    private int misses;
+
+    /**
+     * Create cache with {@link #DEFAULT_CAPACITY}.
+     * 
+     * @param loader The image loader (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ImageCache(Function<Media, ImageBuffer> loader)
+    {
+        this(loader, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create cache.
+     * 
+     * @param loader The image loader (must not be <code>null</code>).
+     * @param capacity The capacity in bytes of released images kept (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ImageCache(Function<Media, ImageBuffer> loader, long capacity)
+    {
+        super();
+
+        Check.notNull(loader);
+        Check.superiorOrEqual(capacity, 0);
+
+        this.loader = loader;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the shared image of the media, read it if not cached. Each call must be balanced by a
+     * {@link #release(Media)}. Shared image must not be modified.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @return The shared image.
+     * @throws LionEngineException If invalid argument or an error occurred when reading the image.
+     */
+    public ImageBuffer acquire(Media media)
+    {
+        Check.notNull(media);
+
+        final long stamp = getStamp(media);
+        while (true)
+        {
+            final CompletableFuture<ImageBuffer> pending;
+            final CompletableFuture<ImageBuffer> read;
+            synchronized (this)
+            {
+                final ImageBuffer cached = share(media, stamp);
+                if (cached != null)
+                {
+                    return cached;
+                }
+                pending = reading.get(media);
+                if (pending == null)
+                {
+                    misses++;
+                    read = new CompletableFuture<>();
+                    reading.put(media, read);
+                }
+                else
+                {
+                    read = null;
+                }
+            }
+            if (read != null)
+            {
+                return read(media, stamp, read);
+            }
+            await(pending);
+        }
+    }
+
+    /**
+     * Release a reference to the shared image of the media. Image is kept while capacity allows it.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public synchronized void release(Media media)
+    {
+        Check.notNull(media);
+
+        final Entry entry = entries.get(media);
+        if (entry != null && entry.references > 0)
+        {
+            entry.references--;
+            if (entry.references == 0 && entry.image != null)
+            {
+                released.put(media, entry);
+                releasedBytes += entry.bytes;
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Set the capacity in bytes of released images kept.
+     * 
+     * @param capacity The capacity in bytes (must be positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public synchronized void setCapacity(long capacity)
+    {
+        Check.superiorOrEqual(capacity, 0);
+
+        this.capacity = capacity;
+        trim();
+    }
+
+    /**
+     * Remove all images and reset statistics. Shared images are not disposed.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        released.clear();
+        bytes = 0L;
+        releasedBytes = 0L;
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Get the capacity in bytes of released images kept.
+     * 
+     * @return The capacity in bytes.
+     */
+    public synchronized long getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Get the bytes of images kept, referenced or released.
+     * 
+     * @return The bytes of images kept.
+     */
+    public synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Get the bytes of released images kept.
+     * 
+     * @return The bytes of released images kept.
+     */
+    public synchronized long getReleasedBytes()
+    {
+        return releasedBytes;
+    }
+
+    /**
+     * Get the number of times an image has been shared instead of read.
+     * 
+     * @return The number of hits.
+     */
+    public synchronized int getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Get the number of times an image has been read.
+     * 
+     * @return The number of misses.
+     */
+    public synchronized int getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Get the number of references to the shared image of the media.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @return The number of references, <code>0</code> if released or not cached.
+     * @throws LionEngineException If invalid argument.
+     */
+    public synchronized int getReferences(Media media)
+    {
+        Check.notNull(media);
+
+        final Entry entry = entries.get(media);
+        if (entry != null)
+        {
+            return entry.references;
+        }
+        return 0;
+    }
+
+    /**
+     * Share the cached image if up to date.
+     * 
+     * @param media The image media.
+     * @param stamp The media stamp.
+     * @return The shared image, <code>null</code> if not cached or outdated.
+     */
+    private ImageBuffer share(Media media, long stamp)
+    {
+        final Entry entry = entries.get(media);
+        if (entry == null)
+        {
+            return null;
+        }
+        final ImageBuffer cached = entry.get();
+        if (cached == null || entry.stamp != stamp)
+        {
+            return null;
+        }
+
+        hits++;
+        if (entry.references == 0)
+        {
+            keep(media, entry, cached);
+        }
+        entry.references++;
+        return cached;
+    }
+
+    /**
+     * Read image outside of cache lock, and publish it.
+     * 
+     * @param media The image media.
+     * @param stamp The media stamp.
+     * @param read The read notified to waiting requests.
+     * @return The read image.
+     * @throws LionEngineException If an error occurred when reading the image.
+     */
+    private ImageBuffer read(Media media, long stamp, CompletableFuture<ImageBuffer> read)
+    {
+        final ImageBuffer image;
+        try
+        {
+            image = loader.apply(media);
+        }
+        catch (final RuntimeException | Error exception)
+        {
+            synchronized (this)
+            {
+                reading.remove(media);
+            }
+            read.completeExceptionally(exception);
+            throw exception;
+        }
+
+        synchronized (this)
+        {
+            reading.remove(media);
+
+            final Entry entry = entries.get(media);
+            final Entry created = new Entry(image, stamp);
+            if (entry != null)
+            {
+                remove(media, entry);
+                created.references = entry.references;
+            }
+            created.references++;
+            entries.put(media, created);
+            bytes += created.bytes;
+        }
+        read.complete(image);
+
+        return image;
+    }
+
+    /**
+     * Keep again a released entry.
+     * 
+     * @param media The image media.
+     * @param entry The released entry.
+     * @param image The entry image.
+     */
+    private void keep(Media media, Entry entry, ImageBuffer image)
+    {
+        if (released.remove(media) != null)
+        {
+            releasedBytes -= entry.bytes;
+        }
+        else
+        {
+            entry.image = image;
+            bytes += entry.bytes;
+        }
+    }
+
+    /**
+     * Remove an outdated entry.
+     * 
+     * @param media The image media.
+     * @param entry The outdated entry.
+     */
+    private void remove(Media media, Entry entry)
+    {
+        entries.remove(media);
+        if (released.remove(media) != null)
+        {
+            releasedBytes -= entry.bytes;
+        }
+        if (entry.image != null)
+        {
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Drop least recently released images until capacity is respected.
+     */
+    private void trim()
+    {
+        final Iterator<Entry> iterator = released.values().iterator();
+        while (releasedBytes > capacity && iterator.hasNext())
+        {
+            final Entry entry = iterator.next();
+            iterator.remove();
+            entry.image = null;
+            releasedBytes -= entry.bytes;
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Cached image.
+     */
+    private static final class Entry
+    {
+        /** Soft image reference. */
+        private final SoftReference<ImageBuffer> soft;
+        /** Media stamp. */
+        private final long stamp;
+        /** Image bytes. */
+        private final long bytes;
+        /** Image reference (<code>null</code> if dropped). */
+        private ImageBuffer image;
+        /** References count. */
+        private int references;
+
+        /**
+         * Create entry.
+         * 
+         * @param image The image reference.
+         * @param stamp The media stamp.
+         */
+        Entry(ImageBuffer image, long stamp)
+        {
+            super();
+
+            this.image = image;
+            this.stamp = stamp;
+            soft = new SoftReference<>(image);
+            bytes = (long) image.getWidth() * image.getHeight() * PIXEL_BYTES;
+        }
+
+        /**
+         * Get the image.
+         * 
+         * @return The image, <code>null</code> if collected.
+         */
+        ImageBuffer get()
+        {
+            if (image != null)
+            {
+                return image;
+            }
+            return soft.get();
+        }
+    }
+}
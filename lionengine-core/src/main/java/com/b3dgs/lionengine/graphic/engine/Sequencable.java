@@ -88,4 +88,13 @@ public interface Sequencable extends Updatable, Renderable
      *            will end definitely).
      */
     void onTerminated(boolean hasNextSequence);
+
+    /**
+     * Called when sequence set as next one is cancelled before being started, once its loading has finished. Resources
+     * acquired by its loading should be released here.
+     */
+    default void onCancelled()
+    {
+        // Nothing by default
+    }
 }
@@ -16,6 +16,11 @@
  */
 package com.b3dgs.lionengine.graphic.engine;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Config;
 import com.b3dgs.lionengine.Constant;
@@ -26,6 +31,7 @@ import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Resolution;
 import com.b3dgs.lionengine.Tick;
 import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
@@ -39,6 +45,10 @@ import com.b3dgs.lionengine.graphic.ScreenListener;
  * screen used, the current configuration, input references ({@link #getInputDevice(Class)}), and it includes
  * a standard game loop ({@link #update(double)} and {@link #render(Graphic)}), synchronized to a specified frame rate.
  * <p>
+ * Next sequence can be loaded in background with {@link #loadAsync(Class, Object...)} while current sequence keeps
+ * running, transition waiting for load to finish.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  * 
@@ -51,6 +61,23 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
 {
     /** Update fps delay in milli. */
     private static final int UPDATE_FPS_DELAY_MILLI = 500;
+    /** Preload deferred. */
+    private static final String PRELOAD_DEFERRED = "Not enough memory to preload, deferred: ";
+    /** Preload thread name. */
+    private static final String PRELOAD_THREAD = "Sequence preload";
+    /** Error preload interrupted. */
+    private static final String ERROR_PRELOAD_INTERRUPTED = "Sequence preload interrupted !";
+
+    /**
+     * Get the memory available for new allocations.
+     * 
+     * @return The available memory in bytes.
+     */
+    private static long getAvailableMemory()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+    }
 
     /** Context reference. */
     private final Context context;
@@ -62,10 +89,22 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     private final Loop loop;
     /** Source resolution. */
     private final Resolution source;
+    /** Cancelled next sequences with their preload thread (<code>null</code> if loaded by sequence thread). */
+    private final Map<Sequencable, Thread> cancelled = new LinkedHashMap<>();
     /** Sequence renderer. */
     private SequenceRenderer[] renderer;
     /** Next sequence pointer. */
-    private Sequencable nextSequence;
+    private volatile Sequencable nextSequence;
+    /** Next sequence arguments. */
+    private Object[] nextArguments = new Object[0];
+    /** Loaded next sequence (<code>null</code> if none). */
+    private volatile Sequencable nextLoaded;
+    /** Next sequence preload thread (<code>null</code> if none). */
+    private Thread preloader;
+    /** Next sequence preload error (<code>null</code> if no preload). */
+    private AtomicReference<Throwable> preloadError;
+    /** Minimum available memory in bytes to preload in background (0 for no limit). */
+    private long preloadBudget;
     /** Current frame rate. */
     private int currentFrameRate;
     /** Current screen used (<code>null</code> if not started). */
@@ -207,6 +246,21 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
      */
     public abstract void load();
 
+    /**
+     * Set the minimum available memory required to load next sequence in background with
+     * {@link #loadAsync(Class, Object...)}. If less memory is available, next sequence is loaded after current sequence
+     * has terminated, so both sequences resources are not held together.
+     * 
+     * @param bytes The minimum available memory in bytes, <code>0</code> for no limit (must be positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public final void setPreloadBudget(long bytes)
+    {
+        Check.superiorOrEqual(bytes, 0);
+
+        preloadBudget = bytes;
+    }
+
     /**
      * Set the filter to use.
      * 
@@ -319,6 +373,91 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
         }
     }
 
+    /**
+     * Cancel next sequence preload. Running preload is not waited here, but before next sequence start, and its result
+     * is ignored.
+     */
+    private void cancelPreload()
+    {
+        final Sequencable sequence = nextSequence;
+        if (preloader != null)
+        {
+            cancelled.put(sequence, preloader);
+        }
+        else if (sequence != null && sequence == nextLoaded)
+        {
+            cancelled.put(sequence, null);
+        }
+        preloader = null;
+        preloadError = null;
+        nextLoaded = null;
+    }
+
+    /**
+     * Wait for cancelled preloads to finish, so they do not run with next sequence loading, and notify their
+     * cancellation.
+     * 
+     * @throws LionEngineException If interrupted.
+     */
+    private void awaitCancelled()
+    {
+        for (final Map.Entry<Sequencable, Thread> entry : cancelled.entrySet())
+        {
+            final Thread thread = entry.getValue();
+            if (thread != null)
+            {
+                try
+                {
+                    thread.join();
+                }
+                catch (final InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new LionEngineException(exception, ERROR_PRELOAD_INTERRUPTED);
+                }
+            }
+            entry.getKey().onCancelled();
+        }
+        cancelled.clear();
+    }
+
+    /**
+     * Wait for next sequence preload to finish, and re-throw its exception if has.
+     * 
+     * @throws LionEngineException If preload failed or interrupted.
+     */
+    private void awaitNextSequence()
+    {
+        awaitCancelled();
+        if (preloader == null)
+        {
+            return;
+        }
+        try
+        {
+            preloader.join();
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new LionEngineException(exception, ERROR_PRELOAD_INTERRUPTED);
+        }
+        finally
+        {
+            preloader = null;
+        }
+        final Throwable throwable = preloadError.get();
+        preloadError = null;
+        if (throwable instanceof LionEngineException)
+        {
+            throw (LionEngineException) throwable;
+        }
+        else if (throwable != null)
+        {
+            throw new LionEngineException(throwable);
+        }
+    }
+
     /*
      * Sequencable
      */
@@ -374,6 +513,7 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
             }
         });
         screen.removeListener(this);
+        awaitNextSequence();
     }
 
     @Override
@@ -392,13 +532,19 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     @Override
     public final void end(Class<? extends Sequencable> nextSequenceClass, Object... arguments)
     {
-        if (nextSequenceClass != null)
+        final Sequencable current = nextSequence;
+        if (nextSequenceClass == null)
         {
-            nextSequence = UtilSequence.create(nextSequenceClass, context, arguments);
+            cancelPreload();
+            nextSequence = null;
         }
-        else
+        else if (current == null
+                 || current.getClass() != nextSequenceClass
+                 || !Arrays.equals(nextArguments, arguments))
         {
-            nextSequence = null;
+            cancelPreload();
+            nextSequence = UtilSequence.create(nextSequenceClass, context, arguments);
+            nextArguments = arguments;
         }
         loop.stop();
     }
@@ -408,11 +554,50 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     {
         if (nextSequence == null)
         {
-            nextSequence = UtilSequence.create(nextSequenceClass, context, arguments);
-            nextSequence.preload();
+            final Sequencable sequence = UtilSequence.create(nextSequenceClass, context, arguments);
+            nextSequence = sequence;
+            nextArguments = arguments;
+            sequence.preload();
+            nextLoaded = sequence;
         }
     }
 
+    @Override
+    public void loadAsync(Class<? extends Sequencable> nextSequenceClass, Object... arguments)
+    {
+        if (nextSequence == null)
+        {
+            final Sequencable sequence = UtilSequence.create(nextSequenceClass, context, arguments);
+            nextSequence = sequence;
+            nextArguments = arguments;
+
+            if (preloadBudget > 0L && getAvailableMemory() < preloadBudget)
+            {
+                Verbose.info(PRELOAD_DEFERRED, nextSequenceClass.getName());
+                return;
+            }
+
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final Thread thread = new Thread(() ->
+            {
+                sequence.preload();
+                nextLoaded = sequence;
+            }, PRELOAD_THREAD);
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler((t, e) -> error.set(e));
+            preloader = thread;
+            preloadError = error;
+            thread.start();
+        }
+    }
+
+    @Override
+    public final boolean isNextSequenceLoaded()
+    {
+        final Sequencable sequence = nextSequence;
+        return sequence != null && sequence == nextLoaded;
+    }
+
     @Override
     public final void addKeyListener(InputDeviceKeyListener listener)
     {
@@ -487,6 +672,18 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCancelled()
+    {
+        for (int i = 0; i < renderer.length; i++)
+        {
+            renderer[i].close();
+        }
+    }
+
     /*
      * Rasterbar
      */
@@ -29,7 +29,8 @@ public interface Sequencer
     void end();
 
     /**
-     * Terminate sequence, and set the next sequence.
+     * Terminate sequence, and set the next sequence. Next sequence already set with same class and arguments by
+     * {@link #loadAsync(Class, Object...)} is used, any other is cancelled (see {@link Sequencable#onCancelled()}).
      * 
      * @param nextSequenceClass The next sequence class reference, <code>null</code> for none.
      * @param arguments The sequence arguments list if needed by its constructor.
@@ -46,6 +47,36 @@ public interface Sequencer
      */
     void load(Class<? extends Sequencable> nextSequenceClass, Object... arguments);
 
+    /**
+     * Set next sequence and start to load it in background, while current sequence keeps running. Call {@link #end()}
+     * to trigger transition, which waits for load to finish.
+     * <p>
+     * Default implementation loads it now with {@link #load(Class, Object...)}.
+     * </p>
+     * 
+     * @param nextSequenceClass The next sequence class reference, <code>null</code> for none.
+     * @param arguments The sequence arguments list if needed by its constructor.
+     * @throws LionEngineException If sequence is <code>null</code> or cannot be created.
+     */
+    default void loadAsync(Class<? extends Sequencable> nextSequenceClass, Object... arguments)
+    {
+        load(nextSequenceClass, arguments);
+    }
+
+    /**
+     * Check if next sequence has been loaded.
+     * <p>
+     * Default implementation always returns <code>true</code>, as next sequence is loaded before
+     * {@link #loadAsync(Class, Object...)} returns.
+     * </p>
+     * 
+     * @return <code>true</code> if next sequence set and loaded, <code>false</code> else.
+     */
+    default boolean isNextSequenceLoaded()
+    {
+        return true;
+    }
+
     /**
      * Set the system cursor visibility.
      * 
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Outbound messages queue, packing several messages in a single datagram.
+ * <p>
+ * Each message is written with its own header, one after the other, so a datagram holding a single message is the
+ * same as a non batched one. The datagram is sent when the next message does not fit, or on {@link #flush(Sender)}.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ * 
+ * @see UtilNetwork#getBuffer(java.net.DatagramPacket, int)
+ */
+public final class Batch
+{
+    /** Maximum message content size in bytes, as written in its header. */
+    public static final int MESSAGE_SIZE_MAX = Constant.UNSIGNED_BYTE - 1;
+
+    private final ByteBuffer datagram;
+    private int messages;
+
+    /**
+     * Create batch.
+     * 
+     * @param size The datagram size in bytes, header included (must be superior or equal to
+     *            {@link UtilNetwork#DATAGRAM_SIZE}).
+     * @throws LionEngineException If invalid argument.
+     */
+    public Batch(int size)
+    {
+        super();
+
+        Check.superiorOrEqual(size, UtilNetwork.DATAGRAM_SIZE);
+
+        datagram = ByteBuffer.allocate(size);
+    }
+
+    /**
+     * Add message content, sending pending messages first if it does not fit.
+     * 
+     * @param content The message content, from start to limit (limit must be inferior or equal to
+     *            {@link #MESSAGE_SIZE_MAX}).
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     * @throws LionEngineException If message is too large.
+     */
+    public synchronized void add(ByteBuffer content, Sender sender) throws IOException
+    {
+        write(content, sender);
+    }
+
+    /**
+     * Add message content for a client, sending pending messages first if it does not fit. Content is not modified.
+     * 
+     * @param content The message content, from start to limit (limit must be inferior or equal to
+     *            {@link #MESSAGE_SIZE_MAX}).
+     * @param clientId The recipient client id, replacing the one in content.
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     * @throws LionEngineException If message is too large.
+     */
+    public synchronized void add(ByteBuffer content, Integer clientId, Sender sender) throws IOException
+    {
+        final int index = write(content, sender);
+        datagram.put(index + UtilNetwork.INDEX_CLIENT_ID, UtilConversion.fromUnsignedByte(clientId.intValue()));
+    }
+
+    /**
+     * Send pending messages if any.
+     * 
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     */
+    public synchronized void flush(Sender sender) throws IOException
+    {
+        if (messages > 0)
+        {
+            datagram.flip();
+            try
+            {
+                sender.send(datagram, messages);
+            }
+            finally
+            {
+                datagram.clear();
+                messages = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the number of pending messages.
+     * 
+     * @return The pending messages.
+     */
+    public synchronized int getMessages()
+    {
+        return messages;
+    }
+
+    /**
+     * Get the pending datagram size.
+     * 
+     * @return The pending bytes, headers included.
+     */
+    public synchronized int getSize()
+    {
+        return datagram.position();
+    }
+
+    /**
+     * Write message with its header. An empty datagram always fits a valid message, as its size is at least
+     * {@link UtilNetwork#DATAGRAM_SIZE}.
+     * 
+     * @param content The message content.
+     * @param sender The datagram sender.
+     * @return The content index in datagram.
+     * @throws IOException If error on send.
+     * @throws LionEngineException If message is too large.
+     */
+    private int write(ByteBuffer content, Sender sender) throws IOException
+    {
+        final int size = content.limit();
+        Check.inferiorOrEqual(size, MESSAGE_SIZE_MAX);
+
+        if (datagram.remaining() < UtilNetwork.HEADER_BYTES_NUMBER + size)
+        {
+            flush(sender);
+        }
+
+        datagram.put(UtilConversion.fromUnsignedByte(UtilNetwork.HEADER_START_VALUE));
+        datagram.put(UtilConversion.fromUnsignedByte(0));
+        datagram.put(UtilConversion.fromUnsignedByte(size));
+
+        final int index = datagram.position();
+        final ByteBuffer source = content.duplicate();
+        source.clear();
+        source.limit(size);
+        datagram.put(source);
+        messages++;
+
+        return index;
+    }
+
+    /**
+     * Datagram sender.
+     */
+    public interface Sender
+    {
+        /**
+         * Send datagram.
+         * 
+         * @param datagram The datagram to send, from position to limit.
+         * @param messages The number of messages in datagram.
+         * @throws IOException If error.
+         */
+        void send(ByteBuffer datagram, int messages) throws IOException;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Pool of direct buffers of same size, allowing to receive and send datagrams without allocation.
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+public final class BufferPool
+{
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final int size;
+    private final int capacity;
+
+    /**
+     * Create pool.
+     * 
+     * @param size The buffers size in bytes (must be strictly positive).
+     * @param capacity The maximum number of released buffers kept (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public BufferPool(int size, int capacity)
+    {
+        super();
+
+        Check.superiorStrict(size, 0);
+        Check.superiorOrEqual(capacity, 0);
+
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Acquire a cleared buffer, allocated only if none available.
+     * 
+     * @return The buffer to use, to be released once not used anymore.
+     */
+    public ByteBuffer acquire()
+    {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null)
+        {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(size);
+        }
+        available.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Release a buffer, kept for reuse if capacity allows it. Buffer must not be used after.
+     * 
+     * @param buffer The buffer to release (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public void release(ByteBuffer buffer)
+    {
+        Check.notNull(buffer);
+
+        if (buffer.isDirect() && buffer.capacity() == size)
+        {
+            if (available.incrementAndGet() <= capacity)
+            {
+                buffers.offer(buffer);
+            }
+            else
+            {
+                available.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Get the buffers size.
+     * 
+     * @return The buffers size in bytes.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the number of buffers allocated since creation.
+     * 
+     * @return The number of allocated buffers.
+     */
+    public int getAllocated()
+    {
+        return allocated.get();
+    }
+}
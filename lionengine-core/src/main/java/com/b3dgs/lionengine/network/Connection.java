@@ -0,0 +1,714 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Messages layer with a peer, adding reliability, ordering and fragmentation over datagrams.
+ * <p>
+ * Reliable messages are split in fragments of {@link #FRAGMENT_SIZE}, each sent in a {@link MessageType#RELIABLE}
+ * frame queued in the peer {@link Batch}. Frames have their own sequence number, and acknowledge the last frame
+ * received from the peer with a bitfield of the {@value #ACK_BITS} previous ones. Fragments not acknowledged in time
+ * are sent again in new frames on {@link #update(Batch.Sender)}, which must be called regularly, acknowledgements being
+ * sent alone if there is nothing else to send.
+ * </p>
+ * <p>
+ * At most {@value #ACK_BITS} fragments are in flight, so their frames stay in peer acknowledgement range. Other
+ * fragments are queued, and sent as previous ones are acknowledged. If a fragment is not acknowledged after
+ * {@value #LOST_DELAY} milliseconds, connection is lost: fragments are dropped and new messages are ignored.
+ * </p>
+ * <p>
+ * Received fragments are reassembled, and each message is delivered once, in sent order for
+ * {@link Delivery#RELIABLE_ORDERED} messages, without waiting for {@link Delivery#RELIABLE_UNORDERED} ones.
+ * {@link Delivery#UNRELIABLE} messages do not use this layer.
+ * </p>
+ * <p>
+ * Frame content, after message type and client id, is sequence (2 bytes), acknowledged sequence (2 bytes),
+ * acknowledged bits (4 bytes), delivery (1 byte), message id (2 bytes), fragment index (1 byte), fragments number (1
+ * byte, <code>0</code> for acknowledgement only), and fragment data.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+public final class Connection
+{
+    /** Frame header size, message type and client id included. */
+    public static final int HEADER_SIZE = 15;
+    /** Max fragment data size. */
+    public static final int FRAGMENT_SIZE = Constant.UNSIGNED_BYTE - 1 - HEADER_SIZE;
+    /** Max message size. */
+    public static final int MAX_SIZE = FRAGMENT_SIZE * (Constant.UNSIGNED_BYTE - 1);
+    /** Acknowledged bits number, and max fragments in flight. */
+    public static final int ACK_BITS = Integer.SIZE;
+    /** Delay in milliseconds without acknowledgement of a fragment before connection is lost. */
+    public static final long LOST_DELAY = 10_000L;
+
+    /** Sequence index. */
+    private static final int INDEX_SEQUENCE = MessageAbstract.SIZE_MIN;
+    /** Acknowledged sequence index. */
+    private static final int INDEX_ACK = INDEX_SEQUENCE + Short.BYTES;
+    /** Acknowledged bits index. */
+    private static final int INDEX_ACK_BITS = INDEX_ACK + Short.BYTES;
+    /** Delivery index. */
+    private static final int INDEX_DELIVERY = INDEX_ACK_BITS + Integer.BYTES;
+    /** Message id index. */
+    private static final int INDEX_ID = INDEX_DELIVERY + 1;
+    /** Fragment index. */
+    private static final int INDEX_FRAGMENT = INDEX_ID + Short.BYTES;
+    /** Fragments number index. */
+    private static final int INDEX_FRAGMENTS = INDEX_FRAGMENT + 1;
+
+    /** Sequence mask. */
+    private static final int MASK = 0xFFFF;
+    /** Half sequence range, to compare wrapped sequences. */
+    private static final int HALF = 0x8000;
+    /** Sent frames kept for acknowledgement. */
+    private static final int SENT_WINDOW = 1024;
+    /** Delivered unordered messages kept for duplicates. */
+    private static final int DELIVERED_WINDOW = 1024;
+    /** Default round trip time in milliseconds. */
+    private static final long RTT_DEFAULT = 100L;
+    /** Minimum resend delay in milliseconds. */
+    private static final long RESEND_MIN = 30L;
+    /** Round trip time smoothing factor. */
+    private static final int RTT_SMOOTH = 8;
+    /** Delivery modes. */
+    private static final Delivery[] DELIVERIES = Delivery.values();
+    /** Invalid frame error. */
+    private static final String ERROR_FRAME = "Invalid frame: ";
+
+    /**
+     * Get the sequence difference, handling wrap.
+     * 
+     * @param sequence The sequence.
+     * @param reference The reference sequence.
+     * @return The difference, positive if sequence is more recent than reference.
+     */
+    private static int difference(int sequence, int reference)
+    {
+        final int difference = sequence - reference & MASK;
+        if (difference >= HALF)
+        {
+            return difference - MASK - 1;
+        }
+        return difference;
+    }
+
+    /** Sent frames sequence, <code>-1</code> if none. */
+    private final int[] sentSequences = new int[SENT_WINDOW];
+    /** Sent frames fragment. */
+    private final Fragment[] sentFragments = new Fragment[SENT_WINDOW];
+    /** Sent frames time. */
+    private final long[] sentTimes = new long[SENT_WINDOW];
+    /** Fragments in flight not acknowledged, in sent order. */
+    private final Set<Fragment> pending = new LinkedHashSet<>();
+    /** Fragments waiting for a place in flight, in send order. */
+    private final Deque<Fragment> queued = new ArrayDeque<>();
+    /** Fragments being reassembled by delivery and message id. */
+    private final Map<Integer, Fragments> reassembly = new HashMap<>();
+    /** Delivered unordered messages id. */
+    private final int[] delivered = new int[DELIVERED_WINDOW];
+    /** Ordered messages received, waiting for previous ones. */
+    private final Map<Integer, ByteBuffer> ordered = new HashMap<>();
+    /** Frame buffer. */
+    private final ByteBuffer frame = ByteBuffer.allocate(Constant.UNSIGNED_BYTE - 1);
+    /** Frames queue. */
+    private final Batch batch;
+    /** Time in milliseconds. */
+    private final LongSupplier clock;
+    /** Client id. */
+    private final byte clientId;
+    /** Next frame sequence. */
+    private int sequence;
+    /** Last received sequence, first one being preceded by the last sequence. */
+    private int remoteSequence = MASK;
+    /** Received sequences before last one. */
+    private int remoteBits;
+    /** Acknowledgement not sent flag. */
+    private boolean ackPending;
+    /** Next unordered message id. */
+    private int unorderedId;
+    /** Next ordered message id. */
+    private int orderedId;
+    /** Next ordered message id to deliver. */
+    private int orderedExpected;
+    /** Smoothed round trip time in milliseconds. */
+    private long rtt = RTT_DEFAULT;
+    /** Lost flag. */
+    private boolean lost;
+
+    /**
+     * Create connection.
+     * 
+     * @param clientId The client id of the peer (must not be <code>null</code>).
+     * @param batch The frames queue to the peer (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Connection(Integer clientId, Batch batch)
+    {
+        this(clientId, batch, System::currentTimeMillis);
+    }
+
+    /**
+     * Create connection.
+     * 
+     * @param clientId The client id of the peer (must not be <code>null</code>).
+     * @param batch The frames queue to the peer (must not be <code>null</code>).
+     * @param clock The time in milliseconds (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Connection(Integer clientId, Batch batch, LongSupplier clock)
+    {
+        super();
+
+        Check.notNull(clientId);
+        Check.notNull(batch);
+        Check.notNull(clock);
+
+        this.clientId = UtilConversion.fromUnsignedByte(clientId.intValue());
+        this.batch = batch;
+        this.clock = clock;
+
+        Arrays.fill(sentSequences, -1);
+        Arrays.fill(delivered, -1);
+    }
+
+    /**
+     * Send message, queuing its fragments in the batch if in flight limit allows it. Message client id is replaced by
+     * the peer one. Message is ignored if connection is lost.
+     * 
+     * @param content The message content, from start to limit (must not be <code>null</code>).
+     * @param delivery The delivery mode (must not be <code>null</code> nor {@link Delivery#UNRELIABLE}).
+     * @param sender The datagram sender, used if batch is full.
+     * @throws LionEngineException If invalid arguments.
+     * @throws IOException If error on send.
+     */
+    public synchronized void send(ByteBuffer content, Delivery delivery, Batch.Sender sender) throws IOException
+    {
+        Check.notNull(content);
+        Check.notNull(delivery);
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            throw new LionEngineException(delivery);
+        }
+        final int size = content.limit();
+        Check.inferiorOrEqual(size, MAX_SIZE);
+        if (lost)
+        {
+            return;
+        }
+
+        final byte[] data = new byte[size];
+        final ByteBuffer source = content.duplicate();
+        source.clear();
+        source.get(data, 0, size);
+        if (size > UtilNetwork.INDEX_CLIENT_ID)
+        {
+            data[UtilNetwork.INDEX_CLIENT_ID] = clientId;
+        }
+
+        final int id = nextId(delivery);
+        final int count = Math.max(1, (size + FRAGMENT_SIZE - 1) / FRAGMENT_SIZE);
+        for (int i = 0; i < count; i++)
+        {
+            final int start = i * FRAGMENT_SIZE;
+            final byte[] fragment = Arrays.copyOfRange(data, start, Math.min(size, start + FRAGMENT_SIZE));
+            queued.add(new Fragment(delivery, id, i, count, fragment));
+        }
+        sendQueued(sender);
+    }
+
+    /**
+     * Receive frame, handling its acknowledgements and delivering completed messages.
+     * 
+     * @param buffer The frame content, from start to limit.
+     * @param messages The delivered messages, added in delivery order.
+     * @return The messages delivery mode, <code>null</code> if acknowledgement only.
+     * @throws IOException If invalid frame.
+     */
+    public synchronized Delivery receive(ByteBuffer buffer, List<ByteBuffer> messages) throws IOException
+    {
+        final int size = buffer.limit();
+        if (size < HEADER_SIZE
+            || UtilNetwork.equalsByte(buffer, UtilNetwork.INDEX_TYPE, MessageType.RELIABLE)
+            || buffer.get(UtilNetwork.INDEX_CLIENT_ID) != clientId)
+        {
+            throw new IOException(ERROR_FRAME + size);
+        }
+
+        acknowledge(buffer.getShort(INDEX_ACK) & MASK, buffer.getInt(INDEX_ACK_BITS));
+
+        final int count = UtilConversion.toUnsignedByte(buffer.get(INDEX_FRAGMENTS));
+        if (count == 0)
+        {
+            return null;
+        }
+        final int delivery = UtilConversion.toUnsignedByte(buffer.get(INDEX_DELIVERY));
+        final int index = UtilConversion.toUnsignedByte(buffer.get(INDEX_FRAGMENT));
+        if (delivery <= Delivery.UNRELIABLE.ordinal() || delivery >= DELIVERIES.length || index >= count)
+        {
+            throw new IOException(ERROR_FRAME + delivery + Constant.SPACE + index + Constant.SLASH + count);
+        }
+
+        received(buffer.getShort(INDEX_SEQUENCE) & MASK);
+
+        final byte[] data = new byte[size - HEADER_SIZE];
+        final ByteBuffer source = buffer.duplicate();
+        source.position(HEADER_SIZE);
+        source.limit(size);
+        source.get(data);
+
+        receive(DELIVERIES[delivery], buffer.getShort(INDEX_ID) & MASK, index, count, data, messages);
+
+        return DELIVERIES[delivery];
+    }
+
+    /**
+     * Send again fragments not acknowledged in time, queued fragments if in flight limit allows it, and
+     * acknowledgement if not already sent. Connection is lost if a fragment is not acknowledged after
+     * {@link #LOST_DELAY}.
+     * 
+     * @param sender The datagram sender, used if batch is full.
+     * @throws IOException If error on send.
+     */
+    public synchronized void update(Batch.Sender sender) throws IOException
+    {
+        if (lost)
+        {
+            return;
+        }
+        final long time = clock.getAsLong();
+        final long delay = Math.max(RESEND_MIN, rtt * 2);
+        for (final Fragment fragment : pending)
+        {
+            if (time - fragment.first >= LOST_DELAY)
+            {
+                lose();
+                return;
+            }
+            if (time - fragment.time >= delay)
+            {
+                write(fragment, sender);
+            }
+        }
+        sendQueued(sender);
+
+        if (ackPending)
+        {
+            writeFrame(null, sender);
+        }
+    }
+
+    /**
+     * Get the number of fragments not acknowledged, in flight or queued.
+     * 
+     * @return The pending fragments.
+     */
+    public synchronized int getPending()
+    {
+        return pending.size() + queued.size();
+    }
+
+    /**
+     * Check if connection is lost, a fragment not being acknowledged after {@link #LOST_DELAY}.
+     * 
+     * @return <code>true</code> if lost, <code>false</code> else.
+     */
+    public synchronized boolean isLost()
+    {
+        return lost;
+    }
+
+    /**
+     * Get the smoothed round trip time.
+     * 
+     * @return The round trip time in milliseconds.
+     */
+    public synchronized long getRtt()
+    {
+        return rtt;
+    }
+
+    /**
+     * Get next message id.
+     * 
+     * @param delivery The delivery mode.
+     * @return The message id.
+     */
+    private int nextId(Delivery delivery)
+    {
+        final int id;
+        if (Delivery.RELIABLE_ORDERED == delivery)
+        {
+            id = orderedId;
+            orderedId = orderedId + 1 & MASK;
+        }
+        else
+        {
+            id = unorderedId;
+            unorderedId = unorderedId + 1 & MASK;
+        }
+        return id;
+    }
+
+    /**
+     * Send queued fragments while in flight limit allows it.
+     * 
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     */
+    private void sendQueued(Batch.Sender sender) throws IOException
+    {
+        while (pending.size() < ACK_BITS && !queued.isEmpty())
+        {
+            final Fragment fragment = queued.poll();
+            fragment.first = clock.getAsLong();
+            pending.add(fragment);
+            write(fragment, sender);
+        }
+    }
+
+    /**
+     * Drop all fragments and mark connection as lost.
+     */
+    private void lose()
+    {
+        lost = true;
+        pending.clear();
+        queued.clear();
+        Arrays.fill(sentSequences, -1);
+        Arrays.fill(sentFragments, null);
+    }
+
+    /**
+     * Write fragment in a new frame, kept until acknowledged.
+     * 
+     * @param fragment The fragment to write.
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     */
+    private void write(Fragment fragment, Batch.Sender sender) throws IOException
+    {
+        final long time = clock.getAsLong();
+        final int slot = sequence % SENT_WINDOW;
+        sentSequences[slot] = sequence;
+        sentFragments[slot] = fragment;
+        sentTimes[slot] = time;
+        fragment.time = time;
+
+        writeFrame(fragment, sender);
+    }
+
+    /**
+     * Write frame with current acknowledgement.
+     * 
+     * @param fragment The fragment to write, <code>null</code> for acknowledgement only.
+     * @param sender The datagram sender.
+     * @throws IOException If error on send.
+     */
+    private void writeFrame(Fragment fragment, Batch.Sender sender) throws IOException
+    {
+        frame.clear();
+        frame.put(UtilNetwork.toByte(MessageType.RELIABLE));
+        frame.put(clientId);
+        frame.putShort((short) sequence);
+        frame.putShort((short) remoteSequence);
+        frame.putInt(remoteBits);
+        if (fragment != null)
+        {
+            frame.put(UtilNetwork.toByte(fragment.delivery));
+            frame.putShort((short) fragment.id);
+            frame.put(UtilConversion.fromUnsignedByte(fragment.index));
+            frame.put(UtilConversion.fromUnsignedByte(fragment.count));
+            frame.put(fragment.data);
+        }
+        else
+        {
+            frame.put(UtilNetwork.toByte(Delivery.UNRELIABLE));
+            frame.putShort((short) 0);
+            frame.put(UtilConversion.fromUnsignedByte(0));
+            frame.put(UtilConversion.fromUnsignedByte(0));
+        }
+        frame.flip();
+
+        sequence = sequence + 1 & MASK;
+        ackPending = false;
+
+        batch.add(frame, sender);
+    }
+
+    /**
+     * Acknowledge sent frames.
+     * 
+     * @param ack The last sequence received by peer.
+     * @param bits The sequences received by peer before the last one.
+     */
+    private void acknowledge(int ack, int bits)
+    {
+        acknowledge(ack);
+        for (int i = 0; i < ACK_BITS; i++)
+        {
+            if ((bits >>> i & 1) != 0)
+            {
+                acknowledge(ack - 1 - i & MASK);
+            }
+        }
+    }
+
+    /**
+     * Acknowledge sent frame.
+     * 
+     * @param ack The sequence received by peer.
+     */
+    private void acknowledge(int ack)
+    {
+        final int slot = ack % SENT_WINDOW;
+        if (sentSequences[slot] == ack)
+        {
+            final Fragment fragment = sentFragments[slot];
+            sentSequences[slot] = -1;
+            sentFragments[slot] = null;
+
+            rtt += (clock.getAsLong() - sentTimes[slot] - rtt) / RTT_SMOOTH;
+            pending.remove(fragment);
+        }
+    }
+
+    /**
+     * Store received sequence for acknowledgement.
+     * 
+     * @param received The received sequence.
+     */
+    private void received(int received)
+    {
+        final int difference = difference(received, remoteSequence);
+        if (difference > 0)
+        {
+            if (difference < ACK_BITS)
+            {
+                remoteBits = remoteBits << difference | 1 << difference - 1;
+            }
+            else if (difference == ACK_BITS)
+            {
+                remoteBits = 1 << ACK_BITS - 1;
+            }
+            else
+            {
+                remoteBits = 0;
+            }
+            remoteSequence = received;
+        }
+        else if (difference < 0 && -difference <= ACK_BITS)
+        {
+            remoteBits |= 1 << -difference - 1;
+        }
+        ackPending = true;
+    }
+
+    /**
+     * Receive fragment, delivering message if completed.
+     * 
+     * @param delivery The delivery mode.
+     * @param id The message id.
+     * @param index The fragment index.
+     * @param count The fragments number.
+     * @param data The fragment data.
+     * @param messages The delivered messages.
+     * @throws IOException If invalid fragment.
+     */
+    private void receive(Delivery delivery, int id, int index, int count, byte[] data, List<ByteBuffer> messages)
+            throws IOException
+    {
+        if (isDelivered(delivery, id))
+        {
+            return;
+        }
+        final ByteBuffer message;
+        if (count == 1)
+        {
+            message = ByteBuffer.wrap(data);
+        }
+        else
+        {
+            final Integer key = Integer.valueOf(delivery.ordinal() << Short.SIZE | id);
+            final Fragments fragments = reassembly.computeIfAbsent(key, k -> new Fragments(count));
+            if (!fragments.put(index, count, data))
+            {
+                return;
+            }
+            reassembly.remove(key);
+            message = fragments.merge();
+        }
+
+        if (Delivery.RELIABLE_ORDERED == delivery)
+        {
+            ordered.put(Integer.valueOf(id), message);
+            ByteBuffer next;
+            while ((next = ordered.remove(Integer.valueOf(orderedExpected))) != null)
+            {
+                messages.add(next);
+                orderedExpected = orderedExpected + 1 & MASK;
+            }
+        }
+        else
+        {
+            delivered[id % DELIVERED_WINDOW] = id;
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Check if message has already been delivered or is waiting for previous ones.
+     * 
+     * @param delivery The delivery mode.
+     * @param id The message id.
+     * @return <code>true</code> if already received, <code>false</code> else.
+     */
+    private boolean isDelivered(Delivery delivery, int id)
+    {
+        if (Delivery.RELIABLE_ORDERED == delivery)
+        {
+            return difference(id, orderedExpected) < 0 || ordered.containsKey(Integer.valueOf(id));
+        }
+        return delivered[id % DELIVERED_WINDOW] == id;
+    }
+
+    /**
+     * Message fragment sent until acknowledged.
+     */
+    private static final class Fragment
+    {
+        /** Delivery mode. */
+        private final Delivery delivery;
+        /** Message id. */
+        private final int id;
+        /** Fragment index. */
+        private final int index;
+        /** Fragments number. */
+        private final int count;
+        /** Fragment data. */
+        private final byte[] data;
+        /** First sent time. */
+        private long first;
+        /** Last sent time. */
+        private long time;
+
+        /**
+         * Create fragment.
+         * 
+         * @param delivery The delivery mode.
+         * @param id The message id.
+         * @param index The fragment index.
+         * @param count The fragments number.
+         * @param data The fragment data.
+         */
+        Fragment(Delivery delivery, int id, int index, int count, byte[] data)
+        {
+            super();
+
+            this.delivery = delivery;
+            this.id = id;
+            this.index = index;
+            this.count = count;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Message fragments being reassembled.
+     */
+    private static final class Fragments
+    {
+        /** Fragments data by index. */
+        private final byte[][] data;
+        /** Received fragments. */
+        private int received;
+
+        /**
+         * Create fragments.
+         * 
+         * @param count The fragments number.
+         */
+        Fragments(int count)
+        {
+            super();
+
+            data = new byte[count][];
+        }
+
+        /**
+         * Store fragment.
+         * 
+         * @param index The fragment index.
+         * @param count The fragments number.
+         * @param fragment The fragment data.
+         * @return <code>true</code> if all fragments received, <code>false</code> else.
+         * @throws IOException If fragments number differs.
+         */
+        boolean put(int index, int count, byte[] fragment) throws IOException
+        {
+            if (count != data.length)
+            {
+                throw new IOException(ERROR_FRAME + count + Constant.SLASH + data.length);
+            }
+            if (data[index] == null)
+            {
+                data[index] = fragment;
+                received++;
+            }
+            return received == data.length;
+        }
+
+        /**
+         * Merge fragments.
+         * 
+         * @return The message.
+         */
+        ByteBuffer merge()
+        {
+            int size = 0;
+            for (final byte[] fragment : data)
+            {
+                size += fragment.length;
+            }
+            final ByteBuffer message = ByteBuffer.allocate(size);
+            for (final byte[] fragment : data)
+            {
+                message.put(fragment);
+            }
+            message.flip();
+            return message;
+        }
+    }
+}
@@ -36,12 +36,27 @@ public final class Direct
      * @throws IOException If invalid.
      */
     public static Packet decode(ByteBuffer buffer, Integer clientId) throws IOException
+    {
+        return decode(buffer, clientId, null);
+    }
+
+    /**
+     * Decode expected message over a pooled buffer.
+     * 
+     * @param buffer The buffer to read.
+     * @param clientId The expected client id.
+     * @param release The buffer release action, called once packet is released (can be <code>null</code>).
+     * @return The packet read.
+     * @throws IOException If invalid.
+     */
+    public static Packet decode(ByteBuffer buffer, Integer clientId, Runnable release) throws IOException
     {
         MessageAbstract.decode(buffer, MessageType.DIRECT, clientId);
         return new Packet(clientId,
                           Integer.valueOf(UtilConversion.toUnsignedByte(buffer.get(UtilNetwork.INDEX_CLIENT_SRC_ID))),
                           buffer.getInt(UtilNetwork.INDEX_DATA_ID),
-                          buffer);
+                          buffer,
+                          release);
     }
 
     /**
@@ -43,6 +43,8 @@ public enum MessageType
     DIRECT,
     /** Custom user data pre message. */
     DATA,
+    /** Reliable frame, holding a message fragment. */
+    RELIABLE,
     /** Unknown type. */
     UNKNOWN;
 
@@ -18,6 +18,7 @@ package com.b3dgs.lionengine.network;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
@@ -35,6 +36,7 @@ public class Packet
     private final int dataId;
     private final int mode;
     private final ByteBuffer buffer;
+    private final AtomicReference<Runnable> release;
 
     /**
      * Create packet.
@@ -45,6 +47,20 @@ public class Packet
      * @param buffer The buffer reference.
      */
     public Packet(Integer clientId, Integer clientSourceId, int dataId, ByteBuffer buffer)
+    {
+        this(clientId, clientSourceId, dataId, buffer, null);
+    }
+
+    /**
+     * Create packet as a view over a pooled buffer.
+     * 
+     * @param clientId The client id.
+     * @param clientSourceId The client source id.
+     * @param dataId The data id.
+     * @param buffer The buffer reference.
+     * @param release The buffer release action, called once on {@link #release()} (can be <code>null</code>).
+     */
+    public Packet(Integer clientId, Integer clientSourceId, int dataId, ByteBuffer buffer, Runnable release)
     {
         super();
 
@@ -52,6 +68,7 @@ public class Packet
         this.clientSourceId = clientSourceId;
         this.dataId = dataId;
         this.buffer = buffer;
+        this.release = new AtomicReference<>(release);
         mode = UtilConversion.toUnsignedByte(buffer.get(UtilNetwork.INDEX_MODE));
     }
 
@@ -71,6 +88,19 @@ public class Packet
         this.dataId = dataId;
         this.mode = mode;
         buffer = null;
+        release = new AtomicReference<>();
+    }
+
+    /**
+     * Release packet buffer once handled, allowing its reuse. Packet must not be read after.
+     */
+    public void release()
+    {
+        final Runnable action = release.getAndSet(null);
+        if (action != null)
+        {
+            action.run();
+        }
     }
 
     /**
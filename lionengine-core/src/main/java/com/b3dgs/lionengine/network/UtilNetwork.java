@@ -61,8 +61,12 @@ public final class UtilNetwork
     /** Mode disconnect. */
     public static final int MODE_DISCONNECT = MODE_DATA + 1;
 
+    /** Max datagram size, header included. */
+    public static final int DATAGRAM_SIZE = HEADER_BYTES_NUMBER + Constant.UNSIGNED_BYTE;
+    /** Max batched datagram size, headers included, kept under usual path MTU. */
+    public static final int BATCH_SIZE = 1200;
     /** Max packet buffer. */
-    private static final int MAX_SIZE = 256;
+    private static final int MAX_SIZE = BATCH_SIZE;
 
     /** Server id. */
     public static final Integer SERVER_ID = Integer.valueOf(0);
@@ -110,6 +114,95 @@ public final class UtilNetwork
         return buffer;
     }
 
+    /**
+     * Get the packet message data at offset, as a datagram may contain several messages.
+     * 
+     * @param packet The packet reference.
+     * @param offset The message offset, header included.
+     * @return The message data, next message being at offset plus {@link #HEADER_BYTES_NUMBER} plus data capacity.
+     * @throws IOException If invalid.
+     * @see Batch
+     */
+    public static ByteBuffer getBuffer(DatagramPacket packet, int offset) throws IOException
+    {
+        final byte[] data = packet.getData();
+        final int length = packet.getLength();
+        if (offset + HEADER_BYTES_NUMBER > length
+            || UtilConversion.toUnsignedByte(data[offset + HEADER_INDEX_START]) != HEADER_START_VALUE
+            || UtilConversion.toUnsignedByte(data[offset + HEADER_INDEX_SEQUENCE]) != 0)
+        {
+            throw new IOException("Invalid message at: " + offset + "/" + length);
+        }
+        final int size = UtilConversion.toUnsignedByte(data[offset + HEADER_INDEX_SIZE]);
+        if (offset + HEADER_BYTES_NUMBER + size > length)
+        {
+            throw new IOException("Invalid message size: " + size + "/" + (length - offset - HEADER_BYTES_NUMBER));
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(data, offset + HEADER_BYTES_NUMBER, size);
+
+        return buffer;
+    }
+
+    /**
+     * Get the datagram data as a view, without copy.
+     * 
+     * @param datagram The received datagram, from start to limit.
+     * @return The datagram data, sharing its content.
+     * @throws IOException If invalid.
+     */
+    public static ByteBuffer getBuffer(ByteBuffer datagram) throws IOException
+    {
+        return getBuffer(datagram, 0);
+    }
+
+    /**
+     * Get the datagram message data at offset as a view, without copy, as a datagram may contain several messages.
+     * 
+     * @param datagram The received datagram, from start to limit.
+     * @param offset The message offset, header included.
+     * @return The message data, sharing its content, next message being at offset plus
+     *         {@link #HEADER_BYTES_NUMBER} plus data limit.
+     * @throws IOException If invalid.
+     * @see Batch
+     */
+    public static ByteBuffer getBuffer(ByteBuffer datagram, int offset) throws IOException
+    {
+        final int length = datagram.limit();
+        if (offset + HEADER_BYTES_NUMBER > length
+            || UtilConversion.toUnsignedByte(datagram.get(offset + HEADER_INDEX_START)) != HEADER_START_VALUE
+            || UtilConversion.toUnsignedByte(datagram.get(offset + HEADER_INDEX_SEQUENCE)) != 0)
+        {
+            throw new IOException("Invalid message: " + offset + "/" + length);
+        }
+        final int size = UtilConversion.toUnsignedByte(datagram.get(offset + HEADER_INDEX_SIZE));
+        if (offset + HEADER_BYTES_NUMBER + size > length)
+        {
+            throw new IOException("Invalid message size: " + size + "/" + (length - offset - HEADER_BYTES_NUMBER));
+        }
+
+        final ByteBuffer view = datagram.duplicate();
+        view.position(offset + HEADER_BYTES_NUMBER);
+        view.limit(offset + HEADER_BYTES_NUMBER + size);
+        return view.slice();
+    }
+
+    /**
+     * Write full packet from data with header.
+     * 
+     * @param buffer The packet content.
+     * @param packet The packet to write, from its position.
+     */
+    public static void writePacket(ByteBuffer buffer, ByteBuffer packet)
+    {
+        final int size = buffer.capacity();
+
+        packet.put(UtilConversion.fromUnsignedByte(UtilNetwork.HEADER_START_VALUE));
+        packet.put(UtilConversion.fromUnsignedByte(0));
+        packet.put(UtilConversion.fromUnsignedByte(size));
+        packet.put(buffer.array(), 0, size);
+    }
+
     /**
      * Create full packet from data with header.
      * 
@@ -19,6 +19,8 @@ package com.b3dgs.lionengine.network.client;
 import java.io.IOException;
 
 import com.b3dgs.lionengine.Listenable;
+import com.b3dgs.lionengine.network.Connection;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Message;
 import com.b3dgs.lionengine.network.server.Server;
 
@@ -49,6 +51,33 @@ public interface Client extends Listenable<ClientListener>
      */
     void send(Message message) throws IOException;
 
+    /**
+     * Queue message to the server for global sync, sent with other queued messages in a single datagram on
+     * {@link #flush()}, or before if datagram is full. Use {@link #send(Message)} for latency sensitive messages.
+     * 
+     * @param message The Message to queue.
+     * @throws IOException If error.
+     */
+    void queue(Message message) throws IOException;
+
+    /**
+     * Queue message to the server for global sync with a delivery mode, sent on {@link #flush()}, or before if datagram
+     * is full. Reliable messages are sent again on {@link #flush()} until acknowledged, and may exceed a datagram size.
+     * 
+     * @param message The Message to queue.
+     * @param delivery The delivery mode.
+     * @throws IOException If error.
+     * @see Connection
+     */
+    void queue(Message message, Delivery delivery) throws IOException;
+
+    /**
+     * Send queued messages, and reliable messages not acknowledged in time. Should be called once per update.
+     * 
+     * @throws IOException If error.
+     */
+    void flush() throws IOException;
+
     /**
      * Ping remove server.
      * 
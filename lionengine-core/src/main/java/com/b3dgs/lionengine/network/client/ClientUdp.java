@@ -37,8 +37,11 @@ import com.b3dgs.lionengine.ListenableModel;
 import com.b3dgs.lionengine.UtilConversion;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.network.Alive;
+import com.b3dgs.lionengine.network.Batch;
 import com.b3dgs.lionengine.network.Channel;
+import com.b3dgs.lionengine.network.Connection;
 import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Direct;
 import com.b3dgs.lionengine.network.Message;
 import com.b3dgs.lionengine.network.MessageType;
@@ -55,6 +58,7 @@ public class ClientUdp implements Client
     private static final int ALIVE_DELAY_MS = 4000;
 
     private static final String SERVER_DISCONNECTED = "Server disconnected!";
+    private static final String SERVER_LOST = "Server connection lost!";
 
     private final ListenableModel<ClientListener> listenable = new ListenableModel<>();
     private final Semaphore pingLock = new Semaphore(0);
@@ -64,6 +68,7 @@ public class ClientUdp implements Client
     private final Set<Integer> clientsNew = new HashSet<>();
     private final Set<Integer> clientsConnected = new HashSet<>();
     private final List<Integer> toRemove = new ArrayList<>();
+    private final List<ByteBuffer> received = new ArrayList<>();
 
     private Thread threadReceive;
     private Thread threadAlive;
@@ -71,8 +76,12 @@ public class ClientUdp implements Client
     private volatile DatagramSocket socket;
     private volatile int port;
     private volatile Integer clientId;
+    private volatile Connection connection;
     private volatile boolean running;
 
+    private final Batch batch = new Batch(UtilNetwork.BATCH_SIZE);
+    private final Batch.Sender sender = (datagram, messages) -> send(datagram, datagram.remaining(), address, port);
+
     /**
      * Create client.
      * 
@@ -95,32 +104,12 @@ public class ClientUdp implements Client
             try
             {
                 final DatagramPacket packet = UtilNetwork.receive(socket);
-                final ByteBuffer buffer = UtilNetwork.getBuffer(packet);
-                final MessageType type = MessageType.from(buffer);
-
-                if (MessageType.DIRECT == type)
-                {
-                    channel.write(Direct.decode(buffer, clientId));
-                }
-                else if (MessageType.DATA == type)
-                {
-                    channel.write(Data.decode(buffer, clientId));
-                }
-                else if (MessageType.CLIENTS_LIST == type)
-                {
-                    handleClientsList(buffer);
-                }
-                else if (MessageType.DISCONNECT == type)
-                {
-                    handleDisconnected(buffer);
-                }
-                else if (MessageType.PING == type)
+                int offset = 0;
+                while (offset < packet.getLength())
                 {
-                    handlePing(buffer);
-                }
-                else if (MessageType.NAME_SET == type)
-                {
-                    handleNameSet(buffer);
+                    final ByteBuffer buffer = UtilNetwork.getBuffer(packet, offset);
+                    offset += UtilNetwork.HEADER_BYTES_NUMBER + buffer.capacity();
+                    handleType(buffer, Delivery.UNRELIABLE);
                 }
             }
             catch (final IOException exception)
@@ -133,6 +122,56 @@ public class ClientUdp implements Client
         }
     }
 
+    private void handleType(ByteBuffer buffer, Delivery delivery) throws IOException
+    {
+        final MessageType type = MessageType.from(buffer);
+
+        if (MessageType.DIRECT == type)
+        {
+            channel.write(Direct.decode(buffer, clientId));
+        }
+        else if (MessageType.DATA == type)
+        {
+            channel.write(Data.decode(buffer, clientId));
+        }
+        else if (MessageType.CLIENTS_LIST == type)
+        {
+            handleClientsList(buffer);
+        }
+        else if (MessageType.DISCONNECT == type)
+        {
+            handleDisconnected(buffer);
+        }
+        else if (MessageType.PING == type)
+        {
+            handlePing(buffer);
+        }
+        else if (MessageType.NAME_SET == type)
+        {
+            handleNameSet(buffer);
+        }
+        else if (MessageType.RELIABLE == type && Delivery.UNRELIABLE == delivery)
+        {
+            handleReliable(buffer);
+        }
+    }
+
+    private void handleReliable(ByteBuffer buffer) throws IOException
+    {
+        final Delivery delivery = connection.receive(buffer, received);
+        try
+        {
+            for (final ByteBuffer message : received)
+            {
+                handleType(message, delivery);
+            }
+        }
+        finally
+        {
+            received.clear();
+        }
+    }
+
     private void handleClientsList(ByteBuffer buffer) throws IOException
     {
         final Set<Integer> list = ClientsList.decode(buffer, clientId);
@@ -270,6 +309,7 @@ public class ClientUdp implements Client
         final ByteBuffer send = Connect.encode();
         send(send, address, port);
         clientId = Connect.decode(socket);
+        connection = new Connection(clientId, batch);
 
         notifyConnected(ip, port, clientId);
 
@@ -296,7 +336,12 @@ public class ClientUdp implements Client
 
     private void send(ByteBuffer buffer, InetAddress address, int port) throws IOException
     {
-        socket.send(new DatagramPacket(buffer.array(), buffer.capacity(), address, port));
+        send(buffer, buffer.capacity(), address, port);
+    }
+
+    private void send(ByteBuffer buffer, int length, InetAddress address, int port) throws IOException
+    {
+        socket.send(new DatagramPacket(buffer.array(), length, address, port));
     }
 
     @Override
@@ -359,6 +404,7 @@ public class ClientUdp implements Client
         threadAlive = null;
         socket = null;
         clientId = null;
+        connection = null;
         address = null;
         port = -1;
     }
@@ -398,11 +444,53 @@ public class ClientUdp implements Client
         }
     }
 
+    @Override
+    public void queue(Message message) throws IOException
+    {
+        if (running)
+        {
+            batch.add(message.create(), sender);
+        }
+    }
+
+    @Override
+    public void queue(Message message, Delivery delivery) throws IOException
+    {
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            queue(message);
+        }
+        else if (running)
+        {
+            connection.send(message.create(), delivery, sender);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        if (running)
+        {
+            connection.update(sender);
+            batch.flush(sender);
+
+            if (connection.isLost())
+            {
+                Verbose.info(SERVER_LOST);
+                channel.write(new Packet(clientId, UtilNetwork.SERVER_ID.intValue(), UtilNetwork.MODE_DISCONNECT));
+                disconnect();
+            }
+        }
+    }
+
     @Override
     public void setName(String name) throws IOException
     {
-        final ByteBuffer send = NameSet.encode(clientId, name);
-        send(send, address, port);
+        if (running)
+        {
+            connection.send(NameSet.create(clientId, name), Delivery.RELIABLE_UNORDERED, sender);
+            batch.flush(sender);
+        }
     }
 
     @Override
@@ -32,13 +32,13 @@ import com.b3dgs.lionengine.network.UtilNetwork;
 final class NameSet
 {
     /**
-     * Encode message.
+     * Create message content, without header.
      * 
      * @param clientId The client id.
      * @param name The name.
-     * @return The created message.
+     * @return The created message content.
      */
-    public static ByteBuffer encode(Integer clientId, String name)
+    public static ByteBuffer create(Integer clientId, String name)
     {
         final int length = name.length();
         final ByteBuffer nameBuffer = StandardCharsets.UTF_8.encode(name);
@@ -49,7 +49,7 @@ final class NameSet
         buffer.putInt(length);
         buffer.put(nameBuffer);
 
-        return UtilNetwork.createPacket(buffer);
+        return buffer;
     }
 
     /**
@@ -17,9 +17,13 @@
 package com.b3dgs.lionengine.network.server;
 
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.network.Batch;
+import com.b3dgs.lionengine.network.Connection;
+import com.b3dgs.lionengine.network.UtilNetwork;
 
 /**
  * Client data representation used by server for identification.
@@ -30,6 +34,9 @@ public class ClientData
     private final Integer clientId;
     private final InetAddress ip;
     private final int port;
+    private final InetSocketAddress address;
+    private final Batch batch = new Batch(UtilNetwork.BATCH_SIZE);
+    private final Connection connection;
 
     private String name;
 
@@ -47,6 +54,8 @@ public class ClientData
         clientId = id;
         this.ip = ip;
         this.port = port;
+        address = new InetSocketAddress(ip, port);
+        connection = new Connection(id, batch);
         name = ip.toString();
     }
 
@@ -89,6 +98,36 @@ public class ClientData
         return port;
     }
 
+    /**
+     * Get the socket address.
+     * 
+     * @return The socket address.
+     */
+    public InetSocketAddress getAddress()
+    {
+        return address;
+    }
+
+    /**
+     * Get the outbound messages queue.
+     * 
+     * @return The messages queue.
+     */
+    public Batch getBatch()
+    {
+        return batch;
+    }
+
+    /**
+     * Get the reliable messages layer, using the outbound messages queue.
+     * 
+     * @return The reliable messages layer.
+     */
+    public Connection getConnection()
+    {
+        return connection;
+    }
+
     /**
      * Get the client id.
      * 
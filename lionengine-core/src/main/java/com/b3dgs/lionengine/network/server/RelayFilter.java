@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.server;
+
+/**
+ * Select clients receiving data relayed from other clients. Called from server thread.
+ */
+@FunctionalInterface
+public interface RelayFilter
+{
+    /**
+     * Check if data must be relayed to client.
+     * 
+     * @param clientId The client id destination.
+     * @param dataId The data id.
+     * @return <code>true</code> to relay data, <code>false</code> to skip client.
+     */
+    boolean isRelayed(Integer clientId, int dataId);
+}
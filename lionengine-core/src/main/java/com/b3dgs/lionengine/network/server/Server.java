@@ -21,6 +21,8 @@ import java.nio.ByteBuffer;
 import java.util.function.Supplier;
 
 import com.b3dgs.lionengine.Listenable;
+import com.b3dgs.lionengine.network.Connection;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Message;
 
 /**
@@ -59,6 +61,56 @@ public interface Server extends Listenable<ServerListener>
      */
     void send(Message message, Integer clientId) throws IOException;
 
+    /**
+     * Queue message to clients, sent with other queued messages in a single datagram per client on {@link #flush()},
+     * or before if datagram is full. Use {@link #send(Message)} for latency sensitive messages.
+     * 
+     * @param message The Message to queue.
+     * @throws IOException If error.
+     */
+    void queue(Message message) throws IOException;
+
+    /**
+     * Queue message to client, sent with other queued messages in a single datagram on {@link #flush()}, or before if
+     * datagram is full. Use {@link #send(Message, Integer)} for latency sensitive messages.
+     * 
+     * @param message The Message to queue.
+     * @param clientId The client id to send.
+     * @throws IOException If error.
+     */
+    void queue(Message message, Integer clientId) throws IOException;
+
+    /**
+     * Queue message to clients with a delivery mode, sent on {@link #flush()}, or before if datagram is full. Reliable
+     * messages are sent again on {@link #flush()} until acknowledged, and may exceed a datagram size.
+     * 
+     * @param message The Message to queue.
+     * @param delivery The delivery mode.
+     * @throws IOException If error.
+     * @see Connection
+     */
+    void queue(Message message, Delivery delivery) throws IOException;
+
+    /**
+     * Queue message to client with a delivery mode, sent on {@link #flush()}, or before if datagram is full. Reliable
+     * messages are sent again on {@link #flush()} until acknowledged, and may exceed a datagram size.
+     * 
+     * @param message The Message to queue.
+     * @param clientId The client id to send.
+     * @param delivery The delivery mode.
+     * @throws IOException If error.
+     * @see Connection
+     */
+    void queue(Message message, Integer clientId, Delivery delivery) throws IOException;
+
+    /**
+     * Send queued messages, including data relayed between clients, and reliable messages not acknowledged in time.
+     * Should be called once per update.
+     * 
+     * @throws IOException If error.
+     */
+    void flush() throws IOException;
+
     /**
      * Set info supplier.
      * 
@@ -66,6 +118,14 @@ public interface Server extends Listenable<ServerListener>
      */
     void setInfoSupplier(Supplier<ByteBuffer> info);
 
+    /**
+     * Set relay filter, selecting clients receiving data relayed from other clients. All clients receive relayed data
+     * by default.
+     * 
+     * @param filter The relay filter (must not be <code>null</code>).
+     */
+    void setRelayFilter(RelayFilter filter);
+
     /**
      * Get the clients number.
      * 
@@ -86,4 +146,18 @@ public interface Server extends Listenable<ServerListener>
      * @return The downstream bandwidth (in kB/sec, negative if not updated).
      */
     float getBandwidthDown();
+
+    /**
+     * Get packets sent rate.
+     * 
+     * @return The sent datagrams per second (negative if not updated).
+     */
+    float getPacketsUp();
+
+    /**
+     * Get average sent message size.
+     * 
+     * @return The sent bytes per message, headers included (negative if not updated).
+     */
+    float getMessageBytesUp();
 }
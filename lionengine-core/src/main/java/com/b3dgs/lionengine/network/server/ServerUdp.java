@@ -40,8 +40,10 @@ import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.UtilConversion;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.network.Alive;
+import com.b3dgs.lionengine.network.Batch;
 import com.b3dgs.lionengine.network.Channel;
 import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Direct;
 import com.b3dgs.lionengine.network.Message;
 import com.b3dgs.lionengine.network.MessageType;
@@ -82,6 +84,7 @@ public class ServerUdp implements Server
     private final Map<Integer, Integer> idToClientId = new ConcurrentHashMap<>();
     private final Map<Integer, Integer> clientIdtoId = new ConcurrentHashMap<>();
     private final Channel channel;
+    private final List<ByteBuffer> received = new ArrayList<>();
 
     private Thread threadReceive;
     private Thread threadAlive;
@@ -91,9 +94,14 @@ public class ServerUdp implements Server
     private boolean running;
     private final AtomicInteger bandwidthUpSum = new AtomicInteger();
     private final AtomicInteger bandwidthDownSum = new AtomicInteger();
+    private final AtomicInteger packetsUpSum = new AtomicInteger();
+    private final AtomicInteger messagesUpSum = new AtomicInteger();
     private volatile float bandwidthUp = -1;
     private volatile float bandwidthDown = -1;
+    private volatile float packetsUp = -1;
+    private volatile float messageBytesUp = -1;
     private volatile Supplier<ByteBuffer> info = () -> ByteBuffer.allocate(0);
+    private volatile RelayFilter relayFilter = (clientId, dataId) -> true;
 
     private Integer getNextClientId()
     {
@@ -171,12 +179,10 @@ public class ServerUdp implements Server
             {
                 if (c.getName() != null && !c.getClientId().equals(client.getClientId()))
                 {
-                    final ByteBuffer send = UtilNetwork.createPacket(new NameSet(c.getClientId(),
-                                                                                 c.getName()).create());
-                    send.put(UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.INDEX_CLIENT_ID,
-                             UtilConversion.fromUnsignedByte(client.getClientId().intValue()));
-
-                    socket.send(new DatagramPacket(send.array(), send.capacity(), client.getIp(), client.getPort()));
+                    client.getConnection()
+                          .send(new NameSet(c.getClientId(), c.getName()).create(),
+                                Delivery.RELIABLE_UNORDERED,
+                                getSender(client));
                 }
             }
 
@@ -284,15 +290,16 @@ public class ServerUdp implements Server
         }
     }
 
-    private void data(DatagramPacket packet, ByteBuffer buffer) throws IOException
+    private void data(DatagramPacket packet, ByteBuffer buffer, Delivery delivery) throws IOException
     {
         final Integer id = getId(packet);
         if (clients.containsKey(id))
         {
             final ClientData client = clients.get(id);
-            channel.write(Data.decode(buffer, client.getClientId()));
+            final Packet data = Data.decode(buffer, client.getClientId());
 
-            sendClients(buffer, client.getClientId());
+            sendClients(buffer, client.getClientId(), delivery);
+            channel.write(data);
         }
         else
         {
@@ -300,23 +307,55 @@ public class ServerUdp implements Server
         }
     }
 
-    private void sendClients(ByteBuffer buffer, Integer clientId) throws IOException
+    /**
+     * Queue received data to other clients selected by relay filter with its delivery mode, sent on
+     * {@link #flush()}.
+     * 
+     * @param buffer The received data.
+     * @param clientId The source client id.
+     * @param delivery The delivery mode.
+     * @throws IOException If error.
+     */
+    private void sendClients(ByteBuffer buffer, Integer clientId, Delivery delivery) throws IOException
     {
+        buffer.put(UtilNetwork.INDEX_CLIENT_SRC_ID, UtilConversion.fromUnsignedByte(clientId.intValue()));
+        final int dataId = buffer.getInt(UtilNetwork.INDEX_DATA_ID);
+
         for (final ClientData client : clients.values())
         {
-            if (!client.getClientId().equals(clientId))
+            if (!client.getClientId().equals(clientId) && relayFilter.isRelayed(client.getClientId(), dataId))
             {
-                final ByteBuffer send = UtilNetwork.createPacket(buffer);
-                send.put(UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.INDEX_CLIENT_ID,
-                         UtilConversion.fromUnsignedByte(client.getClientId().intValue()));
-                send.put(UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.INDEX_CLIENT_SRC_ID,
-                         UtilConversion.fromUnsignedByte(clientId.intValue()));
-
-                socket.send(new DatagramPacket(send.array(), send.capacity(), client.getIp(), client.getPort()));
+                if (Delivery.UNRELIABLE == delivery)
+                {
+                    client.getBatch().add(buffer, client.getClientId(), getSender(client));
+                }
+                else
+                {
+                    client.getConnection().send(buffer, delivery, getSender(client));
+                }
             }
         }
     }
 
+    /**
+     * Get the batched datagrams sender of a client.
+     * 
+     * @param client The client destination.
+     * @return The datagrams sender.
+     */
+    private Batch.Sender getSender(ClientData client)
+    {
+        return (datagram, messages) ->
+        {
+            final int size = datagram.remaining();
+            socket.send(new DatagramPacket(datagram.array(), size, client.getIp(), client.getPort()));
+
+            bandwidthUpSum.addAndGet(size);
+            packetsUpSum.incrementAndGet();
+            messagesUpSum.addAndGet(messages);
+        };
+    }
+
     private void nameSet(DatagramPacket packet, ByteBuffer buffer) throws IOException
     {
         final Integer id = getId(packet);
@@ -326,15 +365,12 @@ public class ServerUdp implements Server
             final String name = NameSet.decode(buffer, client.getClientId());
             client.setName(name);
 
+            final ByteBuffer send = new NameSet(client.getClientId(), name).create();
             for (final ClientData c : clients.values())
             {
                 if (!c.getClientId().equals(client.getClientId()))
                 {
-                    final ByteBuffer send = UtilNetwork.createPacket(new NameSet(client.getClientId(), name).create());
-                    send.put(UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.INDEX_CLIENT_ID,
-                             UtilConversion.fromUnsignedByte(c.getClientId().intValue()));
-
-                    socket.send(new DatagramPacket(send.array(), send.capacity(), c.getIp(), c.getPort()));
+                    c.getConnection().send(send, Delivery.RELIABLE_UNORDERED, getSender(c));
                 }
             }
 
@@ -362,7 +398,15 @@ public class ServerUdp implements Server
             try
             {
                 final DatagramPacket packet = UtilNetwork.receive(socket);
-                handleType(packet);
+                bandwidthDownSum.addAndGet(packet.getLength());
+
+                int offset = 0;
+                while (offset < packet.getLength())
+                {
+                    final ByteBuffer buffer = UtilNetwork.getBuffer(packet, offset);
+                    offset += UtilNetwork.HEADER_BYTES_NUMBER + buffer.capacity();
+                    handleType(packet, buffer, Delivery.UNRELIABLE);
+                }
             }
             catch (final IOException exception)
             {
@@ -374,12 +418,41 @@ public class ServerUdp implements Server
         }
     }
 
-    // CHECKSTYLE IGNORE LINE: CyclomaticComplexity
-    private void handleType(DatagramPacket packet) throws IOException
+    /**
+     * Reliable frame received, handling its delivered messages.
+     * 
+     * @param packet The received packet.
+     * @param buffer The frame content.
+     * @throws IOException If error.
+     */
+    private void reliable(DatagramPacket packet, ByteBuffer buffer) throws IOException
     {
-        final ByteBuffer buffer = UtilNetwork.getBuffer(packet);
-        bandwidthDownSum.addAndGet(buffer.capacity());
+        final Integer id = getId(packet);
+        if (clients.containsKey(id))
+        {
+            final ClientData client = clients.get(id);
+            final Delivery delivery = client.getConnection().receive(buffer, received);
+            try
+            {
+                for (final ByteBuffer message : received)
+                {
+                    handleType(packet, message, delivery);
+                }
+            }
+            finally
+            {
+                received.clear();
+            }
+        }
+        else
+        {
+            Verbose.warning(ServerUdp.class, UtilNetwork.toString(packet) + ERROR_NOT_CONNECTED);
+        }
+    }
 
+    // CHECKSTYLE IGNORE LINE: CyclomaticComplexity
+    private void handleType(DatagramPacket packet, ByteBuffer buffer, Delivery delivery) throws IOException
+    {
         final MessageType type = MessageType.from(buffer);
         switch (type)
         {
@@ -402,7 +475,13 @@ public class ServerUdp implements Server
                 direct(packet, buffer);
                 break;
             case DATA:
-                data(packet, buffer);
+                data(packet, buffer, delivery);
+                break;
+            case RELIABLE:
+                if (Delivery.UNRELIABLE == delivery)
+                {
+                    reliable(packet, buffer);
+                }
                 break;
             case CLIENTS_LIST:
             case UNKNOWN:
@@ -432,7 +511,7 @@ public class ServerUdp implements Server
 
             for (final ClientData client : clients.values())
             {
-                if (!client.isAlive(TIMEOUT))
+                if (!client.isAlive(TIMEOUT) || client.getConnection().isLost())
                 {
                     toRemove.add(client.getClientId());
                     notifyClientDisconnected(client);
@@ -466,8 +545,20 @@ public class ServerUdp implements Server
             timing.restart();
 
             final float factor = 1 / 1024f * elapsed;
-            bandwidthUp = bandwidthUpSum.getAndSet(0) * factor;
+            final int bytes = bandwidthUpSum.getAndSet(0);
+            bandwidthUp = bytes * factor;
             bandwidthDown = bandwidthDownSum.getAndSet(0) * factor;
+
+            packetsUp = packetsUpSum.getAndSet(0) / elapsed;
+            final int messages = messagesUpSum.getAndSet(0);
+            if (messages > 0)
+            {
+                messageBytesUp = bytes / (float) messages;
+            }
+            else
+            {
+                messageBytesUp = 0;
+            }
         }
     }
 
@@ -544,6 +635,8 @@ public class ServerUdp implements Server
         clients.clear();
         bandwidthUp = -1;
         bandwidthDown = -1;
+        packetsUp = -1;
+        messageBytesUp = -1;
         threadReceive = null;
         threadAlive = null;
         socket = null;
@@ -566,6 +659,8 @@ public class ServerUdp implements Server
             socket.send(new DatagramPacket(buffer.array(), buffer.capacity(), client.getIp(), client.getPort()));
 
             bandwidthUpSum.addAndGet(buffer.capacity());
+            packetsUpSum.incrementAndGet();
+            messagesUpSum.incrementAndGet();
         }
     }
 
@@ -582,6 +677,69 @@ public class ServerUdp implements Server
         socket.send(new DatagramPacket(buffer.array(), buffer.capacity(), client.getIp(), client.getPort()));
 
         bandwidthUpSum.addAndGet(buffer.capacity());
+        packetsUpSum.incrementAndGet();
+        messagesUpSum.incrementAndGet();
+    }
+
+    @Override
+    public void queue(Message message) throws IOException
+    {
+        final ByteBuffer buffer = message.create();
+
+        for (final ClientData client : clients.values())
+        {
+            client.getBatch().add(buffer, client.getClientId(), getSender(client));
+        }
+    }
+
+    @Override
+    public void queue(Message message, Integer clientId) throws IOException
+    {
+        final ClientData client = clients.get(clientIdtoId.get(clientId));
+
+        client.getBatch().add(message.create(), client.getClientId(), getSender(client));
+    }
+
+    @Override
+    public void queue(Message message, Delivery delivery) throws IOException
+    {
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            queue(message);
+        }
+        else
+        {
+            final ByteBuffer buffer = message.create();
+            for (final ClientData client : clients.values())
+            {
+                client.getConnection().send(buffer, delivery, getSender(client));
+            }
+        }
+    }
+
+    @Override
+    public void queue(Message message, Integer clientId, Delivery delivery) throws IOException
+    {
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            queue(message, clientId);
+        }
+        else
+        {
+            final ClientData client = clients.get(clientIdtoId.get(clientId));
+            client.getConnection().send(message.create(), delivery, getSender(client));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        for (final ClientData client : clients.values())
+        {
+            final Batch.Sender sender = getSender(client);
+            client.getConnection().update(sender);
+            client.getBatch().flush(sender);
+        }
     }
 
     @Override
@@ -592,6 +750,14 @@ public class ServerUdp implements Server
         this.info = info;
     }
 
+    @Override
+    public void setRelayFilter(RelayFilter filter)
+    {
+        Check.notNull(filter);
+
+        relayFilter = filter;
+    }
+
     @Override
     public int getClients()
     {
@@ -610,6 +776,18 @@ public class ServerUdp implements Server
         return bandwidthUp;
     }
 
+    @Override
+    public float getPacketsUp()
+    {
+        return packetsUp;
+    }
+
+    @Override
+    public float getMessageBytesUp()
+    {
+        return messageBytesUp;
+    }
+
     /*
      * Listenable
      */
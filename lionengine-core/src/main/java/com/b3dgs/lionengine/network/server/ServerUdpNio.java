@@ -0,0 +1,917 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.ListenableModel;
+import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.Alive;
+import com.b3dgs.lionengine.network.Batch;
+import com.b3dgs.lionengine.network.BufferPool;
+import com.b3dgs.lionengine.network.Channel;
+import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Delivery;
+import com.b3dgs.lionengine.network.Direct;
+import com.b3dgs.lionengine.network.Message;
+import com.b3dgs.lionengine.network.MessageType;
+import com.b3dgs.lionengine.network.Packet;
+import com.b3dgs.lionengine.network.Ping;
+import com.b3dgs.lionengine.network.UtilNetwork;
+
+/**
+ * UDP server based implementation over a {@link DatagramChannel}, compatible with {@link ServerUdp} clients.
+ * <p>
+ * Datagrams are received and sent through pooled direct buffers. Received messages are decoded as views over their
+ * datagram, and data relayed to other clients is queued in their {@link Batch}, sent on {@link #flush()}. Received
+ * {@link Packet} must be released once handled to give back their buffer to the pool.
+ * </p>
+ */
+// CHECKSTYLE IGNORE LINE: DataAbstractionCoupling|FanOutComplexity
+public class ServerUdpNio implements Server
+{
+    private static final int TIMEOUT = 12_000;
+    private static final int POOL_CAPACITY = 1024;
+    private static final int INDEX_CLIENT_ID = UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.INDEX_CLIENT_ID;
+
+    private static final String INFO_CONNECTED = " connected";
+    private static final String INFO_DISCONNECTED = " disconnected";
+    private static final String INFO_PING = " ping";
+    private static final String INFO_STOPPED = "Server stopped";
+
+    private static final String ERROR_MAX_CLIENTS = "Maximum clients reached!";
+    private static final String ERROR_START_SERVER = "Unable to start server!";
+    private static final String ERROR_ALREADY_CONNECTED = " already connected!";
+    private static final String ERROR_NOT_CONNECTED = " not connected!";
+    private static final String ERROR_TIMEOUT = " timeout!";
+
+    private final ListenableModel<ServerListener> listenable = new ListenableModel<>();
+    private final Map<SocketAddress, ClientData> clients = new ConcurrentHashMap<>();
+    private final Map<Integer, ClientData> clientsById = new ConcurrentHashMap<>();
+    private final BufferPool pool = new BufferPool(UtilNetwork.BATCH_SIZE, POOL_CAPACITY);
+    private final Channel channel;
+    private final List<ByteBuffer> received = new ArrayList<>();
+
+    private Thread threadReceive;
+    private Thread threadAlive;
+    private Thread threadBandwidth;
+    private DatagramChannel socket;
+
+    private volatile boolean running;
+    private final AtomicInteger bandwidthUpSum = new AtomicInteger();
+    private final AtomicInteger bandwidthDownSum = new AtomicInteger();
+    private final AtomicInteger packetsUpSum = new AtomicInteger();
+    private final AtomicInteger messagesUpSum = new AtomicInteger();
+    private volatile float bandwidthUp = -1;
+    private volatile float bandwidthDown = -1;
+    private volatile float packetsUp = -1;
+    private volatile float messageBytesUp = -1;
+    private volatile Supplier<ByteBuffer> info = () -> ByteBuffer.allocate(0);
+    private volatile RelayFilter relayFilter = (clientId, dataId) -> true;
+
+    /**
+     * Create server.
+     * 
+     * @param channel The channel reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ServerUdpNio(Channel channel)
+    {
+        super();
+
+        Check.notNull(channel);
+
+        this.channel = channel;
+    }
+
+    /**
+     * Get the buffers pool.
+     * 
+     * @return The buffers pool.
+     */
+    public BufferPool getPool()
+    {
+        return pool;
+    }
+
+    private Integer getNextClientId()
+    {
+        for (int i = UtilNetwork.SERVER_ID.intValue() + 1; i < Constant.UNSIGNED_BYTE; i++)
+        {
+            final Integer free = Integer.valueOf(i);
+            if (!clientsById.containsKey(free))
+            {
+                return free;
+            }
+        }
+        throw new LionEngineException(ERROR_MAX_CLIENTS);
+    }
+
+    private ClientData getClient(SocketAddress address)
+    {
+        final ClientData client = clients.get(address);
+        if (client == null)
+        {
+            Verbose.warning(ServerUdpNio.class, address + ERROR_NOT_CONNECTED);
+        }
+        return client;
+    }
+
+    private void info(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        Info.decode(buffer);
+
+        final ByteBuffer infoBuffer = info.get();
+        final ByteBuffer answer = ByteBuffer.allocate(1 + infoBuffer.capacity());
+        answer.put(UtilNetwork.toByte(MessageType.INFO));
+        answer.put(infoBuffer.array());
+
+        final ByteBuffer packet = pool.acquire();
+        try
+        {
+            UtilNetwork.writePacket(answer, packet);
+            packet.flip();
+            sent(socket.send(packet, address), 1);
+        }
+        finally
+        {
+            pool.release(packet);
+        }
+    }
+
+    private void connect(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        Connected.decode(buffer);
+
+        if (clients.containsKey(address))
+        {
+            Verbose.warning(ServerUdpNio.class, address + ERROR_ALREADY_CONNECTED);
+        }
+        else
+        {
+            final InetSocketAddress inet = (InetSocketAddress) address;
+            final ClientData client = new ClientData(inet.getAddress(), inet.getPort(), getNextClientId());
+            clients.put(address, client);
+            clientsById.put(client.getClientId(), client);
+
+            send(client, new Connected(client.getClientId()));
+            client.alive();
+            notifyClientConnected(client);
+
+            for (final ClientData c : clients.values())
+            {
+                final Set<Integer> other = new HashSet<>(clientsById.keySet());
+                other.remove(c.getClientId());
+                if (!other.isEmpty())
+                {
+                    send(c, new ClientsList(c.getClientId(), other));
+                }
+            }
+
+            for (final ClientData c : clients.values())
+            {
+                if (c.getName() != null && !c.getClientId().equals(client.getClientId()))
+                {
+                    client.getConnection()
+                          .send(new NameSet(c.getClientId(), c.getName()).create(),
+                                Delivery.RELIABLE_UNORDERED,
+                                getSender(client));
+                }
+            }
+
+            Verbose.info(client + INFO_CONNECTED);
+        }
+    }
+
+    private void notifyClientConnected(ClientData client)
+    {
+        final int n = listenable.size();
+        for (int i = 0; i < n; i++)
+        {
+            listenable.get(i).notifyClientConnected(client.getIp().toString(), client.getPort(), client.getClientId());
+        }
+    }
+
+    private void alive(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            Alive.decode(buffer, client.getClientId());
+            client.alive();
+        }
+    }
+
+    private void disconnect(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final Integer disconnected = client.getClientId();
+            Disconnected.decode(buffer, disconnected);
+
+            remove(client);
+
+            for (final ClientData c : clients.values())
+            {
+                send(c, new Disconnected(c.getClientId(), disconnected));
+            }
+
+            channel.write(new Packet(disconnected, disconnected.intValue(), UtilNetwork.MODE_DISCONNECT));
+
+            notifyClientDisconnected(client);
+
+            Verbose.info(client + INFO_DISCONNECTED);
+        }
+    }
+
+    private void remove(ClientData client)
+    {
+        clients.remove(client.getAddress());
+        clientsById.remove(client.getClientId());
+    }
+
+    private void notifyClientDisconnected(ClientData client)
+    {
+        final int n = listenable.size();
+        for (int i = 0; i < n; i++)
+        {
+            listenable.get(i)
+                      .notifyClientDisconnected(client.getIp().toString(), client.getPort(), client.getClientId());
+        }
+    }
+
+    private void ping(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final Integer clientId = client.getClientId();
+            Ping.decode(buffer, clientId);
+
+            send(client, new Ping(clientId));
+            Verbose.info(client + INFO_PING);
+        }
+    }
+
+    private void direct(SocketAddress address, Datagram datagram, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final Packet packet = Direct.decode(buffer, client.getClientId(), datagram::release);
+            datagram.keep();
+            channel.write(packet);
+        }
+    }
+
+    private void data(SocketAddress address, Datagram datagram, ByteBuffer buffer, Delivery delivery)
+            throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final Packet packet = Data.decode(buffer, client.getClientId(), datagram::release);
+            datagram.keep();
+
+            sendClients(buffer, client.getClientId(), delivery);
+            channel.write(packet);
+        }
+    }
+
+    /**
+     * Queue received data to other clients selected by relay filter with its delivery mode, sent on
+     * {@link #flush()}.
+     * 
+     * @param buffer The received data.
+     * @param clientId The source client id.
+     * @param delivery The delivery mode.
+     * @throws IOException If error.
+     */
+    private void sendClients(ByteBuffer buffer, Integer clientId, Delivery delivery) throws IOException
+    {
+        buffer.put(UtilNetwork.INDEX_CLIENT_SRC_ID, UtilConversion.fromUnsignedByte(clientId.intValue()));
+        final int dataId = buffer.getInt(UtilNetwork.INDEX_DATA_ID);
+
+        for (final ClientData client : clients.values())
+        {
+            if (!client.getClientId().equals(clientId) && relayFilter.isRelayed(client.getClientId(), dataId))
+            {
+                if (Delivery.UNRELIABLE == delivery)
+                {
+                    client.getBatch().add(buffer, client.getClientId(), getSender(client));
+                }
+                else
+                {
+                    client.getConnection().send(buffer, delivery, getSender(client));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reliable frame received, handling its delivered messages.
+     * 
+     * @param address The source address.
+     * @param datagram The received datagram.
+     * @param buffer The frame content.
+     * @throws IOException If error.
+     */
+    private void reliable(SocketAddress address, Datagram datagram, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final Delivery delivery = client.getConnection().receive(buffer, received);
+            try
+            {
+                for (final ByteBuffer message : received)
+                {
+                    handleType(address, datagram, message, delivery);
+                }
+            }
+            finally
+            {
+                received.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the batched datagrams sender of a client.
+     * 
+     * @param client The client destination.
+     * @return The datagrams sender.
+     */
+    private Batch.Sender getSender(ClientData client)
+    {
+        return (datagram, messages) -> sent(socket.send(datagram, client.getAddress()), messages);
+    }
+
+    /**
+     * Count sent datagram.
+     * 
+     * @param bytes The sent bytes.
+     * @param messages The sent messages.
+     */
+    private void sent(int bytes, int messages)
+    {
+        bandwidthUpSum.addAndGet(bytes);
+        packetsUpSum.incrementAndGet();
+        messagesUpSum.addAndGet(messages);
+    }
+
+    private void nameSet(SocketAddress address, ByteBuffer buffer) throws IOException
+    {
+        final ClientData client = getClient(address);
+        if (client != null)
+        {
+            final String name = NameSet.decode(buffer, client.getClientId());
+            client.setName(name);
+
+            final ByteBuffer send = new NameSet(client.getClientId(), name).create();
+            for (final ClientData c : clients.values())
+            {
+                if (!c.getClientId().equals(client.getClientId()))
+                {
+                    c.getConnection().send(send, Delivery.RELIABLE_UNORDERED, getSender(c));
+                }
+            }
+
+            notifyClientNamed(client);
+        }
+    }
+
+    private void notifyClientNamed(ClientData client)
+    {
+        final int n = listenable.size();
+        for (int i = 0; i < n; i++)
+        {
+            listenable.get(i).notifyClientNamed(client.getClientId(), client.getName());
+        }
+    }
+
+    private void taskListen()
+    {
+        while (running)
+        {
+            final Datagram datagram = new Datagram(pool.acquire());
+            try
+            {
+                final ByteBuffer data = datagram.buffer;
+                final SocketAddress address = socket.receive(data);
+                data.flip();
+                bandwidthDownSum.addAndGet(data.limit());
+
+                int offset = 0;
+                while (offset < data.limit())
+                {
+                    final ByteBuffer buffer = UtilNetwork.getBuffer(data, offset);
+                    offset += UtilNetwork.HEADER_BYTES_NUMBER + buffer.limit();
+                    handleType(address, datagram, buffer, Delivery.UNRELIABLE);
+                }
+            }
+            catch (final IOException exception)
+            {
+                if (running)
+                {
+                    Verbose.exception(exception);
+                }
+            }
+            finally
+            {
+                datagram.release();
+            }
+        }
+    }
+
+    /**
+     * Handle received message.
+     * 
+     * @param address The source address.
+     * @param datagram The received datagram.
+     * @param buffer The message data in datagram.
+     * @param delivery The message delivery mode.
+     * @throws IOException If invalid message.
+     */
+    // CHECKSTYLE IGNORE LINE: CyclomaticComplexity
+    private void handleType(SocketAddress address, Datagram datagram, ByteBuffer buffer, Delivery delivery)
+            throws IOException
+    {
+        final MessageType type = MessageType.from(buffer);
+        switch (type)
+        {
+            case INFO:
+                info(address, buffer);
+                break;
+            case CONNECT:
+                connect(address, buffer);
+                break;
+            case DISCONNECT:
+                disconnect(address, buffer);
+                break;
+            case ALIVE:
+                alive(address, buffer);
+                break;
+            case PING:
+                ping(address, buffer);
+                break;
+            case DIRECT:
+                direct(address, datagram, buffer);
+                break;
+            case DATA:
+                data(address, datagram, buffer, delivery);
+                break;
+            case RELIABLE:
+                if (Delivery.UNRELIABLE == delivery)
+                {
+                    reliable(address, datagram, buffer);
+                }
+                break;
+            case CLIENTS_LIST:
+            case UNKNOWN:
+                break;
+            case NAME_SET:
+                nameSet(address, buffer);
+                break;
+            default:
+                throw new LionEngineException(type);
+        }
+    }
+
+    private void taskAlive()
+    {
+        while (running)
+        {
+            try
+            {
+                Thread.sleep(TIMEOUT);
+            }
+            catch (@SuppressWarnings("unused") final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            for (final ClientData client : clients.values())
+            {
+                if (!client.isAlive(TIMEOUT) || client.getConnection().isLost())
+                {
+                    remove(client);
+                    notifyClientDisconnected(client);
+                    Verbose.info(UtilNetwork.toString(client.getIp().toString(), client.getPort()) + ERROR_TIMEOUT);
+                }
+            }
+        }
+    }
+
+    private void taskBandwidth()
+    {
+        final Timing timing = new Timing();
+        while (running)
+        {
+            timing.start();
+            try
+            {
+                Thread.sleep(Constant.THOUSAND);
+            }
+            catch (@SuppressWarnings("unused") final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            final float elapsed = timing.elapsed() / (float) Constant.THOUSAND;
+            timing.restart();
+
+            final float factor = 1 / 1024f * elapsed;
+            final int bytes = bandwidthUpSum.getAndSet(0);
+            bandwidthUp = bytes * factor;
+            bandwidthDown = bandwidthDownSum.getAndSet(0) * factor;
+
+            packetsUp = packetsUpSum.getAndSet(0) / elapsed;
+            final int messages = messagesUpSum.getAndSet(0);
+            if (messages > 0)
+            {
+                messageBytesUp = bytes / (float) messages;
+            }
+            else
+            {
+                messageBytesUp = 0;
+            }
+        }
+    }
+
+    /**
+     * Encode message with header in a pooled buffer.
+     * 
+     * @param message The message to encode.
+     * @return The encoded packet, to be released once sent.
+     */
+    private ByteBuffer encode(Message message)
+    {
+        final ByteBuffer packet = pool.acquire();
+        UtilNetwork.writePacket(message.create(), packet);
+        packet.flip();
+        return packet;
+    }
+
+    /**
+     * Send encoded packet to client, patching in place its client id.
+     * 
+     * @param client The client destination.
+     * @param packet The encoded packet.
+     * @throws IOException If error.
+     */
+    private void send(ClientData client, ByteBuffer packet) throws IOException
+    {
+        packet.put(INDEX_CLIENT_ID, UtilConversion.fromUnsignedByte(client.getClientId().intValue()));
+        packet.rewind();
+        sent(socket.send(packet, client.getAddress()), 1);
+    }
+
+    private void send(ClientData client, Message message) throws IOException
+    {
+        final ByteBuffer packet = encode(message);
+        try
+        {
+            send(client, packet);
+        }
+        finally
+        {
+            pool.release(packet);
+        }
+    }
+
+    @Override
+    public synchronized void start(String ip, int port) throws IOException
+    {
+        if (!running)
+        {
+            try
+            {
+                socket = DatagramChannel.open();
+                socket.setOption(StandardSocketOptions.SO_REUSEADDR, Boolean.TRUE);
+                socket.bind(new InetSocketAddress(ip, port));
+            }
+            catch (final IOException exception)
+            {
+                if (socket != null)
+                {
+                    socket.close();
+                }
+                throw new IOException(ERROR_START_SERVER, exception);
+            }
+            running = true;
+
+            threadReceive = new Thread(this::taskListen, ServerUdpNio.class.getSimpleName() + "_listen");
+            threadAlive = new Thread(this::taskAlive, ServerUdpNio.class.getSimpleName() + "_alive");
+            threadBandwidth = new Thread(this::taskBandwidth, ServerUdpNio.class.getSimpleName() + "_bandwidth");
+
+            threadReceive.start();
+            threadAlive.start();
+            threadBandwidth.start();
+
+            notifyServerStarted(ip, port);
+        }
+    }
+
+    private void notifyServerStarted(String ip, int port)
+    {
+        final int n = listenable.size();
+        for (int i = 0; i < n; i++)
+        {
+            listenable.get(i).notifyServerStarted(ip, port);
+        }
+    }
+
+    private void notifyServerStopped()
+    {
+        final int n = listenable.size();
+        for (int i = 0; i < n; i++)
+        {
+            listenable.get(i).notifyServerStopped();
+        }
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if (!running)
+        {
+            return;
+        }
+        for (final ClientData c : clients.values())
+        {
+            try
+            {
+                send(c, new Disconnected(c.getClientId(), UtilNetwork.SERVER_ID));
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+
+        running = false;
+        try
+        {
+            socket.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+
+        threadReceive.interrupt();
+        threadAlive.interrupt();
+        threadBandwidth.interrupt();
+
+        UtilNetwork.await(threadReceive);
+        UtilNetwork.await(threadAlive);
+        UtilNetwork.await(threadBandwidth);
+
+        clients.clear();
+        clientsById.clear();
+        bandwidthUp = -1;
+        bandwidthDown = -1;
+        packetsUp = -1;
+        messageBytesUp = -1;
+        threadReceive = null;
+        threadAlive = null;
+        threadBandwidth = null;
+        socket = null;
+
+        notifyServerStopped();
+
+        Verbose.info(INFO_STOPPED);
+    }
+
+    @Override
+    public void send(Message message) throws IOException
+    {
+        final ByteBuffer packet = encode(message);
+        try
+        {
+            for (final ClientData client : clients.values())
+            {
+                send(client, packet);
+            }
+        }
+        finally
+        {
+            pool.release(packet);
+        }
+    }
+
+    @Override
+    public void send(Message message, Integer clientId) throws IOException
+    {
+        final ClientData client = clientsById.get(clientId);
+        if (client != null)
+        {
+            send(client, message);
+        }
+    }
+
+    @Override
+    public void queue(Message message) throws IOException
+    {
+        final ByteBuffer buffer = message.create();
+
+        for (final ClientData client : clients.values())
+        {
+            client.getBatch().add(buffer, client.getClientId(), getSender(client));
+        }
+    }
+
+    @Override
+    public void queue(Message message, Integer clientId) throws IOException
+    {
+        final ClientData client = clientsById.get(clientId);
+        if (client != null)
+        {
+            client.getBatch().add(message.create(), client.getClientId(), getSender(client));
+        }
+    }
+
+    @Override
+    public void queue(Message message, Delivery delivery) throws IOException
+    {
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            queue(message);
+        }
+        else
+        {
+            final ByteBuffer buffer = message.create();
+            for (final ClientData client : clients.values())
+            {
+                client.getConnection().send(buffer, delivery, getSender(client));
+            }
+        }
+    }
+
+    @Override
+    public void queue(Message message, Integer clientId, Delivery delivery) throws IOException
+    {
+        if (Delivery.UNRELIABLE == delivery)
+        {
+            queue(message, clientId);
+        }
+        else
+        {
+            final ClientData client = clientsById.get(clientId);
+            if (client != null)
+            {
+                client.getConnection().send(message.create(), delivery, getSender(client));
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        for (final ClientData client : clients.values())
+        {
+            final Batch.Sender sender = getSender(client);
+            client.getConnection().update(sender);
+            client.getBatch().flush(sender);
+        }
+    }
+
+    @Override
+    public void setInfoSupplier(Supplier<ByteBuffer> info)
+    {
+        Check.notNull(info);
+
+        this.info = info;
+    }
+
+    @Override
+    public void setRelayFilter(RelayFilter filter)
+    {
+        Check.notNull(filter);
+
+        relayFilter = filter;
+    }
+
+    @Override
+    public int getClients()
+    {
+        return clients.size();
+    }
+
+    @Override
+    public float getBandwidthUp()
+    {
+        return bandwidthUp;
+    }
+
+    @Override
+    public float getBandwidthDown()
+    {
+        return bandwidthDown;
+    }
+
+    @Override
+    public float getPacketsUp()
+    {
+        return packetsUp;
+    }
+
+    @Override
+    public float getMessageBytesUp()
+    {
+        return messageBytesUp;
+    }
+
+    /*
+     * Listenable
+     */
+
+    @Override
+    public void addListener(ServerListener listener)
+    {
+        listenable.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(ServerListener listener)
+    {
+        listenable.removeListener(listener);
+    }
+
+    /**
+     * Received pooled datagram, given back to pool once released by the listener and by all its packets.
+     */
+    private final class Datagram
+    {
+        /** References count, listener included. */
+        private final AtomicInteger references = new AtomicInteger(1);
+        /** Pooled buffer. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Create datagram.
+         * 
+         * @param buffer The pooled buffer.
+         */
+        Datagram(ByteBuffer buffer)
+        {
+            super();
+
+            this.buffer = buffer;
+        }
+
+        /**
+         * Keep datagram for a packet.
+         */
+        void keep()
+        {
+            references.incrementAndGet();
+        }
+
+        /**
+         * Release a datagram reference.
+         */
+        void release()
+        {
+            if (references.decrementAndGet() == 0)
+            {
+                pool.release(buffer);
+            }
+        }
+    }
+}
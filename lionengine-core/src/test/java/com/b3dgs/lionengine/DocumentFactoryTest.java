@@ -17,14 +17,23 @@
 package com.b3dgs.lionengine;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -63,6 +72,48 @@ final class DocumentFactoryTest
         }
     }
 
+    /**
+     * Test create documents from several threads.
+     * 
+     * @throws IOException If error.
+     * @throws ExecutionException If error.
+     * @throws InterruptedException If error.
+     */
+    @Test
+    void testCreateDocumentConcurrent() throws IOException, InterruptedException, ExecutionException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = DocumentFactoryTest.class.getResourceAsStream("type.xml"))
+        {
+            UtilStream.copy(input, output);
+        }
+        final byte[] content = output.toByteArray();
+        final String expected = DocumentFactory.createDocument(new ByteArrayInputStream(content))
+                                               .getDocumentElement()
+                                               .getNodeName();
+
+        final int threads = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads * 50; i++)
+            {
+                results.add(executor.submit(() -> DocumentFactory.createDocument(new ByteArrayInputStream(content))
+                                                                 .getDocumentElement()
+                                                                 .getNodeName()));
+            }
+            for (final Future<String> result : results)
+            {
+                assertEquals(expected, result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test create document malformed.
      * 
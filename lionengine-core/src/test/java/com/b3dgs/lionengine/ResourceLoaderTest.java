@@ -24,7 +24,14 @@ import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -197,13 +204,231 @@ final class ResourceLoaderTest
         assertTimeout(1_000L, () -> ResourceLoader.ERROR_SKIPPED.equals(exception.get().getMessage()));
     }
 
+    /**
+     * Test dependencies are loaded before dependents, with executor.
+     */
+    @Test
+    void testDependencies()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            final ResourceLoader<Type> resourceLoader = new ResourceLoader<>(executor);
+            final List<Type> loaded = Collections.synchronizedList(new ArrayList<>());
+
+            resourceLoader.add(Type.TEST, new ActionResource(() -> loaded.add(Type.TEST)), Arrays.asList(Type.FIRST));
+            resourceLoader.add(Type.FIRST,
+                               new ActionResource(() -> loaded.add(Type.FIRST)),
+                               Arrays.asList(Type.SECOND));
+            resourceLoader.add(Type.SECOND, new ActionResource(() -> loaded.add(Type.SECOND)));
+            resourceLoader.start();
+            resourceLoader.await();
+
+            assertEquals(Arrays.asList(Type.SECOND, Type.FIRST, Type.TEST), loaded);
+            assertEquals(3, resourceLoader.get().size());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test listener progress.
+     */
+    @Test
+    void testListener()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        final List<Integer> progress = new ArrayList<>();
+        final List<Type> keys = new ArrayList<>();
+        final ResourceLoaderListener<Type> listener = (key, time, loaded, count) ->
+        {
+            assertTrue(time >= 0.0);
+            assertEquals(2, count);
+            keys.add(key);
+            progress.add(Integer.valueOf(loaded));
+        };
+        resourceLoader.addListener(listener);
+        resourceLoader.add(Type.TEST, new ActionResource(() -> UtilTests.pause(1L)));
+        resourceLoader.add(Type.FIRST, new ActionResource(() -> UtilTests.pause(1L)));
+        resourceLoader.start();
+        resourceLoader.await();
+
+        assertEquals(Arrays.asList(Type.TEST, Type.FIRST), keys);
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2)), progress);
+
+        resourceLoader.removeListener(listener);
+    }
+
+    /**
+     * Test prepare steps performed by update.
+     * 
+     * @throws InterruptedException If error.
+     */
+    @Test
+    void testPrepareUpdate() throws InterruptedException
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        final AtomicReference<Thread> prepared = new AtomicReference<>();
+        final CountDownLatch loaded = new CountDownLatch(1);
+        resourceLoader.addListener((key, time, count, total) -> loaded.countDown());
+        resourceLoader.add(Type.TEST, new ActionResource(() -> assertNull(prepared.get())));
+        resourceLoader.setPrepare(Type.TEST, () -> prepared.set(Thread.currentThread()));
+
+        resourceLoader.update();
+        assertNull(prepared.get());
+
+        resourceLoader.start();
+        loaded.await();
+
+        assertNull(prepared.get());
+
+        resourceLoader.update();
+
+        assertEquals(Thread.currentThread(), prepared.get());
+
+        prepared.set(null);
+        resourceLoader.await();
+
+        assertNull(prepared.get());
+    }
+
+    /**
+     * Test prepare steps performed by await.
+     */
+    @Test
+    void testPrepareAwait()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        final AtomicReference<Thread> prepared = new AtomicReference<>();
+        resourceLoader.add(Type.TEST, new SlowResource());
+        resourceLoader.setPrepare(Type.TEST, () -> prepared.set(Thread.currentThread()));
+        resourceLoader.start();
+        resourceLoader.await();
+
+        assertEquals(Thread.currentThread(), prepared.get());
+        assertThrows(() -> resourceLoader.setPrepare(Type.TEST, () -> prepared.set(null)),
+                     ResourceLoader.ERROR_STARTED);
+    }
+
+    /**
+     * Test missing dependency.
+     */
+    @Test
+    void testMissingDependency()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        resourceLoader.add(Type.TEST, new SlowResource(), Arrays.asList(Type.FIRST));
+
+        assertThrows(() -> resourceLoader.start(), ResourceLoader.ERROR_RESOURCE + Type.FIRST);
+        assertFalse(resourceLoader.isFinished());
+    }
+
+    /**
+     * Test cyclic dependencies.
+     */
+    @Test
+    void testCyclicDependencies()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        resourceLoader.add(Type.TEST, new SlowResource(), Arrays.asList(Type.FIRST));
+        resourceLoader.add(Type.FIRST, new SlowResource(), Arrays.asList(Type.TEST));
+        resourceLoader.add(Type.SECOND, new SlowResource());
+
+        assertThrows(() -> resourceLoader.start(), ResourceLoader.ERROR_CYCLE + Arrays.asList(Type.TEST, Type.FIRST));
+    }
+
+    /**
+     * Test loading failure.
+     */
+    @Test
+    void testFailure()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>();
+        final List<Type> loaded = new ArrayList<>();
+        resourceLoader.add(Type.TEST, new ActionResource(() ->
+        {
+            throw new LionEngineException(Type.TEST.name());
+        }));
+        resourceLoader.add(Type.FIRST, new ActionResource(() -> loaded.add(Type.FIRST)), Arrays.asList(Type.TEST));
+        resourceLoader.start();
+
+        assertThrows(() -> resourceLoader.await(), ResourceLoader.ERROR_FAILED + Type.TEST);
+        assertTrue(loaded.isEmpty());
+        assertTrue(resourceLoader.isFinished());
+    }
+
+    /**
+     * Test loading rejected by executor.
+     */
+    @Test
+    void testRejected()
+    {
+        final ResourceLoader<Type> resourceLoader = new ResourceLoader<>(command ->
+        {
+            throw new RejectedExecutionException(Type.TEST.name());
+        });
+        resourceLoader.add(Type.TEST, new ActionResource(() ->
+        {
+            // Mock
+        }));
+        resourceLoader.start();
+
+        assertThrows(() -> resourceLoader.await(), ResourceLoader.ERROR_FAILED + Type.TEST);
+        assertTrue(resourceLoader.isFinished());
+    }
+
     /**
      * Test type.
      */
     private enum Type
     {
         /** Test type. */
-        TEST;
+        TEST,
+        /** First type. */
+        FIRST,
+        /** Second type. */
+        SECOND;
+    }
+
+    /**
+     * Action resource test case.
+     */
+    private static final class ActionResource implements Resource
+    {
+        /** Load action. */
+        private final Runnable action;
+
+        /**
+         * Create resource.
+         * 
+         * @param action The load action.
+         */
+        private ActionResource(Runnable action)
+        {
+            super();
+
+            this.action = action;
+        }
+
+        @Override
+        public void load()
+        {
+            action.run();
+        }
+
+        @Override
+        public boolean isLoaded()
+        {
+            return true;
+        }
+
+        @Override
+        public void dispose()
+        {
+            // Mock
+        }
     }
 
     /**
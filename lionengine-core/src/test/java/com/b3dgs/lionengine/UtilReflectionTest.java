@@ -18,6 +18,7 @@ package com.b3dgs.lionengine;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
@@ -140,6 +141,21 @@ final class UtilReflectionTest
                      UtilReflection.createReduce(ViewerMock.class, Integer.valueOf(1), "void").getClass());
     }
 
+    /**
+     * Test create reduce with cached constructor.
+     */
+    @Test
+    void testCreateReduceCached() throws NoSuchMethodException
+    {
+        final ViewerMock first = UtilReflection.createReduce(ViewerMock.class, Integer.valueOf(1), "void");
+        final ViewerMock second = UtilReflection.createReduce(ViewerMock.class, Integer.valueOf(2), "void");
+
+        assertNotEquals(first, second);
+        assertEquals(ViewerMock.class, second.getClass());
+        assertEquals(ViewerMock.class, UtilReflection.createReduce(ViewerMock.class, "void").getClass());
+        assertEquals(ViewerMock.class, UtilReflection.createReduce(ViewerMock.class).getClass());
+    }
+
     /**
      * Create create reduce with no constructor found.
      */
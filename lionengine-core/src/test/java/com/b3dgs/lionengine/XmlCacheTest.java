@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsPrefix;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link XmlCache}.
+ */
+final class XmlCacheTest
+{
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(XmlCacheTest.class.getSimpleName(), Version.DEFAULT));
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        try
+        {
+            UtilFile.deleteFile(new File(System.getProperty("java.io.tmpdir"), XmlCacheTest.class.getSimpleName()));
+        }
+        catch (final LionEngineException exception)
+        {
+            Verbose.exception(exception);
+        }
+
+        Engine.terminate();
+    }
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void beforeTest()
+    {
+        Medias.setResourcesDirectory(null);
+        Medias.setFactoryMedia(new FactoryMediaDefault());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        XmlCache.clear();
+    }
+
+    /**
+     * Create a test configuration.
+     * 
+     * @param name The media name.
+     * @param value The attribute value.
+     * @return The saved media.
+     */
+    private static Media createXml(String name, String value)
+    {
+        final Xml root = new Xml("lionengine:root");
+        root.writeString("value", value);
+        final Xml child = root.createChild("child");
+        child.setText("text");
+        child.writeInteger("int", 1);
+        root.createChild("empty");
+
+        final Media media = Medias.create(name);
+        root.save(media);
+        return media;
+    }
+
+    /**
+     * Test constructor.
+     */
+    @Test
+    void testConstructorPrivate()
+    {
+        assertPrivateConstructor(XmlCache.class);
+    }
+
+    /**
+     * Test documents built from compiled cache, and parsed again once modified.
+     */
+    @Test
+    void testCompileLoad()
+    {
+        final Media media1 = createXml("config1.xml", "a");
+        final Media media2 = createXml("config2.xml", "b");
+        final Media cache = Medias.create("config.cache");
+
+        assertEquals(2, XmlCache.compile(cache, Arrays.asList(media1, media2)));
+        assertEquals(0, XmlCache.getCount());
+
+        XmlCache.load(cache);
+
+        assertEquals(2, XmlCache.getCount());
+
+        final Xml xml = new Xml(media1);
+
+        assertEquals("lionengine:root", xml.getNodeName());
+        assertEquals("a", xml.getString("value"));
+        assertEquals("text", xml.getText("child"));
+        assertEquals(1, xml.getInteger("int", "child"));
+        assertEquals(2, xml.getChildren().size());
+        assertEquals(new Xml(media2).getAttributes(), new XmlReader(media2).getAttributes());
+        assertEquals("b", new Xml(media2).getString("value"));
+
+        createXml("config1.xml", "modified");
+
+        assertEquals("modified", new Xml(media1).getString("value"));
+
+        XmlCache.clear();
+
+        assertEquals(0, XmlCache.getCount());
+        assertEquals("modified", new Xml(media1).getString("value"));
+        assertEquals("b", new Xml(media2).getString("value"));
+    }
+
+    /**
+     * Test document built from compiled cache without reading media content, if not a file and unchanged since
+     * compilation.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testCompileLoadResource() throws IOException
+    {
+        final Media xml = createXml("config3.xml", "c");
+        final File jar = new File(xml.getFile().getParentFile(), "config.jar");
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+             InputStream input = xml.getInputStream())
+        {
+            output.putNextEntry(new ZipEntry("config3.xml"));
+            UtilStream.copy(input, output);
+            output.closeEntry();
+        }
+
+        final URL url = new URL("jar:" + jar.toURI().toURL() + "!/config3.xml");
+        final AtomicInteger read = new AtomicInteger();
+        final Media media = new MediaMock()
+        {
+            @Override
+            public String getPath()
+            {
+                return "config3.xml";
+            }
+
+            @Override
+            public URL getUrl()
+            {
+                return url;
+            }
+
+            @Override
+            public InputStream getInputStream()
+            {
+                read.incrementAndGet();
+                try
+                {
+                    return url.openStream();
+                }
+                catch (final IOException exception)
+                {
+                    throw new LionEngineException(exception);
+                }
+            }
+        };
+        final Media cache = Medias.create("resource.cache");
+
+        assertEquals(1, XmlCache.compile(cache, Arrays.asList(media)));
+
+        XmlCache.load(cache);
+        read.set(0);
+
+        assertEquals("c", new Xml(media).getString("value"));
+        assertEquals(0, read.get());
+    }
+
+    /**
+     * Test invalid cache file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testInvalid() throws IOException
+    {
+        final Media cache = Medias.create("invalid.cache");
+        try (OutputStream output = cache.getOutputStream())
+        {
+            output.write(new byte[]
+            {
+                1, 2, 3, 4, 5, 6, 7, 8
+            });
+        }
+
+        assertThrowsPrefix(() -> XmlCache.load(cache), "[" + cache.getPath() + "] ");
+        assertEquals(0, XmlCache.getCount());
+
+        final Media truncated = Medias.create("truncated.cache");
+        try (OutputStream output = truncated.getOutputStream())
+        {
+            output.write(new byte[1]);
+        }
+
+        assertThrowsPrefix(() -> XmlCache.load(truncated), "[" + truncated.getPath() + "] ");
+        assertEquals(0, XmlCache.getCount());
+    }
+}
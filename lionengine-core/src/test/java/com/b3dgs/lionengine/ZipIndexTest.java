@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link ZipIndex}.
+ */
+final class ZipIndexTest
+{
+    /** Stored content. */
+    private static final String STORED = "stored content";
+    /** Deflated content. */
+    private static final String DEFLATED = "deflated content";
+
+    /**
+     * Get entries names.
+     * 
+     * @param entries The entries.
+     * @return The names.
+     */
+    private static List<String> getNames(Collection<ZipEntry> entries)
+    {
+        final List<String> names = new ArrayList<>();
+        for (final ZipEntry entry : entries)
+        {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Read stream.
+     * 
+     * @param input The input stream.
+     * @return The read content.
+     * @throws IOException If error.
+     */
+    private static String read(InputStream input) throws IOException
+    {
+        try (InputStream stream = input;
+             ByteArrayOutputStream output = new ByteArrayOutputStream())
+        {
+            final byte[] buffer = new byte[4];
+            int read;
+            // CHECKSTYLE IGNORE LINE: InnerAssignment
+            while ((read = stream.read(buffer, 0, buffer.length)) >= 0)
+            {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Write entry.
+     * 
+     * @param zip The output ZIP.
+     * @param name The entry name.
+     * @param data The entry content.
+     * @param stored <code>true</code> to store, <code>false</code> to deflate.
+     * @throws IOException If error.
+     */
+    private static void write(ZipOutputStream zip, String name, String data, boolean stored) throws IOException
+    {
+        final byte[] content = data.getBytes(StandardCharsets.UTF_8);
+        final ZipEntry entry = new ZipEntry(name);
+        if (stored)
+        {
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    /** Test ZIP. */
+    private File file;
+
+    /**
+     * Prepare test.
+     * 
+     * @throws IOException If error.
+     */
+    @BeforeEach
+    public void beforeTest() throws IOException
+    {
+        file = File.createTempFile("index", ".zip");
+        try (OutputStream output = Files.newOutputStream(file.toPath());
+             ZipOutputStream zip = new ZipOutputStream(output))
+        {
+            zip.putNextEntry(new ZipEntry("folder/"));
+            zip.closeEntry();
+            write(zip, "folder/stored.txt", STORED, true);
+            write(zip, "folder/sub/deflated.xml", DEFLATED, false);
+            write(zip, "other/file.txt", STORED, false);
+        }
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        ZipIndex.setMapped(false);
+        ZipIndex.setCheckDelay(ZipIndex.DEFAULT_CHECK_DELAY);
+        ZipIndex.clear();
+        UtilFile.deleteFile(file);
+    }
+
+    /**
+     * Test entries by path and extension.
+     */
+    @Test
+    void testEntries()
+    {
+        final ZipIndex index = ZipIndex.get(file);
+
+        assertEquals(Arrays.asList("folder/stored.txt", "folder/sub/deflated.xml"),
+                     getNames(index.getEntries("folder/")));
+        assertEquals(Arrays.asList("folder/stored.txt", "other/file.txt"), getNames(index.getEntries("", "txt")));
+        assertEquals(Arrays.asList("folder/sub/deflated.xml"), getNames(index.getEntries("folder", "xml")));
+        assertTrue(index.getEntries("folder", "png").isEmpty());
+        assertTrue(index.getEntries("void").isEmpty());
+
+        assertTrue(index.exists("folder/stored.txt"));
+        assertFalse(index.exists("folder/"));
+        assertFalse(index.exists("void"));
+    }
+
+    /**
+     * Test index is shared until file changes, checked once per delay.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testShared() throws IOException
+    {
+        assertThrows(() -> ZipIndex.setCheckDelay(-1L), "Invalid argument: -1.0 is not superior or equal to 0.0");
+
+        ZipIndex.setCheckDelay(Long.MAX_VALUE / 1_000_000L);
+        final ZipIndex index = ZipIndex.get(file);
+
+        assertEquals(index, ZipIndex.get(file));
+
+        try (OutputStream output = Files.newOutputStream(file.toPath());
+             ZipOutputStream zip = new ZipOutputStream(output))
+        {
+            write(zip, "new.txt", STORED, true);
+        }
+        assertTrue(file.setLastModified(file.lastModified() + 2000L));
+
+        assertEquals(index, ZipIndex.get(file));
+
+        ZipIndex.setCheckDelay(0L);
+        final ZipIndex changed = ZipIndex.get(file);
+
+        assertNotEquals(index, changed);
+        assertTrue(changed.exists("new.txt"));
+        assertFalse(changed.exists("folder/stored.txt"));
+    }
+
+    /**
+     * Test read entries without mapping.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testInputStream() throws IOException
+    {
+        final ZipIndex index = ZipIndex.get(file);
+
+        assertFalse(index.isMapped("folder/stored.txt"));
+        assertEquals(STORED, read(index.getInputStream("folder/stored.txt")));
+        assertEquals(DEFLATED, read(index.getInputStream("folder/sub/deflated.xml")));
+        assertThrows(() -> index.getInputStream("void"), ZipIndex.ERROR_ENTRY + "void");
+    }
+
+    /**
+     * Test opened entry stream still readable after index has been closed.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testInputStreamClosed() throws IOException
+    {
+        final ZipIndex index = ZipIndex.get(file);
+        try (InputStream input = index.getInputStream("folder/sub/deflated.xml"))
+        {
+            ZipIndex.clear();
+
+            assertEquals(DEFLATED, read(input));
+        }
+        assertEquals(DEFLATED, read(index.getInputStream("folder/sub/deflated.xml")));
+    }
+
+    /**
+     * Test read entries with mapping.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testInputStreamMapped() throws IOException
+    {
+        ZipIndex.setMapped(true);
+        final ZipIndex index = ZipIndex.get(file);
+
+        assertTrue(index.isMapped("folder/stored.txt"));
+        assertFalse(index.isMapped("folder/sub/deflated.xml"));
+        assertEquals(STORED, read(index.getInputStream("folder/stored.txt")));
+        assertEquals(STORED, read(index.getInputStream("folder/stored.txt")));
+        assertEquals(DEFLATED, read(index.getInputStream("folder/sub/deflated.xml")));
+
+        try (InputStream input = index.getInputStream("folder/stored.txt"))
+        {
+            assertEquals(STORED.length(), input.available());
+            assertEquals(2L, input.skip(2L));
+            assertEquals(STORED.charAt(2), (char) input.read());
+        }
+    }
+
+    /**
+     * Test wrong ZIP.
+     */
+    @Test
+    void testWrongZip()
+    {
+        assertThrows(() -> ZipIndex.get(new File("void")), UtilZip.ERROR_OPEN_ZIP + new File("void").getAbsolutePath());
+    }
+}
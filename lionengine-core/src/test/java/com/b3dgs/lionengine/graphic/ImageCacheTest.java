@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.MediaMock;
+
+/**
+ * Test {@link ImageCache}.
+ */
+final class ImageCacheTest
+{
+    /** Image bytes. */
+    private static final long BYTES = 4L * 3L * 4L;
+
+    /** Loaded images count. */
+    private final AtomicInteger loaded = new AtomicInteger();
+    /** Cache tested. */
+    private final ImageCache cache = new ImageCache(media ->
+    {
+        loaded.incrementAndGet();
+        return new ImageBufferMock(4, 3);
+    }, BYTES);
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testInvalid()
+    {
+        assertThrows(() -> new ImageCache(null), "Unexpected null argument !");
+        assertThrows(() -> new ImageCache(media -> null, -1L),
+                     "Invalid argument: -1.0 is not superior or equal to 0.0");
+        assertThrows(() -> cache.acquire(null), "Unexpected null argument !");
+        assertThrows(() -> cache.release(null), "Unexpected null argument !");
+        assertThrows(() -> cache.setCapacity(-1L), "Invalid argument: -1.0 is not superior or equal to 0.0");
+    }
+
+    /**
+     * Test image shared while referenced.
+     */
+    @Test
+    void testShared()
+    {
+        final Media media = new MediaMock();
+        final ImageBuffer image = cache.acquire(media);
+
+        assertEquals(image, cache.acquire(media));
+        assertEquals(1, loaded.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getReferences(media));
+        assertEquals(BYTES, cache.getBytes());
+        assertEquals(0L, cache.getReleasedBytes());
+
+        final ImageBuffer other = cache.acquire(new MediaMock());
+
+        assertNotEquals(image, other);
+        assertEquals(2, loaded.get());
+        assertEquals(2 * BYTES, cache.getBytes());
+    }
+
+    /**
+     * Test released image kept until capacity is reached.
+     */
+    @Test
+    void testReleased()
+    {
+        final Media media1 = new MediaMock();
+        final Media media2 = new MediaMock();
+        final ImageBuffer image1 = cache.acquire(media1);
+        cache.acquire(media2);
+
+        cache.release(media1);
+
+        assertEquals(0, cache.getReferences(media1));
+        assertEquals(BYTES, cache.getReleasedBytes());
+        assertEquals(2 * BYTES, cache.getBytes());
+
+        cache.release(media1);
+
+        assertEquals(0, cache.getReferences(media1));
+        assertEquals(BYTES, cache.getReleasedBytes());
+
+        assertEquals(image1, cache.acquire(media1));
+        assertEquals(1, cache.getReferences(media1));
+        assertEquals(0L, cache.getReleasedBytes());
+
+        cache.release(media1);
+        cache.release(media2);
+
+        assertEquals(BYTES, cache.getReleasedBytes());
+        assertEquals(BYTES, cache.getBytes());
+
+        cache.setCapacity(0L);
+
+        assertEquals(0L, cache.getCapacity());
+        assertEquals(0L, cache.getReleasedBytes());
+        assertEquals(0L, cache.getBytes());
+
+        cache.acquire(media1);
+
+        assertTrue(cache.getHits() + cache.getMisses() == 4);
+        assertEquals(1, cache.getReferences(media1));
+    }
+
+    /**
+     * Test image read outside of cache lock, concurrent requests of the same image waiting for it.
+     */
+    @Test
+    void testConcurrent()
+    {
+        final Media slow = new MediaMock();
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+        final ImageCache concurrent = new ImageCache(media ->
+        {
+            loaded.incrementAndGet();
+            if (media == slow)
+            {
+                reading.countDown();
+                try
+                {
+                    resume.await();
+                }
+                catch (final InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ImageBufferMock(4, 3);
+        });
+
+        final AtomicReference<ImageBuffer> first = new AtomicReference<>();
+        final AtomicReference<ImageBuffer> second = new AtomicReference<>();
+        final Thread reader = new Thread(() -> first.set(concurrent.acquire(slow)));
+        final Thread waiter = new Thread(() -> second.set(concurrent.acquire(slow)));
+
+        assertTimeout(5000L, () ->
+        {
+            reader.start();
+            reading.await();
+            waiter.start();
+
+            concurrent.acquire(new MediaMock());
+
+            assertEquals(2, concurrent.getMisses());
+
+            resume.countDown();
+            reader.join();
+            waiter.join();
+        });
+
+        assertEquals(first.get(), second.get());
+        assertEquals(2, loaded.get());
+        assertEquals(2, concurrent.getReferences(slow));
+    }
+
+    /**
+     * Test clear.
+     */
+    @Test
+    void testClear()
+    {
+        final Media media = new MediaMock();
+        final ImageBuffer image = cache.acquire(media);
+
+        cache.clear();
+
+        assertEquals(0, cache.getReferences(media));
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0L, cache.getBytes());
+        assertNotEquals(image, cache.acquire(media));
+        assertEquals(2, loaded.get());
+    }
+}
@@ -213,6 +213,93 @@ final class LoaderTest
         Verbose.info("****************************************************************************************");
     }
 
+    /**
+     * Test with next sequence loaded in background.
+     */
+    @Test
+    void testSequenceLoadAsync()
+    {
+        Loader.start(CONFIG, SequenceNextLoadAsyncMock.class, SequenceSingleMock.class, Long.valueOf(0L)).await();
+    }
+
+    /**
+     * Test with next sequence loaded in background reused on end.
+     */
+    @Test
+    void testSequenceLoadAsyncEnd()
+    {
+        SequenceLoadCountMock.LOADS.set(0);
+        Loader.start(CONFIG,
+                     SequenceNextLoadAsyncEndMock.class,
+                     SequenceLoadCountMock.class,
+                     SequenceLoadCountMock.class)
+              .await();
+
+        assertEquals(1, SequenceLoadCountMock.LOADS.get());
+    }
+
+    /**
+     * Test with next sequence loaded in background cancelled on end with another sequence.
+     */
+    @Test
+    void testSequenceLoadAsyncEndCancel()
+    {
+        Loader.start(CONFIG, SequenceNextLoadAsyncEndMock.class, SequenceLoadFailMock.class, SequenceSingleMock.class)
+              .await();
+    }
+
+    /**
+     * Test with next sequence loaded in background cancelled on end with other arguments, waited and notified before
+     * next sequence load.
+     */
+    @Test
+    void testSequenceLoadAsyncEndArguments()
+    {
+        SequenceCancelMock.reset();
+        Loader.start(CONFIG, SequenceNextLoadAsyncArgumentsMock.class).await();
+
+        assertEquals(2, SequenceCancelMock.LOADS.get());
+        assertEquals(0, SequenceCancelMock.OVERLAPS.get());
+        assertEquals(1, SequenceCancelMock.CANCELLED.get());
+        assertEquals(2, SequenceCancelMock.STARTED.get());
+    }
+
+    /**
+     * Test with next sequence loaded in background failing.
+     */
+    @Test
+    void testSequenceLoadAsyncFail()
+    {
+        Verbose.info("*********************************** EXPECTED VERBOSE ***********************************");
+
+        assertThrows(() -> Loader.start(CONFIG,
+                                        SequenceNextLoadAsyncMock.class,
+                                        SequenceLoadFailMock.class,
+                                        Long.valueOf(0L))
+                                 .await(),
+                     "expected failure");
+
+        Verbose.info("****************************************************************************************");
+    }
+
+    /**
+     * Test with next sequence load deferred by preload budget.
+     */
+    @Test
+    void testSequenceLoadAsyncBudget()
+    {
+        Verbose.info("*********************************** EXPECTED VERBOSE ***********************************");
+
+        assertThrows(() -> Loader.start(CONFIG,
+                                        SequenceNextLoadAsyncMock.class,
+                                        SequenceLoadFailMock.class,
+                                        Long.valueOf(Long.MAX_VALUE))
+                                 .await(),
+                     "expected failure");
+
+        Verbose.info("****************************************************************************************");
+    }
+
     /**
      * Test with fail sequence.
      */
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.graphic.Graphic;
+
+/**
+ * Mock sequence counting loads, overlapping loads and cancellations.
+ */
+public final class SequenceCancelMock extends Sequence
+{
+    /** Loads count. */
+    static final AtomicInteger LOADS = new AtomicInteger();
+    /** Running loads count. */
+    static final AtomicInteger RUNNING = new AtomicInteger();
+    /** Overlapping loads count. */
+    static final AtomicInteger OVERLAPS = new AtomicInteger();
+    /** Cancellations count. */
+    static final AtomicInteger CANCELLED = new AtomicInteger();
+    /** Started sequence value. */
+    static final AtomicInteger STARTED = new AtomicInteger();
+
+    /**
+     * Reset counters.
+     */
+    static void reset()
+    {
+        LOADS.set(0);
+        RUNNING.set(0);
+        OVERLAPS.set(0);
+        CANCELLED.set(0);
+        STARTED.set(0);
+    }
+
+    /** Sequence value. */
+    private final int value;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     * @param value The sequence value.
+     */
+    public SequenceCancelMock(Context context, Integer value)
+    {
+        super(context, UtilTests.RESOLUTION_320_240);
+
+        this.value = value.intValue();
+    }
+
+    @Override
+    public void load()
+    {
+        LOADS.incrementAndGet();
+        if (RUNNING.incrementAndGet() > 1)
+        {
+            OVERLAPS.incrementAndGet();
+        }
+        try
+        {
+            Thread.sleep(50L);
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        RUNNING.decrementAndGet();
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        STARTED.set(value);
+        end();
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        // Mock
+    }
+
+    @Override
+    public void onCancelled()
+    {
+        super.onCancelled();
+
+        if (RUNNING.get() == 0)
+        {
+            CANCELLED.incrementAndGet();
+        }
+    }
+}
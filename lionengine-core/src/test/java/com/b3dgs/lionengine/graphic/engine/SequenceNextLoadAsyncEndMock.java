@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.graphic.Graphic;
+
+/**
+ * Mock sequence loading next sequence in background, and ending with a next sequence.
+ */
+public final class SequenceNextLoadAsyncEndMock extends Sequence
+{
+    /** Next sequence loaded. */
+    private final Class<? extends Sequencable> next;
+    /** Next sequence on end. */
+    private final Class<? extends Sequencable> end;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     * @param next The next sequence loaded.
+     * @param end The next sequence on end.
+     */
+    public SequenceNextLoadAsyncEndMock(Context context,
+                                        Class<? extends Sequencable> next,
+                                        Class<? extends Sequencable> end)
+    {
+        super(context, UtilTests.RESOLUTION_320_240, new LoopUnlocked());
+
+        this.next = next;
+        this.end = end;
+    }
+
+    @Override
+    public void load()
+    {
+        loadAsync(next);
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        end(end);
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        // Mock
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Test {@link Batch}.
+ */
+final class BatchTest
+{
+    /**
+     * Create message content.
+     * 
+     * @param clientId The client id.
+     * @param size The content size.
+     * @return The content.
+     */
+    private static ByteBuffer create(int clientId, int size)
+    {
+        final ByteBuffer content = ByteBuffer.allocate(size);
+        content.put(UtilNetwork.INDEX_CLIENT_ID, UtilConversion.fromUnsignedByte(clientId));
+        content.put(size - 1, UtilConversion.fromUnsignedByte(size));
+        return content;
+    }
+
+    /**
+     * Test messages packed in datagram and read back.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testPack() throws IOException
+    {
+        final Batch batch = new Batch(UtilNetwork.BATCH_SIZE);
+        final List<ByteBuffer> sent = new ArrayList<>();
+        final Batch.Sender sender = (datagram, messages) ->
+        {
+            assertEquals(3, messages);
+            final ByteBuffer copy = ByteBuffer.allocate(datagram.remaining());
+            copy.put(datagram);
+            copy.flip();
+            sent.add(copy);
+        };
+
+        batch.add(create(1, 10), sender);
+        batch.add(create(1, 20), Integer.valueOf(2), sender);
+        batch.add(create(1, 30), sender);
+
+        assertEquals(3, batch.getMessages());
+        assertEquals(3 * UtilNetwork.HEADER_BYTES_NUMBER + 60, batch.getSize());
+        assertEquals(0, sent.size());
+
+        batch.flush(sender);
+        batch.flush(sender);
+
+        assertEquals(1, sent.size());
+        assertEquals(0, batch.getMessages());
+        assertEquals(0, batch.getSize());
+
+        final ByteBuffer datagram = sent.get(0);
+        int offset = 0;
+        final int[] clients = new int[3];
+        final int[] sizes = new int[3];
+        for (int i = 0; i < 3; i++)
+        {
+            final ByteBuffer buffer = UtilNetwork.getBuffer(datagram, offset);
+            offset += UtilNetwork.HEADER_BYTES_NUMBER + buffer.limit();
+            clients[i] = UtilConversion.toUnsignedByte(buffer.get(UtilNetwork.INDEX_CLIENT_ID));
+            sizes[i] = UtilConversion.toUnsignedByte(buffer.get(buffer.limit() - 1));
+        }
+
+        assertEquals(datagram.limit(), offset);
+        assertEquals(new int[]
+        {
+            1, 2, 1
+        }, clients);
+        assertEquals(new int[]
+        {
+            10, 20, 30
+        }, sizes);
+    }
+
+    /**
+     * Test content not modified when client id is replaced.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testContentKept() throws IOException
+    {
+        final Batch batch = new Batch(UtilNetwork.BATCH_SIZE);
+        final ByteBuffer content = create(1, 10);
+
+        batch.add(content, Integer.valueOf(2), (datagram, messages) ->
+        {
+            // Mock
+        });
+
+        assertEquals(1, UtilConversion.toUnsignedByte(content.get(UtilNetwork.INDEX_CLIENT_ID)));
+    }
+
+    /**
+     * Test datagram sent when next message does not fit.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testFull() throws IOException
+    {
+        final Batch batch = new Batch(UtilNetwork.DATAGRAM_SIZE);
+        final List<Integer> sent = new ArrayList<>();
+        final Batch.Sender sender = (datagram, messages) -> sent.add(Integer.valueOf(messages));
+
+        batch.add(create(1, 100), sender);
+        batch.add(create(1, 100), sender);
+
+        assertEquals(0, sent.size());
+
+        batch.add(create(1, 100), sender);
+
+        assertEquals(1, sent.size());
+        assertEquals(Integer.valueOf(2), sent.get(0));
+        assertEquals(1, batch.getMessages());
+
+        batch.add(create(1, Integer.BYTES), sender);
+
+        assertEquals(1, sent.size());
+        assertEquals(2, batch.getMessages());
+    }
+
+    /**
+     * Test largest message fits an empty datagram, and larger message rejected without sending pending ones.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testMessageSize() throws IOException
+    {
+        final Batch batch = new Batch(UtilNetwork.DATAGRAM_SIZE);
+        final List<Integer> sent = new ArrayList<>();
+        final Batch.Sender sender = (datagram, messages) -> sent.add(Integer.valueOf(messages));
+
+        batch.add(create(1, 100), sender);
+        batch.add(create(1, Batch.MESSAGE_SIZE_MAX), sender);
+
+        assertEquals(1, sent.size());
+        assertEquals(1, batch.getMessages());
+        assertEquals(UtilNetwork.DATAGRAM_SIZE - 1, batch.getSize());
+
+        assertThrows(() -> batch.add(create(1, Batch.MESSAGE_SIZE_MAX + 1), sender),
+                     "Invalid argument: 256 is not inferior or equal to 255");
+        assertThrows(() -> batch.add(create(1, Batch.MESSAGE_SIZE_MAX + 1), Integer.valueOf(2), sender),
+                     "Invalid argument: 256 is not inferior or equal to 255");
+
+        assertEquals(1, sent.size());
+        assertEquals(1, batch.getMessages());
+    }
+
+    /**
+     * Test invalid size.
+     */
+    @Test
+    void testInvalidSize()
+    {
+        assertThrows(() -> new Batch(UtilNetwork.DATAGRAM_SIZE - 1),
+                     "Invalid argument: 258 is not superior or equal to 259");
+    }
+}
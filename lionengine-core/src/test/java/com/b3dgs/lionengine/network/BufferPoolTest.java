@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link BufferPool}.
+ */
+final class BufferPoolTest
+{
+    /**
+     * Test acquire and release.
+     */
+    @Test
+    void testAcquireRelease()
+    {
+        final BufferPool pool = new BufferPool(4, 1);
+
+        final ByteBuffer first = pool.acquire();
+        first.put((byte) 1);
+
+        assertTrue(first.isDirect());
+        assertEquals(4, first.capacity());
+        assertEquals(4, pool.getSize());
+        assertEquals(1, pool.getAllocated());
+
+        pool.release(first);
+        final ByteBuffer reused = pool.acquire();
+
+        assertTrue(first == reused);
+        assertEquals(0, reused.position());
+        assertEquals(4, reused.limit());
+        assertEquals(1, pool.getAllocated());
+
+        final ByteBuffer second = pool.acquire();
+
+        assertEquals(2, pool.getAllocated());
+
+        pool.release(reused);
+        pool.release(second);
+        pool.acquire();
+        pool.acquire();
+
+        assertEquals(3, pool.getAllocated());
+    }
+
+    /**
+     * Test release of foreign buffer.
+     */
+    @Test
+    void testReleaseForeign()
+    {
+        final BufferPool pool = new BufferPool(4, 2);
+        final ByteBuffer heap = ByteBuffer.allocate(4);
+        pool.release(heap);
+        pool.release(ByteBuffer.allocateDirect(2));
+
+        assertTrue(pool.acquire().isDirect());
+        assertEquals(4, pool.acquire().capacity());
+        assertEquals(2, pool.getAllocated());
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    void testInvalid()
+    {
+        assertThrows(() -> new BufferPool(0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new BufferPool(1, -1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> new BufferPool(1, 1).release(null), "Unexpected null argument !");
+    }
+}
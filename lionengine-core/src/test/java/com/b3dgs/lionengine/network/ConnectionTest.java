@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Test {@link Connection}.
+ */
+final class ConnectionTest
+{
+    private static final Integer CLIENT_ID = Integer.valueOf(1);
+
+    /**
+     * Create message content.
+     * 
+     * @param value The message value.
+     * @param size The message size.
+     * @return The message content.
+     */
+    private static ByteBuffer create(int value, int size)
+    {
+        final ByteBuffer content = ByteBuffer.allocate(size);
+        content.put(UtilNetwork.toByte(MessageType.DATA));
+        content.put((byte) 0);
+        content.putInt(value);
+        for (int i = content.position(); i < size; i++)
+        {
+            content.put((byte) i);
+        }
+        return content;
+    }
+
+    /**
+     * Copy sent datagram.
+     * 
+     * @param datagram The datagram.
+     * @return The datagram copy.
+     */
+    private static ByteBuffer copy(ByteBuffer datagram)
+    {
+        final ByteBuffer copy = ByteBuffer.allocate(datagram.remaining());
+        copy.put(datagram);
+        copy.flip();
+        return copy;
+    }
+
+    /**
+     * Deliver datagrams to connection.
+     * 
+     * @param datagrams The sent datagrams, cleared.
+     * @param connection The receiving connection.
+     * @return The delivered messages value.
+     * @throws IOException If error.
+     */
+    private static List<Integer> deliver(List<ByteBuffer> datagrams, Connection connection) throws IOException
+    {
+        final List<ByteBuffer> messages = new ArrayList<>();
+        for (final ByteBuffer datagram : datagrams)
+        {
+            int offset = 0;
+            while (offset < datagram.limit())
+            {
+                final ByteBuffer frame = UtilNetwork.getBuffer(datagram, offset);
+                offset += UtilNetwork.HEADER_BYTES_NUMBER + frame.limit();
+                connection.receive(frame, messages);
+            }
+        }
+        datagrams.clear();
+
+        final List<Integer> values = new ArrayList<>();
+        for (final ByteBuffer message : messages)
+        {
+            assertEquals(CLIENT_ID.intValue(), UtilConversion.toUnsignedByte(message.get(UtilNetwork.INDEX_CLIENT_ID)));
+            values.add(Integer.valueOf(message.getInt(UtilNetwork.INDEX_MODE)));
+        }
+        return values;
+    }
+
+    /**
+     * Get the number of frames in datagrams.
+     * 
+     * @param datagrams The sent datagrams.
+     * @return The frames number.
+     * @throws IOException If error.
+     */
+    private static int getFrames(List<ByteBuffer> datagrams) throws IOException
+    {
+        int frames = 0;
+        for (final ByteBuffer datagram : datagrams)
+        {
+            int offset = 0;
+            while (offset < datagram.limit())
+            {
+                offset += UtilNetwork.HEADER_BYTES_NUMBER + UtilNetwork.getBuffer(datagram, offset).limit();
+                frames++;
+            }
+        }
+        return frames;
+    }
+
+    private final long[] time = new long[1];
+    private final Batch batchA = new Batch(UtilNetwork.BATCH_SIZE);
+    private final Batch batchB = new Batch(UtilNetwork.BATCH_SIZE);
+    private final Connection connectionA = new Connection(CLIENT_ID, batchA, () -> time[0]);
+    private final Connection connectionB = new Connection(CLIENT_ID, batchB, () -> time[0]);
+    private final List<ByteBuffer> sentA = new ArrayList<>();
+    private final List<ByteBuffer> sentB = new ArrayList<>();
+    private final Batch.Sender senderA = (datagram, messages) -> sentA.add(copy(datagram));
+    private final Batch.Sender senderB = (datagram, messages) -> sentB.add(copy(datagram));
+
+    /**
+     * Update connections and flush their batch.
+     * 
+     * @throws IOException If error.
+     */
+    private void update() throws IOException
+    {
+        connectionA.update(senderA);
+        batchA.flush(senderA);
+        connectionB.update(senderB);
+        batchB.flush(senderB);
+    }
+
+    /**
+     * Test reliable messages delivered once, and acknowledged.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testReliable() throws IOException
+    {
+        connectionA.send(create(1, 10), Delivery.RELIABLE_UNORDERED, senderA);
+        connectionA.send(create(2, 10), Delivery.RELIABLE_UNORDERED, senderA);
+
+        assertEquals(2, connectionA.getPending());
+
+        update();
+
+        assertEquals(1, sentA.size());
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2)), deliver(sentA, connectionB));
+
+        update();
+        deliver(sentB, connectionA);
+
+        assertEquals(0, connectionA.getPending());
+
+        time[0] += 1000L;
+        update();
+
+        assertTrue(sentA.isEmpty());
+        assertTrue(sentB.isEmpty());
+    }
+
+    /**
+     * Test lost frames sent again, without duplicates.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testLost() throws IOException
+    {
+        connectionA.send(create(1, 10), Delivery.RELIABLE_UNORDERED, senderA);
+        update();
+        sentA.clear();
+
+        time[0] += 10L;
+        update();
+
+        assertTrue(sentA.isEmpty());
+
+        time[0] += 1000L;
+        update();
+
+        assertEquals(Collections.singletonList(Integer.valueOf(1)), deliver(sentA, connectionB));
+
+        time[0] += 1000L;
+        update();
+        sentB.clear();
+
+        assertEquals(Collections.emptyList(), deliver(sentA, connectionB));
+
+        update();
+        deliver(sentB, connectionA);
+
+        assertEquals(0, connectionA.getPending());
+    }
+
+    /**
+     * Test ordered messages delivered in order, and unordered ones not delayed.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testOrdered() throws IOException
+    {
+        connectionA.send(create(1, 10), Delivery.RELIABLE_ORDERED, senderA);
+        update();
+        sentA.clear();
+
+        connectionA.send(create(2, 10), Delivery.RELIABLE_ORDERED, senderA);
+        connectionA.send(create(3, 10), Delivery.RELIABLE_UNORDERED, senderA);
+        update();
+
+        assertEquals(Collections.singletonList(Integer.valueOf(3)), deliver(sentA, connectionB));
+
+        time[0] += 1000L;
+        update();
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2)), deliver(sentA, connectionB));
+    }
+
+    /**
+     * Test large message fragmented and reassembled.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testFragments() throws IOException
+    {
+        final int size = Connection.FRAGMENT_SIZE * 3 + 10;
+        connectionA.send(create(1, size), Delivery.RELIABLE_UNORDERED, senderA);
+
+        assertEquals(4, connectionA.getPending());
+
+        update();
+
+        final List<ByteBuffer> messages = new ArrayList<>();
+        for (final ByteBuffer datagram : sentA)
+        {
+            int offset = 0;
+            while (offset < datagram.limit())
+            {
+                final ByteBuffer frame = UtilNetwork.getBuffer(datagram, offset);
+                offset += UtilNetwork.HEADER_BYTES_NUMBER + frame.limit();
+                assertEquals(Delivery.RELIABLE_UNORDERED, connectionB.receive(frame, messages));
+            }
+        }
+
+        assertEquals(1, messages.size());
+        final ByteBuffer message = messages.get(0);
+        assertEquals(size, message.capacity());
+        assertEquals(1, message.getInt(UtilNetwork.INDEX_MODE));
+        assertEquals(create(1, size).array()[size - 1], message.get(size - 1));
+
+        update();
+        assertNull(connectionA.receive(UtilNetwork.getBuffer(sentB.get(0), 0), messages));
+
+        assertEquals(0, connectionA.getPending());
+    }
+
+    /**
+     * Test fragments in flight bounded to acknowledgement range, others being sent once acknowledged.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testInFlight() throws IOException
+    {
+        final int count = Connection.ACK_BITS + 8;
+        final int size = Connection.FRAGMENT_SIZE * count;
+        connectionA.send(create(1, size), Delivery.RELIABLE_UNORDERED, senderA);
+        batchA.flush(senderA);
+
+        assertEquals(count, connectionA.getPending());
+        assertEquals(Connection.ACK_BITS, getFrames(sentA));
+        assertEquals(Collections.emptyList(), deliver(sentA, connectionB));
+
+        update();
+        deliver(sentB, connectionA);
+
+        assertEquals(8, connectionA.getPending());
+
+        update();
+
+        assertEquals(8, getFrames(sentA));
+        assertEquals(Collections.singletonList(Integer.valueOf(1)), deliver(sentA, connectionB));
+
+        update();
+        deliver(sentB, connectionA);
+
+        assertEquals(0, connectionA.getPending());
+    }
+
+    /**
+     * Test connection lost when fragment is never acknowledged, pending fragments being dropped.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testConnectionLost() throws IOException
+    {
+        connectionA.send(create(1, 10), Delivery.RELIABLE_UNORDERED, senderA);
+        connectionA.send(create(2, Connection.FRAGMENT_SIZE * (Connection.ACK_BITS + 1)),
+                         Delivery.RELIABLE_UNORDERED,
+                         senderA);
+
+        assertEquals(Connection.ACK_BITS + 2, connectionA.getPending());
+
+        while (time[0] < Connection.LOST_DELAY - 1000L)
+        {
+            time[0] += 1000L;
+            update();
+
+            assertFalse(connectionA.isLost());
+        }
+        sentA.clear();
+
+        time[0] += 1000L;
+        update();
+
+        assertTrue(connectionA.isLost());
+        assertEquals(0, connectionA.getPending());
+        assertTrue(sentA.isEmpty());
+
+        connectionA.send(create(3, 10), Delivery.RELIABLE_UNORDERED, senderA);
+        update();
+
+        assertEquals(0, connectionA.getPending());
+        assertTrue(sentA.isEmpty());
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testInvalid()
+    {
+        assertThrows(LionEngineException.class,
+                     () -> connectionA.send(create(1, 10), Delivery.UNRELIABLE, senderA),
+                     "Unknown enum: " + Delivery.UNRELIABLE);
+        final int size = Connection.MAX_SIZE + 1;
+        assertThrows(() -> connectionA.send(create(1, size), Delivery.RELIABLE_ORDERED, senderA),
+                     "Invalid argument: " + size + " is not inferior or equal to " + Connection.MAX_SIZE);
+        assertThrows(IOException.class,
+                     () -> connectionA.receive(create(1, 10), new ArrayList<>()),
+                     "Invalid frame: 10");
+    }
+}
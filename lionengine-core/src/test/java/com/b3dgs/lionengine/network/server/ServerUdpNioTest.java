@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.server;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.Channel;
+import com.b3dgs.lionengine.network.ChannelBuffer;
+import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Packet;
+import com.b3dgs.lionengine.network.UtilNetwork;
+import com.b3dgs.lionengine.network.client.ClientUdp;
+
+/**
+ * Test {@link ServerUdpNio} on loopback.
+ */
+final class ServerUdpNioTest
+{
+    private static final String IP = "127.0.0.1";
+    private static final int DATA_ID = 42;
+
+    /**
+     * Get a free port.
+     * 
+     * @return The free port.
+     * @throws IOException If error.
+     */
+    private static int getFreePort() throws IOException
+    {
+        try (DatagramSocket socket = new DatagramSocket(0))
+        {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Await next packet.
+     * 
+     * @param channel The channel to read.
+     * @return The packet read.
+     */
+    private static Packet read(Channel channel)
+    {
+        final Packet[] packet = new Packet[1];
+        assertTimeout(5_000L, () ->
+        {
+            while ((packet[0] = channel.read()) == null)
+            {
+                Thread.sleep(1L);
+            }
+        });
+        return packet[0];
+    }
+
+    /**
+     * Create data.
+     * 
+     * @param value The value to send.
+     * @return The data.
+     */
+    private static ByteBuffer create(int value)
+    {
+        final ByteBuffer data = ByteBuffer.allocate(Integer.BYTES);
+        data.putInt(value);
+        return data;
+    }
+
+    /**
+     * Test data received and relayed to other client, with pooled buffers reused.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testRelay() throws IOException
+    {
+        final int port = getFreePort();
+        final Channel channelServer = new ChannelBuffer();
+        final ServerUdpNio server = new ServerUdpNio(channelServer);
+        final Channel channel1 = new ChannelBuffer();
+        final Channel channel2 = new ChannelBuffer();
+        final ClientUdp client1 = new ClientUdp(channel1);
+        final ClientUdp client2 = new ClientUdp(channel2);
+        try
+        {
+            server.start(IP, port);
+            client1.connect(IP, port);
+            client2.connect(IP, port);
+
+            assertEquals(2, server.getClients());
+            assertNotNull(client1.getClientId());
+
+            for (int i = 0; i < 100; i++)
+            {
+                client1.send(new Data(client1.getClientId(), DATA_ID, create(i), true));
+
+                final Packet received = read(channelServer);
+                assertEquals(client1.getClientId(), received.getClientId());
+                assertEquals(DATA_ID, received.getDataId());
+                assertEquals(i, received.getInt(5));
+                received.release();
+
+                server.flush();
+                final Packet relayed = read(channel2);
+                assertEquals(client2.getClientId(), relayed.getClientId());
+                assertEquals(client1.getClientId(), relayed.getClientSourceId());
+                assertEquals(DATA_ID, relayed.getDataId());
+                assertEquals(i, relayed.getInt(5));
+            }
+            assertTrue(server.getPool().getAllocated() < 10);
+
+            server.send(new Data(client2.getClientId(), DATA_ID, create(-1)), client2.getClientId());
+            assertEquals(-1, read(channel2).getInt(5));
+        }
+        finally
+        {
+            client1.disconnect();
+            client2.disconnect();
+            server.stop();
+        }
+    }
+
+    /**
+     * Test relayed data skipped for clients rejected by relay filter.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testRelayFilter() throws IOException
+    {
+        final int port = getFreePort();
+        final Channel channelServer = new ChannelBuffer();
+        final ServerUdpNio server = new ServerUdpNio(channelServer);
+        final Channel channel1 = new ChannelBuffer();
+        final Channel channel2 = new ChannelBuffer();
+        final ClientUdp client1 = new ClientUdp(channel1);
+        final ClientUdp client2 = new ClientUdp(channel2);
+        try
+        {
+            server.setRelayFilter((clientId, dataId) -> dataId == DATA_ID);
+            server.start(IP, port);
+            client1.connect(IP, port);
+            client2.connect(IP, port);
+
+            client1.send(new Data(client1.getClientId(), DATA_ID + 1, create(1), true));
+            read(channelServer).release();
+            client1.send(new Data(client1.getClientId(), DATA_ID, create(2), true));
+            read(channelServer).release();
+            server.flush();
+
+            final Packet relayed = read(channel2);
+            assertEquals(DATA_ID, relayed.getDataId());
+            assertEquals(2, relayed.getInt(5));
+        }
+        finally
+        {
+            client1.disconnect();
+            client2.disconnect();
+            server.stop();
+        }
+    }
+
+    /**
+     * Test queued data sent in a single datagram, received and relayed as separated packets.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testQueue() throws IOException
+    {
+        final int port = getFreePort();
+        final Channel channelServer = new ChannelBuffer();
+        final ServerUdpNio server = new ServerUdpNio(channelServer);
+        final Channel channel1 = new ChannelBuffer();
+        final Channel channel2 = new ChannelBuffer();
+        final ClientUdp client1 = new ClientUdp(channel1);
+        final ClientUdp client2 = new ClientUdp(channel2);
+        try
+        {
+            server.start(IP, port);
+            client1.connect(IP, port);
+            client2.connect(IP, port);
+
+            final int count = 50;
+            for (int i = 0; i < count; i++)
+            {
+                client1.queue(new Data(client1.getClientId(), DATA_ID, create(i), true));
+            }
+            client1.flush();
+
+            for (int i = 0; i < count; i++)
+            {
+                final Packet received = read(channelServer);
+                assertEquals(client1.getClientId(), received.getClientId());
+                assertEquals(i, received.getInt(5));
+                received.release();
+            }
+            server.queue(new Data(UtilNetwork.SERVER_ID, DATA_ID, create(-1)), client2.getClientId());
+            server.flush();
+
+            for (int i = 0; i < count; i++)
+            {
+                final Packet relayed = read(channel2);
+                assertEquals(client2.getClientId(), relayed.getClientId());
+                assertEquals(client1.getClientId(), relayed.getClientSourceId());
+                assertEquals(i, relayed.getInt(5));
+            }
+            assertEquals(-1, read(channel2).getInt(5));
+            assertTrue(server.getPool().getAllocated() < 10);
+        }
+        finally
+        {
+            client1.disconnect();
+            client2.disconnect();
+            server.stop();
+        }
+    }
+}
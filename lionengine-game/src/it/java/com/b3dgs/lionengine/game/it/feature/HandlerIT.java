@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.it.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.MirrorableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+
+/**
+ * Benchmark of handler spawn, despawn and typed iteration, with many featurables.
+ */
+final class HandlerIT
+{
+    private static final int[] COUNTS =
+    {
+        1_000, 10_000, 50_000
+    };
+    private static final int FRAMES = 50;
+    private static final int CHURN = 10;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(HandlerIT.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create featurable.
+     * 
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The created featurable.
+     */
+    private static Featurable create(Services services, Setup setup)
+    {
+        final Featurable featurable = new FeaturableModel(services, setup);
+        featurable.addFeature(new TransformableModel(services, setup));
+        featurable.addFeature(new MirrorableModel(services, setup));
+        return featurable;
+    }
+
+    /**
+     * Iterate all transformables.
+     * 
+     * @param handler The handler reference.
+     * @return The number of transformables.
+     */
+    private static int iterate(Handler handler)
+    {
+        int count = 0;
+        for (final Transformable transformable : handler.get(Transformable.class))
+        {
+            transformable.moveLocation(1.0, 1.0, 0.0);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param count The featurables number.
+     */
+    private static void benchmark(int count)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Handler handler = new Handler(services);
+        final Setup setup = new Setup(config);
+
+        final Featurable[] featurables = new Featurable[count];
+        for (int i = 0; i < count; i++)
+        {
+            featurables[i] = create(services, setup);
+        }
+        long start = System.nanoTime();
+        for (final Featurable featurable : featurables)
+        {
+            handler.add(featurable);
+        }
+        handler.updateAdd();
+        final double spawn = (System.nanoTime() - start) / Constant.NANO_TO_MILLI;
+
+        start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            assertEquals(count, iterate(handler));
+        }
+        final double iterate = (System.nanoTime() - start) / Constant.NANO_TO_MILLI / FRAMES;
+
+        final int churn = count / CHURN;
+        double despawn = 0.0;
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            for (int i = 0; i < churn; i++)
+            {
+                final int index = (frame * churn + i) % count;
+                handler.remove(featurables[index]);
+                featurables[index] = create(services, setup);
+                handler.add(featurables[index]);
+            }
+            start = System.nanoTime();
+            handler.updateRemove();
+            handler.updateAdd();
+            despawn += (System.nanoTime() - start) / Constant.NANO_TO_MILLI;
+        }
+        assertEquals(count, handler.size());
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%6d featurables: spawn %8.2f ms, iterate %6.3f ms/frame, churn %d%% %7.3f ms/frame",
+                                   Integer.valueOf(count),
+                                   Double.valueOf(spawn),
+                                   Double.valueOf(iterate),
+                                   Integer.valueOf(100 / CHURN),
+                                   Double.valueOf(despawn / FRAMES)));
+
+        handler.removeAll();
+        handler.updateRemove();
+        for (final Featurable featurable : featurables)
+        {
+            featurable.getFeature(Identifiable.class).notifyDestroyed();
+        }
+    }
+
+    /**
+     * Compare handler operations on featurables count.
+     */
+    @Test
+    void testHandler()
+    {
+        for (final int count : COUNTS)
+        {
+            benchmark(count);
+        }
+        for (final int count : COUNTS)
+        {
+            benchmark(count);
+        }
+    }
+}
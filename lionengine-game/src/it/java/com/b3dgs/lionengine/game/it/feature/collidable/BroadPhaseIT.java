@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.it.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.ViewerMock;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.ComponentUpdater;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.collidable.BroadPhase;
+import com.b3dgs.lionengine.game.feature.collidable.BroadPhaseGrid;
+import com.b3dgs.lionengine.game.feature.collidable.BroadPhaseSweep;
+import com.b3dgs.lionengine.game.feature.collidable.Collidable;
+import com.b3dgs.lionengine.game.feature.collidable.CollidableModel;
+import com.b3dgs.lionengine.game.feature.collidable.Collision;
+import com.b3dgs.lionengine.game.feature.collidable.ComponentCollision;
+import com.b3dgs.lionengine.game.feature.collidable.QuadTree;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Benchmark of collision broad phases, with moving collidables at constant density.
+ */
+final class BroadPhaseIT
+{
+    private static final int[] COUNTS =
+    {
+        1_000, 5_000, 20_000
+    };
+    private static final int FRAMES = 20;
+    private static final int SIZE = 8;
+    private static final int DENSITY = 64 * 64;
+    private static final double SPEED = 2.0;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(BroadPhaseIT.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param name The broad phase name.
+     * @param factory The broad phase factory.
+     * @param count The collidables number.
+     */
+    private static void benchmark(String name, Function<Viewer, BroadPhase> factory, int count)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Handler handler = new Handler(services);
+        handler.addComponent((ComponentUpdater) new ComponentCollision(factory.apply(new ViewerMock())));
+
+        final Setup setup = new Setup(config);
+        final AtomicLong collisions = new AtomicLong();
+        final Random random = new Random(count);
+        final int world = (int) Math.sqrt((double) count * DENSITY);
+        final Transformable[] transformables = new Transformable[count];
+        final double[] speeds = new double[count * 2];
+
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            transformables[i] = featurable.addFeatureAndGet(new TransformableModel(services, setup));
+            transformables[i].teleport(random.nextInt(world), random.nextInt(world));
+
+            final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+            collidable.setGroup(Integer.valueOf(i % 2));
+            collidable.addAccept(Integer.valueOf((i + 1) % 2));
+            collidable.addCollision(new Collision("body", 0, 0, SIZE, SIZE, false));
+            collidable.setEnabled(true);
+            collidable.addListener((c, with, by) -> collisions.incrementAndGet());
+
+            speeds[i * 2] = (random.nextDouble() - 0.5) * SPEED;
+            speeds[i * 2 + 1] = (random.nextDouble() - 0.5) * SPEED;
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+        collisions.set(0L);
+
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                transformables[i].moveLocation(1.0, speeds[i * 2], speeds[i * 2 + 1]);
+                transformables[i].check(false);
+            }
+            handler.update(1.0);
+        }
+        final double elapsed = (System.nanoTime() - start) / Constant.NANO_TO_MILLI / FRAMES;
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%-8s %6d collidables: %8.3f ms/frame, %7d collisions/frame",
+                                   name,
+                                   Integer.valueOf(count),
+                                   Double.valueOf(elapsed),
+                                   Long.valueOf(collisions.get() / FRAMES)));
+    }
+
+    /**
+     * Compare broad phases.
+     */
+    @Test
+    void testBroadPhases()
+    {
+        for (final int count : COUNTS)
+        {
+            benchmark("QuadTree", viewer -> new QuadTree(viewer, 16384), count);
+            benchmark("Grid", BroadPhaseGrid::new, count);
+            benchmark("Sweep", BroadPhaseSweep::new, count);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.it.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.FlowFields;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePathModel;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MovementTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathClusters;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathData;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindingConfig;
+
+/**
+ * Benchmark of path finding queries, with many pathfindable units on maps with random obstacles.
+ */
+final class PathFinderIT
+{
+    private static final int[] SIZES =
+    {
+        256, 1024
+    };
+    private static final int UNITS = 200;
+    private static final int QUERIES = 2_000;
+    private static final int WARMUP = 500;
+    private static final int DISTANCE = 48;
+    private static final int LONG_QUERIES = 200;
+    private static final int LONG_WARMUP = 50;
+    private static final int GROUP_ORDERS = 2;
+    private static final double OBSTACLES = 0.2;
+
+    /** Units configuration. */
+    private static Media config;
+    /** Pathfinding configuration. */
+    private static Media pathfinding;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Engine.start(new EngineMock(PathFinderIT.class.getSimpleName(), Version.DEFAULT));
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+
+        final Map<String, PathData> data = new HashMap<>();
+        data.put(UtilMap.GROUND, new PathData(UtilMap.GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        data.put(UtilMap.TREE, new PathData(UtilMap.TREE, 1.0, true, Arrays.asList(MovementTile.values())));
+
+        final Xml root = new Xml(Constant.XML_PREFIX + "featurable");
+        root.add(PathfindableConfig.exports(data));
+        config = Medias.create("Object" + PathFinderIT.class.getSimpleName() + ".xml");
+        root.save(config);
+
+        final Xml categories = new Xml(PathfindingConfig.NODE_PATHFINDING);
+        for (final String category : data.keySet())
+        {
+            final Xml node = categories.createChild(PathfindingConfig.NODE_TILE_PATH);
+            node.writeString(PathfindingConfig.ATT_CATEGORY, category);
+            node.createChild(TileGroupsConfig.NODE_GROUP).setText(category);
+        }
+        pathfinding = Medias.create(PathfindingConfig.FILENAME);
+        categories.save(pathfinding);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        assertTrue(pathfinding.getFile().delete());
+        Medias.setResourcesDirectory(null);
+
+        Engine.terminate();
+    }
+
+    /**
+     * Create map with random obstacles.
+     * 
+     * @param services The services reference.
+     * @param random The random generator.
+     * @param size The map size in tile.
+     * @return The created map.
+     */
+    private static MapTileGame createMap(Services services, Random random, int size)
+    {
+        services.add(new Camera());
+
+        final MapTileGame map = services.add(new MapTileGame());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, size, size);
+        UtilMap.setGroups(map);
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                final boolean obstacle = random.nextDouble() < OBSTACLES;
+                map.setTile(tx, ty, obstacle ? UtilMap.TILE_TREE : UtilMap.TILE_GROUND);
+            }
+        }
+        map.addFeatureAndGet(new MapTilePathModel()).loadPathfinding(pathfinding);
+        return map;
+    }
+
+    /**
+     * Create units at random free locations around map center.
+     * 
+     * @param services The services reference.
+     * @param map The map reference.
+     * @param random The random generator.
+     * @return The created units.
+     */
+    private static Pathfindable[] createUnits(Services services, MapTileGame map, Random random)
+    {
+        final int size = map.getInTileWidth();
+        final Setup setup = new Setup(config);
+        final Pathfindable[] units = new Pathfindable[UNITS];
+        for (int i = 0; i < UNITS; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            featurable.addFeatureAndGet(new TransformableModel(services, setup)).setSize(1, 1);
+            units[i] = featurable.addFeatureAndGet(new PathfindableModel(services, setup));
+            final int tile = getFree(map, random, size / 2, size / 2, size / 2 - 1);
+            units[i].setLocation(tile % size, tile / size);
+        }
+        return units;
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param size The map size in tile.
+     * @param clusters <code>true</code> to use hierarchical path finder, <code>false</code> for tiles path finder.
+     * @param distance The maximum destination distance in tile.
+     * @param queries The number of measured queries.
+     * @param warmup The number of warmup queries.
+     */
+    private static void benchmark(int size, boolean clusters, int distance, int queries, int warmup)
+    {
+        final Random random = new Random(size);
+        final Services services = new Services();
+        final MapTileGame map = createMap(services, random, size);
+        if (clusters)
+        {
+            services.add(new PathClusters(map));
+        }
+        final Pathfindable[] units = createUnits(services, map, random);
+
+        final int[] destinations = new int[(warmup + queries) * 2];
+        for (int i = 0; i < warmup + queries; i++)
+        {
+            final Pathfindable unit = units[i % UNITS];
+            final int tile = getFree(map, random, unit.getInTileX(), unit.getInTileY(), distance);
+            destinations[i * 2] = tile % size;
+            destinations[i * 2 + 1] = tile / size;
+        }
+        for (int i = 0; i < warmup; i++)
+        {
+            units[i % UNITS].isPathAvailable(destinations[i * 2], destinations[i * 2 + 1]);
+        }
+
+        // Clusters are built on first use, second pass measures built graph
+        final int passes = clusters ? 2 : 1;
+        for (int pass = 0; pass < passes; pass++)
+        {
+            int found = 0;
+            final long start = System.nanoTime();
+            for (int i = warmup; i < warmup + queries; i++)
+            {
+                if (units[i % UNITS].isPathAvailable(destinations[i * 2], destinations[i * 2 + 1]))
+                {
+                    found++;
+                }
+            }
+            final double elapsed = (System.nanoTime() - start) / Constant.NANO_TO_MILLI;
+
+            final String mode;
+            if (clusters)
+            {
+                mode = pass == 0 ? "clusters (cold)" : "clusters (warm)";
+            }
+            else
+            {
+                mode = "tiles";
+            }
+            Verbose.info(String.format(Locale.ENGLISH,
+                                       "%4dx%-4d %d units, %-15s distance %4d: %8.1f queries/s, %4d/%d paths found",
+                                       Integer.valueOf(size),
+                                       Integer.valueOf(size),
+                                       Integer.valueOf(UNITS),
+                                       mode,
+                                       Integer.valueOf(distance),
+                                       Double.valueOf(queries * 1000.0 / elapsed),
+                                       Integer.valueOf(found),
+                                       Integer.valueOf(queries)));
+        }
+    }
+
+    /**
+     * Run group order benchmark, all units are ordered to the same destinations.
+     * 
+     * @param size The map size in tile.
+     * @param fields <code>true</code> to use flow fields path finder, <code>false</code> for tiles path finder.
+     * @param orders The number of measured group orders.
+     */
+    private static void benchmarkGroup(int size, boolean fields, int orders)
+    {
+        final Random random = new Random(size);
+        final Services services = new Services();
+        final MapTileGame map = createMap(services, random, size);
+        if (fields)
+        {
+            services.add(new FlowFields(map));
+        }
+        final Pathfindable[] units = createUnits(services, map, random);
+
+        final int[] destinations = new int[orders + 1];
+        for (int i = 0; i < destinations.length; i++)
+        {
+            destinations[i] = getFree(map, random, size / 2, size / 2, size / 4);
+        }
+        for (final Pathfindable unit : units)
+        {
+            unit.isPathAvailable(destinations[0] % size, destinations[0] / size);
+        }
+
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 1; i < destinations.length; i++)
+        {
+            for (final Pathfindable unit : units)
+            {
+                if (unit.isPathAvailable(destinations[i] % size, destinations[i] / size))
+                {
+                    found++;
+                }
+            }
+        }
+        final double elapsed = (System.nanoTime() - start) / Constant.NANO_TO_MILLI;
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%4dx%-4d %d units, %-15s: %8.2f orders/s, %6d/%d paths found",
+                                   Integer.valueOf(size),
+                                   Integer.valueOf(size),
+                                   Integer.valueOf(UNITS),
+                                   fields ? "flow fields" : "tiles",
+                                   Double.valueOf(orders * 1000.0 / elapsed),
+                                   Integer.valueOf(found),
+                                   Integer.valueOf(orders * UNITS)));
+    }
+
+    /**
+     * Get a random free tile around location.
+     * 
+     * @param map The map reference.
+     * @param random The random generator.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param distance The maximum distance in tile.
+     * @return The free tile index.
+     */
+    private static int getFree(MapTileGame map, Random random, int tx, int ty, int distance)
+    {
+        final int size = map.getInTileWidth();
+        while (true)
+        {
+            final int x = Math.max(0, Math.min(size - 1, tx + random.nextInt(distance * 2 + 1) - distance));
+            final int y = Math.max(0, Math.min(size - 1, ty + random.nextInt(distance * 2 + 1) - distance));
+            if (map.getTile(x, y).getNumber() == UtilMap.TILE_GROUND)
+            {
+                return y * size + x;
+            }
+        }
+    }
+
+    /**
+     * Compare queries per second on map sizes.
+     */
+    @Test
+    void testPathFinder()
+    {
+        for (final int size : SIZES)
+        {
+            benchmark(size, false, DISTANCE, QUERIES, WARMUP);
+        }
+    }
+
+    /**
+     * Compare queries per second of long paths between tiles and hierarchical path finders.
+     */
+    @Test
+    void testPathFinderLong()
+    {
+        for (final int size : SIZES)
+        {
+            benchmark(size, false, size / 4, LONG_QUERIES, LONG_WARMUP);
+            benchmark(size, true, size / 4, LONG_QUERIES, LONG_WARMUP);
+        }
+    }
+
+    /**
+     * Compare group orders per second between tiles and flow fields path finders.
+     */
+    @Test
+    void testPathFinderGroup()
+    {
+        for (final int size : SIZES)
+        {
+            benchmarkGroup(size, false, GROUP_ORDERS);
+            benchmarkGroup(size, true, GROUP_ORDERS);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.it.graphic;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.awt.graphic.ToolsAwt;
+
+/**
+ * Benchmark of image transforms on large sprite sheets, checked against per pixel implementations.
+ */
+final class ToolsAwtIT
+{
+    private static final int SIZE = 1024;
+    private static final int COLORS = 512;
+    private static final int PALETTE_WIDTH = 32;
+    private static final int PALETTE_HEIGHT = 8;
+    private static final int RUNS = 10;
+
+    /**
+     * Create a random image.
+     * 
+     * @param random The random generator.
+     * @param width The image width.
+     * @param height The image height.
+     * @param colors The colors to use.
+     * @return The created image.
+     */
+    private static BufferedImage createImage(Random random, int width, int height, int[] colors)
+    {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++)
+        {
+            pixels[i] = colors[random.nextInt(colors.length)];
+        }
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * Get image pixels.
+     * 
+     * @param image The image reference.
+     * @return The image pixels.
+     */
+    private static int[] getPixels(BufferedImage image)
+    {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Assert images have the same pixels.
+     * 
+     * @param expected The expected images.
+     * @param actual The actual images.
+     */
+    private static void assertPixels(BufferedImage[] expected, BufferedImage[] actual)
+    {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(expected[i].getWidth(), actual[i].getWidth());
+            assertEquals(expected[i].getHeight(), actual[i].getHeight());
+            assertArrayEquals(getPixels(expected[i]), getPixels(actual[i]));
+        }
+    }
+
+    /**
+     * Per pixel mask.
+     * 
+     * @param image The image source.
+     * @param rgba The color mask.
+     * @return The masked image.
+     */
+    private static BufferedImage applyMask(BufferedImage image, int rgba)
+    {
+        final BufferedImage mask = createImage(image.getWidth(), image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                final int col = image.getRGB(x, y);
+                mask.setRGB(x, y, col == rgba ? col & 0x00_FF_FF_FF : col);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Per pixel flip.
+     * 
+     * @param image The image source.
+     * @param horizontal <code>true</code> for horizontal flip, <code>false</code> for vertical flip.
+     * @return The flipped image.
+     */
+    private static BufferedImage flip(BufferedImage image, boolean horizontal)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final BufferedImage flipped = createImage(width, height);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                if (horizontal)
+                {
+                    flipped.setRGB(width - 1 - x, y, image.getRGB(x, y));
+                }
+                else
+                {
+                    flipped.setRGB(x, height - 1 - y, image.getRGB(x, y));
+                }
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Per pixel split.
+     * 
+     * @param image The image source.
+     * @param h The horizontal divisions.
+     * @param v The vertical divisions.
+     * @return The split images.
+     */
+    private static BufferedImage[] splitImage(BufferedImage image, int h, int v)
+    {
+        final int width = image.getWidth() / h;
+        final int height = image.getHeight() / v;
+        final BufferedImage[] images = new BufferedImage[h * v];
+        for (int i = 0; i < images.length; i++)
+        {
+            images[i] = createImage(width, height);
+            for (int y = 0; y < height; y++)
+            {
+                for (int x = 0; x < width; x++)
+                {
+                    images[i].setRGB(x, y, image.getRGB(i % h * width + x, i / h * height + y));
+                }
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Per pixel rasters.
+     * 
+     * @param image The image source.
+     * @param palette The raster palette.
+     * @param th The tile height, <code>0</code> for one raster per palette line.
+     * @return The rastered images.
+     */
+    private static BufferedImage[] getRasterBuffer(BufferedImage image, BufferedImage palette, int th)
+    {
+        final int count;
+        if (th > 0)
+        {
+            count = (int) Math.ceil((palette.getHeight() - 1.0) / th);
+        }
+        else
+        {
+            count = palette.getHeight() - 1;
+        }
+        final int height = image.getHeight();
+        final BufferedImage[] rasters = new BufferedImage[count];
+        for (int i = 0; i < count; i++)
+        {
+            rasters[i] = createImage(image.getWidth(), height);
+            for (int y = 0; y < height; y++)
+            {
+                final int index;
+                if (th > 0)
+                {
+                    index = (height - y - 1) % th + i * th;
+                }
+                else
+                {
+                    index = i;
+                }
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    rasters[i].setRGB(x, y, findRaster(palette, image.getRGB(x, y), index));
+                }
+            }
+        }
+        return rasters;
+    }
+
+    /**
+     * Per pixel smooth rasters.
+     * 
+     * @param image The image source.
+     * @param palette The raster palette.
+     * @param tileHeight The tile height.
+     * @return The rastered images.
+     */
+    private static BufferedImage[] getRasterBufferSmooth(BufferedImage image, BufferedImage palette, int tileHeight)
+    {
+        final int height = image.getHeight();
+        final BufferedImage[] rasters = new BufferedImage[tileHeight];
+        for (int maxHeight = 0; maxHeight < tileHeight; maxHeight++)
+        {
+            rasters[maxHeight] = createImage(image.getWidth(), height);
+            for (int y = 0; y < height / tileHeight * tileHeight; y++)
+            {
+                final boolean inside = tileHeight - 1 - y % tileHeight <= maxHeight;
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    final int rgb = image.getRGB(x, y);
+                    rasters[maxHeight].setRGB(x, y, inside ? findRaster(palette, rgb, 0) : rgb);
+                }
+            }
+        }
+        return rasters;
+    }
+
+    /**
+     * Per pixel offset rasters.
+     * 
+     * @param image The image source.
+     * @param palette The palette offset.
+     * @param raster The raster colors.
+     * @param offsets The offsets number.
+     * @return The rastered images.
+     */
+    private static BufferedImage[] getRasterBufferOffset(BufferedImage image,
+                                                         BufferedImage palette,
+                                                         BufferedImage raster,
+                                                         int offsets)
+    {
+        final int rasterHeight = raster.getHeight();
+        final int height = image.getHeight();
+        final BufferedImage[] rasters = new BufferedImage[rasterHeight];
+        for (int i = 0; i < rasterHeight; i++)
+        {
+            rasters[i] = createImage(image.getWidth(), height);
+            for (int y = 0; y < height; y++)
+            {
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    final int color = image.getRGB(x, y);
+                    if ((color >> Constant.BYTE_4 & 0xFF) != 0)
+                    {
+                        int paletteOffset = 0;
+                        for (int py = palette.getHeight() - 1; py >= 0; py--)
+                        {
+                            if (palette.getRGB(0, py) == color)
+                            {
+                                paletteOffset = py;
+                            }
+                        }
+                        final int py = rasterHeight - 1 - i - (height - 1 - y) / offsets * offsets - paletteOffset * 3;
+                        rasters[i].setRGB(x, y, raster.getRGB(0, UtilMath.clamp(py, 0, rasterHeight - 1)));
+                    }
+                }
+            }
+        }
+        return rasters;
+    }
+
+    /**
+     * Find raster color.
+     * 
+     * @param palette The palette reference.
+     * @param rgb The original color.
+     * @param index The raster index.
+     * @return The raster color, original color if not found.
+     */
+    private static int findRaster(BufferedImage palette, int rgb, int index)
+    {
+        for (int p = 0; p < palette.getWidth(); p++)
+        {
+            if (palette.getRGB(p, 0) == rgb && index + 1 < palette.getHeight())
+            {
+                return palette.getRGB(p, index + 1);
+            }
+        }
+        return rgb;
+    }
+
+    /**
+     * Create a transparent image.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @return The created image.
+     */
+    private static BufferedImage createImage(int width, int height)
+    {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param name The transform name.
+     * @param transform The transform to run.
+     */
+    private static void benchmark(String name, Supplier<Object> transform)
+    {
+        transform.get();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++)
+        {
+            transform.get();
+        }
+        final double elapsed = (System.nanoTime() - start) / Constant.NANO_TO_MILLI / RUNS;
+
+        Verbose.info(String.format(Locale.ENGLISH, "%-14s %dx%d: %8.3f ms", name, SIZE, SIZE, elapsed));
+    }
+
+    /**
+     * Compare transforms with per pixel implementations, and benchmark them.
+     */
+    @Test
+    void testTransforms()
+    {
+        final Random random = new Random(SIZE);
+        final int[] colors = new int[COLORS];
+        for (int i = 0; i < colors.length; i++)
+        {
+            colors[i] = 0xFF_00_00_00 | random.nextInt(0x01_00_00_00);
+        }
+        final BufferedImage sheet = createImage(random, SIZE, SIZE, colors);
+        final BufferedImage palette = createImage(random, PALETTE_WIDTH, PALETTE_HEIGHT, colors);
+        final BufferedImage raster = createImage(random, 1, PALETTE_HEIGHT * PALETTE_HEIGHT, colors);
+
+        final int mask = colors[0];
+        assertPixels(new BufferedImage[]
+        {
+            applyMask(sheet, mask)
+        }, new BufferedImage[]
+        {
+            ToolsAwt.applyMask(sheet, mask)
+        });
+        assertPixels(new BufferedImage[]
+        {
+            flip(sheet, true), flip(sheet, false)
+        }, new BufferedImage[]
+        {
+            ToolsAwt.flipHorizontal(sheet), ToolsAwt.flipVertical(sheet)
+        });
+        assertPixels(splitImage(sheet, 16, 16), ToolsAwt.splitImage(sheet, 16, 16));
+        assertPixels(getRasterBuffer(sheet, palette, 0), ToolsAwt.getRasterBuffer(sheet, palette));
+        assertPixels(getRasterBuffer(sheet, palette, 2), ToolsAwt.getRasterBufferInside(sheet, palette, 2));
+        assertPixels(getRasterBufferSmooth(sheet, palette, 16), ToolsAwt.getRasterBufferSmooth(sheet, palette, 16));
+        assertPixels(getRasterBufferOffset(sheet, palette, raster, 4),
+                     ToolsAwt.getRasterBufferOffset(sheet, palette, raster, 4));
+
+        benchmark("applyMask", () -> ToolsAwt.applyMask(sheet, mask));
+        benchmark("flipHorizontal", () -> ToolsAwt.flipHorizontal(sheet));
+        benchmark("flipVertical", () -> ToolsAwt.flipVertical(sheet));
+        benchmark("splitImage", () -> ToolsAwt.splitImage(sheet, 16, 16));
+        benchmark("raster", () -> ToolsAwt.getRasterBuffer(sheet, palette));
+        benchmark("rasterInside", () -> ToolsAwt.getRasterBufferInside(sheet, palette, 2));
+        benchmark("rasterSmooth", () -> ToolsAwt.getRasterBufferSmooth(sheet, palette, 16));
+        benchmark("rasterOffset", () -> ToolsAwt.getRasterBufferOffset(sheet, palette, raster, 4));
+    }
+}
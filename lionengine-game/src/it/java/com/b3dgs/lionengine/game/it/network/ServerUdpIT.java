@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.it.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.DatagramSocket;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.Channel;
+import com.b3dgs.lionengine.network.ChannelBuffer;
+import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Packet;
+import com.b3dgs.lionengine.network.client.ClientUdp;
+import com.b3dgs.lionengine.network.server.Server;
+import com.b3dgs.lionengine.network.server.ServerUdp;
+import com.b3dgs.lionengine.network.server.ServerUdpNio;
+
+/**
+ * Loopback load test of servers relaying data between clients.
+ */
+final class ServerUdpIT
+{
+    private static final String IP = "127.0.0.1";
+    private static final int PACKETS = 50_000;
+    private static final int BURST = 32;
+    private static final int CLIENTS = 4;
+    private static final long IDLE_MS = 500L;
+
+    /**
+     * Get a free port.
+     * 
+     * @return The free port.
+     * @throws IOException If error.
+     */
+    private static int getFreePort() throws IOException
+    {
+        try (DatagramSocket socket = new DatagramSocket(0))
+        {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Get bytes allocated by server listen thread.
+     * 
+     * @param name The thread name.
+     * @return The allocated bytes, <code>-1</code> if unavailable.
+     */
+    private static long getAllocated(String name)
+    {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            for (final Thread thread : Thread.getAllStackTraces().keySet())
+            {
+                if (thread.getName().equals(name))
+                {
+                    return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(thread.getId());
+                }
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Drain channel.
+     * 
+     * @param channel The channel to read.
+     * @return The number of packets read.
+     */
+    private static int drain(Channel channel)
+    {
+        int count = 0;
+        Packet packet;
+        while ((packet = channel.read()) != null)
+        {
+            packet.release();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param name The server name.
+     * @param factory The server factory.
+     * @param batched <code>true</code> to queue client messages, flushed every burst, <code>false</code> to send them.
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void benchmark(String name, Function<Channel, Server> factory, boolean batched)
+            throws IOException, InterruptedException
+    {
+        final int port = getFreePort();
+        final Channel channelServer = new ChannelBuffer();
+        final Server server = factory.apply(channelServer);
+        final Channel[] channels = new Channel[CLIENTS];
+        final ClientUdp[] clients = new ClientUdp[CLIENTS];
+
+        server.start(IP, port);
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            channels[i] = new ChannelBuffer();
+            clients[i] = new ClientUdp(channels[i]);
+            clients[i].connect(IP, port);
+        }
+
+        final ByteBuffer content = ByteBuffer.allocate(Integer.BYTES * 4);
+        final Data data = new Data(clients[0].getClientId(), 1, content, true);
+        final long allocated = getAllocated(server.getClass().getSimpleName() + "_listen");
+        final long start = System.nanoTime();
+        int received = 0;
+        int relayed = 0;
+
+        for (int i = 0; i < PACKETS; i++)
+        {
+            if (batched)
+            {
+                clients[0].queue(data);
+            }
+            else
+            {
+                clients[0].send(data);
+            }
+            if (i % BURST == 0)
+            {
+                clients[0].flush();
+                received += drain(channelServer);
+                server.flush();
+                Thread.yield();
+            }
+        }
+        clients[0].flush();
+        long last = System.nanoTime();
+        while (received < PACKETS && (System.nanoTime() - last) / Constant.NANO_TO_MILLI < IDLE_MS)
+        {
+            final int count = drain(channelServer);
+            server.flush();
+            if (count > 0)
+            {
+                received += count;
+                last = System.nanoTime();
+            }
+            Thread.sleep(1L);
+        }
+        final double elapsed = (last - start) / Constant.NANO_TO_MILLI;
+        final long serverAllocated = getAllocated(server.getClass().getSimpleName() + "_listen") - allocated;
+        for (int i = 1; i < CLIENTS; i++)
+        {
+            relayed += drain(channels[i]);
+        }
+
+        for (final ClientUdp client : clients)
+        {
+            client.disconnect();
+        }
+        server.stop();
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%-12s %-7s %6d received, %7d relayed in %8.1f ms: %8.0f msg/s, %6d bytes/msg",
+                                   name,
+                                   batched ? "batched" : "single",
+                                   Integer.valueOf(received),
+                                   Integer.valueOf(relayed),
+                                   Double.valueOf(elapsed),
+                                   Double.valueOf((received + relayed) / elapsed * Constant.THOUSAND),
+                                   Long.valueOf(serverAllocated / Math.max(1, received))));
+
+        assertTrue(received > 0);
+    }
+
+    /**
+     * Compare servers.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    void testServers() throws IOException, InterruptedException
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            benchmark("ServerUdp", ServerUdp::new, false);
+            benchmark("ServerUdpNio", ServerUdpNio::new, false);
+            benchmark("ServerUdp", ServerUdp::new, true);
+            benchmark("ServerUdpNio", ServerUdpNio::new, true);
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.List;
+
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Renderable;
 
@@ -39,9 +41,11 @@ public class ComponentRenderable implements ComponentRenderer
     @Override
     public void render(Graphic g, Handlables featurables)
     {
-        for (final Renderable renderable : featurables.get(Renderable.class))
+        final List<Renderable> renderables = featurables.get(Renderable.class);
+        final int n = renderables.size();
+        for (int i = 0; i < n; i++)
         {
-            renderable.render(g);
+            renderables.get(i).render(g);
         }
     }
 }
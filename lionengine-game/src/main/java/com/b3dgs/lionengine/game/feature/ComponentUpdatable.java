@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.List;
+
 import com.b3dgs.lionengine.Updatable;
 
 /**
@@ -39,9 +41,11 @@ public class ComponentUpdatable implements ComponentUpdater
     @Override
     public void update(double extrp, Handlables featurables)
     {
-        for (final Updatable updatable : featurables.get(Updatable.class))
+        final List<Updatable> updatables = featurables.get(Updatable.class);
+        final int n = updatables.size();
+        for (int i = 0; i < n; i++)
         {
-            updatable.update(extrp);
+            updatables.get(i).update(extrp);
         }
     }
 }
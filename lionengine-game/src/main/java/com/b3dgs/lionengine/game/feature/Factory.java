@@ -195,6 +195,19 @@ public class Factory implements HandlerListener
         }
     }
 
+    /**
+     * Dispose all setups and remove cached instances. Setups will be created again on next use.
+     */
+    public void clear()
+    {
+        for (final Setup setup : setups.values())
+        {
+            setup.dispose();
+        }
+        setups.clear();
+        cache.clear();
+    }
+
     /**
      * Get a setup reference from its media.
      * 
@@ -37,16 +37,31 @@ public abstract class FeaturableAbstract implements Featurable
     /** Inject service error. */
     private static final String ERROR_INJECT = "Error during service injection !";
 
+    /** Fields requiring an injected service by class, already accessible. */
+    private static final ClassValue<Field[]> SERVICE_FIELDS;
+
+    static
+    {
+        SERVICE_FIELDS = new ClassValue<Field[]>()
+        {
+            @Override
+            protected Field[] computeValue(Class<?> type)
+            {
+                return getServiceFields(type);
+            }
+        };
+    }
+
     /**
      * Get all with that require an injected service.
      * 
-     * @param object The object which requires injected services.
-     * @return The field requiring injected services.
+     * @param type The class which requires injected services.
+     * @return The field requiring injected services, already accessible.
      */
-    private static List<Field> getServiceFields(Object object)
+    private static Field[] getServiceFields(Class<?> type)
     {
         final List<Field> toInject = new ArrayList<>();
-        Class<?> clazz = object.getClass();
+        Class<?> clazz = type;
         while (clazz != null)
         {
             final Field[] fields = clazz.getDeclaredFields();
@@ -56,12 +71,13 @@ public abstract class FeaturableAbstract implements Featurable
                 final Field field = fields[i];
                 if (field.isAnnotationPresent(FeatureGet.class))
                 {
+                    UtilReflection.setAccessible(field, true);
                     toInject.add(field);
                 }
             }
             clazz = clazz.getSuperclass();
         }
-        return toInject;
+        return toInject.toArray(new Field[toInject.size()]);
     }
 
     /** Features provider. */
@@ -101,13 +117,11 @@ public abstract class FeaturableAbstract implements Featurable
      */
     private void fillServices(Object object)
     {
-        final List<Field> fields = getServiceFields(object);
-        final int length = fields.size();
+        final Field[] fields = SERVICE_FIELDS.get(object.getClass());
+        final int length = fields.length;
         for (int i = 0; i < length; i++)
         {
-            final Field field = fields.get(i);
-            UtilReflection.setAccessible(field, true);
-
+            final Field field = fields[i];
             final Class<?> type = field.getType();
             setField(field, object, type);
         }
@@ -179,40 +179,59 @@ public final class FeaturableConfig
      */
     public static List<Feature> getFeatures(ClassLoader loader, Services services, Setup setup, Class<?> filter)
     {
-        final Collection<XmlReader> children;
-        final XmlReader root = setup.getRoot();
-        if (root.hasNode(NODE_FEATURES))
+        final List<Class<? extends Feature>> classes;
+        try
         {
-            children = setup.getRoot()
-                            .getChild(FeaturableConfig.NODE_FEATURES)
-                            .getChildren(FeaturableConfig.NODE_FEATURE);
+            classes = setup.getFeaturesClass(loader);
         }
-        else
+        catch (final LionEngineException exception)
         {
-            children = Collections.emptyList();
+            throw new LionEngineException(exception, setup.getMedia());
         }
-        final List<Feature> features = new ArrayList<>(children.size());
-
-        for (final XmlReader featureNode : children)
+        final int length = classes.size();
+        final List<Feature> features = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
         {
-            final String className = featureNode.getText();
-            try
+            final Class<? extends Feature> clazz = classes.get(i);
+            if (filter == null || filter.isAssignableFrom(clazz))
             {
-                final Class<? extends Feature> clazz = getClass(loader, className);
-                if (filter == null || filter.isAssignableFrom(clazz))
+                try
                 {
-                    final Feature feature = UtilReflection.createReduce(clazz, services, setup);
-                    features.add(feature);
+                    features.add(UtilReflection.createReduce(clazz, services, setup));
+                }
+                catch (final NoSuchMethodException | LionEngineException exception)
+                {
+                    throw new LionEngineException(exception, setup.getMedia());
                 }
             }
-            catch (final NoSuchMethodException | LionEngineException exception)
-            {
-                throw new LionEngineException(exception, setup.getMedia());
-            }
+        }
+        return features;
+    }
+
+    /**
+     * Get all features class declared in setup.
+     * 
+     * @param loader The class loader reference.
+     * @param setup The setup reference.
+     * @return The features class.
+     * @throws LionEngineException If invalid class.
+     */
+    static List<Class<? extends Feature>> getFeaturesClass(ClassLoader loader, Setup setup)
+    {
+        final XmlReader root = setup.getRoot();
+        if (!root.hasNode(NODE_FEATURES))
+        {
+            return Collections.emptyList();
+        }
+        final Collection<XmlReader> children = root.getChild(NODE_FEATURES).getChildren(NODE_FEATURE);
+        final List<Class<? extends Feature>> classes = new ArrayList<>(children.size());
+        for (final XmlReader featureNode : children)
+        {
+            classes.add(getClass(loader, featureNode.getText()));
         }
         children.clear();
 
-        return features;
+        return classes;
     }
 
     /**
@@ -42,21 +42,30 @@ public class Features
     static final String WITH = " with: ";
 
     /**
-     * Check if feature is annotated in its direct parents.
+     * Check if feature is annotated in its direct parents, or in the direct parents of its super classes.
      * 
      * @param feature The feature to check.
      * @return <code>true</code> if annotated, <code>false</code> else.
      */
     private static boolean isAnnotated(Feature feature)
     {
-        for (final Class<?> current : feature.getClass().getInterfaces())
+        Class<?> type = feature.getClass();
+        while (type != null)
         {
-            if (current.isAnnotationPresent(FeatureInterface.class))
+            for (final Class<?> current : type.getInterfaces())
+            {
+                if (current.isAnnotationPresent(FeatureInterface.class))
+                {
+                    return true;
+                }
+            }
+            if (type.isAnnotationPresent(FeatureInterface.class))
             {
                 return true;
             }
+            type = type.getSuperclass();
         }
-        return feature.getClass().isAnnotationPresent(FeatureInterface.class);
+        return false;
     }
 
     /** Features handled. */
@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.List;
+
 /**
  * Represents the featurables handled by the handler, providing quick access to them from their type.
  * 
@@ -36,9 +38,9 @@ public interface Handlables
      * 
      * @param <I> The featurable interface type.
      * @param type The expected type.
-     * @return The featurables of this type.
+     * @return The featurables of this type, read only, order is kept until a featurable is added or removed.
      */
-    <I> Iterable<I> get(Class<I> type);
+    <I> List<I> get(Class<I> type);
 
     /**
      * Get all featurables.
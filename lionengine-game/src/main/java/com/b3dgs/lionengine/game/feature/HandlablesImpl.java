@@ -16,25 +16,70 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.RandomAccess;
 
 import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.game.Feature;
 
 /**
  * Handlables implementation.
+ * <p>
+ * Types of a featurable or feature class are resolved once by class and cached. Items are stored by type in dense
+ * arrays, removed by swapping with the last item, so add and remove do not depend on the number of items, and
+ * iteration order is stable as long as no featurable is added or removed.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
+    /** Featurable types by featurable class. */
+    private static final ClassValue<Class<?>[]> FEATURABLE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Collection<Class<?>> types = new LinkedHashSet<>();
+            Class<?> current = type;
+            while (current != null)
+            {
+                Collections.addAll(types, current.getInterfaces());
+                current = current.getSuperclass();
+            }
+            types.add(type);
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
+    /** Feature types by feature type. */
+    private static final ClassValue<Class<?>[]> FEATURE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Collection<Class<?>> types = new LinkedHashSet<>();
+            types.add(type);
+            types.addAll(UtilReflection.getInterfaces(type, Feature.class));
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
+
     /** List of featurables (key is the featurable ID). */
     private final Map<Integer, Featurable> featurables = new HashMap<>();
-    /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items = new HashMap<>();
+    /** Stored items of featurables (key is the featurable ID). */
+    private final Map<Integer, List<Entry>> entries = new HashMap<>();
+    /** List of typed items (key is the type). */
+    private final Map<Class<?>, Bucket> items = new HashMap<>();
+    /** Buckets by featurable class. */
+    private final Map<Class<?>, Bucket[]> featurableBuckets = new HashMap<>();
+    /** Buckets by feature type. */
+    private final Map<Class<?>, Bucket[]> featureBuckets = new HashMap<>();
 
     /**
      * Create the handlables.
@@ -51,24 +96,37 @@ final class HandlablesImpl implements Handlables
      */
     public void add(Featurable featurable)
     {
-        featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
-
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        final Integer id = featurable.getFeature(Identifiable.class).getId();
+        if (entries.containsKey(id))
         {
-            addType(type, featurable);
+            remove(featurable, id);
         }
+        featurables.put(id, featurable);
+
+        final List<Entry> added = new ArrayList<>();
+        final Entry self = new Entry(featurable);
+        addEntry(self, getBuckets(featurableBuckets, FEATURABLE_TYPES, featurable.getClass()));
+        added.add(self);
 
         for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
             final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            Entry entry = null;
+            for (int i = 0; i < added.size() && entry == null; i++)
+            {
+                if (added.get(i).object == object)
+                {
+                    entry = added.get(i);
+                }
+            }
+            if (entry == null)
             {
-                addType(other, object);
+                entry = new Entry(object);
+                added.add(entry);
             }
+            addEntry(entry, getBuckets(featureBuckets, FEATURE_TYPES, feature));
         }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
+        entries.put(id, added);
     }
 
     /**
@@ -79,24 +137,17 @@ final class HandlablesImpl implements Handlables
      */
     public void remove(Featurable featurable, Integer id)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            remove(type, featurable);
-        }
-
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+        final List<Entry> removed = entries.remove(id);
+        if (removed != null)
         {
-            final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (final Entry entry : removed)
             {
-                remove(other, object);
+                for (int i = 0; i < entry.count; i++)
+                {
+                    entry.buckets[i].removeAt(entry.positions[i]);
+                }
             }
-
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
-
         featurables.remove(id);
     }
 
@@ -111,100 +162,231 @@ final class HandlablesImpl implements Handlables
     }
 
     /**
-     * Add a type from its interface.
+     * Get the buckets of a class, resolve them if needed.
      * 
-     * @param type The type interface.
-     * @param object The type value.
+     * @param cache The resolved buckets cache.
+     * @param types The types by class.
+     * @param type The class reference.
+     * @return The class buckets.
      */
-    private void addType(Class<?> type, Object object)
+    private Bucket[] getBuckets(Map<Class<?>, Bucket[]> cache, ClassValue<Class<?>[]> types, Class<?> type)
     {
-        Set<Object> set = items.get(type);
-        if (set == null)
+        Bucket[] buckets = cache.get(type);
+        if (buckets == null)
         {
-            set = new HashSet<>();
-            items.put(type, set);
+            final Class<?>[] resolved = types.get(type);
+            buckets = new Bucket[resolved.length];
+            for (int i = 0; i < resolved.length; i++)
+            {
+                buckets[i] = items.computeIfAbsent(resolved[i], t -> new Bucket());
+            }
+            cache.put(type, buckets);
         }
-        set.add(object);
+        return buckets;
     }
 
     /**
-     * Add object parent super type.
+     * Add entry to its buckets, once by bucket.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param entry The entry reference.
+     * @param buckets The buckets to add to.
      */
-    private void addSuperClass(Object object, Class<?> type)
+    private static void addEntry(Entry entry, Bucket[] buckets)
     {
-        for (final Class<?> types : type.getInterfaces())
+        for (final Bucket bucket : buckets)
         {
-            addType(types, object);
+            if (!entry.isIn(bucket))
+            {
+                bucket.addLast(entry);
+            }
         }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+    }
+
+    /*
+     * Handlables
+     */
+
+    @Override
+    public Featurable get(Integer id)
+    {
+        return featurables.get(id);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I> List<I> get(Class<I> type)
+    {
+        final Bucket bucket = items.get(type);
+        if (bucket != null)
         {
-            addSuperClass(object, parent);
+            return (List<I>) bucket;
         }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Iterable<Featurable> values()
+    {
+        return featurables.values();
     }
 
     /**
-     * Remove object parent super type.
-     * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * Stored item, with its location in each of its buckets.
      */
-    private void removeSuperClass(Object object, Class<?> type)
+    private static final class Entry
     {
-        for (final Class<?> types : type.getInterfaces())
+        /** Default capacity. */
+        private static final int CAPACITY = 4;
+
+        /** Item reference. */
+        private final Object object;
+        /** Buckets containing item. */
+        private Bucket[] buckets = new Bucket[CAPACITY];
+        /** Item index in each bucket. */
+        private int[] positions = new int[CAPACITY];
+        /** Number of buckets. */
+        private int count;
+
+        /**
+         * Create entry.
+         * 
+         * @param object The item reference.
+         */
+        Entry(Object object)
         {
-            remove(types, object);
+            super();
+
+            this.object = object;
+        }
+
+        /**
+         * Set item location in a new bucket.
+         * 
+         * @param bucket The bucket reference.
+         * @param position The item index in bucket.
+         */
+        void add(Bucket bucket, int position)
+        {
+            if (count == buckets.length)
+            {
+                buckets = Arrays.copyOf(buckets, count * 2);
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            buckets[count] = bucket;
+            positions[count] = position;
+            count++;
         }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+
+        /**
+         * Update item location in bucket.
+         * 
+         * @param bucket The bucket reference.
+         * @param position The item index in bucket.
+         */
+        void move(Bucket bucket, int position)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                if (buckets[i] == bucket)
+                {
+                    positions[i] = position;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Check if item is in bucket.
+         * 
+         * @param bucket The bucket reference.
+         * @return <code>true</code> if in bucket, <code>false</code> else.
+         */
+        boolean isIn(Bucket bucket)
         {
-            removeSuperClass(object, parent);
+            for (int i = 0; i < count; i++)
+            {
+                if (buckets[i] == bucket)
+                {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 
     /**
-     * Remove the object from its type list.
-     * 
-     * @param type The type reference.
-     * @param object The object reference.
+     * Dense items of a type, as read only list.
      */
-    private void remove(Class<?> type, Object object)
+    private static final class Bucket extends AbstractList<Object> implements RandomAccess
     {
-        final Set<?> set = items.get(type);
-        if (set != null)
+        /** Default capacity. */
+        private static final int CAPACITY = 16;
+
+        /** Stored entries. */
+        private Entry[] entries = new Entry[CAPACITY];
+        /** Number of entries. */
+        private int size;
+
+        /**
+         * Create bucket.
+         */
+        Bucket()
         {
-            set.remove(object);
+            super();
         }
-    }
 
-    /*
-     * Handlables
-     */
+        /**
+         * Add entry at the end.
+         * 
+         * @param entry The entry to add.
+         */
+        void addLast(Entry entry)
+        {
+            if (size == entries.length)
+            {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size] = entry;
+            entry.add(this, size);
+            size++;
+            modCount++;
+        }
 
-    @Override
-    public Featurable get(Integer id)
-    {
-        return featurables.get(id);
-    }
+        /**
+         * Remove entry by replacing it with the last one.
+         * 
+         * @param position The entry index.
+         */
+        void removeAt(int position)
+        {
+            size--;
+            if (position < size)
+            {
+                entries[position] = entries[size];
+                entries[position].move(this, position);
+            }
+            entries[size] = null;
+            modCount++;
+        }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public <I> Iterable<I> get(Class<I> type)
-    {
-        final Set<?> typeFeaturables = items.get(type);
-        if (typeFeaturables != null)
+        /*
+         * AbstractList
+         */
+
+        @Override
+        public Object get(int index)
         {
-            return (Iterable<I>) typeFeaturables;
+            if (index >= size)
+            {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return entries[index].object;
         }
-        return Collections.emptySet();
-    }
 
-    @Override
-    public Iterable<Featurable> values()
-    {
-        return featurables.values();
+        @Override
+        public int size()
+        {
+            return size;
+        }
     }
 }
@@ -118,6 +118,18 @@ public abstract class SequenceGame<W extends WorldGame> extends Sequence
                 SequenceGame.this.load(nextSequenceClass, arguments);
             }
 
+            @Override
+            public void loadAsync(Class<? extends Sequencable> nextSequenceClass, Object... arguments)
+            {
+                SequenceGame.this.loadAsync(nextSequenceClass, arguments);
+            }
+
+            @Override
+            public boolean isNextSequenceLoaded()
+            {
+                return SequenceGame.this.isNextSequenceLoaded();
+            }
+
             @Override
             public void setSystemCursorVisible(boolean visible)
             {
@@ -226,7 +238,7 @@ public abstract class SequenceGame<W extends WorldGame> extends Sequence
     }
 
     /**
-     * Called when sequence is closing.
+     * Called when sequence is closing. {@link Factory} setups are disposed.
      * {@link Engine#terminate()} called if does not have next sequence.
      * 
      * @param hasNextSequence <code>true</code> if there is a next sequence, <code>false</code> else (then application
@@ -237,6 +249,8 @@ public abstract class SequenceGame<W extends WorldGame> extends Sequence
     {
         super.onTerminated(hasNextSequence);
 
+        services.getOptional(Factory.class).ifPresent(Factory::clear);
+
         if (!hasNextSequence)
         {
             Engine.terminate();
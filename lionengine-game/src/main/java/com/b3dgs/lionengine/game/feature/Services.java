@@ -17,8 +17,12 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 
 import com.b3dgs.lionengine.Check;
@@ -52,6 +56,10 @@ import com.b3dgs.lionengine.game.Feature;
  * final Camera camera = services.create(Camera.class);
  * final MapTile map = services.create(MapTileGame.class);
  * </pre>
+ * <p>
+ * Services are indexed by all their super classes and interfaces when added, so retrieving a service, or checking
+ * its absence, does not depend on the number of services.
+ * </p>
  */
 public class Services
 {
@@ -61,9 +69,38 @@ public class Services
     private static final String ERROR_SERVICE_CREATE = "Unable to create service: ";
     /** Service create error. */
     private static final String ERROR_SERVICE_NO_CONSTRUCTOR = "No recognized constructor found for: ";
+    /** Service types by service class. */
+    private static final ClassValue<Class<?>[]> TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Collection<Class<?>> types = new LinkedHashSet<>();
+            final Deque<Class<?>> queue = new ArrayDeque<>();
+            queue.add(type);
+            while (!queue.isEmpty())
+            {
+                final Class<?> current = queue.poll();
+                if (types.add(current))
+                {
+                    if (current.getSuperclass() != null)
+                    {
+                        queue.add(current.getSuperclass());
+                    }
+                    for (final Class<?> parent : current.getInterfaces())
+                    {
+                        queue.add(parent);
+                    }
+                }
+            }
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
 
-    /** Services list. */
-    private final Collection<Object> servicesSet = new HashSet<>();
+    /** Services list (in adding order). */
+    private final Collection<Object> servicesSet = new LinkedHashSet<>();
+    /** First added service by type. */
+    private final Map<Class<?>, Object> servicesType = new HashMap<>();
 
     /**
      * Create a services container.
@@ -168,7 +205,13 @@ public class Services
     public <S> S add(S service)
     {
         Check.notNull(service);
-        servicesSet.add(service);
+        if (servicesSet.add(service))
+        {
+            for (final Class<?> type : TYPES.get(service.getClass()))
+            {
+                servicesType.putIfAbsent(type, service);
+            }
+        }
         return service;
     }
 
@@ -180,7 +223,21 @@ public class Services
      */
     public <S> void remove(S service)
     {
-        servicesSet.remove(service);
+        if (service != null && servicesSet.remove(service))
+        {
+            for (final Class<?> type : TYPES.get(service.getClass()))
+            {
+                servicesType.remove(type);
+                for (final Object object : servicesSet)
+                {
+                    if (type.isInstance(object))
+                    {
+                        servicesType.put(type, object);
+                        break;
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -250,22 +307,10 @@ public class Services
     private <S> S getService(Class<S> service)
     {
         Check.notNull(service);
-        S instance = null;
         if (service == getClass())
         {
-            instance = service.cast(this);
+            return service.cast(this);
         }
-        else
-        {
-            for (final Object object : servicesSet)
-            {
-                if (service.isAssignableFrom(object.getClass()))
-                {
-                    instance = service.cast(object);
-                    break;
-                }
-            }
-        }
-        return instance;
+        return service.cast(servicesType.get(service));
     }
 }
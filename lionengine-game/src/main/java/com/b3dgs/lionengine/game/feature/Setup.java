@@ -17,18 +17,24 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.io.File;
+import java.util.List;
 import java.util.Optional;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.Configurer;
+import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.SurfaceConfig;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 
 /**
  * Define a structure used to create multiple objects, sharing the same data and {@link ImageBuffer}.
+ * <p>
+ * Surface and icon are also shared with other setups using the same image (see
+ * {@link Graphics#getImageBufferShared(Media)}), and must not be modified. They are released by {@link #dispose()}.
+ * </p>
  */
 public class Setup extends Configurer
 {
@@ -51,7 +57,7 @@ public class Setup extends Configurer
     {
         if (iconMedia.exists())
         {
-            return Optional.of(Graphics.getImageBuffer(iconMedia));
+            return Optional.of(Graphics.getImageBufferShared(iconMedia));
         }
         return Optional.empty();
     }
@@ -66,6 +72,12 @@ public class Setup extends Configurer
     private final Optional<Media> iconFile;
     /** Class reference (can be <code>null</code>). */
     private Class<?> clazz;
+    /** Features class (can be <code>null</code>). */
+    private List<Class<? extends Feature>> features;
+    /** Features class loader (can be <code>null</code>). */
+    private ClassLoader featuresLoader;
+    /** Disposed flag. */
+    private boolean disposed;
 
     /**
      * Create a setup.
@@ -102,7 +114,7 @@ public class Setup extends Configurer
                 iconFile = Optional.empty();
                 icon = Optional.empty();
             }
-            surface = Optional.of(Graphics.getImageBuffer(surfaceMedia));
+            surface = Optional.of(Graphics.getImageBufferShared(surfaceMedia));
             surfaceFile = Optional.of(surfaceMedia);
         }
         else
@@ -140,6 +152,43 @@ public class Setup extends Configurer
         return (Class<T>) clazz;
     }
 
+    /**
+     * Get the features class declared by the setup. Lazy call (load classes only first time, and keep their reference
+     * after). Classes are loaded again if the class loader has changed.
+     * 
+     * @param classLoader The class loader used.
+     * @return The features class.
+     * @throws LionEngineException If a class was not found by the class loader.
+     */
+    final List<Class<? extends Feature>> getFeaturesClass(ClassLoader classLoader)
+    {
+        if (features == null || featuresLoader != classLoader)
+        {
+            features = FeaturableConfig.getFeaturesClass(classLoader, this);
+            featuresLoader = classLoader;
+        }
+        return features;
+    }
+
+    /**
+     * Release the shared surface and icon. Setup surface and icon must not be used after.
+     */
+    public void dispose()
+    {
+        if (!disposed)
+        {
+            disposed = true;
+            if (surface.isPresent())
+            {
+                Graphics.releaseImageBuffer(surfaceFile.get());
+            }
+            if (icon.isPresent())
+            {
+                Graphics.releaseImageBuffer(iconFile.get());
+            }
+        }
+    }
+
     /**
      * Get the surface file.
      * 
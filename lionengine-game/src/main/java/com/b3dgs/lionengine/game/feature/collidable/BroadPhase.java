@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.List;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.graphic.Renderable;
+
+/**
+ * Collision broad phase strategy, used by {@link ComponentCollision} to find candidate {@link Collidable} pairs.
+ * Candidate pairs are filtered by {@link Collidable#getGroup()} and {@link Collidable#getAccepted()} and notified
+ * only once per {@link #compute()}.
+ * 
+ * @see QuadTree
+ * @see BroadPhaseGrid
+ * @see BroadPhaseSweep
+ */
+public interface BroadPhase extends Renderable
+{
+    /**
+     * Update collidable index. Add it if not already indexed.
+     * 
+     * @param transformable The transformable reference.
+     * @param ref The collidable reference.
+     */
+    void move(Transformable transformable, Collidable ref);
+
+    /**
+     * Remove collidable from index.
+     * 
+     * @param transformable The transformable reference.
+     * @param ref The collidable reference.
+     */
+    void remove(Transformable transformable, Collidable ref);
+
+    /**
+     * Compute collision with all elements.
+     */
+    void compute();
+
+    /**
+     * Get all collidables inside.
+     * 
+     * @param area The area used.
+     * @return The collidable inside.
+     */
+    List<Collidable> getInside(Area area);
+}
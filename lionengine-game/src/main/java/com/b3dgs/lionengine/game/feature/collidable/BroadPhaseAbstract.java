@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Broad phase base implementation, storing indexed collidables bounds in primitive arrays.
+ * Bounds are the union of collision bounds, extended by the last movement as {@link Collidable#collide(Collidable)}
+ * is ray casted from the old location.
+ */
+abstract class BroadPhaseAbstract implements BroadPhase
+{
+    private static final int INIT_CAPACITY = 64;
+
+    /** Slot index by collidable. */
+    private final Map<Collidable, Integer> slots = new HashMap<>();
+    /** The viewer reference. */
+    protected final Viewer viewer;
+
+    /** Indexed collidables. */
+    protected Collidable[] refs = new Collidable[INIT_CAPACITY];
+    /** Indexed transformables. */
+    protected Transformable[] transformables = new Transformable[INIT_CAPACITY];
+    /** Min horizontal bounds. */
+    protected double[] minX = new double[INIT_CAPACITY];
+    /** Min vertical bounds. */
+    protected double[] minY = new double[INIT_CAPACITY];
+    /** Max horizontal bounds. */
+    protected double[] maxX = new double[INIT_CAPACITY];
+    /** Max vertical bounds. */
+    protected double[] maxY = new double[INIT_CAPACITY];
+    /** Bounds defined flag. */
+    protected boolean[] bounded = new boolean[INIT_CAPACITY];
+    /** Collision enabled flag. */
+    protected boolean[] enabled = new boolean[INIT_CAPACITY];
+    /** Indexed collidables number. */
+    protected int count;
+
+    /** Index update required flag. */
+    private boolean dirty;
+
+    /**
+     * Create broad phase.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     */
+    BroadPhaseAbstract(Viewer viewer)
+    {
+        super();
+
+        Check.notNull(viewer);
+
+        this.viewer = viewer;
+    }
+
+    /**
+     * Rebuild index from current bounds.
+     */
+    protected abstract void index();
+
+    /**
+     * Compute and notify candidate pairs from current index.
+     */
+    protected abstract void computePairs();
+
+    /**
+     * Called when a slot has been added.
+     * 
+     * @param slot The added slot.
+     */
+    protected void onAdded(int slot)
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Called when a slot has been removed. Last slot is moved to the removed one.
+     * 
+     * @param slot The removed slot.
+     * @param last The last slot, moved to removed slot.
+     */
+    protected void onRemoved(int slot, int last)
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Collect collidables inside area from current index.
+     * 
+     * @param area The area used.
+     * @param result The elements found.
+     */
+    protected void collectInside(Area area, List<Collidable> result)
+    {
+        final double ax = area.getX();
+        final double ay = area.getY();
+        final double bx = ax + area.getWidthReal();
+        final double by = ay + area.getHeightReal();
+
+        for (int i = 0; i < count; i++)
+        {
+            if (bounded[i] && overlap(i, ax, ay, bx, by) && BroadPhaseUtil.isInside(area, refs[i]))
+            {
+                result.add(refs[i]);
+            }
+        }
+    }
+
+    /**
+     * Check if bounds overlap.
+     * 
+     * @param i The first slot.
+     * @param j The second slot.
+     * @return <code>true</code> if overlap, <code>false</code> else.
+     */
+    protected final boolean overlap(int i, int j)
+    {
+        return minX[i] <= maxX[j] && minX[j] <= maxX[i] && minY[i] <= maxY[j] && minY[j] <= maxY[i];
+    }
+
+    /**
+     * Check if bounds overlap area.
+     * 
+     * @param i The slot.
+     * @param ax The area min horizontal.
+     * @param ay The area min vertical.
+     * @param bx The area max horizontal.
+     * @param by The area max vertical.
+     * @return <code>true</code> if overlap, <code>false</code> else.
+     */
+    protected final boolean overlap(int i, double ax, double ay, double bx, double by)
+    {
+        return minX[i] <= bx && ax <= maxX[i] && minY[i] <= by && ay <= maxY[i];
+    }
+
+    /**
+     * Update bounds of all indexed collidables.
+     */
+    private void updateBounds()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final Collidable ref = refs[i];
+            final List<Rectangle> bounds = ref.getCollisionBounds();
+            final int n = bounds.size();
+
+            bounded[i] = n > 0;
+            enabled[i] = bounded[i] && ref.isEnabled();
+
+            if (bounded[i])
+            {
+                double x1 = Double.MAX_VALUE;
+                double y1 = Double.MAX_VALUE;
+                double x2 = -Double.MAX_VALUE;
+                double y2 = -Double.MAX_VALUE;
+                for (int b = 0; b < n; b++)
+                {
+                    final Rectangle bound = bounds.get(b);
+                    x1 = Math.min(x1, bound.getMinX());
+                    y1 = Math.min(y1, bound.getMinY());
+                    x2 = Math.max(x2, bound.getMaxX());
+                    y2 = Math.max(y2, bound.getMaxY());
+                }
+
+                final Transformable transformable = transformables[i];
+                final double mx = Math.abs(transformable.getX() - transformable.getOldX());
+                final double my = Math.abs(transformable.getY() - transformable.getOldY());
+
+                minX[i] = x1 - mx;
+                minY[i] = y1 - my;
+                maxX[i] = x2 + mx;
+                maxY[i] = y2 + my;
+            }
+        }
+    }
+
+    /**
+     * Update index if required.
+     */
+    private void update()
+    {
+        updateBounds();
+        index();
+        dirty = false;
+    }
+
+    /**
+     * Ensure arrays capacity.
+     * 
+     * @param capacity The required capacity.
+     */
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > refs.length)
+        {
+            final int length = refs.length * 2;
+            refs = Arrays.copyOf(refs, length);
+            transformables = Arrays.copyOf(transformables, length);
+            minX = Arrays.copyOf(minX, length);
+            minY = Arrays.copyOf(minY, length);
+            maxX = Arrays.copyOf(maxX, length);
+            maxY = Arrays.copyOf(maxY, length);
+            bounded = Arrays.copyOf(bounded, length);
+            enabled = Arrays.copyOf(enabled, length);
+        }
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    @Override
+    public void move(Transformable transformable, Collidable ref)
+    {
+        if (!slots.containsKey(ref))
+        {
+            ensureCapacity(count + 1);
+            refs[count] = ref;
+            transformables[count] = transformable;
+            bounded[count] = false;
+            enabled[count] = false;
+            slots.put(ref, Integer.valueOf(count));
+            onAdded(count);
+            count++;
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void remove(Transformable transformable, Collidable ref)
+    {
+        final Integer slot = slots.remove(ref);
+        if (slot != null)
+        {
+            final int i = slot.intValue();
+            final int last = count - 1;
+            if (i < last)
+            {
+                refs[i] = refs[last];
+                transformables[i] = transformables[last];
+                minX[i] = minX[last];
+                minY[i] = minY[last];
+                maxX[i] = maxX[last];
+                maxY[i] = maxY[last];
+                bounded[i] = bounded[last];
+                enabled[i] = enabled[last];
+                slots.put(refs[i], slot);
+            }
+            refs[last] = null;
+            transformables[last] = null;
+            count = last;
+            onRemoved(i, last);
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void compute()
+    {
+        update();
+        computePairs();
+    }
+
+    @Override
+    public List<Collidable> getInside(Area area)
+    {
+        if (dirty)
+        {
+            update();
+        }
+        final List<Collidable> result = new ArrayList<>();
+        collectInside(area, result);
+        return result;
+    }
+}
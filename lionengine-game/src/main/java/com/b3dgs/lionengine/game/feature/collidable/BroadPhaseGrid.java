@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.Align;
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.TextGame;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.TextStyle;
+
+/**
+ * Uniform spatial hash grid broad phase. Grid is rebuilt on each {@link #compute()} from primitive arrays, without
+ * allocation once capacity is reached. A pair is only notified by the cell containing the min corner of the pair
+ * bounds intersection, so each pair is notified once.
+ * <p>
+ * Collidables covering too many cells are kept aside and checked against all others.
+ * </p>
+ */
+public class BroadPhaseGrid extends BroadPhaseAbstract
+{
+    /** Default cell size. */
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private static final TextGame TEXT = new TextGame("System", 9, TextStyle.NORMAL);
+    private static final int INIT_TABLE = 256;
+    private static final int INIT_ENTRIES = 256;
+    private static final int MAX_CELLS = 64;
+    private static final int NONE = -1;
+    private static final long HASH = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Get cell key.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static long key(int cx, int cy)
+    {
+        return (long) cx << Integer.SIZE | cy & 0xFFFFFFFFL;
+    }
+
+    /** Cell size. */
+    private final int cellSize;
+
+    /** Cells keys table. */
+    private long[] keys = new long[INIT_TABLE];
+    /** Cells first entry table. */
+    private int[] heads = new int[INIT_TABLE];
+    /** Cells stamp table, cell is used if equals to current stamp. */
+    private int[] stamps = new int[INIT_TABLE];
+    /** Used cells table index. */
+    private int[] used = new int[INIT_TABLE];
+    /** Used cells number. */
+    private int usedCount;
+    /** Current stamp. */
+    private int stamp;
+    /** Entries slot. */
+    private int[] entries = new int[INIT_ENTRIES];
+    /** Entries next in cell. */
+    private int[] next = new int[INIT_ENTRIES];
+    /** Entries number. */
+    private int entriesCount;
+    /** Large collidables slot. */
+    private int[] large = new int[INIT_ENTRIES];
+    /** Large collidables number. */
+    private int largeCount;
+    /** Query stamp per slot. */
+    private int[] queried = new int[INIT_ENTRIES];
+    /** Query stamp. */
+    private int query;
+
+    /**
+     * Create grid with {@link #DEFAULT_CELL_SIZE}.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     */
+    public BroadPhaseGrid(Viewer viewer)
+    {
+        this(viewer, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Create grid.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     * @param cellSize The cell size (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public BroadPhaseGrid(Viewer viewer, int cellSize)
+    {
+        super(viewer);
+
+        Check.superiorStrict(cellSize, 0);
+
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Get cell index.
+     * 
+     * @param value The location value.
+     * @return The cell index.
+     */
+    private int cell(double value)
+    {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Get table index of cell, insert it if not used.
+     * 
+     * @param key The cell key.
+     * @return The table index.
+     */
+    private int find(long key)
+    {
+        final int mask = keys.length - 1;
+        int index = (int) (key * HASH >>> Integer.SIZE) & mask;
+        while (stamps[index] == stamp && keys[index] != key)
+        {
+            index = index + 1 & mask;
+        }
+        if (stamps[index] != stamp)
+        {
+            stamps[index] = stamp;
+            keys[index] = key;
+            heads[index] = NONE;
+            used[usedCount++] = index;
+        }
+        return index;
+    }
+
+    /**
+     * Add slot to cell.
+     * 
+     * @param slot The slot.
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     */
+    private void insert(int slot, int cx, int cy)
+    {
+        final int index = find(key(cx, cy));
+        if (entriesCount == entries.length)
+        {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            next = Arrays.copyOf(next, next.length * 2);
+        }
+        entries[entriesCount] = slot;
+        next[entriesCount] = heads[index];
+        heads[index] = entriesCount;
+        entriesCount++;
+    }
+
+    /**
+     * Check if cell table must grow for the next insertion of cells.
+     * 
+     * @param cells The cells to insert.
+     * @return <code>true</code> if table has been grown, <code>false</code> else.
+     */
+    private boolean grow(int cells)
+    {
+        if ((usedCount + cells) * 2 > keys.length)
+        {
+            final int length = Integer.highestOneBit((usedCount + cells) * 4 - 1) << 1;
+            keys = new long[length];
+            heads = new int[length];
+            stamps = new int[length];
+            used = new int[length];
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reset grid content.
+     */
+    private void reset()
+    {
+        stamp++;
+        if (stamp == 0)
+        {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        usedCount = 0;
+        entriesCount = 0;
+        largeCount = 0;
+    }
+
+    /**
+     * Compute pairs inside cell.
+     * 
+     * @param index The table index.
+     */
+    private void computeCell(int index)
+    {
+        final long key = keys[index];
+        final int cx = (int) (key >> Integer.SIZE);
+        final int cy = (int) key;
+
+        for (int a = heads[index]; a != NONE; a = next[a])
+        {
+            final int i = entries[a];
+            for (int b = next[a]; b != NONE && enabled[i]; b = next[b])
+            {
+                final int j = entries[b];
+                if (enabled[j]
+                    && overlap(i, j)
+                    && cell(Math.max(minX[i], minX[j])) == cx
+                    && cell(Math.max(minY[i], minY[j])) == cy)
+                {
+                    BroadPhaseUtil.collide(refs[j], refs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute pairs with large collidables.
+     */
+    private void computeLarge()
+    {
+        for (int l = 0; l < largeCount; l++)
+        {
+            final int i = large[l];
+            for (int j = 0; j < count && enabled[i]; j++)
+            {
+                // Large pairs are notified by the lower slot only
+                if (j != i && enabled[j] && (!isLarge(j) || j > i) && overlap(i, j))
+                {
+                    BroadPhaseUtil.collide(refs[i], refs[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if slot is stored as large.
+     * 
+     * @param slot The slot.
+     * @return <code>true</code> if large, <code>false</code> else.
+     */
+    private boolean isLarge(int slot)
+    {
+        final long width = (long) cell(maxX[slot]) - cell(minX[slot]) + 1;
+        final long height = (long) cell(maxY[slot]) - cell(minY[slot]) + 1;
+        return width * height > MAX_CELLS;
+    }
+
+    /*
+     * BroadPhaseAbstract
+     */
+
+    @Override
+    protected void index()
+    {
+        reset();
+
+        if (large.length < count)
+        {
+            large = new int[refs.length];
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            if (bounded[i])
+            {
+                final int cx1 = cell(minX[i]);
+                final int cy1 = cell(minY[i]);
+                final int cx2 = cell(maxX[i]);
+                final int cy2 = cell(maxY[i]);
+
+                if (isLarge(i))
+                {
+                    large[largeCount++] = i;
+                }
+                else
+                {
+                    if (grow((cx2 - cx1 + 1) * (cy2 - cy1 + 1)))
+                    {
+                        index();
+                        return;
+                    }
+                    for (int cy = cy1; cy <= cy2; cy++)
+                    {
+                        for (int cx = cx1; cx <= cx2; cx++)
+                        {
+                            insert(i, cx, cy);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void computePairs()
+    {
+        for (int u = 0; u < usedCount; u++)
+        {
+            computeCell(used[u]);
+        }
+        computeLarge();
+    }
+
+    @Override
+    protected void collectInside(Area area, List<Collidable> result)
+    {
+        final double ax = area.getX();
+        final double ay = area.getY();
+        final double bx = ax + area.getWidthReal();
+        final double by = ay + area.getHeightReal();
+
+        final int cx1 = cell(ax);
+        final int cy1 = cell(ay);
+        final int cx2 = cell(bx);
+        final int cy2 = cell(by);
+
+        if ((long) (cx2 - cx1 + 1) * (cy2 - cy1 + 1) > usedCount)
+        {
+            super.collectInside(area, result);
+            return;
+        }
+
+        if (queried.length < refs.length)
+        {
+            queried = new int[refs.length];
+        }
+        query++;
+
+        for (int cy = cy1; cy <= cy2; cy++)
+        {
+            for (int cx = cx1; cx <= cx2; cx++)
+            {
+                collectCell(key(cx, cy), area, result);
+            }
+        }
+        for (int l = 0; l < largeCount; l++)
+        {
+            collectSlot(large[l], area, result);
+        }
+    }
+
+    /**
+     * Collect collidables inside area from cell.
+     * 
+     * @param key The cell key.
+     * @param area The area used.
+     * @param result The elements found.
+     */
+    private void collectCell(long key, Area area, List<Collidable> result)
+    {
+        final int mask = keys.length - 1;
+        int index = (int) (key * HASH >>> Integer.SIZE) & mask;
+        while (stamps[index] == stamp && keys[index] != key)
+        {
+            index = index + 1 & mask;
+        }
+        if (stamps[index] == stamp)
+        {
+            for (int e = heads[index]; e != NONE; e = next[e])
+            {
+                collectSlot(entries[e], area, result);
+            }
+        }
+    }
+
+    /**
+     * Collect collidable if inside area.
+     * 
+     * @param slot The slot.
+     * @param area The area used.
+     * @param result The elements found.
+     */
+    private void collectSlot(int slot, Area area, List<Collidable> result)
+    {
+        if (queried[slot] != query)
+        {
+            queried[slot] = query;
+            if (BroadPhaseUtil.isInside(area, refs[slot]))
+            {
+                result.add(refs[slot]);
+            }
+        }
+    }
+
+    /*
+     * Renderable
+     */
+
+    @Override
+    public void render(Graphic g)
+    {
+        for (int u = 0; u < usedCount; u++)
+        {
+            final int index = used[u];
+            final long key = keys[index];
+            final int x = (int) (key >> Integer.SIZE) * cellSize + cellSize / 2;
+            final int y = (int) key * cellSize + cellSize / 2;
+
+            int n = 0;
+            for (int e = heads[index]; e != NONE; e = next[e])
+            {
+                n++;
+            }
+
+            g.drawRect(viewer, Origin.MIDDLE, x, y, cellSize, cellSize, false);
+
+            TEXT.update(viewer);
+            TEXT.draw(g, x, y, Align.CENTER, String.valueOf(n));
+        }
+    }
+}
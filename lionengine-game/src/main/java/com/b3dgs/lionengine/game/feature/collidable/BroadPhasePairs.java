@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of notified pairs, used to notify a pair only once per computation when it is found many times.
+ */
+final class BroadPhasePairs
+{
+    private static final int INIT_CAPACITY = 256;
+    private static final long HASH = 0x9E3779B97F4A7C15L;
+
+    /** Identifier by collidable. */
+    private final Map<Collidable, Integer> ids = new HashMap<>();
+    /** Released identifiers. */
+    private final Deque<Integer> free = new ArrayDeque<>();
+    /** Pairs keys. */
+    private long[] keys = new long[INIT_CAPACITY];
+    /** Pairs stamps, pair is stored if equals to current stamp. */
+    private int[] stamps = new int[INIT_CAPACITY];
+    /** Current stamp. */
+    private int stamp = 1;
+    /** Stored pairs. */
+    private int size;
+
+    /**
+     * Create pairs.
+     */
+    BroadPhasePairs()
+    {
+        super();
+    }
+
+    /**
+     * Add pair.
+     * 
+     * @param a The first collidable.
+     * @param b The second collidable.
+     * @return <code>true</code> if added, <code>false</code> if already stored.
+     */
+    boolean add(Collidable a, Collidable b)
+    {
+        if ((size + 1) * 2 > keys.length)
+        {
+            grow();
+        }
+        final int ida = getId(a);
+        final int idb = getId(b);
+        final long key = (long) Math.min(ida, idb) << Integer.SIZE | Math.max(ida, idb);
+        return insert(key);
+    }
+
+    /**
+     * Remove collidable identifier.
+     * 
+     * @param ref The collidable reference.
+     */
+    void remove(Collidable ref)
+    {
+        final Integer id = ids.remove(ref);
+        if (id != null)
+        {
+            free.push(id);
+        }
+    }
+
+    /**
+     * Clear pairs.
+     */
+    void clear()
+    {
+        stamp++;
+        if (stamp == 0)
+        {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Get collidable identifier.
+     * 
+     * @param ref The collidable reference.
+     * @return The identifier.
+     */
+    private int getId(Collidable ref)
+    {
+        Integer id = ids.get(ref);
+        if (id == null)
+        {
+            if (free.isEmpty())
+            {
+                id = Integer.valueOf(ids.size());
+            }
+            else
+            {
+                id = free.pop();
+            }
+            ids.put(ref, id);
+        }
+        return id.intValue();
+    }
+
+    /**
+     * Insert key.
+     * 
+     * @param key The key.
+     * @return <code>true</code> if added, <code>false</code> if already stored.
+     */
+    private boolean insert(long key)
+    {
+        final int mask = keys.length - 1;
+        int index = (int) (key * HASH >>> Integer.SIZE) & mask;
+        while (stamps[index] == stamp)
+        {
+            if (keys[index] == key)
+            {
+                return false;
+            }
+            index = index + 1 & mask;
+        }
+        stamps[index] = stamp;
+        keys[index] = key;
+        size++;
+        return true;
+    }
+
+    /**
+     * Grow table and keep stored pairs.
+     */
+    private void grow()
+    {
+        final long[] oldKeys = keys;
+        final int[] oldStamps = stamps;
+        keys = new long[oldKeys.length * 2];
+        stamps = new int[oldStamps.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldStamps[i] == stamp)
+            {
+                insert(oldKeys[i]);
+            }
+        }
+    }
+}
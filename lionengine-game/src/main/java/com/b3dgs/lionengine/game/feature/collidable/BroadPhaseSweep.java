@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.graphic.Graphic;
+
+/**
+ * Sweep and prune broad phase on horizontal axis. Order is kept between {@link #compute()} and sorted by insertion,
+ * which is close to linear when collidables move slowly.
+ * Disabled collidables are sorted at the end and skipped.
+ */
+public class BroadPhaseSweep extends BroadPhaseAbstract
+{
+    private static final int INIT_CAPACITY = 64;
+    /** Removed slot in order, compacted by next index. */
+    private static final int REMOVED = -1;
+
+    /** Slots sorted by min horizontal bounds. */
+    private int[] order = new int[INIT_CAPACITY];
+    /** Order index by slot. */
+    private int[] positions = new int[INIT_CAPACITY];
+    /** Sorted slots number, including removed ones. */
+    private int sorted;
+    /** Removed slots number in order. */
+    private int removed;
+
+    /**
+     * Create sweep and prune.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     */
+    public BroadPhaseSweep(Viewer viewer)
+    {
+        super(viewer);
+    }
+
+    /**
+     * Get the sort value of slot, disabled slots are moved to the end.
+     * 
+     * @param slot The slot.
+     * @return The sort value.
+     */
+    private double value(int slot)
+    {
+        if (enabled[slot])
+        {
+            return minX[slot];
+        }
+        return Double.MAX_VALUE;
+    }
+
+    /*
+     * BroadPhaseAbstract
+     */
+
+    @Override
+    protected void onAdded(int slot)
+    {
+        if (sorted == order.length)
+        {
+            order = Arrays.copyOf(order, order.length * 2);
+            positions = Arrays.copyOf(positions, order.length);
+        }
+        order[sorted] = slot;
+        positions[slot] = sorted;
+        sorted++;
+    }
+
+    @Override
+    protected void onRemoved(int slot, int last)
+    {
+        order[positions[slot]] = REMOVED;
+        if (slot != last)
+        {
+            order[positions[last]] = slot;
+            positions[slot] = positions[last];
+        }
+        removed++;
+    }
+
+    @Override
+    protected void index()
+    {
+        if (removed > 0)
+        {
+            int n = 0;
+            for (int i = 0; i < sorted; i++)
+            {
+                final int slot = order[i];
+                if (slot != REMOVED)
+                {
+                    order[n] = slot;
+                    positions[slot] = n;
+                    n++;
+                }
+            }
+            sorted = n;
+            removed = 0;
+        }
+        for (int i = 1; i < sorted; i++)
+        {
+            final int slot = order[i];
+            final double value = value(slot);
+            int j = i - 1;
+            while (j >= 0 && value(order[j]) > value)
+            {
+                order[j + 1] = order[j];
+                positions[order[j + 1]] = j + 1;
+                j--;
+            }
+            order[j + 1] = slot;
+            positions[slot] = j + 1;
+        }
+    }
+
+    @Override
+    protected void computePairs()
+    {
+        for (int a = 0; a < sorted; a++)
+        {
+            final int i = order[a];
+            if (!enabled[i])
+            {
+                break;
+            }
+            for (int b = a + 1; b < sorted; b++)
+            {
+                final int j = order[b];
+                if (!enabled[j] || minX[j] > maxX[i])
+                {
+                    break;
+                }
+                if (minY[i] <= maxY[j] && minY[j] <= maxY[i])
+                {
+                    BroadPhaseUtil.collide(refs[i], refs[j]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Renderable
+     */
+
+    @Override
+    public void render(Graphic g)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (bounded[i])
+            {
+                g.drawRect(viewer,
+                           Origin.MIDDLE,
+                           (minX[i] + maxX[i]) / 2.0,
+                           (minY[i] + maxY[i]) / 2.0,
+                           (int) Math.ceil(maxX[i] - minX[i]),
+                           (int) Math.ceil(maxY[i] - minY[i]),
+                           false);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.List;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Broad phase utility, shared by {@link BroadPhase} implementations.
+ */
+final class BroadPhaseUtil
+{
+    /**
+     * Notify collision check between candidates, only for accepted groups.
+     * 
+     * @param a The first candidate.
+     * @param b The second candidate.
+     */
+    static void collide(Collidable a, Collidable b)
+    {
+        if (a.getAccepted().contains(b.getGroup()))
+        {
+            a.collide(b);
+        }
+        if (b.getAccepted().contains(a.getGroup()))
+        {
+            b.collide(a);
+        }
+    }
+
+    /**
+     * Check if at least one candidate accepts the other group.
+     * 
+     * @param a The first candidate.
+     * @param b The second candidate.
+     * @return <code>true</code> if pair may collide, <code>false</code> else.
+     */
+    static boolean isAccepted(Collidable a, Collidable b)
+    {
+        return a.getAccepted().contains(b.getGroup()) || b.getAccepted().contains(a.getGroup());
+    }
+
+    /**
+     * Check if collidable bounds are inside area.
+     * 
+     * @param area The area used.
+     * @param collidable The collidable to check.
+     * @return <code>true</code> if at least one bound is inside area, <code>false</code> else.
+     */
+    static boolean isInside(Area area, Collidable collidable)
+    {
+        final List<Rectangle> bounds = collidable.getCollisionBounds();
+        final int n = bounds.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Rectangle bound = bounds.get(i);
+            if (area.contains(bound) || area.intersects(bound))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private BroadPhaseUtil()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.collidable;
 import java.util.List;
 
 import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.feature.ComponentRenderer;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
@@ -44,23 +45,35 @@ public class ComponentCollision implements ComponentUpdater, ComponentRenderer,
 {
     private static final int TREE_SIZE = 16384;
 
-    /** Mapping reduced by group as list index. */
-    private final QuadTree collidables;
+    /** Collidables broad phase. */
+    private final BroadPhase collidables;
     /** Rendering. */
     private Renderable renderable = RenderableVoid.getInstance();
 
     /**
-     * Create component.
+     * Create component with a {@link QuadTree} broad phase.
      * 
      * @param viewer The viewer reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
      */
     public ComponentCollision(Viewer viewer)
+    {
+        this(new QuadTree(viewer, TREE_SIZE));
+    }
+
+    /**
+     * Create component.
+     * 
+     * @param broadPhase The broad phase used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ComponentCollision(BroadPhase broadPhase)
     {
         super();
 
-        Check.notNull(viewer);
+        Check.notNull(broadPhase);
 
-        collidables = new QuadTree(viewer, TREE_SIZE);
+        collidables = broadPhase;
     }
 
     /**
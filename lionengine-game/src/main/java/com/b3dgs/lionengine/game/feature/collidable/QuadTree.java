@@ -17,64 +17,116 @@
 package com.b3dgs.lionengine.game.feature.collidable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.b3dgs.lionengine.Align;
 import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.TextGame;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.geom.Area;
-import com.b3dgs.lionengine.geom.Rectangle;
 import com.b3dgs.lionengine.graphic.Graphic;
-import com.b3dgs.lionengine.graphic.Renderable;
 import com.b3dgs.lionengine.graphic.TextStyle;
 
 /**
  * Quad tree dedicated to collisions.
+ * <p>
+ * Each collidable keeps a reference to the leaves containing it, so a move inside the same leaf does not update the
+ * tree. Leaves split and merge are performed once on {@link #compute()}.
+ * </p>
  */
-public class QuadTree implements Renderable
+public class QuadTree implements BroadPhase
 {
     private static final TextGame TEXT = new TextGame("System", 9, TextStyle.NORMAL);
     private static final int MAX_NODES = 4;
+    private static final int MERGE_NODES = MAX_NODES / 2;
     private static final int MIN_SIZE = 64;
     private static final int LEFT = 0;
     private static final int RIGHT = 1;
     private static final int BOTTOM = 0;
     private static final int TOP = 1;
 
-    private final List<Collidable> refs = new ArrayList<>();
-    private final Viewer viewer;
-    private final int x;
-    private final int y;
-    private final int size;
+    /**
+     * Get the min horizontal bound of collidable.
+     * 
+     * @param ref The collidable reference.
+     * @return The min horizontal bound.
+     */
+    private static double getMinX(Collidable ref)
+    {
+        return ref.getX() - ref.getMaxWidth() / 2;
+    }
 
-    /** Children, can be <code>null</code> if none. */
-    private QuadTree[][] children;
-    /** Current number of references. */
-    private int count;
+    /**
+     * Get the max horizontal bound of collidable.
+     * 
+     * @param ref The collidable reference.
+     * @return The max horizontal bound.
+     */
+    private static double getMaxX(Collidable ref)
+    {
+        return ref.getX() + ref.getMaxWidth() / 2;
+    }
 
     /**
-     * Create tree.
+     * Get the min vertical bound of collidable.
      * 
-     * @param viewer The viewer reference (must not be <code>null</code>).
-     * @param size The maximum size (must be strictly positive, power of 2 recommended).
+     * @param ref The collidable reference.
+     * @return The min vertical bound.
      */
-    public QuadTree(Viewer viewer, int size)
+    private static double getMinY(Collidable ref)
+    {
+        return ref.getY() + ref.getMinHeight();
+    }
+
+    /**
+     * Get the max vertical bound of collidable.
+     * 
+     * @param ref The collidable reference.
+     * @return The max vertical bound.
+     */
+    private static double getMaxY(Collidable ref)
     {
-        this(viewer, size / 2, size / 2, size);
+        return ref.getY() + ref.getMaxHeight();
     }
 
     /**
-     * Create internal tree.
+     * Detach collidable from its leaves.
+     * 
+     * @param ref The collidable reference.
+     * @param nodes The leaves containing collidable.
+     */
+    private static void detach(Collidable ref, List<Node> nodes)
+    {
+        final int n = nodes.size();
+        for (int i = 0; i < n; i++)
+        {
+            nodes.get(i).detach(ref);
+        }
+        nodes.clear();
+    }
+
+    /** Leaves containing collidable. */
+    private final Map<Collidable, List<Node>> leaves = new HashMap<>();
+    /** Notified pairs. */
+    private final BroadPhasePairs pairs = new BroadPhasePairs();
+    /** The viewer reference. */
+    private final Viewer viewer;
+    /** Root node. */
+    private final Node root;
+
+    /**
+     * Create tree.
      * 
      * @param viewer The viewer reference (must not be <code>null</code>).
-     * @param x The horizontal center location.
-     * @param y The vertical center location.
-     * @param size The maximum size (must be strictly positive).
+     * @param size The maximum size (must be strictly positive, power of 2 recommended).
+     * @throws LionEngineException If invalid arguments.
      */
-    private QuadTree(Viewer viewer, int x, int y, int size)
+    public QuadTree(Viewer viewer, int size)
     {
         super();
 
@@ -82,289 +134,459 @@ public class QuadTree implements Renderable
         Check.superiorOrEqual(size, 0);
 
         this.viewer = viewer;
-        this.x = x;
-        this.y = y;
-        this.size = size;
+        root = new Node(null, size / 2, size / 2, size);
     }
 
     /**
-     * Add collidable.
+     * Add collidable. Tree is split on next {@link #compute()} if needed.
      * 
      * @param ref The collidable reference.
      */
     public void add(Collidable ref)
     {
-        if (count < MAX_NODES || size < MIN_SIZE)
+        if (!leaves.containsKey(ref))
         {
-            if (!refs.contains(ref))
-            {
-                refs.add(ref);
-                count++;
-            }
+            final List<Node> nodes = new ArrayList<>(1);
+            leaves.put(ref, nodes);
+            root.add(ref, getMinX(ref), getMinY(ref), getMaxX(ref), getMaxY(ref), nodes);
+        }
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    @Override
+    public void move(Transformable transformable, Collidable ref)
+    {
+        final List<Node> nodes = leaves.get(ref);
+        if (nodes == null)
+        {
+            add(ref);
         }
         else
         {
-            if (children == null)
-            {
-                createSplit();
-            }
+            final double minX = getMinX(ref);
+            final double minY = getMinY(ref);
+            final double maxX = getMaxX(ref);
+            final double maxY = getMaxY(ref);
 
-            final int n = refs.size();
-            for (int i = 0; i < n; i++)
+            if (nodes.size() != 1 || root.find(minX, minY, maxX, maxY) != nodes.get(0))
             {
-                addInternal(refs.get(i));
+                detach(ref, nodes);
+                root.add(ref, minX, minY, maxX, maxY, nodes);
             }
-            addInternal(ref);
-            refs.clear();
         }
     }
 
+    @Override
+    public void remove(Transformable transformable, Collidable ref)
+    {
+        final List<Node> nodes = leaves.remove(ref);
+        if (nodes != null)
+        {
+            detach(ref, nodes);
+        }
+        pairs.remove(ref);
+    }
+
+    @Override
+    public void compute()
+    {
+        root.split();
+        root.merge();
+
+        pairs.clear();
+        root.compute();
+    }
+
+    @Override
+    public List<Collidable> getInside(Area area)
+    {
+        final List<Collidable> result = new ArrayList<>();
+        root.getInside(area, result);
+        return result;
+    }
+
+    /*
+     * Renderable
+     */
+
+    @Override
+    public void render(Graphic g)
+    {
+        root.render(g);
+    }
+
     /**
-     * Remove collidable from tree.
-     * 
-     * @param transformable The transformable reference.
-     * @param ref The collidable reference.
+     * Tree node, leaf if without children.
      */
-    public void remove(Transformable transformable, Collidable ref)
+    private final class Node
     {
-        if (count > 0)
+        /** Leaf references. */
+        private final List<Collidable> refs = new ArrayList<>();
+        /** Parent node, <code>null</code> if root. */
+        private final Node parent;
+        /** The horizontal center location. */
+        private final int x;
+        /** The vertical center location. */
+        private final int y;
+        /** The node size. */
+        private final int size;
+
+        /** Children, can be <code>null</code> if none. */
+        private Node[][] children;
+        /** Current number of references in leaves of node. */
+        private int count;
+
+        /**
+         * Create node.
+         * 
+         * @param parent The parent node (<code>null</code> if root).
+         * @param x The horizontal center location.
+         * @param y The vertical center location.
+         * @param size The node size.
+         */
+        Node(Node parent, int x, int y, int size)
         {
-            if (refs.remove(ref))
+            super();
+
+            this.parent = parent;
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+
+        /**
+         * Add collidable in leaves depending of its bounds.
+         * 
+         * @param ref The collidable reference.
+         * @param minX The min horizontal bound.
+         * @param minY The min vertical bound.
+         * @param maxX The max horizontal bound.
+         * @param maxY The max vertical bound.
+         * @param nodes The leaves containing collidable.
+         */
+        void add(Collidable ref, double minX, double minY, double maxX, double maxY, List<Node> nodes)
+        {
+            if (children == null)
             {
-                count--;
+                refs.add(ref);
+                nodes.add(this);
+                updateCount(1);
             }
-
-            if (children != null)
+            else
             {
-                final int minX = getIndexX(transformable.getOldX() - ref.getMaxWidth() * 2);
-                final int minY = getIndexY(transformable.getOldY() + ref.getMinHeight() * 2);
-                final int maxX = getIndexX(transformable.getOldX() + ref.getMaxWidth() * 2);
-                final int maxY = getIndexY(transformable.getOldY() + ref.getMaxHeight() * 2);
+                final int minIx = getIndexX(minX);
+                final int minIy = getIndexY(minY);
+                final int maxIx = getIndexX(maxX);
+                final int maxIy = getIndexY(maxY);
 
-                for (int iy = minY; iy <= maxY; iy++)
+                for (int iy = minIy; iy <= maxIy; iy++)
                 {
-                    final QuadTree[] trees = children[iy];
+                    final Node[] trees = children[iy];
 
-                    for (int ix = minX; ix <= maxX; ix++)
+                    for (int ix = minIx; ix <= maxIx; ix++)
                     {
-                        trees[ix].remove(transformable, ref);
+                        trees[ix].add(ref, minX, minY, maxX, maxY, nodes);
                     }
                 }
             }
         }
-        if (children != null)
+
+        /**
+         * Detach collidable from leaf.
+         * 
+         * @param ref The collidable reference.
+         */
+        void detach(Collidable ref)
         {
-            checkMerge();
+            final int index = refs.indexOf(ref);
+            if (index > -1)
+            {
+                final int last = refs.size() - 1;
+                refs.set(index, refs.get(last));
+                refs.remove(last);
+                updateCount(-1);
+            }
         }
-    }
 
-    /**
-     * Update index.
-     * 
-     * @param transformable The transformable reference.
-     * @param ref The collidable reference.
-     */
-    public void move(Transformable transformable, Collidable ref)
-    {
-        remove(transformable, ref);
-        add(ref);
-    }
+        /**
+         * Find the single leaf containing bounds.
+         * 
+         * @param minX The min horizontal bound.
+         * @param minY The min vertical bound.
+         * @param maxX The max horizontal bound.
+         * @param maxY The max vertical bound.
+         * @return The leaf found, <code>null</code> if bounds are on many leaves.
+         */
+        Node find(double minX, double minY, double maxX, double maxY)
+        {
+            if (children == null)
+            {
+                return this;
+            }
+            final int ix = getIndexX(minX);
+            final int iy = getIndexY(minY);
+            if (ix != getIndexX(maxX) || iy != getIndexY(maxY))
+            {
+                return null;
+            }
+            return children[iy][ix].find(minX, minY, maxX, maxY);
+        }
 
-    /**
-     * Compute collision with all elements.
-     */
-    public void compute()
-    {
-        if (refs.size() > 1)
+        /**
+         * Split full leaves.
+         */
+        void split()
         {
-            for (int i = 0; i < refs.size() - 1; i++)
+            if (children == null)
+            {
+                if (refs.size() > MAX_NODES && size >= MIN_SIZE)
+                {
+                    createSplit();
+                }
+            }
+            if (children != null)
+            {
+                children[BOTTOM][LEFT].split();
+                children[BOTTOM][RIGHT].split();
+                children[TOP][LEFT].split();
+                children[TOP][RIGHT].split();
+            }
+        }
+
+        /**
+         * Merge children leaves if not enough references.
+         */
+        void merge()
+        {
+            if (children != null)
+            {
+                children[BOTTOM][LEFT].merge();
+                children[BOTTOM][RIGHT].merge();
+                children[TOP][LEFT].merge();
+                children[TOP][RIGHT].merge();
+
+                if (count <= MERGE_NODES && isLeaves())
+                {
+                    merge(children[BOTTOM][LEFT]);
+                    merge(children[BOTTOM][RIGHT]);
+                    merge(children[TOP][LEFT]);
+                    merge(children[TOP][RIGHT]);
+                    children = null;
+                    updateCount(refs.size() - count);
+                }
+            }
+        }
+
+        /**
+         * Compute collision with all elements. A pair shared by many leaves is notified once.
+         */
+        void compute()
+        {
+            final int n = refs.size();
+            for (int i = 0; i < n - 1; i++)
             {
                 final Collidable a = refs.get(i);
-                for (int j = i + 1; j < refs.size(); j++)
+                final boolean shared = leaves.get(a).size() > 1;
+                for (int j = i + 1; j < n; j++)
                 {
                     final Collidable b = refs.get(j);
-                    if (a != b)
+                    if (BroadPhaseUtil.isAccepted(a, b)
+                        && (!shared || leaves.get(b).size() == 1 || pairs.add(a, b)))
                     {
-                        a.collide(b);
-                        b.collide(a);
+                        BroadPhaseUtil.collide(a, b);
                     }
                 }
             }
-        }
 
-        if (children != null)
-        {
-            children[BOTTOM][LEFT].compute();
-            children[BOTTOM][RIGHT].compute();
-            children[TOP][LEFT].compute();
-            children[TOP][RIGHT].compute();
+            if (children != null)
+            {
+                children[BOTTOM][LEFT].compute();
+                children[BOTTOM][RIGHT].compute();
+                children[TOP][LEFT].compute();
+                children[TOP][RIGHT].compute();
+            }
         }
-    }
-
-    /**
-     * Get all collidables inside.
-     * 
-     * @param area The area used.
-     * @return The collidable inside.
-     */
-    public List<Collidable> getInside(Area area)
-    {
-        final List<Collidable> result = new ArrayList<>();
-        checkInside(area, result);
 
-        if (children != null)
+        /**
+         * Get all collidables inside.
+         * 
+         * @param area The area used.
+         * @param result The elements found.
+         */
+        void getInside(Area area, List<Collidable> result)
         {
-            final int minX = getIndexX(area.getX() - area.getWidth());
-            final int minY = getIndexY(area.getY() - area.getHeight());
-            final int maxX = getIndexX(area.getX() + area.getWidth());
-            final int maxY = getIndexY(area.getY() + area.getHeight());
-
-            for (int iy = minY; iy <= maxY; iy++)
+            if (children == null)
+            {
+                checkInside(area, result);
+            }
+            else
             {
-                final QuadTree[] trees = children[iy];
+                final int minX = getIndexX(area.getX() - area.getWidth());
+                final int minY = getIndexY(area.getY() - area.getHeight());
+                final int maxX = getIndexX(area.getX() + area.getWidth());
+                final int maxY = getIndexY(area.getY() + area.getHeight());
 
-                for (int ix = minX; ix <= maxX; ix++)
+                for (int iy = minY; iy <= maxY; iy++)
                 {
-                    final QuadTree tree = trees[ix];
+                    final Node[] trees = children[iy];
 
-                    tree.checkInside(area, result);
-                    result.addAll(tree.getInside(area));
+                    for (int ix = minX; ix <= maxX; ix++)
+                    {
+                        trees[ix].getInside(area, result);
+                    }
                 }
             }
         }
-        return result;
-    }
 
-    @Override
-    public void render(Graphic g)
-    {
-        if (refs.size() > 0)
+        /**
+         * Render node.
+         * 
+         * @param g The graphic output.
+         */
+        void render(Graphic g)
         {
-            g.drawRect(viewer, Origin.MIDDLE, x, y, size, size, false);
+            if (refs.size() > 0)
+            {
+                g.drawRect(viewer, Origin.MIDDLE, x, y, size, size, false);
 
-            TEXT.update(viewer);
-            TEXT.draw(g, x, y, Align.CENTER, String.valueOf(refs.size()));
+                TEXT.update(viewer);
+                TEXT.draw(g, x, y, Align.CENTER, String.valueOf(refs.size()));
+            }
+
+            if (children != null)
+            {
+                children[BOTTOM][LEFT].render(g);
+                children[BOTTOM][RIGHT].render(g);
+                children[TOP][LEFT].render(g);
+                children[TOP][RIGHT].render(g);
+            }
         }
 
-        if (children != null)
+        /**
+         * Update references count of node and its parents.
+         * 
+         * @param delta The count delta.
+         */
+        private void updateCount(int delta)
         {
-            children[BOTTOM][LEFT].render(g);
-            children[BOTTOM][RIGHT].render(g);
-            children[TOP][LEFT].render(g);
-            children[TOP][RIGHT].render(g);
+            for (Node node = this; node != null; node = node.parent)
+            {
+                node.count += delta;
+            }
         }
-    }
 
-    /**
-     * Get the horizontal index.
-     * 
-     * @param value The horizontal element location.
-     * @return The horizontal tree index (0 if left, 1 if right).
-     */
-    private int getIndexX(double value)
-    {
-        if (value < x)
+        /**
+         * Get the horizontal index.
+         * 
+         * @param value The horizontal element location.
+         * @return The horizontal tree index (0 if left, 1 if right).
+         */
+        private int getIndexX(double value)
         {
-            return 0;
+            if (value < x)
+            {
+                return 0;
+            }
+            return 1;
         }
-        return 1;
-    }
 
-    /**
-     * Get the vertical index.
-     * 
-     * @param value The vertical element location.
-     * @return The vertical tree index (0 if top, 1 if bottom).
-     */
-    private int getIndexY(double value)
-    {
-        if (value < y)
+        /**
+         * Get the vertical index.
+         * 
+         * @param value The vertical element location.
+         * @return The vertical tree index (0 if top, 1 if bottom).
+         */
+        private int getIndexY(double value)
         {
-            return 0;
+            if (value < y)
+            {
+                return 0;
+            }
+            return 1;
         }
-        return 1;
-    }
-
-    /**
-     * Create split children.
-     */
-    private void createSplit()
-    {
-        children = new QuadTree[2][2];
 
-        final int half = size / 2;
-        children[BOTTOM][LEFT] = new QuadTree(viewer, x - half / 2, y - half / 2, half);
-        children[BOTTOM][RIGHT] = new QuadTree(viewer, x + half / 2, y - half / 2, half);
-        children[TOP][LEFT] = new QuadTree(viewer, x - half / 2, y + half / 2, half);
-        children[TOP][RIGHT] = new QuadTree(viewer, x + half / 2, y + half / 2, half);
-    }
+        /**
+         * Create split children and move leaf references inside.
+         */
+        private void createSplit()
+        {
+            children = new Node[2][2];
 
-    /**
-     * Add collidable in tree depending of its indexes.
-     * 
-     * @param ref The collidable reference.
-     */
-    private void addInternal(Collidable ref)
-    {
-        final int minX = getIndexX(ref.getX() - ref.getMaxWidth() / 2);
-        final int minY = getIndexY(ref.getY() + ref.getMinHeight());
-        final int maxX = getIndexX(ref.getX() + ref.getMaxWidth() / 2);
-        final int maxY = getIndexY(ref.getY() + ref.getMaxHeight());
+            final int half = size / 2;
+            children[BOTTOM][LEFT] = new Node(this, x - half / 2, y - half / 2, half);
+            children[BOTTOM][RIGHT] = new Node(this, x + half / 2, y - half / 2, half);
+            children[TOP][LEFT] = new Node(this, x - half / 2, y + half / 2, half);
+            children[TOP][RIGHT] = new Node(this, x + half / 2, y + half / 2, half);
 
-        for (int iy = minY; iy <= maxY; iy++)
-        {
-            final QuadTree[] trees = children[iy];
+            updateCount(-refs.size());
 
-            for (int ix = minX; ix <= maxX; ix++)
+            final int n = refs.size();
+            for (int i = 0; i < n; i++)
             {
-                trees[ix].add(ref);
+                final Collidable ref = refs.get(i);
+                final List<Node> nodes = leaves.get(ref);
+                nodes.remove(this);
+                add(ref, getMinX(ref), getMinY(ref), getMaxX(ref), getMaxY(ref), nodes);
             }
+            refs.clear();
         }
-    }
 
-    /**
-     * Check what is inside area.
-     * 
-     * @param area The area used.
-     * @param result The elements found.
-     */
-    private void checkInside(Area area, List<Collidable> result)
-    {
-        final int n = refs.size();
-        for (int i = 0; i < n; i++)
+        /**
+         * Check if all children are leaves.
+         * 
+         * @return <code>true</code> if only leaves, <code>false</code> else.
+         */
+        private boolean isLeaves()
         {
-            final Collidable current = refs.get(i);
-            final List<Rectangle> bounds = current.getCollisionBounds();
+            return children[BOTTOM][LEFT].children == null
+                   && children[BOTTOM][RIGHT].children == null
+                   && children[TOP][LEFT].children == null
+                   && children[TOP][RIGHT].children == null;
+        }
 
-            final int k = bounds.size();
-            for (int j = 0; j < k; j++)
+        /**
+         * Move child references to this node.
+         * 
+         * @param child The child leaf.
+         */
+        private void merge(Node child)
+        {
+            final int n = child.refs.size();
+            for (int i = 0; i < n; i++)
             {
-                final Rectangle bound = bounds.get(j);
-                if (area.contains(bound) || area.intersects(bound))
+                final Collidable ref = child.refs.get(i);
+                final List<Node> nodes = leaves.get(ref);
+                nodes.remove(child);
+                if (!nodes.contains(this))
                 {
-                    result.add(current);
+                    nodes.add(this);
+                    refs.add(ref);
                 }
             }
+            child.refs.clear();
         }
-    }
 
-    /**
-     * Check merge nodes if all empty.
-     */
-    private void checkMerge()
-    {
-        if (children[BOTTOM][LEFT].count == 0
-            && children[BOTTOM][RIGHT].count == 0
-            && children[TOP][LEFT].count == 0
-            && children[TOP][RIGHT].count == 0)
+        /**
+         * Check what is inside area.
+         * 
+         * @param area The area used.
+         * @param result The elements found.
+         */
+        private void checkInside(Area area, List<Collidable> result)
         {
-            children[BOTTOM][LEFT] = null;
-            children[BOTTOM][RIGHT] = null;
-            children[TOP][LEFT] = null;
-            children[TOP][RIGHT] = null;
-            children = null;
-            refs.clear();
-            count = 0;
+            final int n = refs.size();
+            for (int i = 0; i < n; i++)
+            {
+                final Collidable current = refs.get(i);
+                if (BroadPhaseUtil.isInside(area, current)
+                    && (leaves.get(current).size() == 1 || !result.contains(current)))
+                {
+                    result.add(current);
+                }
+            }
         }
     }
 }
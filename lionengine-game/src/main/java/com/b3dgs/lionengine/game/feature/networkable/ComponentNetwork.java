@@ -17,14 +17,17 @@
 package com.b3dgs.lionengine.game.feature.networkable;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Factory;
 import com.b3dgs.lionengine.game.feature.Featurable;
@@ -35,6 +38,7 @@ import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.network.Channel;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Message;
 import com.b3dgs.lionengine.network.MessageAbstract;
 import com.b3dgs.lionengine.network.Packet;
@@ -46,6 +50,23 @@ import com.b3dgs.lionengine.network.server.ServerListener;
 
 /**
  * Default network component implementation.
+ * <p>
+ * Messages queued since previous update, and the ones queued while handling received messages, are flushed at each
+ * update end, once per {@link Handler} update. Entities creation is sent reliably.
+ * </p>
+ * <p>
+ * Server sends to each client a snapshot of {@link Replicated} fields at each update where they changed, except for
+ * entities owned by the client. Snapshots are delta encoded against the last one acknowledged by the client, and
+ * bounded to a single message.
+ * </p>
+ * <p>
+ * Client sends its {@link Viewer} area when changed. Server only replicates entities in client {@link Interest}, and
+ * only relays client data of these entities. Entities leaving client interest are removed on client, and created again
+ * when entering it.
+ * </p>
+ * 
+ * @see Replication
+ * @see Interest
  */
 public class ComponentNetwork implements ComponentUpdater, HandlerListener
 {
@@ -53,11 +74,25 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
     public static final int MODE_IDENTIFIABLE_GET = UtilNetwork.MODE_DISCONNECT + 1;
     /** Mode identifiable create. */
     public static final int MODE_IDENTIFIABLE_CREATE = MODE_IDENTIFIABLE_GET + 1;
+    /** Mode snapshot. */
+    public static final int MODE_SNAPSHOT = MODE_IDENTIFIABLE_CREATE + 1;
+    /** Mode snapshot acknowledgement. */
+    public static final int MODE_SNAPSHOT_ACK = MODE_SNAPSHOT + 1;
+    /** Mode viewport. */
+    public static final int MODE_VIEWPORT = MODE_SNAPSHOT_ACK + 1;
+    /** Updates before sending again unchanged viewport. */
+    private static final int VIEWPORT_REFRESH = 30;
 
     /** Networkable by dataId. */
     private final Map<Integer, Networkable> networkables = new HashMap<>();
     /** Client by pending id. */
     private final Set<Integer> synced = new HashSet<>();
+    /** Requested data id removed from client interest before being created. */
+    private final Set<Integer> outOfScope = new HashSet<>();
+    /** Server replication by client id. */
+    private final Map<Integer, Replication> replications = new ConcurrentHashMap<>();
+    /** Replicated networkables cache. */
+    private final List<Networkable> replicated = new ArrayList<>();
     /** Server reference (<code>null</code> if unavailable). */
     private final Server server;
     /** Client reference (<code>null</code> if unavailable). */
@@ -65,6 +100,16 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
     private final Channel channel;
     private final Factory factory;
     private final Handler handler;
+    /** Server interest. */
+    private final Interest interest;
+    /** Client viewer (<code>null</code> if unavailable). */
+    private final Viewer viewer;
+    /** Client last viewport sent. */
+    private final int[] viewport = new int[4];
+    /** Client replication. */
+    private Replication replication = new Replication();
+    /** Client updates since last viewport sent. */
+    private int viewportAge = VIEWPORT_REFRESH;
 
     /**
      * Create component.
@@ -74,6 +119,13 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
      * <ul>
      * <li>{@link Channel}</li>
      * </ul>
+     * <p>
+     * The {@link Services} may provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link Interest}, default one else</li>
+     * <li>{@link Viewer}, to send client viewport</li>
+     * </ul>
      * 
      * @param services The services reference.
      */
@@ -86,9 +138,12 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
         channel = services.get(Channel.class);
         factory = services.get(Factory.class);
         handler = services.get(Handler.class);
+        interest = services.getOptional(Interest.class).orElseGet(Interest::new);
+        viewer = services.getOptional(Viewer.class).orElse(null);
 
         if (server != null)
         {
+            server.setRelayFilter(interest);
             server.addListener(new ServerListener()
             {
                 @Override
@@ -101,6 +156,21 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
                 public void notifyServerStopped()
                 {
                     clearAll();
+                    replications.clear();
+                    interest.clear();
+                }
+
+                @Override
+                public void notifyClientConnected(String ip, int port, Integer id)
+                {
+                    replications.put(id, new Replication());
+                }
+
+                @Override
+                public void notifyClientDisconnected(String ip, int port, Integer id)
+                {
+                    replications.remove(id);
+                    interest.remove(id);
                 }
             });
         }
@@ -118,6 +188,7 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
                 public void notifyDisconnected(String ip, int port, Integer id)
                 {
                     clearAll();
+                    replication = new Replication();
                 }
             });
         }
@@ -133,13 +204,14 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
             networkable.onDisconnected();
         }
         networkables.clear();
+        outOfScope.clear();
     }
 
     private void send(Message message, Integer clientId)
     {
         try
         {
-            server.send(message, clientId);
+            server.queue(message, clientId, Delivery.RELIABLE_UNORDERED);
         }
         catch (final IOException exception)
         {
@@ -159,6 +231,30 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
         }
     }
 
+    private void queue(Message message, Integer clientId)
+    {
+        try
+        {
+            server.queue(message, clientId);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    private void queue(Message message)
+    {
+        try
+        {
+            client.queue(message);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
     private void setNetworkable(Integer dataId, Networkable networkable)
     {
         networkables.put(dataId, networkable);
@@ -204,7 +300,7 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
         final Integer clientSourceId = packet.getClientSourceId();
         final int dataId = packet.readInt();
         final Integer dataIdKey = Integer.valueOf(dataId);
-        if (!synced.contains(dataIdKey))
+        if (!synced.contains(dataIdKey) && !outOfScope.remove(dataIdKey))
         {
             synced.add(dataIdKey);
 
@@ -220,6 +316,7 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
                 networkable.setClientId(clientSourceId);
                 networkable.setSynced(true);
                 networkable.ifIs(Transformable.class, t -> t.teleport(x, y));
+                replication.apply(dataId, networkable);
                 handler.add(featurable);
             }
         }
@@ -248,6 +345,158 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
         }
     }
 
+    private void handleSnapshot(Packet packet)
+    {
+        packet.buffer().position(MessageAbstract.SIZE_MIN + UtilNetwork.INDEX_DATA_ID + 2);
+
+        final int sequence = packet.getDataId();
+        if (client != null
+            && replication.decode(sequence, packet.buffer(), this::getNetworkableOrRequest, this::removeOutOfScope))
+        {
+            queue(new SnapshotAck(client.getClientId(), sequence));
+        }
+    }
+
+    private void handleSnapshotAck(Packet packet)
+    {
+        final Replication acknowledged = replications.get(packet.getClientId());
+        if (acknowledged != null)
+        {
+            acknowledged.acknowledge(packet.getDataId());
+        }
+    }
+
+    private void handleViewport(Packet packet)
+    {
+        packet.buffer().position(MessageAbstract.SIZE_MIN + UtilNetwork.INDEX_DATA_ID + 2 + Integer.BYTES);
+
+        final int x = packet.readInt();
+        final int y = packet.readInt();
+        final int width = packet.readInt();
+        final int height = packet.readInt();
+        interest.setViewport(packet.getClientId(), x, y, width, height);
+    }
+
+    /**
+     * Remove networkable not replicated anymore, such as out of client interest, or drop its pending creation. It will
+     * be requested again to server if replicated later.
+     * 
+     * @param dataId The data id.
+     */
+    private void removeOutOfScope(int dataId)
+    {
+        final Integer id = Integer.valueOf(dataId);
+        final Networkable networkable = networkables.get(id);
+        if (networkable == null)
+        {
+            outOfScope.add(id);
+        }
+        else if (!networkable.isOwner())
+        {
+            synced.remove(id);
+            networkables.remove(id);
+            networkable.onDisconnected();
+        }
+    }
+
+    /**
+     * Get the replicated networkable, requested to server if unknown.
+     * 
+     * @param dataId The data id.
+     * @return The networkable (<code>null</code> if unknown).
+     */
+    private Networkable getNetworkableOrRequest(int dataId)
+    {
+        final Integer id = Integer.valueOf(dataId);
+        final Networkable networkable = getNetworkable(id);
+        if (networkable == null)
+        {
+            outOfScope.remove(id);
+            send(new IdentifiableGet(client.getClientId(), dataId));
+        }
+        return networkable;
+    }
+
+    /**
+     * Queue a snapshot to each client, with entities in client interest not owned by the client. Nothing is queued if
+     * nothing changed since last snapshot acknowledged by the client.
+     */
+    private void replicate()
+    {
+        if (replications.isEmpty())
+        {
+            return;
+        }
+        interest.update(networkables.values());
+        for (final Map.Entry<Integer, Replication> entry : replications.entrySet())
+        {
+            final Integer clientId = entry.getKey();
+            replicated.clear();
+            for (final Networkable networkable : interest.getRelevant(clientId))
+            {
+                if (!networkable.getReplicated().isEmpty() && !clientId.equals(networkable.getClientId()))
+                {
+                    replicated.add(networkable);
+                }
+            }
+            final Replication current = entry.getValue();
+            final int sequence = current.getSequence();
+            final ByteBuffer data = current.encode(replicated, n -> interest.isDue(clientId, n), Snapshot.BUDGET);
+            if (data != null)
+            {
+                queue(new Snapshot(sequence, data), clientId);
+            }
+        }
+    }
+
+    /**
+     * Queue client viewer area to server if changed, or not sent for a while.
+     */
+    private void sendViewport()
+    {
+        final int x = (int) Math.floor(viewer.getX());
+        final int y = (int) Math.floor(viewer.getY());
+        final int width = viewer.getWidth();
+        final int height = viewer.getHeight();
+
+        viewportAge++;
+        if (viewportAge >= VIEWPORT_REFRESH
+            || x != viewport[0]
+            || y != viewport[1]
+            || width != viewport[2]
+            || height != viewport[3])
+        {
+            viewport[0] = x;
+            viewport[1] = y;
+            viewport[2] = width;
+            viewport[3] = height;
+            viewportAge = 0;
+            queue(new Viewport(client.getClientId(), x, y, width, height));
+        }
+    }
+
+    /**
+     * Send queued messages, once per update.
+     */
+    private void flush()
+    {
+        try
+        {
+            if (server != null)
+            {
+                server.flush();
+            }
+            if (client != null)
+            {
+                client.flush();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
     @Override
     public void update(double extrp, Handlables featurables)
     {
@@ -267,11 +516,35 @@ public class ComponentNetwork implements ComponentUpdater, HandlerListener
             {
                 handleIdentifiableCreate(packet);
             }
+            else if (mode == MODE_SNAPSHOT)
+            {
+                handleSnapshot(packet);
+            }
+            else if (mode == MODE_SNAPSHOT_ACK)
+            {
+                handleSnapshotAck(packet);
+            }
+            else if (mode == MODE_VIEWPORT)
+            {
+                handleViewport(packet);
+            }
             else if (mode == UtilNetwork.MODE_DATA)
             {
                 handleData(packet);
             }
+            packet.release();
         }
+
+        if (server != null)
+        {
+            replicate();
+        }
+        if (client != null && viewer != null && client.getClientId() != null)
+        {
+            sendViewport();
+        }
+
+        flush();
     }
 
     @Override
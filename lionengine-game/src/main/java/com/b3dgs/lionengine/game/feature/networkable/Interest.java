@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.network.server.RelayFilter;
+
+/**
+ * Server area of interest of each client, selecting replicated networkables from their viewport.
+ * <p>
+ * Networkables with {@link Transformable} are indexed in a grid at each {@link #update(Collection)}. A networkable
+ * becomes relevant for a client when its distance to the client viewport is under the enter margin, and stays relevant
+ * until its distance exceeds the exit margin. Relevant networkables out of the viewport are updated at a lower rate,
+ * decreasing with distance. Networkables without {@link Transformable}, and all networkables for clients without
+ * viewport, are always relevant and updated at each update.
+ * </p>
+ * <p>
+ * {@link #isRelayed(Integer, int)} is Thread-Safe, other methods must be called from the update thread.
+ * </p>
+ * 
+ * @see ComponentNetwork
+ */
+public class Interest implements RelayFilter
+{
+    /** Default grid cell size. */
+    public static final int DEFAULT_CELL = 128;
+    /** Default enter margin. */
+    public static final int DEFAULT_ENTER = 64;
+    /** Default exit margin. */
+    public static final int DEFAULT_EXIT = 128;
+    /** Default max update period of distant networkables. */
+    public static final int DEFAULT_PERIOD = 4;
+
+    /**
+     * Get the grid cell key.
+     * 
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     * @return The cell key.
+     */
+    private static long getKey(int x, int y)
+    {
+        return (long) x << Integer.SIZE | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Get the distance to viewport.
+     * 
+     * @param viewport The viewport [x, y, width, height].
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The distance to viewport border, <code>0</code> if inside.
+     */
+    private static double getDistance(int[] viewport, double x, double y)
+    {
+        final double dx = Math.max(Math.max(viewport[0] - x, x - viewport[0] - viewport[2]), 0.0);
+        final double dy = Math.max(Math.max(viewport[1] - y, y - viewport[1] - viewport[3]), 0.0);
+        return Math.max(dx, dy);
+    }
+
+    /** Networkables by grid cell. */
+    private final Map<Long, List<Networkable>> cells = new HashMap<>();
+    /** Networkables without location. */
+    private final List<Networkable> global = new ArrayList<>();
+    /** All networkables. */
+    private final List<Networkable> all = new ArrayList<>();
+    /** Clients interest. */
+    private final Map<Integer, Area> areas = new ConcurrentHashMap<>();
+    /** Grid cell size. */
+    private final int cell;
+    /** Enter margin. */
+    private final int enter;
+    /** Exit margin. */
+    private final int exit;
+    /** Max update period of distant networkables. */
+    private final int period;
+    /** Located networkables data id. */
+    private volatile Set<Integer> located = Collections.emptySet();
+    /** Updates count. */
+    private int tick;
+
+    /**
+     * Create interest with default values.
+     */
+    public Interest()
+    {
+        this(DEFAULT_CELL, DEFAULT_ENTER, DEFAULT_EXIT, DEFAULT_PERIOD);
+    }
+
+    /**
+     * Create interest.
+     * 
+     * @param cell The grid cell size (must be strictly positive).
+     * @param enter The enter margin (must be positive).
+     * @param exit The exit margin (must be superior or equal to enter margin).
+     * @param period The max update period of distant networkables (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Interest(int cell, int enter, int exit, int period)
+    {
+        super();
+
+        Check.superiorStrict(cell, 0);
+        Check.superiorOrEqual(enter, 0);
+        Check.superiorOrEqual(exit, enter);
+        Check.superiorStrict(period, 0);
+
+        this.cell = cell;
+        this.enter = enter;
+        this.exit = exit;
+        this.period = period;
+    }
+
+    /**
+     * Set client viewport.
+     * 
+     * @param clientId The client id.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The viewport width.
+     * @param height The viewport height.
+     */
+    public void setViewport(Integer clientId, int x, int y, int width, int height)
+    {
+        areas.computeIfAbsent(clientId, id -> new Area()).viewport = new int[]
+        {
+            x, y, Math.max(0, width), Math.max(0, height)
+        };
+    }
+
+    /**
+     * Remove client interest.
+     * 
+     * @param clientId The client id.
+     */
+    public void remove(Integer clientId)
+    {
+        areas.remove(clientId);
+    }
+
+    /**
+     * Remove all clients interest and indexed networkables.
+     */
+    public void clear()
+    {
+        areas.clear();
+        cells.clear();
+        global.clear();
+        all.clear();
+        located = Collections.emptySet();
+    }
+
+    /**
+     * Index networkables and update clients interest.
+     * 
+     * @param networkables The networkables to index.
+     */
+    public void update(Collection<Networkable> networkables)
+    {
+        cells.values().forEach(List::clear);
+        global.clear();
+        all.clear();
+        all.addAll(networkables);
+
+        final Set<Integer> ids = new HashSet<>();
+        for (final Networkable networkable : networkables)
+        {
+            if (networkable.hasFeature(Transformable.class))
+            {
+                final Transformable transformable = networkable.getFeature(Transformable.class);
+                final long key = getKey((int) Math.floor(transformable.getX() / cell),
+                                        (int) Math.floor(transformable.getY() / cell));
+                cells.computeIfAbsent(Long.valueOf(key), k -> new ArrayList<>()).add(networkable);
+                ids.add(Integer.valueOf(networkable.getDataId()));
+            }
+            else
+            {
+                global.add(networkable);
+            }
+        }
+        cells.values().removeIf(List::isEmpty);
+        located = ids;
+
+        for (final Area area : areas.values())
+        {
+            update(area);
+        }
+        tick++;
+    }
+
+    /**
+     * Get the relevant networkables of client.
+     * 
+     * @param clientId The client id.
+     * @return The relevant networkables, all if client has no viewport.
+     */
+    public List<Networkable> getRelevant(Integer clientId)
+    {
+        final Area area = areas.get(clientId);
+        if (area == null)
+        {
+            return all;
+        }
+        return area.networkables;
+    }
+
+    /**
+     * Check if relevant networkable must be updated for client.
+     * 
+     * @param clientId The client id.
+     * @param networkable The relevant networkable.
+     * @return <code>true</code> if must be updated, <code>false</code> if can be delayed.
+     */
+    public boolean isDue(Integer clientId, Networkable networkable)
+    {
+        final Area area = areas.get(clientId);
+        if (area == null)
+        {
+            return true;
+        }
+        final Integer rate = area.periods.get(networkable);
+        return rate == null || (tick + networkable.getDataId()) % rate.intValue() == 0;
+    }
+
+    /**
+     * Update client interest from indexed networkables.
+     * 
+     * @param area The client interest.
+     */
+    private void update(Area area)
+    {
+        final int[] viewport = area.viewport;
+        final Set<Integer> previous = area.relevant;
+        final Set<Integer> relevant = new HashSet<>();
+        area.networkables.clear();
+        area.networkables.addAll(global);
+        area.periods.clear();
+
+        final int minX = (int) Math.floor((viewport[0] - (double) exit) / cell);
+        final int minY = (int) Math.floor((viewport[1] - (double) exit) / cell);
+        final int maxX = (int) Math.floor((viewport[0] + (double) viewport[2] + exit) / cell);
+        final int maxY = (int) Math.floor((viewport[1] + (double) viewport[3] + exit) / cell);
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                final List<Networkable> networkables = cells.get(Long.valueOf(getKey(x, y)));
+                if (networkables != null)
+                {
+                    update(area, viewport, previous, relevant, networkables);
+                }
+            }
+        }
+        area.relevant = relevant;
+    }
+
+    /**
+     * Update client interest from cell networkables.
+     * 
+     * @param area The client interest.
+     * @param viewport The client viewport.
+     * @param previous The previous relevant data ids.
+     * @param relevant The current relevant data ids.
+     * @param networkables The cell networkables.
+     */
+    private void update(Area area,
+                        int[] viewport,
+                        Set<Integer> previous,
+                        Set<Integer> relevant,
+                        List<Networkable> networkables)
+    {
+        for (final Networkable networkable : networkables)
+        {
+            final Transformable transformable = networkable.getFeature(Transformable.class);
+            final double distance = getDistance(viewport, transformable.getX(), transformable.getY());
+            final Integer id = Integer.valueOf(networkable.getDataId());
+            if (distance <= enter || distance <= exit && previous.contains(id))
+            {
+                relevant.add(id);
+                area.networkables.add(networkable);
+                if (distance > 0.0)
+                {
+                    final int rate = 1 + (int) (distance * (period - 1) / Math.max(1, exit));
+                    area.periods.put(networkable, Integer.valueOf(Math.min(rate, period)));
+                }
+            }
+        }
+    }
+
+    /*
+     * RelayFilter
+     */
+
+    @Override
+    public boolean isRelayed(Integer clientId, int dataId)
+    {
+        final Area area = areas.get(clientId);
+        final Integer id = Integer.valueOf(dataId);
+        return area == null || !located.contains(id) || area.relevant.contains(id);
+    }
+
+    /**
+     * Client interest.
+     */
+    private static final class Area
+    {
+        /** Relevant networkables. */
+        private final List<Networkable> networkables = new ArrayList<>();
+        /** Update period of distant relevant networkables. */
+        private final Map<Networkable, Integer> periods = new HashMap<>();
+        /** Viewport [x, y, width, height]. */
+        private int[] viewport;
+        /** Relevant data ids. */
+        private volatile Set<Integer> relevant = Collections.emptySet();
+
+        /**
+         * Create area.
+         */
+        Area()
+        {
+            super();
+        }
+    }
+}
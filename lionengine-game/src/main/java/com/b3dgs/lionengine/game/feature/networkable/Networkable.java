@@ -17,11 +17,15 @@
 package com.b3dgs.lionengine.game.feature.networkable;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Supplier;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.network.Delivery;
 
 /**
  * Represents network layer ability.
@@ -38,7 +42,48 @@ public interface Networkable extends Feature, Syncable
     void send(ByteBuffer buffer);
 
     /**
-     * Send data over owned client.
+     * Send data over owned client. Calls {@link #send(ByteBuffer)} by default.
+     * 
+     * @param buffer The buffer to send.
+     * @param immediate <code>true</code> to send now for latency sensitive data, <code>false</code> to queue it until
+     *            next network update, sent with other queued data in a single datagram.
+     * @throws LionEngineException If unable to send data.
+     */
+    default void send(ByteBuffer buffer, boolean immediate)
+    {
+        send(buffer);
+    }
+
+    /**
+     * Send data over owned client with a delivery mode, queued until next network update. Reliable data does not delay
+     * unreliable data, such as frequent state updates where only the last one matters. Calls {@link #send(ByteBuffer)}
+     * by default.
+     * 
+     * @param buffer The buffer to send.
+     * @param delivery The delivery mode.
+     * @throws LionEngineException If unable to send data.
+     */
+    default void send(ByteBuffer buffer, Delivery delivery)
+    {
+        send(buffer);
+    }
+
+    /**
+     * Send data over owned client with a delivery mode. Calls {@link #send(ByteBuffer, Delivery)} by default.
+     * 
+     * @param buffer The buffer to send.
+     * @param delivery The delivery mode.
+     * @param immediate <code>true</code> to send now with other queued data for latency sensitive data, such as input,
+     *            <code>false</code> to queue it until next network update.
+     * @throws LionEngineException If unable to send data.
+     */
+    default void send(ByteBuffer buffer, Delivery delivery, boolean immediate)
+    {
+        send(buffer, delivery);
+    }
+
+    /**
+     * Send data over owned client, queued until next network update.
      * 
      * @param buffer The buffer to send.
      */
@@ -47,6 +92,20 @@ public interface Networkable extends Feature, Syncable
         send(buffer.get());
     }
 
+    /**
+     * Add a field replicated by server snapshots, such as location or life. Fields must be added in the same order on
+     * server and clients. Adds field to {@link #getReplicated()} by default.
+     * 
+     * @param field The replicated field (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    default void addReplicated(Replicated field)
+    {
+        Check.notNull(field);
+
+        getReplicated().add(field);
+    }
+
     /**
      * Set the network id (0 is server).
      * 
@@ -68,6 +127,16 @@ public interface Networkable extends Feature, Syncable
      */
     void setSynced(boolean synced);
 
+    /**
+     * Get the replicated fields. Unmodifiable empty list by default, nothing being replicated.
+     * 
+     * @return The replicated fields.
+     */
+    default List<Replicated> getReplicated()
+    {
+        return Collections.emptyList();
+    }
+
     /**
      * Get get the network id (0 is server).
      * 
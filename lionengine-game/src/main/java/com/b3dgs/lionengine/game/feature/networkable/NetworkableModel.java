@@ -18,9 +18,12 @@ package com.b3dgs.lionengine.game.feature.networkable;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.game.Feature;
@@ -32,6 +35,7 @@ import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.network.Data;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Packet;
 import com.b3dgs.lionengine.network.UtilNetwork;
 import com.b3dgs.lionengine.network.client.Client;
@@ -49,6 +53,8 @@ public class NetworkableModel extends FeatureModel implements Networkable
     protected final Client client = services.getOptional(Client.class).orElse(null);
     /** Feature mapping. */
     private final Map<Integer, Syncable> syncables = new HashMap<>();
+    /** Replicated fields. */
+    private final List<Replicated> replicated = new ArrayList<>();
     /** Client id (0 = default for server). */
     private Integer clientId;
     /** Data id. */
@@ -90,16 +96,72 @@ public class NetworkableModel extends FeatureModel implements Networkable
 
     @Override
     public void send(ByteBuffer buffer)
+    {
+        send(buffer, Delivery.UNRELIABLE);
+    }
+
+    @Override
+    public void send(ByteBuffer buffer, boolean immediate)
+    {
+        try
+        {
+            if (server != null)
+            {
+                final Data data = new Data(UtilNetwork.SERVER_ID, getDataId(), buffer);
+                if (immediate)
+                {
+                    server.send(data);
+                }
+                else
+                {
+                    server.queue(data);
+                }
+            }
+            else if (isClient())
+            {
+                final Data data = new Data(getClientId(), getDataId(), buffer, true);
+                if (immediate)
+                {
+                    client.send(data);
+                }
+                else
+                {
+                    client.queue(data);
+                }
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    @Override
+    public void send(ByteBuffer buffer, Delivery delivery)
+    {
+        send(buffer, delivery, false);
+    }
+
+    @Override
+    public void send(ByteBuffer buffer, Delivery delivery, boolean immediate)
     {
         try
         {
             if (server != null)
             {
-                server.send(new Data(UtilNetwork.SERVER_ID, getDataId(), buffer));
+                server.queue(new Data(UtilNetwork.SERVER_ID, getDataId(), buffer), delivery);
+                if (immediate)
+                {
+                    server.flush();
+                }
             }
             else if (isClient())
             {
-                client.send(new Data(getClientId(), getDataId(), buffer, true));
+                client.queue(new Data(getClientId(), getDataId(), buffer, true), delivery);
+                if (immediate)
+                {
+                    client.flush();
+                }
             }
         }
         catch (final IOException exception)
@@ -141,6 +203,14 @@ public class NetworkableModel extends FeatureModel implements Networkable
         syncables.clear();
     }
 
+    @Override
+    public void addReplicated(Replicated field)
+    {
+        Check.notNull(field);
+
+        replicated.add(field);
+    }
+
     @Override
     public void setClientId(Integer clientId)
     {
@@ -163,6 +233,12 @@ public class NetworkableModel extends FeatureModel implements Networkable
         this.synced = synced;
     }
 
+    @Override
+    public List<Replicated> getReplicated()
+    {
+        return replicated;
+    }
+
     @Override
     public Integer getClientId()
     {
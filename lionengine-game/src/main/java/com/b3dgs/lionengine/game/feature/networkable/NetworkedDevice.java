@@ -29,6 +29,7 @@ import com.b3dgs.lionengine.io.DeviceController;
 import com.b3dgs.lionengine.io.DeviceControllerListener;
 import com.b3dgs.lionengine.io.DevicePush;
 import com.b3dgs.lionengine.io.DevicePushVirtual;
+import com.b3dgs.lionengine.network.Delivery;
 import com.b3dgs.lionengine.network.Packet;
 
 /**
@@ -47,7 +48,7 @@ public class NetworkedDevice extends FeatureModel implements Syncable, DevicePus
         buffer.putInt(getSyncId());
         buffer.putInt(e.intValue());
         buffer.put(s ? UtilConversion.fromUnsignedByte(1) : UtilConversion.fromUnsignedByte(0));
-        networkable.send(buffer);
+        networkable.send(buffer, Delivery.RELIABLE_ORDERED, true);
     };
 
     /**
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Replicated field of a {@link Networkable}, read on server and written on clients by snapshots.
+ * <p>
+ * Values are replicated as integers. Decimal values are quantized to their precision, such as <code>0.25</code> for a
+ * quarter of pixel.
+ * </p>
+ * 
+ * @see Networkable#addReplicated(Replicated)
+ */
+public final class Replicated
+{
+    /** Value reader. */
+    private final IntSupplier getter;
+    /** Value writer. */
+    private final IntConsumer setter;
+
+    /**
+     * Create integer field.
+     * 
+     * @param getter The value reader (must not be <code>null</code>).
+     * @param setter The value writer (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Replicated(IntSupplier getter, IntConsumer setter)
+    {
+        super();
+
+        Check.notNull(getter);
+        Check.notNull(setter);
+
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Create decimal field.
+     * 
+     * @param getter The value reader (must not be <code>null</code>).
+     * @param setter The value writer (must not be <code>null</code>).
+     * @param precision The quantization step (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Replicated(DoubleSupplier getter, DoubleConsumer setter, double precision)
+    {
+        super();
+
+        Check.notNull(getter);
+        Check.notNull(setter);
+        Check.superiorStrict(precision, 0.0);
+
+        this.getter = () -> (int) Math.round(getter.getAsDouble() / precision);
+        this.setter = value -> setter.accept(value * precision);
+    }
+
+    /**
+     * Read the current value.
+     * 
+     * @return The current value, quantized if decimal.
+     */
+    public int read()
+    {
+        return getter.getAsInt();
+    }
+
+    /**
+     * Write a replicated value.
+     * 
+     * @param value The replicated value, quantized if decimal.
+     */
+    public void write(int value)
+    {
+        setter.accept(value);
+    }
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Snapshots replication with a single peer, encoding {@link Replicated} fields on server and decoding them on client.
+ * <p>
+ * Each snapshot is delta encoded against the last snapshot acknowledged by the peer, only changed fields being sent.
+ * Snapshot size is bounded by a budget: entities not fitting are sent first by next snapshot, keeping bandwidth
+ * constant whatever the entities number. No snapshot is encoded while nothing changed since the last one, once
+ * acknowledged. Snapshot layout is the baseline distance (<code>0</code> if none), then for
+ * each entity:
+ * </p>
+ * <ul>
+ * <li>data id</li>
+ * <li>changed fields mask, shifted left, with full flag as lowest bit</li>
+ * <li>fields count if full</li>
+ * <li>difference with baseline of each changed field (with <code>0</code> if full)</li>
+ * </ul>
+ * <p>
+ * Entities of the baseline not replicated anymore, such as out of client interest or removed, are sent with a
+ * {@link #REMOVED} mask, until acknowledged.
+ * </p>
+ * <p>
+ * Integers are zig zag variable length encoded.
+ * </p>
+ */
+final class Replication
+{
+    /** Snapshots kept as baseline. */
+    static final int HISTORY = 32;
+    /** Max replicated fields per entity. */
+    static final int MAX_FIELDS = Integer.SIZE - 2;
+    /** Removed entity mask, never used by changed entities as unchanged ones are not sent. */
+    private static final int REMOVED = 0;
+    /** Variable length integer max bytes. */
+    private static final int VARINT_BYTES = 5;
+    /** Variable length integer continuation bit. */
+    private static final int VARINT_MORE = 0x80;
+    /** Variable length integer value bits. */
+    private static final int VARINT_VALUE = 0x7F;
+    /** Variable length integer value bits count. */
+    private static final int VARINT_SHIFT = 7;
+
+    /**
+     * Write variable length integer.
+     * 
+     * @param buffer The buffer destination.
+     * @param value The value to write.
+     */
+    private static void writeVarint(ByteBuffer buffer, int value)
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_VALUE) != 0)
+        {
+            buffer.put((byte) (remaining & VARINT_VALUE | VARINT_MORE));
+            remaining >>>= VARINT_SHIFT;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    /**
+     * Read variable length integer.
+     * 
+     * @param buffer The buffer source.
+     * @return The value read.
+     */
+    private static int readVarint(ByteBuffer buffer)
+    {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do
+        {
+            current = buffer.get();
+            value |= (current & VARINT_VALUE) << shift;
+            shift += VARINT_SHIFT;
+        }
+        while ((current & VARINT_MORE) != 0 && shift < Integer.SIZE);
+        return value;
+    }
+
+    /**
+     * Write signed variable length integer.
+     * 
+     * @param buffer The buffer destination.
+     * @param value The value to write.
+     */
+    private static void writeSigned(ByteBuffer buffer, int value)
+    {
+        writeVarint(buffer, value << 1 ^ value >> Integer.SIZE - 1);
+    }
+
+    /**
+     * Read signed variable length integer.
+     * 
+     * @param buffer The buffer source.
+     * @return The value read.
+     */
+    private static int readSigned(ByteBuffer buffer)
+    {
+        final int value = readVarint(buffer);
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Read networkable fields.
+     * 
+     * @param networkable The networkable reference.
+     * @return The fields value.
+     * @throws LionEngineException If too many replicated fields.
+     */
+    private static int[] read(Networkable networkable)
+    {
+        final List<Replicated> fields = networkable.getReplicated();
+        final int count = fields.size();
+        Check.inferiorOrEqual(count, MAX_FIELDS);
+
+        final int[] values = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = fields.get(i).read();
+        }
+        return values;
+    }
+
+    /**
+     * Write networkable fields if not owned.
+     * 
+     * @param networkable The networkable reference (may be <code>null</code>).
+     * @param values The fields value.
+     */
+    private static void write(Networkable networkable, int[] values)
+    {
+        if (networkable != null && !networkable.isOwner())
+        {
+            final List<Replicated> fields = networkable.getReplicated();
+            if (fields.size() == values.length)
+            {
+                for (int i = 0; i < values.length; i++)
+                {
+                    fields.get(i).write(values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode entity changed fields.
+     * 
+     * @param buffer The snapshot data.
+     * @param header The entity mask.
+     * @param old The baseline values (<code>null</code> if none).
+     * @return The decoded values, <code>null</code> if invalid.
+     */
+    private static int[] decodeEntry(ByteBuffer buffer, int header, int[] old)
+    {
+        final int mask = header >>> 1;
+        final int[] values;
+        if ((header & 1) == 1)
+        {
+            final int count = readVarint(buffer);
+            if (count > MAX_FIELDS)
+            {
+                return null;
+            }
+            values = new int[count];
+        }
+        else if (old != null)
+        {
+            values = old.clone();
+        }
+        else
+        {
+            return null;
+        }
+        if (mask >>> values.length != 0)
+        {
+            return null;
+        }
+        for (int i = 0; i < values.length; i++)
+        {
+            if ((mask & 1 << i) != 0)
+            {
+                values[i] += readSigned(buffer);
+            }
+        }
+        return values;
+    }
+
+    /** Snapshots by sequence modulo {@link #HISTORY}, values by data id. */
+    private final List<Map<Integer, int[]>> snapshots = new ArrayList<>(HISTORY);
+    /** Snapshots sequence. */
+    private final int[] sequences = new int[HISTORY];
+    /** Entity encoding. */
+    private final ByteBuffer entry = ByteBuffer.allocate(VARINT_BYTES * (MAX_FIELDS + 3));
+    /** Next sequence to send. */
+    private int sequence;
+    /** Last sequence acknowledged by peer (<code>-1</code> if none). */
+    private int acknowledged = -1;
+    /** Last sequence received from peer (<code>-1</code> if none). */
+    private int received = -1;
+    /** First entity to encode. */
+    private int cursor;
+
+    /**
+     * Create replication.
+     */
+    Replication()
+    {
+        super();
+
+        for (int i = 0; i < HISTORY; i++)
+        {
+            snapshots.add(Collections.emptyMap());
+            sequences[i] = -1;
+        }
+    }
+
+    /**
+     * Encode next snapshot of networkables fields, delta encoded against last acknowledged snapshot.
+     * 
+     * @param networkables The networkables to replicate.
+     * @param budget The max snapshot size in bytes.
+     * @return The snapshot data, <code>null</code> if nothing changed since last snapshot, which has been acknowledged.
+     * @throws LionEngineException If too many replicated fields.
+     */
+    public ByteBuffer encode(List<Networkable> networkables, int budget)
+    {
+        return encode(networkables, networkable -> true, budget);
+    }
+
+    /**
+     * Encode next snapshot of networkables fields, delta encoded against last acknowledged snapshot. Networkables not
+     * due keep their acknowledged values, and are sent by a next snapshot.
+     * 
+     * @param networkables The networkables to replicate.
+     * @param due The networkables to update by this snapshot.
+     * @param budget The max snapshot size in bytes.
+     * @return The snapshot data, <code>null</code> if nothing changed since last snapshot, which has been acknowledged.
+     * @throws LionEngineException If too many replicated fields.
+     */
+    public ByteBuffer encode(List<Networkable> networkables, Predicate<Networkable> due, int budget)
+    {
+        final Map<Integer, int[]> baseline = getBaseline();
+        final Map<Integer, int[]> snapshot = new HashMap<>();
+        final ByteBuffer buffer = ByteBuffer.allocate(budget);
+        if (baseline.isEmpty())
+        {
+            buffer.put(UtilConversion.fromUnsignedByte(0));
+        }
+        else
+        {
+            buffer.put(UtilConversion.fromUnsignedByte(sequence - acknowledged));
+        }
+
+        final int count = networkables.size();
+        final int start = cursor;
+        final Set<Integer> replicated = new HashSet<>();
+        boolean deferred = false;
+        for (int i = 0; i < count; i++)
+        {
+            final int index = (start + i) % count;
+            final Networkable networkable = networkables.get(index);
+            final Integer id = Integer.valueOf(networkable.getDataId());
+            replicated.add(id);
+            final int[] old = baseline.get(id);
+            if (!deferred && due.test(networkable))
+            {
+                final int[] values = read(networkable);
+                if (values.length > 0 && encodeEntry(id, old, values))
+                {
+                    if (entry.remaining() <= buffer.remaining())
+                    {
+                        buffer.put(entry);
+                        snapshot.put(id, values);
+                        continue;
+                    }
+                    cursor = index;
+                    deferred = true;
+                }
+            }
+            if (old != null)
+            {
+                snapshot.put(id, old);
+            }
+        }
+        encodeRemoved(baseline, replicated, snapshot, buffer);
+
+        if (buffer.position() == 1 && acknowledged == sequence - 1)
+        {
+            return null;
+        }
+
+        final int slot = sequence % HISTORY;
+        snapshots.set(slot, snapshot);
+        sequences[slot] = sequence;
+        sequence++;
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Acknowledge a snapshot received by peer, used as baseline for next snapshots.
+     * 
+     * @param sequence The snapshot sequence.
+     */
+    public void acknowledge(int sequence)
+    {
+        if (sequence > acknowledged && sequence < this.sequence && sequences[sequence % HISTORY] == sequence)
+        {
+            acknowledged = sequence;
+        }
+    }
+
+    /**
+     * Decode a snapshot and write its fields to networkables. Snapshots older than last decoded one are ignored.
+     * 
+     * @param sequence The snapshot sequence.
+     * @param buffer The snapshot data, read until its limit.
+     * @param networkables The networkable by data id (may return <code>null</code> if unknown).
+     * @return <code>true</code> if decoded and must be acknowledged, <code>false</code> if ignored.
+     */
+    public boolean decode(int sequence, ByteBuffer buffer, IntFunction<Networkable> networkables)
+    {
+        return decode(sequence, buffer, networkables, id ->
+        {
+            // Nothing by default
+        });
+    }
+
+    /**
+     * Decode a snapshot and write its fields to networkables. Snapshots older than last decoded one are ignored.
+     * Removed entities are notified each time their removal is received, until acknowledged by peer.
+     * 
+     * @param sequence The snapshot sequence.
+     * @param buffer The snapshot data, read until its limit.
+     * @param networkables The networkable by data id (may return <code>null</code> if unknown).
+     * @param removed The removed entities data id, not replicated anymore.
+     * @return <code>true</code> if decoded and must be acknowledged, <code>false</code> if ignored.
+     */
+    public boolean decode(int sequence, ByteBuffer buffer, IntFunction<Networkable> networkables, IntConsumer removed)
+    {
+        final int distance = UtilConversion.toUnsignedByte(buffer.get());
+        final int base = sequence - distance;
+        if (sequence <= received || distance > 0 && sequences[base % HISTORY] != base)
+        {
+            return false;
+        }
+        final Map<Integer, int[]> snapshot;
+        if (distance > 0)
+        {
+            snapshot = new HashMap<>(snapshots.get(base % HISTORY));
+        }
+        else
+        {
+            snapshot = new HashMap<>();
+        }
+
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                final int id = readVarint(buffer);
+                final int header = readVarint(buffer);
+                if (header == REMOVED)
+                {
+                    snapshot.remove(Integer.valueOf(id));
+                    removed.accept(id);
+                    continue;
+                }
+                final int[] values = decodeEntry(buffer, header, snapshot.get(Integer.valueOf(id)));
+                if (values == null)
+                {
+                    return false;
+                }
+                snapshot.put(Integer.valueOf(id), values);
+                write(networkables.apply(id), values);
+            }
+        }
+        catch (final BufferUnderflowException exception)
+        {
+            return false;
+        }
+
+        final int slot = sequence % HISTORY;
+        snapshots.set(slot, snapshot);
+        sequences[slot] = sequence;
+        received = sequence;
+
+        return true;
+    }
+
+    /**
+     * Write the last decoded fields of an entity. Snapshots keep the values of entities unknown when decoded, to be
+     * applied once created, as unchanged fields are not sent again.
+     * 
+     * @param dataId The data id.
+     * @param networkable The networkable reference.
+     */
+    public void apply(int dataId, Networkable networkable)
+    {
+        if (received > -1)
+        {
+            final int[] values = snapshots.get(received % HISTORY).get(Integer.valueOf(dataId));
+            if (values != null)
+            {
+                write(networkable, values);
+            }
+        }
+    }
+
+    /**
+     * Get the next snapshot sequence.
+     * 
+     * @return The next snapshot sequence.
+     */
+    public int getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * Get the last snapshot acknowledged still available.
+     * 
+     * @return The baseline snapshot, empty if none.
+     */
+    private Map<Integer, int[]> getBaseline()
+    {
+        if (acknowledged > -1 && sequence - acknowledged < HISTORY)
+        {
+            return snapshots.get(acknowledged % HISTORY);
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Encode removal of baseline entities not replicated anymore, kept in snapshot if not fitting in budget.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param replicated The replicated entities data id.
+     * @param snapshot The current snapshot.
+     * @param buffer The snapshot data.
+     */
+    private void encodeRemoved(Map<Integer, int[]> baseline,
+                               Set<Integer> replicated,
+                               Map<Integer, int[]> snapshot,
+                               ByteBuffer buffer)
+    {
+        for (final Map.Entry<Integer, int[]> old : baseline.entrySet())
+        {
+            final Integer id = old.getKey();
+            if (!replicated.contains(id))
+            {
+                entry.clear();
+                writeVarint(entry, id.intValue());
+                writeVarint(entry, REMOVED);
+                entry.flip();
+                if (entry.remaining() <= buffer.remaining())
+                {
+                    buffer.put(entry);
+                }
+                else
+                {
+                    snapshot.put(id, old.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode entity changed fields to {@link #entry}.
+     * 
+     * @param id The data id.
+     * @param old The baseline values (<code>null</code> if none).
+     * @param values The current values.
+     * @return <code>true</code> if encoded, <code>false</code> if unchanged.
+     */
+    private boolean encodeEntry(Integer id, int[] old, int[] values)
+    {
+        final boolean full = old == null || old.length != values.length;
+        int mask = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (full && values[i] != 0 || !full && values[i] != old[i])
+            {
+                mask |= 1 << i;
+            }
+        }
+        if (!full && mask == 0)
+        {
+            return false;
+        }
+
+        entry.clear();
+        writeVarint(entry, id.intValue());
+        writeVarint(entry, mask << 1 | (full ? 1 : 0));
+        if (full)
+        {
+            writeVarint(entry, values.length);
+        }
+        for (int i = 0; i < values.length; i++)
+        {
+            if ((mask & 1 << i) != 0)
+            {
+                writeSigned(entry, full ? values[i] : values[i] - old[i]);
+            }
+        }
+        entry.flip();
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.network.MessageAbstract;
+import com.b3dgs.lionengine.network.MessageType;
+import com.b3dgs.lionengine.network.UtilNetwork;
+
+/**
+ * Replicated fields snapshot message, with sequence as data id.
+ * 
+ * @see Replication
+ */
+public class Snapshot extends MessageAbstract
+{
+    /** Max snapshot data size, fitting in a single message. */
+    public static final int BUDGET = Constant.UNSIGNED_BYTE - 1 - MessageAbstract.SIZE_MIN - 2 - Integer.BYTES;
+
+    private final int sequence;
+    private final ByteBuffer data;
+
+    /**
+     * Create message.
+     * 
+     * @param sequence The snapshot sequence.
+     * @param data The snapshot data.
+     */
+    public Snapshot(int sequence, ByteBuffer data)
+    {
+        super(MessageType.DIRECT, UtilNetwork.SERVER_ID);
+
+        this.sequence = sequence;
+        this.data = data;
+    }
+
+    @Override
+    protected ByteBuffer content()
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(2 + Integer.BYTES + data.remaining());
+        buffer.put(UtilConversion.fromUnsignedByte(ComponentNetwork.MODE_SNAPSHOT));
+        buffer.put(UtilConversion.fromUnsignedByte(UtilNetwork.SERVER_ID.intValue()));
+        buffer.putInt(sequence);
+        buffer.put(data.duplicate());
+        return buffer;
+    }
+}
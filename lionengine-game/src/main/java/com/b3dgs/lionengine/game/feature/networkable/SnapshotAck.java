@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.network.MessageAbstract;
+import com.b3dgs.lionengine.network.MessageType;
+
+/**
+ * Snapshot received acknowledgement message, with sequence as data id.
+ */
+public class SnapshotAck extends MessageAbstract
+{
+    private final int clientSourceId;
+    private final int sequence;
+
+    /**
+     * Create message.
+     * 
+     * @param clientId The client id.
+     * @param sequence The snapshot sequence.
+     */
+    public SnapshotAck(Integer clientId, int sequence)
+    {
+        super(MessageType.DIRECT, clientId);
+
+        clientSourceId = clientId.intValue();
+        this.sequence = sequence;
+    }
+
+    @Override
+    protected ByteBuffer content()
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(2 + Integer.BYTES);
+        buffer.put(UtilConversion.fromUnsignedByte(ComponentNetwork.MODE_SNAPSHOT_ACK));
+        buffer.put(UtilConversion.fromUnsignedByte(clientSourceId));
+        buffer.putInt(sequence);
+        return buffer;
+    }
+}
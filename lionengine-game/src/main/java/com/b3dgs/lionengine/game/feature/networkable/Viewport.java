@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.network.MessageAbstract;
+import com.b3dgs.lionengine.network.MessageType;
+
+/**
+ * Client viewport message, used by server interest.
+ * 
+ * @see Interest
+ */
+public class Viewport extends MessageAbstract
+{
+    private final int clientSourceId;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    /**
+     * Create message.
+     * 
+     * @param clientId The client id.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The viewport width.
+     * @param height The viewport height.
+     */
+    public Viewport(Integer clientId, int x, int y, int width, int height)
+    {
+        super(MessageType.DIRECT, clientId);
+
+        clientSourceId = clientId.intValue();
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    protected ByteBuffer content()
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(2 + Integer.BYTES * 5);
+        buffer.put(UtilConversion.fromUnsignedByte(ComponentNetwork.MODE_VIEWPORT));
+        buffer.put(UtilConversion.fromUnsignedByte(clientSourceId));
+        buffer.putInt(0);
+        buffer.putInt(x);
+        buffer.putInt(y);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        return buffer;
+    }
+}
@@ -74,31 +74,6 @@ public final class TilesExtractor
         return true;
     }
 
-    /**
-     * Check if tile has already been extracted regarding the current tile on level rip.
-     * 
-     * @param level The level rip reference.
-     * @param x The current level rip horizontal location.
-     * @param y The current level rip vertical location.
-     * @param tiles The current extracted tiles.
-     * @return <code>true</code> if already extracted, <code>false</code> else.
-     */
-    private static boolean isExtracted(SpriteTiled level, int x, int y, Collection<ImageBuffer> tiles)
-    {
-        final int tw = level.getTileWidth();
-        final int th = level.getTileHeight();
-        final ImageBuffer surface = level.getSurface();
-
-        for (final ImageBuffer tile : tiles)
-        {
-            if (compareTile(tw, th, surface, x, y, tile, 0, 0))
-            {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Extract the tile from level.
      * 
@@ -190,6 +165,7 @@ public final class TilesExtractor
 
     /**
      * Start using specified output file. Listeners are cleared once ended.
+     * Tiles are indexed by their pixels, each level rip tile being checked in constant time.
      * 
      * @param canceler The canceler reference (can be <code>null</code>).
      * @param tw The tile width.
@@ -202,6 +178,7 @@ public final class TilesExtractor
     {
         final int tilesNumber = getTilesNumber(tw, th, levelRips);
         final Collection<ImageBuffer> tiles = new ArrayList<>();
+        final TilesIndex<ImageBuffer> index = new TilesIndex<>(tw, th);
         int checkedTiles = 0;
         for (final Media levelRip : levelRips)
         {
@@ -209,7 +186,7 @@ public final class TilesExtractor
             level.load();
             level.prepare();
 
-            checkedTiles = extract(canceler, level, tilesNumber, tiles, checkedTiles);
+            checkedTiles = extract(canceler, level, tilesNumber, index, tiles, checkedTiles);
             level.getSurface().dispose();
             if (checkedTiles < 0)
             {
@@ -227,6 +204,7 @@ public final class TilesExtractor
      * @param canceler The canceler reference (can be <code>null</code>).
      * @param level The level rip.
      * @param tilesNumber The total tiles number to extract.
+     * @param index The current extracted tiles index.
      * @param tiles The current extracted tiles.
      * @param checkedTiles The last number of checked tiles.
      * @return The current number of checked tiles, or -1 if canceled.
@@ -235,12 +213,15 @@ public final class TilesExtractor
     private int extract(Canceler canceler,
                         SpriteTiled level,
                         int tilesNumber,
+                        TilesIndex<ImageBuffer> index,
                         Collection<ImageBuffer> tiles,
                         int checkedTiles)
     {
         final int horizontalTiles = level.getTilesHorizontal();
         final int verticalTiles = level.getTilesVertical();
         final ImageBuffer surface = level.getSurface();
+        final int[] pixels = TilesIndex.getPixels(surface);
+        final int width = surface.getWidth();
 
         final int tw = level.getTileWidth();
         final int th = level.getTileHeight();
@@ -252,9 +233,10 @@ public final class TilesExtractor
             {
                 final int x = h * tw;
                 final int y = v * th;
-                if (IGNORED_COLOR_VALUE != surface.getRgb(x, y) && !isExtracted(level, x, y, tiles))
+                if (IGNORED_COLOR_VALUE != pixels[x + y * width] && index.get(pixels, width, x, y) == null)
                 {
                     final ImageBuffer tile = extract(level, h + v * horizontalTiles);
+                    index.putIfAbsent(pixels, width, x, y, tile);
                     tiles.add(tile);
                 }
                 checked++;
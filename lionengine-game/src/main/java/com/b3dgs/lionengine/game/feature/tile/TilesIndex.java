@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Index of tiles by their pixels, allowing to find a tile without comparing it to all others.
+ * Tiles are looked up by the hash of their pixels, and compared pixel by pixel only on hash collision.
+ * <p>
+ * Lookups can be performed concurrently once index is filled.
+ * </p>
+ * 
+ * @param <T> The indexed value type.
+ */
+public final class TilesIndex<T>
+{
+    /**
+     * Get all image pixels.
+     * 
+     * @param image The image reference (must not be <code>null</code>).
+     * @return The image pixels, row after row.
+     * @throws LionEngineException If invalid argument.
+     */
+    public static int[] getPixels(ImageBuffer image)
+    {
+        Check.notNull(image);
+
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        return image.getRgb(0, 0, width, height, new int[width * height], 0, width);
+    }
+
+    /** Indexed values by tile pixels. */
+    private final Map<Pixels, T> tiles = new HashMap<>();
+    /** Tile width. */
+    private final int tw;
+    /** Tile height. */
+    private final int th;
+
+    /**
+     * Create index.
+     * 
+     * @param tw The tile width (must be strictly positive).
+     * @param th The tile height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public TilesIndex(int tw, int th)
+    {
+        super();
+
+        Check.superiorStrict(tw, 0);
+        Check.superiorStrict(th, 0);
+
+        this.tw = tw;
+        this.th = th;
+    }
+
+    /**
+     * Index the tile value if no tile with same pixels is already indexed.
+     * 
+     * @param pixels The image pixels (must not be <code>null</code>).
+     * @param scansize The image width.
+     * @param x The tile horizontal location in pixel.
+     * @param y The tile vertical location in pixel.
+     * @param value The tile value (must not be <code>null</code>).
+     * @return The value already indexed for the same pixels, <code>null</code> if none and value has been indexed.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public T putIfAbsent(int[] pixels, int scansize, int x, int y, T value)
+    {
+        Check.notNull(value);
+
+        return tiles.putIfAbsent(getTile(pixels, scansize, x, y), value);
+    }
+
+    /**
+     * Get the value of tile with same pixels.
+     * 
+     * @param pixels The image pixels (must not be <code>null</code>).
+     * @param scansize The image width.
+     * @param x The tile horizontal location in pixel.
+     * @param y The tile vertical location in pixel.
+     * @return The indexed value, <code>null</code> if not found.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public T get(int[] pixels, int scansize, int x, int y)
+    {
+        return tiles.get(getTile(pixels, scansize, x, y));
+    }
+
+    /**
+     * Get the number of indexed tiles.
+     * 
+     * @return The number of indexed tiles.
+     */
+    public int size()
+    {
+        return tiles.size();
+    }
+
+    /**
+     * Get tile pixels from image pixels.
+     * 
+     * @param pixels The image pixels.
+     * @param scansize The image width.
+     * @param x The tile horizontal location in pixel.
+     * @param y The tile vertical location in pixel.
+     * @return The tile pixels.
+     * @throws LionEngineException If invalid arguments.
+     */
+    private Pixels getTile(int[] pixels, int scansize, int x, int y)
+    {
+        Check.notNull(pixels);
+        Check.superiorOrEqual(x, 0);
+        Check.superiorOrEqual(y, 0);
+        Check.inferiorOrEqual(x + tw, scansize);
+        Check.inferiorOrEqual((y + th) * scansize, pixels.length);
+
+        final int[] tile = new int[tw * th];
+        for (int row = 0; row < th; row++)
+        {
+            System.arraycopy(pixels, (y + row) * scansize + x, tile, row * tw, tw);
+        }
+        return new Pixels(tile);
+    }
+
+    /**
+     * Tile pixels, with cached hash.
+     */
+    private static final class Pixels
+    {
+        /** Tile pixels. */
+        private final int[] data;
+        /** Pixels hash. */
+        private final int hash;
+
+        /**
+         * Create pixels.
+         * 
+         * @param data The tile pixels.
+         */
+        Pixels(int[] data)
+        {
+            super();
+
+            this.data = data;
+            hash = Arrays.hashCode(data);
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final Pixels other = (Pixels) object;
+            return hash == other.hash && Arrays.equals(data, other.data);
+        }
+    }
+}
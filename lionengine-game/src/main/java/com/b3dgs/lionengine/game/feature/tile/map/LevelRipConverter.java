@@ -16,22 +16,32 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
+import com.b3dgs.lionengine.game.feature.tile.TilesIndex;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.Sprite;
-import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * This class allows to convert a map image to a map level format.
  * The color [0-128-128] ({@link TilesExtractor#IGNORED_COLOR_VALUE}) is ignored (can be used to skip tile, in order to
  * improve performance).
+ * Sheets tiles are indexed once by their pixels, and image map rows are searched in parallel. Progress is reported
+ * while rows are searched, from the searching threads.
  */
 public final class LevelRipConverter
 {
+    /** Skipped tile number. */
+    private static final int IGNORED = -1;
+    /** Not found tile number. */
+    private static final int MISSING = -2;
+
     /**
      * Run the converter.
      * 
@@ -79,132 +89,167 @@ public final class LevelRipConverter
         final int imageTilesInY = imageMap.getHeight() / map.getTileHeight();
         map.create(map.getTileWidth(), map.getTileHeight(), imageTilesInX, imageTilesInY);
 
-        final double progressMax = imageTilesInX * (double) imageTilesInY;
-        long progress = 0L;
-        int lastPercent = 0;
+        final ImageBuffer tileRef = imageMap.getSurface();
+        final int[] numbers = searchForTiles(map, tileRef, imageTilesInX, imageTilesInY, listener, canceler);
+        tileRef.dispose();
+
         int errors = 0;
 
-        final ImageBuffer tileRef = imageMap.getSurface();
         for (int progressTileY = 0; progressTileY < imageTilesInY; progressTileY++)
         {
             for (int progressTileX = 0; progressTileX < imageTilesInX; progressTileX++)
             {
-                if (!checkPixel(map, tileRef, progressTileX, progressTileY))
+                if (canceler != null && canceler.isCanceled())
                 {
-                    Verbose.warning("Tile missing at: " + progressTileX + " " + progressTileY);
-                    errors++;
+                    return errors;
                 }
 
-                final int percent = (int) Math.round(progress / progressMax * 100);
-                if (listener != null && percent != lastPercent)
+                final int number = numbers[progressTileX + progressTileY * imageTilesInX];
+                if (number == MISSING)
                 {
-                    listener.notifyProgress(percent, progressTileX, progressTileY);
+                    Verbose.warning("Tile missing at: " + progressTileX + " " + progressTileY);
+                    errors++;
                 }
-                lastPercent = percent;
-                progress++;
-
-                if (canceler != null && canceler.isCanceled())
+                else if (number != IGNORED)
                 {
-                    tileRef.dispose();
-                    return errors;
+                    map.setTile(progressTileX, map.getInTileHeight() - 1 - progressTileY, number);
                 }
             }
         }
-
-        tileRef.dispose();
         return errors;
     }
 
     /**
-     * Check the pixel by searching tile on sheet.
+     * Index all tiles of all sheets by their pixels. For identical tiles, the first one is kept.
      * 
      * @param map The destination map reference.
-     * @param tileRef The tile sheet.
-     * @param progressTileX The progress on horizontal tiles.
-     * @param progressTileY The progress on vertical tiles.
-     * @return <code>true</code> if tile found, <code>false</code> else.
+     * @return The tiles number index.
      */
-    private static boolean checkPixel(MapTile map, ImageBuffer tileRef, int progressTileX, int progressTileY)
+    private static TilesIndex<Integer> createIndex(MapTile map)
     {
-        final int x = progressTileX * map.getTileWidth();
-        final int y = progressTileY * map.getTileHeight();
-        final int pixel = tileRef.getRgb(x, y);
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        final TilesIndex<Integer> index = new TilesIndex<>(tw, th);
 
-        // Skip blank tile of image map
-        if (TilesExtractor.IGNORED_COLOR_VALUE != pixel)
+        final int sheetsCount = map.getSheetsNumber();
+        for (int sheetId = 0; sheetId < sheetsCount; sheetId++)
         {
-            // Search if tile is on sheet and get it
-            return searchForTile(map, tileRef, progressTileX, progressTileY);
+            final ImageBuffer sheetImage = map.getSheet(sheetId).getSurface();
+            final int[] pixels = TilesIndex.getPixels(sheetImage);
+            final int width = sheetImage.getWidth();
+            final int tilesInX = width / tw;
+            final int tilesInY = sheetImage.getHeight() / th;
+
+            for (int surfaceCurrentTileY = 0; surfaceCurrentTileY < tilesInY; surfaceCurrentTileY++)
+            {
+                for (int surfaceCurrentTileX = 0; surfaceCurrentTileX < tilesInX; surfaceCurrentTileX++)
+                {
+                    // Tile number on tile sheet
+                    final int number = surfaceCurrentTileX + surfaceCurrentTileY * tilesInX;
+                    index.putIfAbsent(pixels,
+                                      width,
+                                      surfaceCurrentTileX * tw,
+                                      surfaceCurrentTileY * th,
+                                      Integer.valueOf(number));
+                }
+            }
         }
-        return true;
+        return index;
     }
 
     /**
-     * Search current tile of image map by checking all surfaces.
+     * Search all tiles of image map on sheets, image rows being searched in parallel.
      * 
      * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param x The location x.
-     * @param y The location y.
-     * @return <code>true</code> if tile found, <code>false</code> else.
+     * @param tileRef The image map.
+     * @param tilesInX The number of horizontal tiles.
+     * @param tilesInY The number of vertical tiles.
+     * @param listener The progress listener (can be <code>null</code>).
+     * @param canceler The canceler reference (can be <code>null</code>).
+     * @return The found tile numbers, row after row ({@link #IGNORED} if skipped, {@link #MISSING} if not found).
      */
-    private static boolean searchForTile(MapTile map, ImageBuffer tileSprite, int x, int y)
+    private static int[] searchForTiles(MapTile map,
+                                        ImageBuffer tileRef,
+                                        int tilesInX,
+                                        int tilesInY,
+                                        ProgressListener listener,
+                                        Canceler canceler)
     {
-        // Check each tile on each sheet
-        final int sheetsCount = map.getSheetsNumber();
-        for (int sheetId = 0; sheetId < sheetsCount; sheetId++)
+        final TilesIndex<Integer> index = createIndex(map);
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        final int[] pixels = TilesIndex.getPixels(tileRef);
+        final int width = tileRef.getWidth();
+        final int[] numbers = new int[tilesInX * tilesInY];
+        final double progressMax = tilesInX * (double) tilesInY;
+        final AtomicInteger progress = new AtomicInteger();
+        final AtomicInteger lastPercent = new AtomicInteger();
+
+        IntStream.range(0, tilesInY).parallel().forEach(progressTileY ->
         {
-            final boolean found = checkTile(map, tileSprite, sheetId, x, y);
-            if (found)
+            if (canceler != null && canceler.isCanceled())
             {
-                return true;
+                return;
             }
-        }
+            for (int progressTileX = 0; progressTileX < tilesInX; progressTileX++)
+            {
+                final int x = progressTileX * tw;
+                final int y = progressTileY * th;
+                final int i = progressTileX + progressTileY * tilesInX;
 
-        // No tile found
-        return false;
+                // Skip blank tile of image map
+                if (TilesExtractor.IGNORED_COLOR_VALUE == pixels[x + y * width])
+                {
+                    numbers[i] = IGNORED;
+                }
+                else
+                {
+                    final Integer number = index.get(pixels, width, x, y);
+                    if (number != null)
+                    {
+                        numbers[i] = number.intValue();
+                    }
+                    else
+                    {
+                        numbers[i] = MISSING;
+                    }
+                }
+            }
+            if (listener != null)
+            {
+                final int percent = (int) Math.round(progress.addAndGet(tilesInX) / progressMax * 100);
+                notifyProgress(listener, lastPercent, percent, tilesInX - 1, progressTileY);
+            }
+        });
+        return numbers;
     }
 
     /**
-     * Check tile of sheet.
+     * Notify progress if percent increased. Notifications are serialized, so listener receives increasing percents.
      * 
-     * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param sheetId The sheet number.
-     * @param x The location x.
-     * @param y The location y.
-     * @return <code>true</code> if tile found, <code>false</code> else.
+     * @param listener The progress listener.
+     * @param lastPercent The last notified percent.
+     * @param percent The current percent.
+     * @param progressTileX The last searched horizontal tile.
+     * @param progressTileY The last searched vertical tile.
      */
-    private static boolean checkTile(MapTile map, ImageBuffer tileSprite, int sheetId, int x, int y)
+    private static void notifyProgress(ProgressListener listener,
+                                       AtomicInteger lastPercent,
+                                       int percent,
+                                       int progressTileX,
+                                       int progressTileY)
     {
-        final int tw = map.getTileWidth();
-        final int th = map.getTileHeight();
-        final SpriteTiled tileSheet = map.getSheet(sheetId);
-        final ImageBuffer sheetImage = tileSheet.getSurface();
-        final int tilesInX = tileSheet.getWidth() / tw;
-        final int tilesInY = tileSheet.getHeight() / th;
-
-        for (int surfaceCurrentTileY = 0; surfaceCurrentTileY < tilesInY; surfaceCurrentTileY++)
+        if (percent > lastPercent.get())
         {
-            for (int surfaceCurrentTileX = 0; surfaceCurrentTileX < tilesInX; surfaceCurrentTileX++)
+            synchronized (lastPercent)
             {
-                // Tile number on tile sheet
-                final int number = surfaceCurrentTileX + surfaceCurrentTileY * tilesInX;
-
-                // Compare tiles between sheet and image map
-                final int xa = x * tw;
-                final int ya = y * th;
-                final int xb = surfaceCurrentTileX * tw;
-                final int yb = surfaceCurrentTileY * th;
-
-                if (TilesExtractor.compareTile(tw, th, tileSprite, xa, ya, sheetImage, xb, yb))
+                if (percent > lastPercent.get())
                 {
-                    map.setTile(x, map.getInTileHeight() - 1 - y, number);
-                    return true;
+                    lastPercent.set(percent);
+                    listener.notifyProgress(percent, progressTileX, progressTileY);
                 }
             }
         }
-        return false;
     }
 
     /**
@@ -221,7 +266,7 @@ public final class LevelRipConverter
     public interface ProgressListener
     {
         /**
-         * Called once progress detected.
+         * Called once progress detected, from the thread that searched the row. Percents are increasing.
          * 
          * @param percent Progress percent.
          * @param progressTileX Current progress on horizontal tile.
@@ -231,7 +276,7 @@ public final class LevelRipConverter
     }
 
     /**
-     * Cancel controller.
+     * Cancel controller, may be checked from several threads.
      */
     public interface Canceler
     {
@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Listenable;
 import com.b3dgs.lionengine.Localizable;
@@ -55,13 +56,28 @@ public class MapTileGame extends FeaturableAbstract implements MapTile, Listenab
     protected final MapTileSurface mapSurface;
 
     /**
-     * Create model.
+     * Create model with {@link MapTileSurfaceModel}.
      */
     public MapTileGame()
+    {
+        this(new MapTileSurfaceModel());
+    }
+
+    /**
+     * Create model.
+     * 
+     * @param mapSurface The map surface storage used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     * @see MapTileSurfaceModel
+     * @see MapTileSurfaceArrayModel
+     */
+    public MapTileGame(MapTileSurface mapSurface)
     {
         super();
 
-        mapSurface = addFeatureAndGet(new MapTileSurfaceModel());
+        Check.notNull(mapSurface);
+
+        this.mapSurface = addFeatureAndGet(mapSurface);
     }
 
     /**
@@ -33,4 +33,14 @@ public interface MapTileRenderer
      * @param y The location y.
      */
     void renderTile(Graphic g, Tile tile, int x, int y);
+
+    /**
+     * Check if tile rendering only depends on tile content, and so can be cached until tile is set again.
+     * 
+     * @return <code>true</code> if rendering can be cached, <code>false</code> if it must be performed each frame.
+     */
+    default boolean isCacheable()
+    {
+        return false;
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Tile based map surface storing tiles in flat primitive arrays (row major), instead of one object per tile.
+ * <p>
+ * Tiles returned by {@link #getTile(int, int)} are created lazily and kept in a fixed size flyweight cache. A cached
+ * tile is updated when its location is set, a tile evicted from cache is not updated anymore and must be retrieved
+ * again.
+ * </p>
+ */
+public class MapTileSurfaceArrayModel extends MapTileSurfaceModel
+{
+    /** Default tiles cache size. */
+    public static final int DEFAULT_CACHE = 1 << 16;
+    /** Empty tile number. */
+    private static final int EMPTY = -1;
+
+    /** Tiles cache, indexed by location. */
+    private final TileGame[] cache;
+    /** Tiles cache mask. */
+    private final int mask;
+    /** Tiles number, {@link #EMPTY} if none. */
+    private int[] numbers;
+    /** Tiles sheet. */
+    private short[] sheets;
+    /** Number of horizontal tiles. */
+    private int width;
+
+    /**
+     * Create feature with {@link #DEFAULT_CACHE}.
+     */
+    public MapTileSurfaceArrayModel()
+    {
+        this(DEFAULT_CACHE);
+    }
+
+    /**
+     * Create feature.
+     * 
+     * @param cacheSize The tiles cache size, rounded to the next power of 2 (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileSurfaceArrayModel(int cacheSize)
+    {
+        super();
+
+        Check.superiorStrict(cacheSize, 0);
+
+        final int size = Integer.highestOneBit(cacheSize - 1) << 1;
+        cache = new TileGame[Math.max(1, size)];
+        mask = cache.length - 1;
+    }
+
+    /**
+     * Get cached tile at index if matching location.
+     * 
+     * @param index The tile index.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The cached tile, <code>null</code> if none.
+     */
+    private TileGame getCached(int index, int tx, int ty)
+    {
+        final TileGame tile = cache[index & mask];
+        if (tile != null && tile.getInTileX() == tx && tile.getInTileY() == ty)
+        {
+            return tile;
+        }
+        return null;
+    }
+
+    /*
+     * MapTileSurfaceModel
+     */
+
+    @Override
+    protected void createTiles(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        numbers = new int[widthInTile * heightInTile];
+        sheets = new short[numbers.length];
+        Arrays.fill(numbers, EMPTY);
+        Arrays.fill(cache, null);
+    }
+
+    @Override
+    protected void resizeTiles(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        final int[] oldNumbers = numbers;
+        final short[] oldSheets = sheets;
+
+        createTiles(newWidth, newHeight);
+
+        final int copyWidth = Math.min(oldWidth, newWidth);
+        for (int ty = 0; ty < Math.min(oldHeight, newHeight); ty++)
+        {
+            System.arraycopy(oldNumbers, ty * oldWidth, numbers, ty * newWidth, copyWidth);
+            System.arraycopy(oldSheets, ty * oldWidth, sheets, ty * newWidth, copyWidth);
+        }
+    }
+
+    @Override
+    protected void clearTiles()
+    {
+        width = 0;
+        numbers = new int[0];
+        sheets = new short[0];
+        Arrays.fill(cache, null);
+    }
+
+    /*
+     * MapTileSurface
+     */
+
+    @Override
+    public void removeTile(int tx, int ty)
+    {
+        Check.superiorStrict(tx, -1);
+        Check.superiorStrict(ty, -1);
+        Check.inferiorStrict(tx, getInTileWidth());
+        Check.inferiorStrict(ty, getInTileHeight());
+
+        final int index = ty * width + tx;
+        numbers[index] = EMPTY;
+        sheets[index] = 0;
+        if (getCached(index, tx, ty) != null)
+        {
+            cache[index & mask] = null;
+        }
+    }
+
+    @Override
+    public void setTile(int tx, int ty, int number)
+    {
+        Check.superiorStrict(tx, -1);
+        Check.superiorStrict(ty, -1);
+        Check.inferiorStrict(tx, getInTileWidth());
+        Check.inferiorStrict(ty, getInTileHeight());
+        Check.superiorOrEqual(number, 0);
+
+        final int index = ty * width + tx;
+        if (numbers[index] != number)
+        {
+            numbers[index] = number;
+
+            final int tilesPerSheet = getTilesPerSheet();
+            if (tilesPerSheet > 0)
+            {
+                sheets[index] = (short) (number / tilesPerSheet);
+            }
+
+            TileGame tile = getCached(index, tx, ty);
+            if (tile == null)
+            {
+                tile = new TileGame(number, tx, ty, getTileWidth(), getTileHeight());
+                cache[index & mask] = tile;
+            }
+            else
+            {
+                tile.set(number);
+            }
+            tile.setSheet(sheets[index]);
+
+            notifyTileSet(tile);
+        }
+    }
+
+    @Override
+    public Tile getTile(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= getInTileWidth() || ty >= getInTileHeight())
+        {
+            return null;
+        }
+        final int index = ty * width + tx;
+        final int number = numbers[index];
+        if (number == EMPTY)
+        {
+            return null;
+        }
+
+        TileGame tile = getCached(index, tx, ty);
+        if (tile == null)
+        {
+            tile = new TileGame(number, tx, ty, getTileWidth(), getTileHeight());
+            tile.setSheet(sheets[index]);
+            cache[index & mask] = tile;
+        }
+        return tile;
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        int tilesNumber = 0;
+        final int n = getInTileWidth() * getInTileHeight();
+        for (int i = 0; i < n; i++)
+        {
+            if (numbers[i] != EMPTY)
+            {
+                tilesNumber++;
+            }
+        }
+        return tilesNumber;
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return numbers != null;
+    }
+}
@@ -106,6 +106,85 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         }
     }
 
+    /**
+     * Create tiles storage. Tiles are empty.
+     * 
+     * @param widthInTile The number of horizontal tiles.
+     * @param heightInTile The number of vertical tiles.
+     */
+    protected void createTiles(int widthInTile, int heightInTile)
+    {
+        tiles = new ArrayList<>(heightInTile);
+
+        for (int v = 0; v < heightInTile; v++)
+        {
+            tiles.add(v, new ArrayList<>(widthInTile));
+            for (int h = 0; h < widthInTile; h++)
+            {
+                tiles.get(v).add(h, null);
+            }
+        }
+    }
+
+    /**
+     * Resize tiles storage, keeping existing tiles. New tiles are empty.
+     * 
+     * @param oldWidth The old width in tile.
+     * @param oldHeight The old height in tile.
+     * @param newWidth The new width in tile.
+     * @param newHeight The new height in tile.
+     */
+    protected void resizeTiles(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        // Adjust height
+        for (int v = 0; v < newHeight - oldHeight; v++)
+        {
+            tiles.add(new ArrayList<>(newWidth));
+        }
+        // Adjust width
+        for (int v = 0; v < newHeight; v++)
+        {
+            final int width;
+            if (v < oldHeight)
+            {
+                width = newWidth - oldWidth;
+            }
+            else
+            {
+                width = newWidth;
+            }
+            for (int h = 0; h < width; h++)
+            {
+                tiles.get(v).add(null);
+            }
+        }
+    }
+
+    /**
+     * Clear tiles storage.
+     */
+    protected void clearTiles()
+    {
+        for (final List<TileGame> list : tiles)
+        {
+            list.clear();
+        }
+        tiles.clear();
+    }
+
+    /**
+     * Notify listeners that tile has been set.
+     * 
+     * @param tile The tile set.
+     */
+    protected void notifyTileSet(Tile tile)
+    {
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).onTileSet(tile);
+        }
+    }
+
     /*
      * MapTileSurface
      */
@@ -138,16 +217,8 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        tiles = new ArrayList<>(heightInTile);
 
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        createTiles(widthInTile, heightInTile);
     }
 
     @Override
@@ -206,31 +277,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     @Override
     public void resize(int newWidth, int newHeight)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
-
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
-        {
-            tiles.add(new ArrayList<>(newWidth));
-        }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
-        {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
-        }
+        resizeTiles(widthInTile, heightInTile, newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
@@ -240,13 +287,9 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     @Override
     public void clear()
     {
-        if (tiles != null)
+        if (isCreated())
         {
-            for (final List<TileGame> list : tiles)
-            {
-                list.clear();
-            }
-            tiles.clear();
+            clearTiles();
             widthInTile = 0;
             heightInTile = 0;
         }
@@ -291,10 +334,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
             {
                 tile.setSheet((int) Math.floor(number / (double) tilesPerSheet));
             }
-            for (int i = 0; i < listenable.size(); i++)
-            {
-                listenable.get(i).onTileSet(tile);
-            }
+            notifyTileSet(tile);
         }
     }
 
@@ -230,4 +230,10 @@ public class MapTileCollisionRendererModel extends FeatureAbstract implements Ma
             renderCollision(g, tile, x, y);
         }
     }
+
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
 }
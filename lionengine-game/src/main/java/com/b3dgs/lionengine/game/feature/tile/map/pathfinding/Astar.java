@@ -38,6 +38,34 @@ public final class Astar
         return new PathFinderImpl(map, maxSearchDistance, heuristic);
     }
 
+    /**
+     * Create a hierarchical path finder. Long paths are searched on clusters graph, short paths are searched as
+     * {@link #createPathFinder(MapTile, int, Heuristic)}.
+     * 
+     * @param clusters The map clusters reference.
+     * @param maxSearchDistance The maximum depth we'll search before giving up on short paths.
+     * @param heuristic The heuristic used to determine the search order of the map on short paths.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinder(PathClusters clusters, int maxSearchDistance, Heuristic heuristic)
+    {
+        return new PathFinderHierarchical(clusters, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Create a flow field path finder. Paths are read from the destination field shared by all movers, the tiles search
+     * of {@link #createPathFinder(MapTile, int, Heuristic)} is used only when field cannot be followed.
+     * 
+     * @param fields The map flow fields reference.
+     * @param maxSearchDistance The maximum depth we'll search before giving up when field cannot be followed.
+     * @param heuristic The heuristic used to determine the search order of the map when field cannot be followed.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinder(FlowFields fields, int maxSearchDistance, Heuristic heuristic)
+    {
+        return new PathFinderFlow(fields, maxSearchDistance, heuristic);
+    }
+
     /**
      * Create the closest heuristic.
      * 
@@ -0,0 +1,884 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Hierarchical pathfinding graph of a map for a {@link PathProfile}.
+ * <p>
+ * Map is split in square clusters. Each cluster border is scanned for runs of walkable tile pairs, each run giving one
+ * or two transitions (entrances) between neighbour clusters. Transition tiles are the abstract nodes, linked to their
+ * partner tile in the neighbour cluster, and to the other nodes of their cluster with the cost of the best path inside
+ * the cluster.
+ * </p>
+ * <p>
+ * Clusters are built lazily from the map path of the query (which can be a snapshot), and remember the version of
+ * the changes it includes. A cluster is rebuilt on use when {@link #invalidate(int, int, long)} reported a more recent
+ * change, and the query map path is more recent than the cluster. Tiles used by objects are considered as blocking if
+ * profile does not ignore objects.
+ * </p>
+ * <p>
+ * A query first searches the abstract graph (start and destination are linked to the nodes of their cluster) with the
+ * shared {@link PathNodes} indexed by tile, then refines each abstract edge with a search bounded to its cluster.
+ * </p>
+ */
+final class ClusterGraph
+{
+    /** Run length from which two transitions are created on the run ends instead of one in the middle. */
+    private static final int RUN_SPLIT = 6;
+    /** Horizontal neighbour offsets. */
+    private static final int[] DX =
+    {
+        -1, 0, 1, -1, 1, -1, 0, 1
+    };
+    /** Vertical neighbour offsets. */
+    private static final int[] DY =
+    {
+        -1, -1, -1, 0, 0, 1, 1, 1
+    };
+    /** Neighbours movement bit, as {@link MovementTile} ordinal bit. */
+    private static final int[] BITS = new int[DX.length];
+
+    static
+    {
+        for (int i = 0; i < BITS.length; i++)
+        {
+            BITS[i] = 1 << MovementTile.from(DX[i], DY[i]).ordinal();
+        }
+    }
+
+    /**
+     * Get the movement bit from offset.
+     * 
+     * @param ox The horizontal offset.
+     * @param oy The vertical offset.
+     * @return The movement bit.
+     */
+    private static int getBit(int ox, int oy)
+    {
+        return 1 << MovementTile.from(ox, oy).ordinal();
+    }
+
+    /** Cluster search nodes. */
+    private final PathNodes local = new PathNodes();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Profile reference. */
+    private final PathProfile profile;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Number of horizontal clusters. */
+    private final int clustersH;
+    /** Number of vertical clusters. */
+    private final int clustersV;
+    /** Clusters, <code>null</code> if not built. */
+    private final Cluster[] clusters;
+    /** Most recent change version by cluster. */
+    private final long[] changed;
+    /** Category id plus one by tile number, <code>0</code> if not resolved. */
+    private int[] numberCategory = new int[0];
+    /** Map path of current query, used for objects. */
+    private MapTilePath objects;
+    /** Changes version included in current query map path. */
+    private long version;
+
+    /**
+     * Create graph.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param profile The profile reference.
+     * @param size The cluster size in tile.
+     * @param version The most recent change version already known.
+     */
+    ClusterGraph(MapTile map, MapTilePath mapPath, PathProfile profile, int size, long version)
+    {
+        super();
+
+        this.map = map;
+        this.mapPath = mapPath;
+        this.profile = profile;
+        this.size = size;
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        clustersH = (width + size - 1) / size;
+        clustersV = (height + size - 1) / size;
+        clusters = new Cluster[clustersH * clustersV];
+        changed = new long[clusters.length];
+        Arrays.fill(changed, version);
+        objects = mapPath;
+    }
+
+    /**
+     * Check if graph has been built for this map size.
+     * 
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     * @return <code>true</code> if same size, <code>false</code> else.
+     */
+    boolean hasSize(int widthInTile, int heightInTile)
+    {
+        return width == widthInTile && height == heightInTile;
+    }
+
+    /**
+     * Invalidate the clusters affected by this tile. Border tiles invalidate the neighbour cluster too, as they define
+     * the shared transitions.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param version The change version.
+     */
+    synchronized void invalidate(int tx, int ty, long version)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return;
+        }
+        final int cx = tx / size;
+        final int cy = ty / size;
+        final int index = cy * clustersH + cx;
+        changed[index] = version;
+
+        final int x = tx % size;
+        final int y = ty % size;
+        if (x == 0 && cx > 0)
+        {
+            changed[index - 1] = version;
+        }
+        if (x == size - 1 && cx < clustersH - 1)
+        {
+            changed[index + 1] = version;
+        }
+        if (y == 0 && cy > 0)
+        {
+            changed[index - clustersH] = version;
+        }
+        if (y == size - 1 && cy < clustersV - 1)
+        {
+            changed[index + clustersH] = version;
+        }
+    }
+
+    /**
+     * Find a path between two locations. Destination must not be blocked.
+     * 
+     * @param mapPath The map path used for objects, can be a snapshot.
+     * @param version The changes version included in map path.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @return The path found, <code>null</code> if none.
+     */
+    synchronized Path findPath(MapTilePath mapPath, long version, int stx, int sty, int dtx, int dty)
+    {
+        objects = mapPath;
+        this.version = version;
+
+        final Cluster start = getCluster(stx / size, sty / size);
+        final Cluster end = getCluster(dtx / size, dty / size);
+        final int source = sty * width + stx;
+        final int destination = dty * width + dtx;
+
+        search(start, stx, sty, PathNodes.NO_PARENT, false);
+        final double[] startCosts = getCosts(start);
+        final double direct;
+        if (start == end)
+        {
+            direct = getCost(start, destination);
+        }
+        else
+        {
+            direct = Double.POSITIVE_INFINITY;
+        }
+
+        search(end, dtx, dty, PathNodes.NO_PARENT, true);
+        final double[] endCosts = getCosts(end);
+
+        final List<Integer> nodes = searchAbstract(source, destination, start, end, startCosts, endCosts, direct);
+        if (nodes.isEmpty())
+        {
+            return null;
+        }
+        return refine(nodes);
+    }
+
+    /**
+     * Search the abstract path.
+     * 
+     * @param source The source tile index.
+     * @param destination The destination tile index.
+     * @param start The start cluster.
+     * @param end The destination cluster.
+     * @param startCosts The costs from source to the start cluster nodes.
+     * @param endCosts The costs from the destination cluster nodes to destination.
+     * @param direct The direct cost from source to destination.
+     * @return The abstract path tiles, from source to destination, empty if not found.
+     */
+    private List<Integer> searchAbstract(int source,
+                                         int destination,
+                                         Cluster start,
+                                         Cluster end,
+                                         double[] startCosts,
+                                         double[] endCosts,
+                                         double direct)
+    {
+        final PathNodes nodes = PathNodes.SHARED.get();
+        nodes.start(width * height, true);
+        final int dtx = destination % width;
+        final int dty = destination / width;
+
+        nodes.set(source, 0.0, PathNodes.NO_PARENT, 0);
+        nodes.setHeuristic(source, getHeuristic(source, dtx, dty));
+        nodes.open(source);
+        while (!nodes.isEmpty())
+        {
+            final int current = nodes.poll();
+            if (current == destination)
+            {
+                break;
+            }
+            final double cost = nodes.getCost(current);
+            final Cluster cluster = getCluster(current % width / size, current / width / size);
+            final int index = cluster.indexOf(current);
+            if (current == source)
+            {
+                for (int i = 0; i < startCosts.length; i++)
+                {
+                    relax(nodes, start.nodes[i], current, cost + startCosts[i], dtx, dty);
+                }
+                relax(nodes, destination, current, cost + direct, dtx, dty);
+            }
+            else if (index > -1)
+            {
+                final int count = cluster.nodes.length;
+                for (int i = 0; i < count; i++)
+                {
+                    relax(nodes, cluster.nodes[i], current, cost + cluster.costs[index * count + i], dtx, dty);
+                }
+            }
+            if (index > -1)
+            {
+                for (int i = cluster.partnerStart[index]; i < cluster.partnerStart[index + 1]; i++)
+                {
+                    relax(nodes, cluster.partners[i], current, cost + cluster.partnerCosts[i], dtx, dty);
+                }
+                if (cluster == end)
+                {
+                    relax(nodes, destination, current, cost + endCosts[index], dtx, dty);
+                }
+            }
+        }
+
+        final List<Integer> path = new ArrayList<>();
+        if (nodes.isVisited(destination))
+        {
+            int current = destination;
+            while (current != PathNodes.NO_PARENT)
+            {
+                path.add(0, Integer.valueOf(current));
+                current = nodes.getParent(current);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Relax abstract node cost, open it if improved.
+     * 
+     * @param nodes The abstract search nodes.
+     * @param tile The tile index.
+     * @param parent The parent tile index.
+     * @param cost The cost found.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     */
+    private void relax(PathNodes nodes, int tile, int parent, double cost, int dtx, int dty)
+    {
+        if (cost == Double.POSITIVE_INFINITY || tile == parent)
+        {
+            return;
+        }
+        if (!nodes.isVisited(tile))
+        {
+            nodes.set(tile, cost, parent, 0);
+            nodes.setHeuristic(tile, getHeuristic(tile, dtx, dty));
+            nodes.open(tile);
+        }
+        else if (!nodes.isClosed(tile) && cost < nodes.getCost(tile))
+        {
+            nodes.set(tile, cost, parent, 0);
+            nodes.decrease(tile);
+        }
+    }
+
+    /**
+     * Get the abstract search heuristic, never overestimating the remaining cost.
+     * 
+     * @param tile The tile index.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @return The heuristic cost.
+     */
+    private double getHeuristic(int tile, int dtx, int dty)
+    {
+        final int distance = Math.max(Math.abs(tile % width - dtx), Math.abs(tile / width - dty));
+        return distance * profile.getMinimumCost();
+    }
+
+    /**
+     * Refine abstract path to tiles path.
+     * 
+     * @param nodes The abstract path tiles.
+     * @return The refined path, <code>null</code> if a segment could not be refined.
+     */
+    private Path refine(List<Integer> nodes)
+    {
+        final List<Integer> tiles = new ArrayList<>();
+        tiles.add(nodes.get(0));
+        for (int i = 1; i < nodes.size(); i++)
+        {
+            final int from = nodes.get(i - 1).intValue();
+            final int to = nodes.get(i).intValue();
+            final Cluster cluster = getCluster(from % width / size, from / width / size);
+            if (cluster.contains(to % width, to / width))
+            {
+                final int target = cluster.toLocal(to % width, to / width);
+                search(cluster, from % width, from / width, target, false);
+                if (!local.isVisited(target))
+                {
+                    return null;
+                }
+                final int insert = tiles.size();
+                int current = target;
+                while (local.getParent(current) != PathNodes.NO_PARENT)
+                {
+                    tiles.add(insert, Integer.valueOf(cluster.toTile(current, width)));
+                    current = local.getParent(current);
+                }
+            }
+            else
+            {
+                tiles.add(Integer.valueOf(to));
+            }
+        }
+
+        final Path path = new Path();
+        for (int i = tiles.size() - 1; i >= 0; i--)
+        {
+            final int tile = tiles.get(i).intValue();
+            path.prependStep(tile % width, tile / width);
+        }
+        return path;
+    }
+
+    /**
+     * Get the cluster, build it if needed.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     * @return The cluster.
+     */
+    private Cluster getCluster(int cx, int cy)
+    {
+        final int index = cy * clustersH + cx;
+        final Cluster cluster = clusters[index];
+        if (cluster == null || cluster.version < changed[index] && version > cluster.version)
+        {
+            clusters[index] = build(cx, cy);
+        }
+        return clusters[index];
+    }
+
+    /**
+     * Build cluster transitions and costs.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     * @return The built cluster.
+     */
+    private Cluster build(int cx, int cy)
+    {
+        final int x = cx * size;
+        final int y = cy * size;
+        final int w = Math.min(size, width - x);
+        final int h = Math.min(size, height - y);
+        final Cluster cluster = new Cluster(x, y, w, h, size, version);
+
+        final List<int[]> transitions = new ArrayList<>();
+        if (x > 0)
+        {
+            addTransitions(transitions, x, y, 0, 1, h, -1, 0);
+        }
+        if (x + w < width)
+        {
+            addTransitions(transitions, x + w - 1, y, 0, 1, h, 1, 0);
+        }
+        if (y > 0)
+        {
+            addTransitions(transitions, x, y, 1, 0, w, 0, -1);
+        }
+        if (y + h < height)
+        {
+            addTransitions(transitions, x, y + h - 1, 1, 0, w, 0, 1);
+        }
+        setTransitions(cluster, transitions);
+
+        final int count = cluster.nodes.length;
+        cluster.costs = new double[count * count];
+        for (int i = 0; i < count; i++)
+        {
+            final int node = cluster.nodes[i];
+            search(cluster, node % width, node / width, PathNodes.NO_PARENT, false);
+            System.arraycopy(getCosts(cluster), 0, cluster.costs, i * count, count);
+        }
+        return cluster;
+    }
+
+    /**
+     * Set cluster nodes and partners from transitions. Transitions sharing the same tile are merged in one node.
+     * 
+     * @param cluster The cluster to set.
+     * @param transitions The transitions found (tile index, partner tile index, movement bit).
+     */
+    private void setTransitions(Cluster cluster, List<int[]> transitions)
+    {
+        final List<Integer> tiles = new ArrayList<>();
+        final List<List<int[]>> partners = new ArrayList<>();
+        for (final int[] transition : transitions)
+        {
+            final Integer tile = Integer.valueOf(transition[0]);
+            int index = tiles.indexOf(tile);
+            if (index < 0)
+            {
+                index = tiles.size();
+                tiles.add(tile);
+                partners.add(new ArrayList<>(1));
+            }
+            partners.get(index).add(transition);
+        }
+
+        cluster.nodes = new int[tiles.size()];
+        cluster.partnerStart = new int[tiles.size() + 1];
+        cluster.partners = new int[transitions.size()];
+        cluster.partnerCosts = new double[transitions.size()];
+        int count = 0;
+        for (int i = 0; i < cluster.nodes.length; i++)
+        {
+            final int tile = tiles.get(i).intValue();
+            final int category = getCategory(tile % width, tile / width);
+            cluster.nodes[i] = tile;
+            cluster.partnerStart[i] = count;
+            for (final int[] transition : partners.get(i))
+            {
+                cluster.partners[count] = transition[1];
+                if ((profile.getMovements(category) & transition[2]) != 0)
+                {
+                    cluster.partnerCosts[count] = profile.getCost(category);
+                }
+                else
+                {
+                    cluster.partnerCosts[count] = Double.POSITIVE_INFINITY;
+                }
+                count++;
+            }
+        }
+        cluster.partnerStart[cluster.nodes.length] = count;
+    }
+
+    /**
+     * Add transitions found along a cluster side.
+     * 
+     * @param transitions The transitions found (tile index, partner tile index, movement bit).
+     * @param sx The first side tile horizontal location.
+     * @param sy The first side tile vertical location.
+     * @param stepX The horizontal step along side.
+     * @param stepY The vertical step along side.
+     * @param length The side length.
+     * @param ox The horizontal offset to partner.
+     * @param oy The vertical offset to partner.
+     */
+    private void addTransitions(List<int[]> transitions,
+                                int sx,
+                                int sy,
+                                int stepX,
+                                int stepY,
+                                int length,
+                                int ox,
+                                int oy)
+    {
+        final int bit = getBit(ox, oy);
+        int run = 0;
+        for (int i = 0; i <= length; i++)
+        {
+            final int tx = sx + i * stepX;
+            final int ty = sy + i * stepY;
+            if (i < length && isPassable(tx, ty) && isPassable(tx + ox, ty + oy))
+            {
+                run++;
+            }
+            else if (run > 0)
+            {
+                final int first = i - run;
+                if (run < RUN_SPLIT)
+                {
+                    addTransition(transitions, sx, sy, stepX, stepY, first + run / 2, ox, oy, bit);
+                }
+                else
+                {
+                    addTransition(transitions, sx, sy, stepX, stepY, first, ox, oy, bit);
+                    addTransition(transitions, sx, sy, stepX, stepY, i - 1, ox, oy, bit);
+                }
+                run = 0;
+            }
+        }
+    }
+
+    /**
+     * Add a transition.
+     * 
+     * @param transitions The transitions found (tile index, partner tile index, movement bit).
+     * @param sx The first side tile horizontal location.
+     * @param sy The first side tile vertical location.
+     * @param stepX The horizontal step along side.
+     * @param stepY The vertical step along side.
+     * @param i The side index.
+     * @param ox The horizontal offset to partner.
+     * @param oy The vertical offset to partner.
+     * @param bit The movement bit to partner.
+     */
+    private void addTransition(List<int[]> transitions,
+                               int sx,
+                               int sy,
+                               int stepX,
+                               int stepY,
+                               int i,
+                               int ox,
+                               int oy,
+                               int bit)
+    {
+        final int tx = sx + i * stepX;
+        final int ty = sy + i * stepY;
+        transitions.add(new int[]
+        {
+            ty * width + tx, (ty + oy) * width + tx + ox, bit
+        });
+    }
+
+    /**
+     * Search costs inside cluster with Dijkstra, from origin to cluster tiles if forward, from cluster tiles to origin
+     * if reverse. Results are stored in {@link #local}.
+     * 
+     * @param cluster The cluster bounds.
+     * @param ox The horizontal origin.
+     * @param oy The vertical origin.
+     * @param target The local target index to stop on, {@link PathNodes#NO_PARENT} to search whole cluster.
+     * @param reverse <code>true</code> for reverse search, <code>false</code> for forward search.
+     */
+    private void search(Cluster cluster, int ox, int oy, int target, boolean reverse)
+    {
+        local.start(size * size);
+        final int origin = cluster.toLocal(ox, oy);
+        local.set(origin, 0.0, PathNodes.NO_PARENT, 0);
+        local.setHeuristic(origin, 0.0);
+        local.open(origin);
+
+        while (!local.isEmpty())
+        {
+            final int current = local.poll();
+            if (current == target)
+            {
+                break;
+            }
+            final int cx = cluster.x + current % size;
+            final int cy = cluster.y + current / size;
+            if (reverse)
+            {
+                expandReverse(cluster, current, cx, cy);
+            }
+            else
+            {
+                expandForward(cluster, current, cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Expand current node to its successors.
+     * 
+     * @param cluster The cluster bounds.
+     * @param current The current local node.
+     * @param cx The current horizontal location.
+     * @param cy The current vertical location.
+     */
+    private void expandForward(Cluster cluster, int current, int cx, int cy)
+    {
+        final int category = getCategory(cx, cy);
+        final int movements = profile.getMovements(category);
+        if (movements == 0)
+        {
+            return;
+        }
+        final double cost = local.getCost(current) + profile.getCost(category);
+        for (int i = 0; i < BITS.length; i++)
+        {
+            final int nx = cx + DX[i];
+            final int ny = cy + DY[i];
+            if ((movements & BITS[i]) != 0 && cluster.contains(nx, ny) && isPassable(nx, ny))
+            {
+                relax(cluster.toLocal(nx, ny), current, cost);
+            }
+        }
+    }
+
+    /**
+     * Expand current node to its predecessors.
+     * 
+     * @param cluster The cluster bounds.
+     * @param current The current local node.
+     * @param cx The current horizontal location.
+     * @param cy The current vertical location.
+     */
+    private void expandReverse(Cluster cluster, int current, int cx, int cy)
+    {
+        for (int i = 0; i < BITS.length; i++)
+        {
+            final int px = cx - DX[i];
+            final int py = cy - DY[i];
+            if (cluster.contains(px, py) && isPassable(px, py))
+            {
+                final int category = getCategory(px, py);
+                if ((profile.getMovements(category) & BITS[i]) != 0)
+                {
+                    relax(cluster.toLocal(px, py), current, local.getCost(current) + profile.getCost(category));
+                }
+            }
+        }
+    }
+
+    /**
+     * Relax local node cost.
+     * 
+     * @param node The local node.
+     * @param parent The local parent node.
+     * @param cost The cost found.
+     */
+    private void relax(int node, int parent, double cost)
+    {
+        if (!local.isVisited(node))
+        {
+            local.set(node, cost, parent, 0);
+            local.setHeuristic(node, 0.0);
+            local.open(node);
+        }
+        else if (!local.isClosed(node) && cost < local.getCost(node))
+        {
+            local.set(node, cost, parent, 0);
+            local.decrease(node);
+        }
+    }
+
+    /**
+     * Get the last search costs of cluster nodes.
+     * 
+     * @param cluster The searched cluster.
+     * @return The costs by node index, {@link Double#POSITIVE_INFINITY} if not reached.
+     */
+    private double[] getCosts(Cluster cluster)
+    {
+        final double[] costs = new double[cluster.nodes.length];
+        for (int i = 0; i < costs.length; i++)
+        {
+            costs[i] = getCost(cluster, cluster.nodes[i]);
+        }
+        return costs;
+    }
+
+    /**
+     * Get the last search cost of tile.
+     * 
+     * @param cluster The searched cluster.
+     * @param tile The tile index.
+     * @return The cost, {@link Double#POSITIVE_INFINITY} if not reached.
+     */
+    private double getCost(Cluster cluster, int tile)
+    {
+        final int node = cluster.toLocal(tile % width, tile / width);
+        if (local.isVisited(node))
+        {
+            return local.getCost(node);
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Check if tile can be walked.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if passable, <code>false</code> else.
+     */
+    private boolean isPassable(int tx, int ty)
+    {
+        return !profile.isBlocking(getCategory(tx, ty))
+               && (profile.isIgnoreObjects() || objects.getObjectsId(tx, ty).isEmpty());
+    }
+
+    /**
+     * Get the tile category id, resolved once per tile number.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The category id.
+     */
+    private int getCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile == null)
+        {
+            return PathProfile.CATEGORY_NULL_TILE;
+        }
+        final int number = tile.getNumber();
+        if (number >= numberCategory.length)
+        {
+            numberCategory = Arrays.copyOf(numberCategory, Math.max(number + 1, numberCategory.length * 2));
+        }
+        if (numberCategory[number] == 0)
+        {
+            numberCategory[number] = profile.getId(mapPath.getCategory(tile)) + 1;
+        }
+        return numberCategory[number] - 1;
+    }
+
+    /**
+     * Cluster data.
+     */
+    private static final class Cluster
+    {
+        /** Horizontal location in tile. */
+        private final int x;
+        /** Vertical location in tile. */
+        private final int y;
+        /** Width in tile. */
+        private final int w;
+        /** Height in tile. */
+        private final int h;
+        /** Local index row length. */
+        private final int stride;
+        /** Changes version included. */
+        private final long version;
+        /** Nodes tile index. */
+        private int[] nodes;
+        /** Partners range start by node index, last value is partners count. */
+        private int[] partnerStart;
+        /** Partners tile index. */
+        private int[] partners;
+        /** Partners movement cost. */
+        private double[] partnerCosts;
+        /** Costs between nodes, from node i to node j at index i * count + j. */
+        private double[] costs;
+
+        /**
+         * Create cluster.
+         * 
+         * @param x The horizontal location in tile.
+         * @param y The vertical location in tile.
+         * @param w The width in tile.
+         * @param h The height in tile.
+         * @param stride The local index row length.
+         * @param version The changes version included.
+         */
+        Cluster(int x, int y, int w, int h, int stride, long version)
+        {
+            super();
+
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.stride = stride;
+            this.version = version;
+        }
+
+        /**
+         * Check if location is inside cluster.
+         * 
+         * @param tx The horizontal tile location.
+         * @param ty The vertical tile location.
+         * @return <code>true</code> if inside, <code>false</code> else.
+         */
+        boolean contains(int tx, int ty)
+        {
+            return tx >= x && ty >= y && tx < x + w && ty < y + h;
+        }
+
+        /**
+         * Get the local index of location.
+         * 
+         * @param tx The horizontal tile location.
+         * @param ty The vertical tile location.
+         * @return The local index.
+         */
+        int toLocal(int tx, int ty)
+        {
+            return (ty - y) * stride + tx - x;
+        }
+
+        /**
+         * Get the tile index of local index.
+         * 
+         * @param index The local index.
+         * @param width The map width in tile.
+         * @return The tile index.
+         */
+        int toTile(int index, int width)
+        {
+            return (y + index / stride) * width + x + index % stride;
+        }
+
+        /**
+         * Get the node index of tile.
+         * 
+         * @param tile The tile index.
+         * @return The node index, <code>-1</code> if not a node.
+         */
+        int indexOf(int tile)
+        {
+            for (int i = 0; i < nodes.length; i++)
+            {
+                if (nodes[i] == tile)
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
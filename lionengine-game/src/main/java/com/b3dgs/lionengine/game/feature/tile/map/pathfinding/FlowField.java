@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Flow field toward a destination tile, computed once for a mover profile and shared by all movers going there.
+ * <p>
+ * The field is the result of a single reverse search from destination over the whole map: each reached tile stores
+ * its cost to destination and the direction of its next tile. Following directions from any reached tile gives the
+ * cheapest path to destination, without any other search.
+ * </p>
+ * <p>
+ * Field is built on tiles only, objects are not considered.
+ * </p>
+ * 
+ * @see FlowFields
+ */
+public final class FlowField
+{
+    /** No direction value. */
+    private static final byte NO_DIRECTION = -1;
+    /** Horizontal neighbour offsets. */
+    private static final int[] DX =
+    {
+        -1, 0, 1, -1, 1, -1, 0, 1
+    };
+    /** Vertical neighbour offsets. */
+    private static final int[] DY =
+    {
+        -1, -1, -1, 0, 0, 1, 1, 1
+    };
+    /** Neighbours movement, by offset index. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[DX.length];
+    /** Neighbours movement bit, as {@link MovementTile} ordinal bit. */
+    private static final int[] BITS = new int[DX.length];
+
+    static
+    {
+        for (int i = 0; i < DX.length; i++)
+        {
+            MOVEMENTS[i] = MovementTile.from(DX[i], DY[i]);
+            BITS[i] = 1 << MOVEMENTS[i].ordinal();
+        }
+    }
+
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Destination horizontal location. */
+    private final int dtx;
+    /** Destination vertical location. */
+    private final int dty;
+    /** Cost to destination by tile, {@link Float#POSITIVE_INFINITY} if not reached. */
+    private final float[] costs;
+    /** Next tile offset index by tile, {@link #NO_DIRECTION} if none. */
+    private final byte[] directions;
+
+    /**
+     * Create and compute field.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param profile The profile reference.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     */
+    FlowField(MapTile map, MapTilePath mapPath, PathProfile profile, int dtx, int dty)
+    {
+        super();
+
+        this.dtx = dtx;
+        this.dty = dty;
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        costs = new float[width * height];
+        directions = new byte[width * height];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NO_DIRECTION);
+
+        compute(map, mapPath, profile);
+    }
+
+    /**
+     * Search from destination to all tiles that can reach it.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param profile The profile reference.
+     */
+    private void compute(MapTile map, MapTilePath mapPath, PathProfile profile)
+    {
+        final int[] categories = getCategories(map, mapPath, profile);
+        final PathNodes nodes = PathNodes.SHARED.get();
+        nodes.start(costs.length);
+
+        final int destination = dty * width + dtx;
+        nodes.set(destination, 0.0, PathNodes.NO_PARENT, 0);
+        nodes.setHeuristic(destination, 0.0);
+        nodes.open(destination);
+
+        while (!nodes.isEmpty())
+        {
+            final int current = nodes.poll();
+            final int cx = current % width;
+            final int cy = current / width;
+            final double cost = nodes.getCost(current);
+            costs[current] = (float) cost;
+
+            for (int i = 0; i < DX.length; i++)
+            {
+                final int px = cx - DX[i];
+                final int py = cy - DY[i];
+                if (px >= 0 && py >= 0 && px < width && py < height)
+                {
+                    final int previous = py * width + px;
+                    final int category = categories[previous];
+                    if (!profile.isBlocking(category) && (profile.getMovements(category) & BITS[i]) != 0)
+                    {
+                        relax(nodes, previous, current, cost + profile.getCost(category), i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Relax node cost.
+     * 
+     * @param nodes The search nodes.
+     * @param node The node.
+     * @param next The next node toward destination.
+     * @param cost The cost found.
+     * @param direction The offset index from node to next.
+     */
+    private void relax(PathNodes nodes, int node, int next, double cost, int direction)
+    {
+        if (!nodes.isVisited(node))
+        {
+            nodes.set(node, cost, next, 0);
+            nodes.setHeuristic(node, 0.0);
+            nodes.open(node);
+            directions[node] = (byte) direction;
+        }
+        else if (!nodes.isClosed(node) && cost < nodes.getCost(node))
+        {
+            nodes.set(node, cost, next, 0);
+            nodes.decrease(node);
+            directions[node] = (byte) direction;
+        }
+    }
+
+    /**
+     * Get the category id of each tile, resolved once per tile number.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param profile The profile reference.
+     * @return The category ids by tile.
+     */
+    private int[] getCategories(MapTile map, MapTilePath mapPath, PathProfile profile)
+    {
+        final int[] categories = new int[costs.length];
+        int[] numberCategory = new int[0];
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile == null)
+                {
+                    categories[ty * width + tx] = PathProfile.CATEGORY_NULL_TILE;
+                    continue;
+                }
+                final int number = tile.getNumber();
+                if (number >= numberCategory.length)
+                {
+                    numberCategory = Arrays.copyOf(numberCategory, Math.max(number + 1, numberCategory.length * 2));
+                }
+                if (numberCategory[number] == 0)
+                {
+                    numberCategory[number] = profile.getId(mapPath.getCategory(tile)) + 1;
+                }
+                categories[ty * width + tx] = numberCategory[number] - 1;
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Get the tile index.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The tile index, <code>-1</code> if outside map.
+     */
+    private int getIndex(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return -1;
+        }
+        return ty * width + tx;
+    }
+
+    /**
+     * Get the path to destination by following the field.
+     * 
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @return The path from start to destination, <code>null</code> if destination cannot be reached from start.
+     */
+    public Path getPath(int stx, int sty)
+    {
+        if (!isReachable(stx, sty))
+        {
+            return null;
+        }
+        int length = 1;
+        int tile = sty * width + stx;
+        while (directions[tile] != NO_DIRECTION)
+        {
+            tile += DY[directions[tile]] * width + DX[directions[tile]];
+            length++;
+        }
+
+        final int[] tiles = new int[length];
+        tile = sty * width + stx;
+        for (int i = 0; i < length - 1; i++)
+        {
+            tiles[i] = tile;
+            tile += DY[directions[tile]] * width + DX[directions[tile]];
+        }
+        tiles[length - 1] = tile;
+
+        final Path path = new Path();
+        for (int i = length - 1; i >= 0; i--)
+        {
+            path.prependStep(tiles[i] % width, tiles[i] / width);
+        }
+        return path;
+    }
+
+    /**
+     * Get the direction to follow from tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The direction to next tile, {@link MovementTile#NONE} if destination or not reachable.
+     */
+    public MovementTile getDirection(int tx, int ty)
+    {
+        final int index = getIndex(tx, ty);
+        if (index < 0 || directions[index] == NO_DIRECTION)
+        {
+            return MovementTile.NONE;
+        }
+        return MOVEMENTS[directions[index]];
+    }
+
+    /**
+     * Get the cost to destination from tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The cost to destination, {@link Double#POSITIVE_INFINITY} if not reachable.
+     */
+    public double getCost(int tx, int ty)
+    {
+        final int index = getIndex(tx, ty);
+        if (index < 0)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        return costs[index];
+    }
+
+    /**
+     * Get the horizontal destination location.
+     * 
+     * @return The horizontal destination location.
+     */
+    public int getDestinationX()
+    {
+        return dtx;
+    }
+
+    /**
+     * Get the vertical destination location.
+     * 
+     * @return The vertical destination location.
+     */
+    public int getDestinationY()
+    {
+        return dty;
+    }
+
+    /**
+     * Check if destination can be reached from tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if destination is reachable, <code>false</code> else.
+     */
+    public boolean isReachable(int tx, int ty)
+    {
+        final int index = getIndex(tx, ty);
+        return index >= 0 && costs[index] != Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Check if field has been computed for this map size.
+     * 
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     * @return <code>true</code> if same size, <code>false</code> else.
+     */
+    boolean hasSize(int widthInTile, int heightInTile)
+    {
+        return width == widthInTile && height == heightInTile;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Flow fields cache of a map, shared by all path finders created with
+ * {@link Astar#createPathFinder(FlowFields, int, Heuristic)}.
+ * <p>
+ * Movers ordered to the same destination share the same {@link FlowField}, so destination search is paid once instead
+ * of once per mover. One field is computed per mover profile (blocking categories, movements and costs) and
+ * destination, the least recently used field is dropped when cache is full.
+ * </p>
+ * <p>
+ * All fields are dropped when {@link MapTilePath} notifies a change of tile category. Location used or freed by
+ * objects does not drop fields, as fields are computed on tiles only. Changes are only queued by the notifying thread,
+ * and applied by the next field request, so game thread is never blocked by a running field computation.
+ * </p>
+ * <p>
+ * {@link #invalidate()} must be called if map pathfinding or groups are loaded again.
+ * </p>
+ */
+public class FlowFields implements MapTilePathListener
+{
+    /** Default number of cached fields. */
+    public static final int DEFAULT_CAPACITY = 16;
+    /** Null tile category id. */
+    private static final int CATEGORY_NULL_TILE = 0;
+
+    /** Fields by profile and destination, in access order. */
+    private final Map<Key, FlowField> fields = new LinkedHashMap<>(DEFAULT_CAPACITY, 0.75F, true);
+    /** Changed locations, waiting to be applied to fields. */
+    private final Queue<CoordTile> changes = new ConcurrentLinkedQueue<>();
+    /** Category ids by name. */
+    private final Map<String, Integer> ids = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Maximum number of cached fields. */
+    private final int capacity;
+    /** Category id by tile when fields have been computed, <code>null</code> if none. */
+    private int[] categories;
+    /** Invalidated flag, fields are removed on next request. */
+    private volatile boolean invalidated;
+
+    /**
+     * Create fields with {@link #DEFAULT_CAPACITY}.
+     * 
+     * @param map The map reference (must not be <code>null</code>). Must have the {@link MapTilePath} feature.
+     * @throws LionEngineException If invalid argument.
+     */
+    public FlowFields(MapTile map)
+    {
+        this(map, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create fields.
+     * 
+     * @param map The map reference (must not be <code>null</code>). Must have the {@link MapTilePath} feature.
+     * @param capacity The maximum number of cached fields (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public FlowFields(MapTile map, int capacity)
+    {
+        super();
+
+        Check.notNull(map);
+        Check.superiorStrict(capacity, 0);
+
+        this.map = map;
+        this.capacity = capacity;
+        mapPath = map.getFeature(MapTilePath.class);
+        mapPath.addListener(this);
+    }
+
+    /**
+     * Get the field toward destination for mover profile, compute it if needed.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The horizontal destination location (must be inside map).
+     * @param dty The vertical destination location (must be inside map).
+     * @return The field reference.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public synchronized FlowField getField(Pathfindable mover, int dtx, int dty)
+    {
+        Check.notNull(mover);
+
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        Check.superiorOrEqual(dtx, 0);
+        Check.superiorOrEqual(dty, 0);
+        Check.inferiorStrict(dtx, width);
+        Check.inferiorStrict(dty, height);
+
+        update(width, height);
+        if (categories == null || categories.length != width * height)
+        {
+            fields.clear();
+            categories = getCategories(width, height);
+        }
+
+        final Key key = new Key(new PathProfile(mover, mapPath, true), dty * width + dtx);
+        FlowField field = fields.get(key);
+        if (field == null)
+        {
+            field = new FlowField(map, mapPath, key.profile, dtx, dty);
+            fields.put(key, field);
+            removeEldest();
+        }
+        return field;
+    }
+
+    /**
+     * Remove all fields, they will be computed again on next request.
+     */
+    public void invalidate()
+    {
+        invalidated = true;
+    }
+
+    /**
+     * Get the number of cached fields.
+     * 
+     * @return The number of cached fields.
+     */
+    public synchronized int getCount()
+    {
+        update(map.getInTileWidth(), map.getInTileHeight());
+        return fields.size();
+    }
+
+    /**
+     * Get the maximum number of cached fields.
+     * 
+     * @return The maximum number of cached fields.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Get the map reference.
+     * 
+     * @return The map reference.
+     */
+    MapTile getMap()
+    {
+        return map;
+    }
+
+    /**
+     * Remove least recently used fields above capacity.
+     */
+    private void removeEldest()
+    {
+        final Iterator<FlowField> iterator = fields.values().iterator();
+        while (fields.size() > capacity && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Apply invalidation and queued changes.
+     * 
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     */
+    private void update(int width, int height)
+    {
+        if (invalidated)
+        {
+            invalidated = false;
+            fields.clear();
+            categories = null;
+        }
+        while (!changes.isEmpty())
+        {
+            final CoordTile change = changes.poll();
+            apply(change.getX(), change.getY(), width, height);
+        }
+    }
+
+    /**
+     * Apply location change, removing all fields if its category changed.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     */
+    private void apply(int tx, int ty, int width, int height)
+    {
+        if (categories == null
+            || categories.length != width * height
+            || tx < 0
+            || ty < 0
+            || tx >= width
+            || ty >= height)
+        {
+            return;
+        }
+        final int category = getCategory(tx, ty);
+        if (categories[ty * width + tx] != category)
+        {
+            categories[ty * width + tx] = category;
+            fields.clear();
+        }
+    }
+
+    /**
+     * Get the category id of each tile.
+     * 
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return The category ids by tile.
+     */
+    private int[] getCategories(int width, int height)
+    {
+        final int[] current = new int[width * height];
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                current[ty * width + tx] = getCategory(tx, ty);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the tile category id.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The category id, {@link #CATEGORY_NULL_TILE} if no tile.
+     */
+    private int getCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile == null)
+        {
+            return CATEGORY_NULL_TILE;
+        }
+        return ids.computeIfAbsent(mapPath.getCategory(tile), category -> Integer.valueOf(ids.size() + 1)).intValue();
+    }
+
+    /*
+     * MapTilePathListener
+     */
+
+    @Override
+    public void notifyPathChanged(int tx, int ty)
+    {
+        changes.add(new CoordTile(tx, ty));
+    }
+
+    /**
+     * Field key, by profile and destination.
+     */
+    private static final class Key
+    {
+        /** Profile reference. */
+        private final PathProfile profile;
+        /** Destination tile index. */
+        private final int destination;
+
+        /**
+         * Create key.
+         * 
+         * @param profile The profile reference.
+         * @param destination The destination tile index.
+         */
+        Key(PathProfile profile, int destination)
+        {
+            super();
+
+            this.profile = profile;
+            this.destination = destination;
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + profile.hashCode();
+            result = prime * result + destination;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final Key other = (Key) object;
+            return destination == other.destination && profile.equals(other.profile);
+        }
+    }
+}
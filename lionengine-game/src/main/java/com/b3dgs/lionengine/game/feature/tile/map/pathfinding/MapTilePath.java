@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import java.util.Collection;
 import java.util.Set;
 
+import com.b3dgs.lionengine.Listenable;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Tiled;
@@ -28,9 +29,12 @@ import com.b3dgs.lionengine.geom.Area;
 
 /**
  * Represents the pathfinding feature of a map tile.
+ * <p>
+ * Listeners are notified when a tile is set on map, or when a location becomes used or free of objects.
+ * </p>
  */
 @FeatureInterface
-public interface MapTilePath extends Feature
+public interface MapTilePath extends Feature, Listenable<MapTilePathListener>
 {
     /**
      * Load map pathfinding from an external file.
@@ -57,6 +61,14 @@ public interface MapTilePath extends Feature
      */
     void removeObjectId(int tx, int ty, Integer id);
 
+    /**
+     * Create a read only snapshot of the objects ID locations. Tiles and categories are shared with this map path.
+     * Snapshot can be searched outside of the game thread while objects keep moving.
+     * 
+     * @return The snapshot created.
+     */
+    MapTilePath createSnapshot();
+
     /**
      * Get objects ID at this location.
      * 
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.b3dgs.lionengine.ListenableModel;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -35,6 +36,7 @@ import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 import com.b3dgs.lionengine.geom.Area;
 
 /**
@@ -42,8 +44,14 @@ import com.b3dgs.lionengine.geom.Area;
  */
 public class MapTilePathModel extends FeatureAbstract implements MapTilePath
 {
+    /** Listeners. */
+    private final ListenableModel<MapTilePathListener> listenable = new ListenableModel<>();
+    /** Tile set listener. */
+    private final TileSetListener tileSetListener = tile -> notifyPathChanged(tile.getInTileX(), tile.getInTileY());
     /** Categories list. */
     private final Map<String, PathCategory> categories = new HashMap<>();
+    /** Locations index used by at least one object. */
+    private final Set<Integer> used = new HashSet<>();
     /** Path id mapping. */
     private List<List<Set<Integer>>> tiles;
 
@@ -67,6 +75,20 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
         super();
     }
 
+    /**
+     * Create a model sharing map and categories with another one.
+     * 
+     * @param model The model reference.
+     */
+    MapTilePathModel(MapTilePathModel model)
+    {
+        super();
+
+        map = model.map;
+        group = model.group;
+        categories.putAll(model.categories);
+    }
+
     /**
      * Check if area if used.
      * 
@@ -238,6 +260,20 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
         return null;
     }
 
+    /**
+     * Notify listeners that tile pathfinding state changed.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    private void notifyPathChanged(int tx, int ty)
+    {
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).notifyPathChanged(tx, ty);
+        }
+    }
+
     /**
      * Get the group category.
      * 
@@ -267,6 +303,19 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
 
         map = provider.getFeature(MapTileSurface.class);
         group = provider.getFeature(MapTileGroup.class);
+        map.addListener(tileSetListener);
+    }
+
+    @Override
+    public void addListener(MapTilePathListener listener)
+    {
+        listenable.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(MapTilePathListener listener)
+    {
+        listenable.removeListener(listener);
     }
 
     @Override
@@ -274,6 +323,7 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
     {
         final Collection<PathCategory> config = PathfindingConfig.imports(pathfindingConfig);
         categories.clear();
+        used.clear();
         for (final PathCategory category : config)
         {
             categories.put(category.getName(), category);
@@ -310,7 +360,12 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
             && UtilMath.isBetween(tx, 0, map.getInTileWidth() - 1)
             && UtilMath.isBetween(ty, 0, map.getInTileHeight() - 1))
         {
-            tiles.get(ty).get(tx).add(id);
+            final Set<Integer> ids = tiles.get(ty).get(tx);
+            if (ids.add(id) && ids.size() == 1)
+            {
+                used.add(Integer.valueOf(ty * map.getInTileWidth() + tx));
+                notifyPathChanged(tx, ty);
+            }
         }
     }
 
@@ -321,8 +376,26 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
             && UtilMath.isBetween(tx, 0, map.getInTileWidth() - 1)
             && UtilMath.isBetween(ty, 0, map.getInTileHeight() - 1))
         {
-            tiles.get(ty).get(tx).remove(id);
+            final Set<Integer> ids = tiles.get(ty).get(tx);
+            if (ids.remove(id) && ids.isEmpty())
+            {
+                used.remove(Integer.valueOf(ty * map.getInTileWidth() + tx));
+                notifyPathChanged(tx, ty);
+            }
+        }
+    }
+
+    @Override
+    public MapTilePath createSnapshot()
+    {
+        final int width = map.getInTileWidth();
+        final Map<Integer, Set<Integer>> objects = new HashMap<>(used.size());
+        for (final Integer index : used)
+        {
+            final Set<Integer> ids = tiles.get(index.intValue() / width).get(index.intValue() % width);
+            objects.put(index, Collections.unmodifiableSet(new HashSet<>(ids)));
         }
+        return new MapTilePathSnapshot(this, objects, width, map.getInTileHeight());
     }
 
     @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Read only snapshot of a {@link MapTilePathModel}, objects ID locations are copied, tiles and categories are shared.
+ */
+final class MapTilePathSnapshot extends MapTilePathModel
+{
+    /** Read only error. */
+    static final String ERROR_READ_ONLY = "Map path snapshot is read only !";
+
+    /** Objects ID by location index. */
+    private final Map<Integer, Set<Integer>> objects;
+    /** Map width in tile at snapshot time. */
+    private final int width;
+    /** Map height in tile at snapshot time. */
+    private final int height;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param model The model reference.
+     * @param objects The objects ID by location index (<code>ty * width + tx</code>).
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     */
+    MapTilePathSnapshot(MapTilePathModel model, Map<Integer, Set<Integer>> objects, int width, int height)
+    {
+        super(model);
+
+        this.objects = objects;
+        this.width = width;
+        this.height = height;
+    }
+
+    /*
+     * MapTilePath
+     */
+
+    @Override
+    public void loadPathfinding(Media pathfindingConfig)
+    {
+        throw new LionEngineException(ERROR_READ_ONLY);
+    }
+
+    @Override
+    public void addObjectId(int tx, int ty, Integer id)
+    {
+        throw new LionEngineException(ERROR_READ_ONLY);
+    }
+
+    @Override
+    public void removeObjectId(int tx, int ty, Integer id)
+    {
+        throw new LionEngineException(ERROR_READ_ONLY);
+    }
+
+    @Override
+    public MapTilePath createSnapshot()
+    {
+        return this;
+    }
+
+    @Override
+    public Set<Integer> getObjectsId(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            final Set<Integer> ids = objects.get(Integer.valueOf(ty * width + tx));
+            if (ids != null)
+            {
+                return ids;
+            }
+        }
+        return Collections.emptySet();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Hierarchical pathfinding clusters (HPA*) of a map, shared by all path finders created with
+ * {@link Astar#createPathFinder(PathClusters, int, Heuristic)}.
+ * <p>
+ * Map is split in clusters linked by their border entrances. Long paths are first searched on this abstract graph, then
+ * refined inside each crossed cluster, instead of exploring all tiles between start and destination.
+ * </p>
+ * <p>
+ * One graph is built per mover profile (blocking categories, movements and costs), clusters are built on first use.
+ * Clusters are rebuilt when {@link MapTilePath} notifies a change (tile set, location used or freed by objects).
+ * Changes are only queued by the notifying thread, and applied by the next search, so game thread is never blocked by
+ * a running search.
+ * </p>
+ * <p>
+ * {@link #invalidate()} must be called if map pathfinding or groups are loaded again.
+ * </p>
+ */
+public class PathClusters implements MapTilePathListener
+{
+    /** Default cluster size in tile. */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    /** Graphs by profile. */
+    private final Map<PathProfile, ClusterGraph> graphs = new HashMap<>();
+    /** Changed locations, waiting to be applied to graphs, in notification order. */
+    private final Queue<CoordTile> changes = new ConcurrentLinkedQueue<>();
+    /** Notified changes count. */
+    private final AtomicLong version = new AtomicLong();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Cluster size in tile. */
+    private final int clusterSize;
+    /** Applied changes count. */
+    private long applied;
+    /** Invalidated flag. */
+    private volatile boolean invalidated;
+
+    /**
+     * Create clusters with {@link #DEFAULT_CLUSTER_SIZE}.
+     * 
+     * @param map The map reference (must not be <code>null</code>). Must have the {@link MapTilePath} feature.
+     * @throws LionEngineException If invalid argument.
+     */
+    public PathClusters(MapTile map)
+    {
+        this(map, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Create clusters.
+     * 
+     * @param map The map reference (must not be <code>null</code>). Must have the {@link MapTilePath} feature.
+     * @param clusterSize The cluster size in tile (must be strictly superior to 1).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PathClusters(MapTile map, int clusterSize)
+    {
+        super();
+
+        Check.notNull(map);
+        Check.superiorStrict(clusterSize, 1);
+
+        this.map = map;
+        this.clusterSize = clusterSize;
+        mapPath = map.getFeature(MapTilePath.class);
+        mapPath.addListener(this);
+    }
+
+    /**
+     * Remove all graphs, they will be built again on next search.
+     */
+    public void invalidate()
+    {
+        invalidated = true;
+    }
+
+    /**
+     * Get the cluster size.
+     * 
+     * @return The cluster size in tile.
+     */
+    public int getClusterSize()
+    {
+        return clusterSize;
+    }
+
+    /**
+     * Get the number of notified changes. A map path snapshot taken now includes all changes up to this version.
+     * 
+     * @return The current version.
+     */
+    long getVersion()
+    {
+        return version.get();
+    }
+
+    /**
+     * Get the map reference.
+     * 
+     * @return The map reference.
+     */
+    MapTile getMap()
+    {
+        return map;
+    }
+
+    /**
+     * Get the graph of mover profile, create it if needed.
+     * 
+     * @param mover The mover reference.
+     * @param ignoreObjects <code>true</code> to ignore objects, <code>false</code> to consider objects as blocking.
+     * @return The graph reference.
+     */
+    synchronized ClusterGraph getGraph(Pathfindable mover, boolean ignoreObjects)
+    {
+        if (invalidated)
+        {
+            invalidated = false;
+            graphs.clear();
+        }
+        while (!changes.isEmpty())
+        {
+            final CoordTile change = changes.poll();
+            applied++;
+            for (final ClusterGraph graph : graphs.values())
+            {
+                graph.invalidate(change.getX(), change.getY(), applied);
+            }
+        }
+
+        final PathProfile profile = new PathProfile(mover, mapPath, ignoreObjects);
+        ClusterGraph graph = graphs.get(profile);
+        if (graph != null && !graph.hasSize(map.getInTileWidth(), map.getInTileHeight()))
+        {
+            graphs.clear();
+            graph = null;
+        }
+        if (graph == null)
+        {
+            graph = new ClusterGraph(map, mapPath, profile, clusterSize, applied);
+            graphs.put(profile, graph);
+        }
+        return graph;
+    }
+
+    /*
+     * MapTilePathListener
+     */
+
+    @Override
+    public void notifyPathChanged(int tx, int ty)
+    {
+        changes.add(new CoordTile(tx, ty));
+        version.incrementAndGet();
+    }
+}
@@ -32,5 +32,22 @@ public interface PathFinder
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
      * @return The path found from start to end, or null if no path can be found.
      */
-    Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef);
+    default Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPath(mover, mover.getInTileX(), mover.getInTileY(), dtx, dty, ignoreRef);
+    }
+
+    /**
+     * Find a path from the starting location to the destination location avoiding blockages and attempting to honor
+     * costs provided by the tile map. Mover location is not read, allowing search while mover is updated.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef);
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * A flow field path finder implementation, using {@link FlowFields} shared by all movers going to the same
+ * destination.
+ * <p>
+ * Path is read from the destination field. As fields are computed on tiles only, if the first step is used by an
+ * object, the free neighbour closest to destination is taken instead, and the {@link PathFinderImpl} is used if there
+ * is none.
+ * </p>
+ */
+final class PathFinderFlow implements PathFinder
+{
+    /** Fields reference. */
+    private final FlowFields fields;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Tiles path finder, used when field cannot be followed. */
+    private final PathFinder finder;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param fields The fields reference.
+     * @param maxSearchDistance The maximum depth we'll search before giving up when field cannot be followed.
+     * @param heuristic The heuristic used to determine the search order of the map when field cannot be followed.
+     */
+    PathFinderFlow(FlowFields fields, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(fields, fields.getMap().getFeature(MapTilePath.class), maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param fields The fields reference.
+     * @param mapPath The map path used for objects and destination checks, can be a snapshot.
+     * @param maxSearchDistance The maximum depth we'll search before giving up when field cannot be followed.
+     * @param heuristic The heuristic used to determine the search order of the map when field cannot be followed.
+     */
+    PathFinderFlow(FlowFields fields, MapTilePath mapPath, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.fields = fields;
+        this.mapPath = mapPath;
+        map = fields.getMap();
+        finder = new PathFinderImpl(map, mapPath, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Find a path from the starting location provided to the destination location.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param last The last available free tile used if blocked, <code>null</code> if none.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    // CHECKSTYLE IGNORE LINE: ReturnCount
+    private Path findPathRecursive(Pathfindable mover,
+                                   int stx,
+                                   int sty,
+                                   int dtx,
+                                   int dty,
+                                   boolean ignoreRef,
+                                   CoordTile last)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null || tile.equals(last))
+            {
+                return null;
+            }
+            return findPathRecursive(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef, tile);
+        }
+
+        final FlowField field = fields.getField(mover, dtx, dty);
+        if (!field.isReachable(stx, sty))
+        {
+            return null;
+        }
+        final MovementTile direction = field.getDirection(stx, sty);
+        if (ignoreRef || direction == MovementTile.NONE)
+        {
+            return field.getPath(stx, sty);
+        }
+
+        final Path path = field.getPath(stx, sty);
+        if (!mapPath.isBlocked(mover, path.getX(1), path.getY(1), false))
+        {
+            return path;
+        }
+        return findPathAround(mover, field, stx, sty, dtx, dty);
+    }
+
+    /**
+     * Find path by the free neighbour closest to destination, when field next step is used.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param field The destination field.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path findPathAround(Pathfindable mover, FlowField field, int stx, int sty, int dtx, int dty)
+    {
+        final String category = mapPath.getCategory(map.getTile(stx, sty));
+        double best = field.getCost(stx, sty);
+        int bx = stx;
+        int by = sty;
+        for (int ox = -1; ox <= 1; ox++)
+        {
+            for (int oy = -1; oy <= 1; oy++)
+            {
+                final int tx = stx + ox;
+                final int ty = sty + oy;
+                final double cost = field.getCost(tx, ty);
+                if (cost < best
+                    && mover.isMovementAllowed(category, MovementTile.from(ox, oy))
+                    && !mapPath.isBlocked(mover, tx, ty, false))
+                {
+                    best = cost;
+                    bx = tx;
+                    by = ty;
+                }
+            }
+        }
+        if (bx == stx && by == sty)
+        {
+            return finder.findPath(mover, stx, sty, dtx, dty, false);
+        }
+
+        final Path path = field.getPath(bx, by);
+        path.prependStep(stx, sty);
+        return path;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPathRecursive(mover, stx, sty, dtx, dty, ignoreRef, null);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * A hierarchical path finder implementation, using {@link PathClusters} for long paths.
+ * <p>
+ * Destinations inside the start cluster or its neighbours are searched on tiles with the {@link PathFinderImpl}.
+ * Farther destinations are searched on the abstract graph of the mover profile, then refined inside each cluster.
+ * </p>
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** Clusters reference. */
+    private final PathClusters clusters;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Tiles path finder, used for short paths. */
+    private final PathFinder finder;
+    /** Changes version included in map path snapshot, <code>-1</code> if map path is not a snapshot. */
+    private final long version;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param clusters The clusters reference.
+     * @param maxSearchDistance The maximum depth we'll search before giving up on short paths.
+     * @param heuristic The heuristic used to determine the search order of the map on short paths.
+     */
+    PathFinderHierarchical(PathClusters clusters, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(clusters, clusters.getMap().getFeature(MapTilePath.class), -1L, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param clusters The clusters reference.
+     * @param mapPath The map path used for searches, can be a snapshot.
+     * @param version The changes version included in snapshot (see {@link PathClusters#getVersion()}), <code>-1</code>
+     *            if map path is not a snapshot.
+     * @param maxSearchDistance The maximum depth we'll search before giving up on short paths.
+     * @param heuristic The heuristic used to determine the search order of the map on short paths.
+     */
+    PathFinderHierarchical(PathClusters clusters,
+                           MapTilePath mapPath,
+                           long version,
+                           int maxSearchDistance,
+                           Heuristic heuristic)
+    {
+        super();
+
+        this.clusters = clusters;
+        this.mapPath = mapPath;
+        this.version = version;
+        map = clusters.getMap();
+        finder = new PathFinderImpl(map, mapPath, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Find a path from the starting location provided to the destination location.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param last The last available free tile used if blocked, <code>null</code> if none.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    // CHECKSTYLE IGNORE LINE: ReturnCount
+    private Path findPathRecursive(Pathfindable mover,
+                                   int stx,
+                                   int sty,
+                                   int dtx,
+                                   int dty,
+                                   boolean ignoreRef,
+                                   CoordTile last)
+    {
+        final int size = clusters.getClusterSize();
+
+        if (Math.abs(stx / size - dtx / size) <= 1 && Math.abs(sty / size - dty / size) <= 1)
+        {
+            return finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null || tile.equals(last))
+            {
+                return null;
+            }
+            return findPathRecursive(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef, tile);
+        }
+        final ClusterGraph graph = clusters.getGraph(mover, ignoreRef);
+        if (version < 0L)
+        {
+            return graph.findPath(mapPath, clusters.getVersion(), stx, sty, dtx, dty);
+        }
+        return graph.findPath(mapPath, version, stx, sty, dtx, dty);
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPathRecursive(mover, stx, sty, dtx, dty, ignoreRef, null);
+    }
+}
@@ -16,10 +16,9 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
@@ -27,24 +26,82 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 
 /**
  * A path finder implementation that uses the AStar heuristic based algorithm to determine a path.
+ * <p>
+ * Search nodes are stored in primitive arrays shared by all path finders of the same thread (see {@link PathNodes}),
+ * so a search does not allocate except for the resulting {@link Path}. Tile categories are resolved once per search
+ * and per tile number.
+ * </p>
  */
 final class PathFinderImpl implements PathFinder
 {
-    /** Closed list. */
-    private final Collection<Node> closed = new HashSet<>();
-    /** Open list. */
-    private final Queue<Node> open = new PriorityQueue<>();
+    /** Null tile category id. */
+    private static final int CATEGORY_NULL_TILE = 0;
+    /** Movements by neighbour index. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[9];
+
+    static
+    {
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                MOVEMENTS[(y + 1) * 3 + x + 1] = MovementTile.from(x, y);
+            }
+        }
+    }
+
+    /**
+     * Get the allowed movements for category.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param category The category name.
+     * @return The allowed movements as {@link MovementTile} ordinal bits.
+     */
+    static int getMovements(Pathfindable mover, String category)
+    {
+        int movements = 0;
+        for (final MovementTile movement : MOVEMENTS)
+        {
+            if (mover.isMovementAllowed(category, movement))
+            {
+                movements |= 1 << movement.ordinal();
+            }
+        }
+        return movements;
+    }
+
+    /** Category ids by name, <code>null</code> category included. */
+    private final Map<String, Integer> categoryIds = new HashMap<>();
     /** Map reference. */
     private final MapTile map;
     /** Map path reference. */
     private final MapTilePath mapPath;
     /** Max distance to search. */
     private final int maxSearchDistance;
-    /** Nodes array. */
-    private final Node[][] nodes;
     /** Heuristic used. */
     private final Heuristic heuristic;
 
+    /** Current search nodes. */
+    private PathNodes nodes;
+    /** Map width used by current search. */
+    private int width;
+    /** Current search index, used to stamp resolved categories. */
+    private int search;
+    /** Category id by tile number. */
+    private int[] numberCategory = new int[0];
+    /** Search index by tile number. */
+    private int[] numberResolved = new int[0];
+    /** Category name by category id. */
+    private String[] categoryNames = new String[0];
+    /** Mover blocking by category id. */
+    private boolean[] categoryBlocking = new boolean[0];
+    /** Mover allowed movements by category id, as {@link MovementTile} ordinal bits. */
+    private int[] categoryMovements = new int[0];
+    /** Mover cost by category id. */
+    private double[] categoryCost = new double[0];
+    /** Search index by category id for cost, as cost is resolved only when needed. */
+    private int[] categoryCostResolved = new int[0];
+
     /**
      * Internal constructor.
      * 
@@ -53,35 +110,26 @@ final class PathFinderImpl implements PathFinder
      * @param heuristic The heuristic used to determine the search order of the map.
      */
     PathFinderImpl(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(map, map.getFeature(MapTilePath.class), maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched.
+     * @param mapPath The map path to be searched, can be a snapshot.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderImpl(MapTile map, MapTilePath mapPath, int maxSearchDistance, Heuristic heuristic)
     {
         super();
 
         this.heuristic = heuristic;
         this.map = map;
+        this.mapPath = mapPath;
         this.maxSearchDistance = maxSearchDistance;
-        mapPath = map.getFeature(MapTilePath.class);
-
-        final int widthInTile;
-        final int heightInTile;
-        if (mapPath.getCategories().isEmpty())
-        {
-            widthInTile = 0;
-            heightInTile = 0;
-        }
-        else
-        {
-            widthInTile = map.getInTileWidth();
-            heightInTile = map.getInTileHeight();
-        }
-        nodes = new Node[heightInTile][widthInTile];
-
-        for (int ty = 0; ty < heightInTile; ty++)
-        {
-            for (int tx = 0; tx < widthInTile; tx++)
-            {
-                nodes[ty][tx] = new Node(tx, ty);
-            }
-        }
     }
 
     /**
@@ -111,6 +159,109 @@ final class PathFinderImpl implements PathFinder
         return heuristic.getCost(stx, sty, dtx, dty);
     }
 
+    /**
+     * Prepare search nodes and categories for a new search.
+     * 
+     * @param mover The entity that will be moving along the path.
+     */
+    private void prepare(Pathfindable mover)
+    {
+        width = map.getInTileWidth();
+        nodes = PathNodes.SHARED.get();
+        nodes.start(width * map.getInTileHeight());
+
+        search++;
+        if (search <= 0)
+        {
+            Arrays.fill(numberResolved, 0);
+            Arrays.fill(categoryCostResolved, 0);
+            search = 1;
+        }
+
+        categoryIds.clear();
+        categoryIds.put(null, Integer.valueOf(CATEGORY_NULL_TILE + 1));
+        for (final String category : mapPath.getCategories())
+        {
+            categoryIds.put(category, Integer.valueOf(categoryIds.size() + 1));
+        }
+
+        final int count = categoryIds.size() + 1;
+        if (categoryNames.length < count)
+        {
+            categoryNames = new String[count];
+            categoryBlocking = new boolean[count];
+            categoryMovements = new int[count];
+            categoryCost = new double[count];
+            categoryCostResolved = new int[count];
+        }
+
+        // Null tile is never blocking and has no cost, but movements are checked against its category
+        categoryBlocking[CATEGORY_NULL_TILE] = false;
+        categoryMovements[CATEGORY_NULL_TILE] = getMovements(mover, mapPath.getCategory(null));
+        categoryCost[CATEGORY_NULL_TILE] = 0.0;
+        categoryCostResolved[CATEGORY_NULL_TILE] = search;
+
+        for (final Map.Entry<String, Integer> entry : categoryIds.entrySet())
+        {
+            final String category = entry.getKey();
+            final int id = entry.getValue().intValue();
+            categoryNames[id] = category;
+            categoryBlocking[id] = mover.isBlocking(category);
+            categoryMovements[id] = getMovements(mover, category);
+        }
+    }
+
+    /**
+     * Get the category id of the tile at location, resolved once per search and per tile number.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The category id.
+     */
+    private int getCategoryId(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile == null)
+        {
+            return CATEGORY_NULL_TILE;
+        }
+        final int number = tile.getNumber();
+        if (number >= numberResolved.length)
+        {
+            final int length = Math.max(number + 1, numberResolved.length * 2);
+            numberResolved = Arrays.copyOf(numberResolved, length);
+            numberCategory = Arrays.copyOf(numberCategory, length);
+        }
+        if (numberResolved[number] != search)
+        {
+            Integer id = categoryIds.get(mapPath.getCategory(tile));
+            if (id == null)
+            {
+                id = categoryIds.get(null);
+            }
+            numberCategory[number] = id.intValue();
+            numberResolved[number] = search;
+        }
+        return numberCategory[number];
+    }
+
+    /**
+     * Get the mover cost of category, resolved once per search.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param id The category id.
+     * @return The category cost.
+     */
+    private double getCategoryCost(Pathfindable mover, int id)
+    {
+        if (categoryCostResolved[id] != search)
+        {
+            categoryCost[id] = mover.getCost(categoryNames[id]);
+            categoryCostResolved[id] = search;
+        }
+        return categoryCost[id];
+    }
+
     /**
      * Check if a given location is valid for the supplied mover.
      * 
@@ -124,11 +275,14 @@ final class PathFinderImpl implements PathFinder
      */
     private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        boolean invalid = dtx < 0 || dty < 0 || dtx >= map.getInTileWidth() || dty >= map.getInTileHeight();
+        boolean invalid = dtx < 0 || dty < 0 || dtx >= width || dty >= map.getInTileHeight();
 
         if (!invalid && (stx != dtx || sty != dty))
         {
-            invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+            invalid = categoryBlocking[getCategoryId(dtx, dty)]
+                      || !ignoreRef
+                         && !mapPath.getObjectsId(dtx, dty).isEmpty()
+                         && mapPath.isBlocked(mover, dtx, dty, false);
         }
 
         return !invalid;
@@ -153,106 +307,68 @@ final class PathFinderImpl implements PathFinder
                            int dtx,
                            int dty,
                            boolean ignoreRef,
-                           Node current,
+                           int current,
                            int maxDepth)
     {
         int depth = maxDepth;
-        final Tile tile = map.getTile(current.getX(), current.getY());
-        final String category = mapPath.getCategory(tile);
+        final int cx = current % width;
+        final int cy = current / width;
+        final int category = getCategoryId(cx, cy);
+        final int movements = categoryMovements[category];
+
         for (int y = -1; y < 2; y++)
         {
             for (int x = -1; x < 2; x++)
             {
-                if (!(x == 0 && y == 0))
+                if (!(x == 0 && y == 0)
+                    && (movements & 1 << MOVEMENTS[(y + 1) * 3 + x + 1].ordinal()) != 0
+                    && isValidLocation(mover, stx, sty, cx + x, cy + y, ignoreRef))
                 {
-                    depth = check(category, depth, x, y, mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+                    final double nextStepCost = nodes.getCost(current) + getCategoryCost(mover, category);
+                    depth = updateNeighbour(dtx, dty, current, cx + x, cy + y, nextStepCost, depth);
                 }
             }
         }
         return depth;
     }
 
-    /**
-     * Update the open and closed list to find the path.
-     * 
-     * @param category The current tile category.
-     * @param nextDepth The next depth value.
-     * @param x The current horizontal movement.
-     * @param y The current vertical movement.
-     * @param mover The entity that will be moving along the path.
-     * @param stx The x coordinate of the start location.
-     * @param sty The y coordinate of the start location.
-     * @param dtx The x coordinate of the destination location.
-     * @param dty The y coordinate of the destination location.
-     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
-     * @param maxDepth The last max depth.
-     * @return The next max depth.
-     */
-    private int check(String category,
-                      int nextDepth,
-                      int x,
-                      int y,
-                      Pathfindable mover,
-                      int stx,
-                      int sty,
-                      int dtx,
-                      int dty,
-                      boolean ignoreRef,
-                      Node current,
-                      int maxDepth)
-    {
-        final MovementTile movement = MovementTile.from(x, y);
-        if (mover.isMovementAllowed(category, movement))
-        {
-            final int xp = x + current.getX();
-            final int yp = y + current.getY();
-
-            if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
-            {
-                return updateNeighbour(mover, dtx, dty, current, xp, yp, maxDepth);
-            }
-        }
-        return nextDepth;
-    }
-
     /**
      * Update the current neighbor on search.
      * 
-     * @param mover The entity that will be moving along the path.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param current The current node.
-     * @param xp The x coordinate of the destination location.
-     * @param yp The y coordinate of the destination location.
+     * @param xp The x coordinate of the neighbour location.
+     * @param yp The y coordinate of the neighbour location.
+     * @param nextStepCost The cost to reach neighbour from current.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int updateNeighbour(Pathfindable mover, int dtx, int dty, Node current, int xp, int yp, int maxDepth)
+    private int updateNeighbour(int dtx, int dty, int current, int xp, int yp, double nextStepCost, int maxDepth)
     {
-        int nextDepth = maxDepth;
-        final double nextStepCost = current.getCost() + getMovementCost(mover, current.getX(), current.getY());
-        final Node neighbour = nodes[yp][xp];
+        final int neighbour = yp * width + xp;
+        final int depth = nodes.getDepth(current) + 1;
 
-        if (nextStepCost < neighbour.getCost())
+        if (!nodes.isVisited(neighbour))
         {
-            open.remove(neighbour);
-            closed.remove(neighbour);
+            nodes.set(neighbour, nextStepCost, current, depth);
+            nodes.setHeuristic(neighbour, getHeuristicCost(xp, yp, dtx, dty));
+            nodes.open(neighbour);
+            return Math.max(maxDepth, depth);
         }
-        if (Double.compare(nextStepCost, neighbour.getCost()) == 0
-            && neighbour.getParent() != null
-            && current.getHeuristic() < neighbour.getHeuristic())
+        if (nextStepCost < nodes.getCost(neighbour) && nodes.getParent(neighbour) != PathNodes.NO_PARENT)
         {
-            neighbour.setParent(current);
+            nodes.set(neighbour, nextStepCost, current, depth);
+            nodes.decrease(neighbour);
+            return Math.max(maxDepth, depth);
         }
-        if (!open.contains(neighbour) && !closed.contains(neighbour) || neighbour.getParent() == null)
+        if (Double.compare(nextStepCost, nodes.getCost(neighbour)) == 0
+            && !nodes.isClosed(neighbour)
+            && nodes.getHeuristic(current) < nodes.getHeuristic(neighbour))
         {
-            neighbour.setCost(nextStepCost);
-            neighbour.setHeuristic(getHeuristicCost(xp, yp, dtx, dty));
-            nextDepth = Math.max(maxDepth, neighbour.setParent(current));
-            open.add(neighbour);
+            nodes.set(neighbour, nextStepCost, current, depth);
         }
-        return nextDepth;
+        return maxDepth;
     }
 
     /*
@@ -260,9 +376,9 @@ final class PathFinderImpl implements PathFinder
      */
 
     @Override
-    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    public Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        return findPathRecursive(mover, dtx, dty, ignoreRef, null);
+        return findPathRecursive(mover, stx, sty, dtx, dty, ignoreRef, null);
     }
 
     /**
@@ -270,6 +386,8 @@ final class PathFinderImpl implements PathFinder
      * honor costs provided by the tile map.
      * 
      * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
@@ -277,10 +395,14 @@ final class PathFinderImpl implements PathFinder
      * @return The path found from start to end, or null if no path can be found.
      */
     // CHECKSTYLE IGNORE LINE: ReturnCount|CyclomaticComplexity
-    private Path findPathRecursive(Pathfindable mover, int dtx, int dty, boolean ignoreRef, CoordTile last)
+    private Path findPathRecursive(Pathfindable mover,
+                                   int stx,
+                                   int sty,
+                                   int dtx,
+                                   int dty,
+                                   boolean ignoreRef,
+                                   CoordTile last)
     {
-        final int stx = mover.getInTileX();
-        final int sty = mover.getInTileY();
 
         if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
         {
@@ -293,38 +415,38 @@ final class PathFinderImpl implements PathFinder
             {
                 return null;
             }
-            return findPathRecursive(mover, tile.getX(), tile.getY(), ignoreRef, tile);
+            return findPathRecursive(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef, tile);
         }
 
-        nodes[sty][stx].setCost(0);
-        nodes[sty][stx].setDepth(0);
-        closed.clear();
-        open.clear();
-        open.add(nodes[sty][stx]);
-        nodes[dty][dtx].setParent(null);
+        prepare(mover);
+
+        final int start = sty * width + stx;
+        final int destination = dty * width + dtx;
+        nodes.set(start, 0.0, PathNodes.NO_PARENT, 0);
+        nodes.setHeuristic(start, getHeuristicCost(stx, sty, dtx, dty));
+        nodes.open(start);
 
         int maxDepth = 0;
-        while (maxDepth < maxSearchDistance && !open.isEmpty())
+        while (maxDepth < maxSearchDistance && !nodes.isEmpty())
         {
-            final Node current = open.poll();
-            if (current == nodes[dty][dtx])
+            final int current = nodes.poll();
+            if (current == destination)
             {
                 break;
             }
-            closed.add(current);
             maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
         }
-        if (nodes[dty][dtx].getParent() == null)
+        if (destination == start || !nodes.isVisited(destination))
         {
             return null;
         }
         final Path path = new Path();
-        Node target = nodes[dty][dtx];
+        int target = destination;
 
-        while (target != nodes[sty][stx])
+        while (target != start)
         {
-            path.prependStep(target.getX(), target.getY());
-            target = target.getParent();
+            path.prependStep(target % width, target / width);
+            target = nodes.getParent(target);
         }
         path.prependStep(stx, sty);
 
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Search nodes state stored in primitive arrays indexed by node, with an indexed binary heap as open list.
+ * <p>
+ * State is reused between searches thanks to a generation stamp: a node is considered as not visited if its stamp
+ * differs from the current generation, so starting a new search does not clear arrays.
+ * </p>
+ * <p>
+ * Open list is ordered by lowest cost, then by lowest heuristic, or by lowest estimated total cost (cost plus
+ * heuristic) if search has been started as estimated.
+ * </p>
+ */
+final class PathNodes
+{
+    /** Closed heap index. */
+    static final int CLOSED = -1;
+    /** No parent index. */
+    static final int NO_PARENT = -1;
+    /** Search nodes, per thread. */
+    static final ThreadLocal<PathNodes> SHARED = ThreadLocal.withInitial(PathNodes::new);
+    /** Default heap capacity. */
+    private static final int HEAP_CAPACITY = 64;
+
+    /** Cost by node. */
+    private double[] cost = new double[0];
+    /** Heuristic by node. */
+    private double[] heuristic = new double[0];
+    /** Parent by node. */
+    private int[] parent = new int[0];
+    /** Depth by node. */
+    private int[] depth = new int[0];
+    /** Search generation by node. */
+    private int[] visited = new int[0];
+    /** Heap index by node, {@link #CLOSED} if closed. */
+    private int[] heapIndex = new int[0];
+    /** Open list heap of nodes. */
+    private int[] heap = new int[HEAP_CAPACITY];
+    /** Open list size. */
+    private int heapSize;
+    /** Current search generation. */
+    private int generation;
+    /** Order by estimated total cost flag. */
+    private boolean estimated;
+
+    /**
+     * Create nodes.
+     */
+    PathNodes()
+    {
+        super();
+    }
+
+    /**
+     * Start a new search ordered by cost, then by heuristic. All nodes are marked as not visited, open list is cleared.
+     * 
+     * @param count The number of nodes.
+     */
+    void start(int count)
+    {
+        start(count, false);
+    }
+
+    /**
+     * Start a new search. All nodes are marked as not visited, open list is cleared.
+     * 
+     * @param count The number of nodes.
+     * @param estimated <code>true</code> to order by estimated total cost, <code>false</code> to order by cost, then
+     *            by heuristic.
+     */
+    void start(int count, boolean estimated)
+    {
+        this.estimated = estimated;
+        if (visited.length != count)
+        {
+            cost = new double[count];
+            heuristic = new double[count];
+            parent = new int[count];
+            depth = new int[count];
+            visited = new int[count];
+            heapIndex = new int[count];
+            generation = 0;
+        }
+        heapSize = 0;
+        generation++;
+        if (generation <= 0)
+        {
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Set node values.
+     * 
+     * @param node The node.
+     * @param cost The node cost.
+     * @param parent The node parent, {@link #NO_PARENT} if none.
+     * @param depth The node depth.
+     */
+    void set(int node, double cost, int parent, int depth)
+    {
+        this.cost[node] = cost;
+        this.parent[node] = parent;
+        this.depth[node] = depth;
+    }
+
+    /**
+     * Set node heuristic.
+     * 
+     * @param node The node.
+     * @param heuristic The node heuristic.
+     */
+    void setHeuristic(int node, double heuristic)
+    {
+        this.heuristic[node] = heuristic;
+    }
+
+    /**
+     * Get node cost.
+     * 
+     * @param node The node.
+     * @return The node cost.
+     */
+    double getCost(int node)
+    {
+        return cost[node];
+    }
+
+    /**
+     * Get node heuristic.
+     * 
+     * @param node The node.
+     * @return The node heuristic.
+     */
+    double getHeuristic(int node)
+    {
+        return heuristic[node];
+    }
+
+    /**
+     * Get node parent.
+     * 
+     * @param node The node.
+     * @return The node parent, {@link #NO_PARENT} if none.
+     */
+    int getParent(int node)
+    {
+        return parent[node];
+    }
+
+    /**
+     * Get node depth.
+     * 
+     * @param node The node.
+     * @return The node depth.
+     */
+    int getDepth(int node)
+    {
+        return depth[node];
+    }
+
+    /**
+     * Check if node has been visited during current search.
+     * 
+     * @param node The node.
+     * @return <code>true</code> if visited, <code>false</code> else.
+     */
+    boolean isVisited(int node)
+    {
+        return visited[node] == generation;
+    }
+
+    /**
+     * Check if node is closed. Must have been visited.
+     * 
+     * @param node The node.
+     * @return <code>true</code> if closed, <code>false</code> if in open list.
+     */
+    boolean isClosed(int node)
+    {
+        return heapIndex[node] == CLOSED;
+    }
+
+    /**
+     * Check if open list is empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    boolean isEmpty()
+    {
+        return heapSize == 0;
+    }
+
+    /**
+     * Visit node and add it to open list. Node values must have been set before.
+     * 
+     * @param node The node to add.
+     */
+    void open(int node)
+    {
+        visited[node] = generation;
+        if (heapSize == heap.length)
+        {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        heap[heapSize] = node;
+        heapIndex[node] = heapSize;
+        heapSize++;
+        up(heapSize - 1);
+    }
+
+    /**
+     * Update node order after its cost decreased, reopen it if closed.
+     * 
+     * @param node The updated node.
+     */
+    void decrease(int node)
+    {
+        if (heapIndex[node] == CLOSED)
+        {
+            open(node);
+        }
+        else
+        {
+            up(heapIndex[node]);
+        }
+    }
+
+    /**
+     * Remove the first node of open list, and mark it as closed.
+     * 
+     * @return The first node.
+     */
+    int poll()
+    {
+        final int first = heap[0];
+        heapSize--;
+        if (heapSize > 0)
+        {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            down(0);
+        }
+        heapIndex[first] = CLOSED;
+        return first;
+    }
+
+    /**
+     * Check if first node is before second node in open list.
+     * 
+     * @param a The first node.
+     * @param b The second node.
+     * @return <code>true</code> if first is before second, <code>false</code> else.
+     */
+    private boolean isBefore(int a, int b)
+    {
+        if (estimated)
+        {
+            return cost[a] + heuristic[a] < cost[b] + heuristic[b];
+        }
+        final int res = Double.compare(cost[a], cost[b]);
+        if (res == 0)
+        {
+            return Double.compare(heuristic[a], heuristic[b]) < 0;
+        }
+        return res < 0;
+    }
+
+    /**
+     * Move heap element up until ordered.
+     * 
+     * @param index The heap index.
+     */
+    private void up(int index)
+    {
+        final int node = heap[index];
+        int i = index;
+        while (i > 0)
+        {
+            final int p = (i - 1) >>> 1;
+            final int other = heap[p];
+            if (!isBefore(node, other))
+            {
+                break;
+            }
+            heap[i] = other;
+            heapIndex[other] = i;
+            i = p;
+        }
+        heap[i] = node;
+        heapIndex[node] = i;
+    }
+
+    /**
+     * Move heap element down until ordered.
+     * 
+     * @param index The heap index.
+     */
+    private void down(int index)
+    {
+        final int node = heap[index];
+        final int half = heapSize >>> 1;
+        int i = index;
+        while (i < half)
+        {
+            int child = 2 * i + 1;
+            final int right = child + 1;
+            if (right < heapSize && isBefore(heap[right], heap[child]))
+            {
+                child = right;
+            }
+            if (!isBefore(heap[child], node))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        heapIndex[node] = i;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mover pathfinding profile, resolved from its categories definition. Movers sharing the same profile can share the
+ * same {@link ClusterGraph}.
+ * <p>
+ * Category ids are deterministic: {@link #CATEGORY_NULL_TILE}, {@link #CATEGORY_UNDEFINED}, then sorted map categories.
+ * </p>
+ */
+final class PathProfile
+{
+    /** Null tile category id. */
+    static final int CATEGORY_NULL_TILE = 0;
+    /** Undefined category id. */
+    static final int CATEGORY_UNDEFINED = 1;
+
+    /** Category ids by name. */
+    private final Map<String, Integer> ids = new HashMap<>();
+    /** Category names by id. */
+    private final String[] names;
+    /** Blocking by category id. */
+    private final boolean[] blocking;
+    /** Allowed movements by category id, as {@link MovementTile} ordinal bits. */
+    private final int[] movements;
+    /** Cost by category id, only defined if movements allowed. */
+    private final double[] cost;
+    /** Ignore objects flag. */
+    private final boolean ignoreObjects;
+    /** Minimum cost of a movement. */
+    private final double minimumCost;
+
+    /**
+     * Create profile.
+     * 
+     * @param mover The mover reference.
+     * @param mapPath The map path reference.
+     * @param ignoreObjects <code>true</code> to ignore objects, <code>false</code> to consider objects as blocking.
+     */
+    PathProfile(Pathfindable mover, MapTilePath mapPath, boolean ignoreObjects)
+    {
+        super();
+
+        this.ignoreObjects = ignoreObjects;
+
+        final List<String> categories = new ArrayList<>(mapPath.getCategories());
+        categories.remove(null);
+        Collections.sort(categories);
+
+        final int count = categories.size() + 2;
+        names = new String[count];
+        blocking = new boolean[count];
+        movements = new int[count];
+        cost = new double[count];
+
+        // Null tile is never blocking and has no cost, but movements are checked against its category
+        movements[CATEGORY_NULL_TILE] = PathFinderImpl.getMovements(mover, mapPath.getCategory(null));
+        ids.put(null, Integer.valueOf(CATEGORY_UNDEFINED));
+        for (int i = 0; i < categories.size(); i++)
+        {
+            ids.put(categories.get(i), Integer.valueOf(i + 2));
+            names[i + 2] = categories.get(i);
+        }
+
+        double min = Double.MAX_VALUE;
+        for (int id = CATEGORY_UNDEFINED; id < count; id++)
+        {
+            blocking[id] = mover.isBlocking(names[id]);
+            movements[id] = PathFinderImpl.getMovements(mover, names[id]);
+            if (movements[id] != 0)
+            {
+                cost[id] = mover.getCost(names[id]);
+                min = Math.min(min, cost[id]);
+            }
+        }
+        if (movements[CATEGORY_NULL_TILE] != 0)
+        {
+            min = 0.0;
+        }
+        if (min == Double.MAX_VALUE)
+        {
+            minimumCost = 0.0;
+        }
+        else
+        {
+            minimumCost = Math.max(0.0, min);
+        }
+    }
+
+    /**
+     * Get category id.
+     * 
+     * @param category The category name (can be <code>null</code>).
+     * @return The category id, {@link #CATEGORY_UNDEFINED} if unknown.
+     */
+    int getId(String category)
+    {
+        final Integer id = ids.get(category);
+        if (id == null)
+        {
+            return CATEGORY_UNDEFINED;
+        }
+        return id.intValue();
+    }
+
+    /**
+     * Check if category is blocking.
+     * 
+     * @param id The category id.
+     * @return <code>true</code> if blocking, <code>false</code> else.
+     */
+    boolean isBlocking(int id)
+    {
+        return blocking[id];
+    }
+
+    /**
+     * Get the allowed movements.
+     * 
+     * @param id The category id.
+     * @return The allowed movements as {@link MovementTile} ordinal bits.
+     */
+    int getMovements(int id)
+    {
+        return movements[id];
+    }
+
+    /**
+     * Get the movement cost. Defined only if at least one movement is allowed.
+     * 
+     * @param id The category id.
+     * @return The movement cost.
+     */
+    double getCost(int id)
+    {
+        return cost[id];
+    }
+
+    /**
+     * Get the minimum cost of a movement.
+     * 
+     * @return The minimum movement cost.
+     */
+    double getMinimumCost()
+    {
+        return minimumCost;
+    }
+
+    /**
+     * Check if objects are ignored.
+     * 
+     * @return <code>true</code> if objects are ignored, <code>false</code> if objects are blocking.
+     */
+    boolean isIgnoreObjects()
+    {
+        return ignoreObjects;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Arrays.hashCode(names);
+        result = prime * result + Arrays.hashCode(blocking);
+        result = prime * result + Arrays.hashCode(movements);
+        result = prime * result + Arrays.hashCode(cost);
+        result = prime * result + Boolean.hashCode(ignoreObjects);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final PathProfile other = (PathProfile) object;
+        return ignoreObjects == other.ignoreObjects
+               && Arrays.equals(names, other.names)
+               && Arrays.equals(blocking, other.blocking)
+               && Arrays.equals(movements, other.movements)
+               && Arrays.equals(cost, other.cost);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Path request data, searched by a worker and delivered on game thread.
+ */
+final class PathRequest
+{
+    /** Mover reference. */
+    private final Pathfindable mover;
+    /** Listener reference. */
+    private final PathRequestListener listener;
+    /** Path finder used, bound to the map path snapshot of request time. */
+    private final PathFinder finder;
+    /** Horizontal start location. */
+    private final int stx;
+    /** Vertical start location. */
+    private final int sty;
+    /** Horizontal destination location. */
+    private final int dtx;
+    /** Vertical destination location. */
+    private final int dty;
+    /** Ignore objects flag. */
+    private final boolean ignoreRef;
+    /** Request time in nano. */
+    private final long time;
+    /** Cancelled flag. */
+    private volatile boolean cancelled;
+    /** Path found, <code>null</code> if none. */
+    private Path path;
+
+    /**
+     * Create request.
+     * 
+     * @param mover The mover reference.
+     * @param listener The listener reference.
+     * @param finder The path finder to use.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     */
+    PathRequest(Pathfindable mover,
+                PathRequestListener listener,
+                PathFinder finder,
+                int stx,
+                int sty,
+                int dtx,
+                int dty,
+                boolean ignoreRef)
+    {
+        super();
+
+        this.mover = mover;
+        this.listener = listener;
+        this.finder = finder;
+        this.stx = stx;
+        this.sty = sty;
+        this.dtx = dtx;
+        this.dty = dty;
+        this.ignoreRef = ignoreRef;
+        time = System.nanoTime();
+    }
+
+    /**
+     * Search path if not cancelled.
+     */
+    void search()
+    {
+        if (!cancelled)
+        {
+            path = finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+    }
+
+    /**
+     * Notify listener with path found.
+     */
+    void notifyListener()
+    {
+        listener.notifyPathFound(mover, path);
+    }
+
+    /**
+     * Cancel request. Search is skipped if not started, and result is not delivered.
+     */
+    void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Get the mover.
+     * 
+     * @return The mover reference.
+     */
+    Pathfindable getMover()
+    {
+        return mover;
+    }
+
+    /**
+     * Get the request time.
+     * 
+     * @return The request time in nano.
+     */
+    long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * Check if request is cancelled.
+     * 
+     * @return <code>true</code> if cancelled, <code>false</code> else.
+     */
+    boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Check if request is the same search.
+     * 
+     * @param listener The listener reference.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     * @return <code>true</code> if same search, <code>false</code> else.
+     */
+    boolean isSame(PathRequestListener listener, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        return this.listener == listener
+               && this.stx == stx
+               && this.sty == sty
+               && this.dtx == dtx
+               && this.dty == dty
+               && this.ignoreRef == ignoreRef;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.ComponentUpdater;
+import com.b3dgs.lionengine.game.feature.Handlables;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Asynchronous path request service. Requests are searched on worker threads against a snapshot of the map path objects
+ * locations taken at request time (see {@link MapTilePath#createSnapshot()}), and results are delivered on game
+ * thread, on next {@link #update(double, Handlables)}.
+ * <p>
+ * Only one request is kept by mover: an identical request (same start, destination and listener) is deduplicated, a
+ * different one cancels the previous (its result is not delivered). Searches are started by
+ * {@link #update(double, Handlables)}, their number can be limited with {@link #setBudget(int)}, remaining requests
+ * are started on next updates.
+ * </p>
+ * <p>
+ * Must be added to {@link Services} to be used by {@link PathfindableModel}, and to the
+ * {@link com.b3dgs.lionengine.game.feature.Handler} as {@link ComponentUpdater} to deliver results. If {@link Services}
+ * provide {@link FlowFields}, paths are read from destination fields, else if {@link Services} provide
+ * {@link PathClusters}, long paths are searched hierarchically.
+ * </p>
+ */
+public class PathRequestService implements ComponentUpdater
+{
+    /** Default workers count. */
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /** Pending requests by mover. */
+    private final Map<Pathfindable, PathRequest> pending = new HashMap<>();
+    /** Requests waiting to be searched. */
+    private final Queue<PathRequest> queued = new ArrayDeque<>();
+    /** Searched requests, waiting for delivery. */
+    private final Queue<PathRequest> results = new ConcurrentLinkedQueue<>();
+    /** Heuristic used. */
+    private final Heuristic heuristic = Astar.createHeuristicClosest();
+    /** Workers. */
+    private final ExecutorService executor;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Flow fields reference, <code>null</code> if none. */
+    private final FlowFields fields;
+    /** Clusters reference, <code>null</code> if none. */
+    private final PathClusters clusters;
+    /** Map path snapshot of current frame, shared by its requests, <code>null</code> if none. */
+    private MapTilePath snapshot;
+    /** Maximum searches started by update, <code>0</code> if unlimited. */
+    private int budget;
+    /** Started searches count. */
+    private int started;
+    /** Delivered results count. */
+    private int delivered;
+    /** Deduplicated requests count. */
+    private int deduplicated;
+    /** Cancelled requests count. */
+    private int cancelled;
+    /** Total latency of delivered results in nano. */
+    private long latencyTotal;
+    /** Maximum latency of delivered results in nano. */
+    private long latencyMax;
+
+    /**
+     * Create service with {@link #DEFAULT_THREADS}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public PathRequestService(Services services)
+    {
+        this(services, DEFAULT_THREADS);
+    }
+
+    /**
+     * Create service.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param threads The workers count (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PathRequestService(Services services, int threads)
+    {
+        super();
+
+        Check.notNull(services);
+        Check.superiorStrict(threads, 0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        fields = services.getOptional(FlowFields.class).orElse(null);
+        clusters = services.getOptional(PathClusters.class).orElse(null);
+        executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            final Thread thread = new Thread(runnable, PathRequestService.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request a path from the mover current location.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     * @param listener The listener notified on delivery (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void request(Pathfindable mover, int dtx, int dty, boolean ignoreRef, PathRequestListener listener)
+    {
+        Check.notNull(mover);
+
+        request(mover, mover.getInTileX(), mover.getInTileY(), dtx, dty, ignoreRef, listener);
+    }
+
+    /**
+     * Request a path. Cancel previous request of mover if different.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     * @param listener The listener notified on delivery (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void request(Pathfindable mover,
+                        int stx,
+                        int sty,
+                        int dtx,
+                        int dty,
+                        boolean ignoreRef,
+                        PathRequestListener listener)
+    {
+        Check.notNull(mover);
+        Check.notNull(listener);
+
+        final PathRequest old = pending.get(mover);
+        if (old != null)
+        {
+            if (old.isSame(listener, stx, sty, dtx, dty, ignoreRef))
+            {
+                deduplicated++;
+                return;
+            }
+            old.cancel();
+            cancelled++;
+        }
+        if (snapshot == null)
+        {
+            snapshot = mapPath.createSnapshot();
+        }
+
+        final PathFinder finder = createFinder(snapshot);
+        final PathRequest request = new PathRequest(mover, listener, finder, stx, sty, dtx, dty, ignoreRef);
+        pending.put(mover, request);
+        queued.add(request);
+    }
+
+    /**
+     * Cancel the pending request of mover if exists.
+     * 
+     * @param mover The mover reference.
+     */
+    public void cancel(Pathfindable mover)
+    {
+        final PathRequest request = pending.remove(mover);
+        if (request != null)
+        {
+            request.cancel();
+            cancelled++;
+        }
+    }
+
+    /**
+     * Stop workers. Pending requests are cancelled.
+     */
+    public void dispose()
+    {
+        for (final PathRequest request : pending.values())
+        {
+            request.cancel();
+        }
+        pending.clear();
+        queued.clear();
+        results.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Set the maximum searches started by update.
+     * 
+     * @param budget The maximum searches by update, <code>0</code> for unlimited (must be positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public void setBudget(int budget)
+    {
+        Check.superiorOrEqual(budget, 0);
+
+        this.budget = budget;
+    }
+
+    /**
+     * Get the number of requests waiting for delivery (queued, searching, or searched).
+     * 
+     * @return The queue depth.
+     */
+    public int getQueueDepth()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Get the number of started searches.
+     * 
+     * @return The started searches count.
+     */
+    public int getStarted()
+    {
+        return started;
+    }
+
+    /**
+     * Get the number of delivered results.
+     * 
+     * @return The delivered results count.
+     */
+    public int getDelivered()
+    {
+        return delivered;
+    }
+
+    /**
+     * Get the number of deduplicated requests.
+     * 
+     * @return The deduplicated requests count.
+     */
+    public int getDeduplicated()
+    {
+        return deduplicated;
+    }
+
+    /**
+     * Get the number of cancelled requests.
+     * 
+     * @return The cancelled requests count.
+     */
+    public int getCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Get the average latency between request and delivery.
+     * 
+     * @return The average latency in milli.
+     */
+    public double getLatencyAverage()
+    {
+        if (delivered == 0)
+        {
+            return 0.0;
+        }
+        return latencyTotal / Constant.NANO_TO_MILLI / delivered;
+    }
+
+    /**
+     * Get the maximum latency between request and delivery.
+     * 
+     * @return The maximum latency in milli.
+     */
+    public double getLatencyMax()
+    {
+        return latencyMax / Constant.NANO_TO_MILLI;
+    }
+
+    /**
+     * Create a path finder bound to a snapshot of the map path. Finders keep search state, so each request has its own,
+     * only the read only snapshot is shared between concurrent searches.
+     * 
+     * @param snapshot The map path snapshot.
+     * @return The path finder.
+     */
+    private PathFinder createFinder(MapTilePath snapshot)
+    {
+        final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
+                                          + map.getInTileHeight() * (double) map.getInTileHeight());
+        if (fields != null)
+        {
+            return new PathFinderFlow(fields, snapshot, range, heuristic);
+        }
+        if (clusters != null)
+        {
+            return new PathFinderHierarchical(clusters, snapshot, clusters.getVersion(), range, heuristic);
+        }
+        return new PathFinderImpl(map, snapshot, range, heuristic);
+    }
+
+    /*
+     * ComponentUpdater
+     */
+
+    @Override
+    public void update(double extrp, Handlables featurables)
+    {
+        snapshot = null;
+
+        while (!results.isEmpty())
+        {
+            final PathRequest request = results.poll();
+            if (!request.isCancelled())
+            {
+                pending.remove(request.getMover());
+
+                final long latency = System.nanoTime() - request.getTime();
+                latencyTotal += latency;
+                latencyMax = Math.max(latencyMax, latency);
+                delivered++;
+
+                request.notifyListener();
+            }
+        }
+
+        int count = 0;
+        while (!queued.isEmpty() && (budget == 0 || count < budget))
+        {
+            final PathRequest request = queued.poll();
+            if (!request.isCancelled())
+            {
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        request.search();
+                    }
+                    finally
+                    {
+                        results.add(request);
+                    }
+                });
+                started++;
+                count++;
+            }
+        }
+    }
+}
@@ -106,7 +106,8 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      * 
      * @param tx The horizontal location in tile.
      * @param ty The vertical location in tile.
-     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     * @return <code>true</code> if destination reachable (or requested if searched asynchronously),
+     *         <code>false</code> else.
      */
     boolean setDestination(int tx, int ty);
 
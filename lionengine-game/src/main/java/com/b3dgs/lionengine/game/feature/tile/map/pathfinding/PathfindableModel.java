@@ -85,6 +85,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Path requests reference, <code>null</code> if synchronous search. */
+    private final PathRequestService requests = services.getOptional(PathRequestService.class).orElse(null);
+    /** Path requests listener. */
+    private final PathRequestListener requestListener = (mover, found) -> onPathFound(found);
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Orientable model. */
@@ -95,6 +99,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private Transformable transformable;
     /** Last valid path found. */
     private Path path;
+    /** Requested path delivered while moving, applied on next step. */
+    private Path requested;
     /** Text debug rendering. */
     private Text text;
     /** Current step index on path. */
@@ -148,6 +154,14 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      * <li>{@link Viewer}</li>
      * </ul>
      * <p>
+     * If the {@link Services} provide {@link FlowFields}, paths are read from the destination field shared by all movers.
+     * Else if the {@link Services} provide {@link PathClusters}, long paths are searched hierarchically on it.
+     * </p>
+     * <p>
+     * If the {@link Services} provide {@link PathRequestService}, destinations are searched asynchronously, and the
+     * path is applied when delivered.
+     * </p>
+     * <p>
      * If the {@link Featurable} is a {@link PathfindableListener}, it will automatically
      * {@link #addListener(PathfindableListener)} on it.
      * </p>
@@ -165,7 +179,20 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
 
         final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
                                           + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        final FlowFields fields = services.getOptional(FlowFields.class).orElse(null);
+        final PathClusters clusters = services.getOptional(PathClusters.class).orElse(null);
+        if (fields != null)
+        {
+            pathfinder = Astar.createPathFinder(fields, range, Astar.createHeuristicClosest());
+        }
+        else if (clusters != null)
+        {
+            pathfinder = Astar.createPathFinder(clusters, range, Astar.createHeuristicClosest());
+        }
+        else
+        {
+            pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        }
     }
 
     /**
@@ -416,7 +443,15 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             {
                 path.clear();
             }
-            path = pathfinder.findPath(this, destX, destY, false);
+            if (requests != null)
+            {
+                path = requested;
+                requested = null;
+            }
+            else
+            {
+                path = pathfinder.findPath(this, destX, destY, false);
+            }
             pathFoundChanged = false;
             currentStep = 0;
             skip = false;
@@ -464,6 +499,64 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return mapPath.isAreaAvailable(this, dtx, dty, tw, th, id);
     }
 
+    /**
+     * Get the location where the next path will start: the current step if moving, else the current location.
+     * 
+     * @return The next path start location.
+     */
+    private CoordTile getNextStart()
+    {
+        if (path != null && currentStep < path.getLength())
+        {
+            return new CoordTile(path.getX(currentStep), path.getY(currentStep));
+        }
+        return new CoordTile(getInTileX(), getInTileY());
+    }
+
+    /**
+     * Request asynchronous path to destination, from the next path start location.
+     * 
+     * @param tx The horizontal destination location.
+     * @param ty The vertical destination location.
+     */
+    private void requestPath(int tx, int ty)
+    {
+        final CoordTile start = getNextStart();
+        requests.request(this, start.getX(), start.getY(), tx, ty, false, requestListener);
+    }
+
+    /**
+     * Called when requested path has been delivered.
+     * 
+     * @param found The path found, <code>null</code> if none.
+     */
+    private void onPathFound(Path found)
+    {
+        // Path start has been passed while searching, request again from the new start
+        if (found != null && !getNextStart().equals(new CoordTile(found.getX(0), found.getY(0))))
+        {
+            requestPath(destX, destY);
+        }
+        else if (path == null)
+        {
+            if (found != null)
+            {
+                path = found;
+                currentStep = 0;
+                pathFoundChanged = false;
+                for (int i = 0; i < listenable.size(); i++)
+                {
+                    listenable.get(i).notifyStartMove(this);
+                }
+            }
+        }
+        else
+        {
+            requested = found;
+            pathFoundChanged = true;
+        }
+    }
+
     /**
      * Called when destination has been reached and any movement are done.
      */
@@ -714,6 +807,13 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     {
         if (getInTileX() != tx || getInTileY() != ty)
         {
+            if (requests != null)
+            {
+                prepareDestination(tx, ty);
+                requestPath(tx, ty);
+                return true;
+            }
+
             // New first path, when object is not moving
             // CHECKSTYLE IGNORE LINE: InnerAssignment
             if (path == null && (path = pathfinder.findPath(this, tx, ty, false)) != null)
@@ -134,6 +134,12 @@ public class MapTileRasteredModel extends FeatureAbstract implements MapTileRast
         tileRaster.render(g);
     }
 
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
+
     @Override
     public int getRasterIndex(int ty)
     {
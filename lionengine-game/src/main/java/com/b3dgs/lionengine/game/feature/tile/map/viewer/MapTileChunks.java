@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Map tiles render cache. Map is split into square chunks of tiles, each chunk being rendered once into its own
+ * buffers (one per layer of consecutive cacheable renderers), and then drawn as single images. A chunk is rendered
+ * again only when one of its tiles has been set.
+ * <p>
+ * Only chunks around the viewport are kept, least recently rendered chunks being reused for newly visible ones.
+ * </p>
+ */
+final class MapTileChunks implements TileSetListener
+{
+    /** Number of chunks kept around visible ones. */
+    static final int MARGIN = 1;
+
+    /** Map reference. */
+    private final MapTileSurface map;
+    /** Number of tiles per chunk side. */
+    private final int chunkSize;
+    /** Kept chunks, from least to most recently rendered. */
+    private final Map<Integer, Chunk> chunks = new LinkedHashMap<>(16, 0.75F, true);
+
+    /** Kept chunks by index, <code>null</code> if not kept. */
+    private Chunk[] grid = new Chunk[0];
+    /** Transparent pixels used to clear a chunk buffer. */
+    private int[] blank = new int[0];
+    /** Number of layers. */
+    private int layers;
+    /** Maximum number of kept chunks. */
+    private int capacity;
+    /** Number of horizontal chunks. */
+    private int chunksH;
+    /** Number of vertical chunks. */
+    private int chunksV;
+    /** Cached map width in tile. */
+    private int widthInTile;
+    /** Cached map height in tile. */
+    private int heightInTile;
+    /** Cached tile width. */
+    private int tileWidth;
+    /** Cached tile height. */
+    private int tileHeight;
+
+    /**
+     * Create chunks.
+     * 
+     * @param map The map reference.
+     * @param chunkSize The number of tiles per chunk side.
+     */
+    MapTileChunks(MapTileSurface map, int chunkSize)
+    {
+        super();
+
+        this.map = map;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Render visible chunks of a layer.
+     * 
+     * @param g The graphic output.
+     * @param layer The layer index.
+     * @param renderers The layer renderers used to render chunks.
+     * @param sx The first visible horizontal tile.
+     * @param sy The first visible vertical tile.
+     * @param ex The last visible horizontal tile.
+     * @param ey The last visible vertical tile.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    void render(Graphic g,
+                int layer,
+                List<MapTileRenderer> renderers,
+                int sx,
+                int sy,
+                int ex,
+                int ey,
+                double viewX,
+                double viewY)
+    {
+        update();
+
+        final int stx = Math.max(0, sx);
+        final int sty = Math.max(0, sy);
+        final int etx = Math.min(widthInTile - 1, ex);
+        final int ety = Math.min(heightInTile - 1, ey);
+
+        if (stx <= etx && sty <= ety)
+        {
+            capacity = ((ex - sx) / chunkSize + 2 + MARGIN * 2) * ((ey - sy) / chunkSize + 2 + MARGIN * 2);
+            trim();
+
+            for (int cy = sty / chunkSize; cy <= ety / chunkSize; cy++)
+            {
+                for (int cx = stx / chunkSize; cx <= etx / chunkSize; cx++)
+                {
+                    renderChunk(g, layer, renderers, cx, cy, viewX, viewY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the number of layers. All chunks are invalidated.
+     * 
+     * @param layers The number of layers.
+     */
+    void setLayers(int layers)
+    {
+        this.layers = layers;
+        for (final Chunk chunk : chunks.values())
+        {
+            chunk.setLayers(layers);
+        }
+    }
+
+    /**
+     * Invalidate all chunks. They will be rendered again on next render.
+     */
+    void invalidate()
+    {
+        for (final Chunk chunk : chunks.values())
+        {
+            Arrays.fill(chunk.dirty, true);
+        }
+    }
+
+    /**
+     * Get the number of kept chunks.
+     * 
+     * @return The number of kept chunks.
+     */
+    int getSize()
+    {
+        return chunks.size();
+    }
+
+    /**
+     * Dispose all chunks buffer.
+     */
+    void dispose()
+    {
+        for (final Chunk chunk : chunks.values())
+        {
+            chunk.setLayers(0);
+        }
+        chunks.clear();
+        Arrays.fill(grid, null);
+    }
+
+    /**
+     * Dispose least recently rendered chunks until capacity is respected.
+     */
+    private void trim()
+    {
+        final Iterator<Chunk> iterator = chunks.values().iterator();
+        while (chunks.size() > capacity && iterator.hasNext())
+        {
+            final Chunk chunk = iterator.next();
+            iterator.remove();
+            grid[chunk.index] = null;
+            chunk.setLayers(0);
+        }
+    }
+
+    /**
+     * Update chunks grid if map size changed.
+     */
+    private void update()
+    {
+        if (widthInTile != map.getInTileWidth()
+            || heightInTile != map.getInTileHeight()
+            || tileWidth != map.getTileWidth()
+            || tileHeight != map.getTileHeight())
+        {
+            dispose();
+
+            widthInTile = map.getInTileWidth();
+            heightInTile = map.getInTileHeight();
+            tileWidth = map.getTileWidth();
+            tileHeight = map.getTileHeight();
+            chunksH = (widthInTile + chunkSize - 1) / chunkSize;
+            chunksV = (heightInTile + chunkSize - 1) / chunkSize;
+            grid = new Chunk[chunksH * chunksV];
+            blank = new int[chunkSize * tileWidth * chunkSize * tileHeight];
+            capacity = 0;
+        }
+    }
+
+    /**
+     * Get chunk, reusing the least recently rendered one if capacity is reached.
+     * 
+     * @param index The chunk index.
+     * @return The chunk.
+     */
+    private Chunk getChunk(int index)
+    {
+        final Integer key = Integer.valueOf(index);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null)
+        {
+            if (chunks.size() < capacity)
+            {
+                chunk = new Chunk(layers);
+            }
+            else
+            {
+                final Iterator<Chunk> iterator = chunks.values().iterator();
+                chunk = iterator.next();
+                iterator.remove();
+                grid[chunk.index] = null;
+                Arrays.fill(chunk.dirty, true);
+            }
+            chunk.index = index;
+            grid[index] = chunk;
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Render chunk layer, updating its buffer if needed.
+     * 
+     * @param g The graphic output.
+     * @param layer The layer index.
+     * @param renderers The layer renderers used.
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    private void renderChunk(Graphic g,
+                             int layer,
+                             List<MapTileRenderer> renderers,
+                             int cx,
+                             int cy,
+                             double viewX,
+                             double viewY)
+    {
+        final Chunk chunk = getChunk(cy * chunksH + cx);
+        if (chunk.dirty[layer] || chunk.buffers[layer] == null)
+        {
+            updateChunk(chunk, layer, renderers, cx, cy);
+        }
+        final int x = (int) Math.round(cx * chunkSize * tileWidth - viewX);
+        final int y = (int) Math.round(-(cy + 1) * chunkSize * tileHeight + viewY);
+        g.drawImage(chunk.buffers[layer], x, y);
+    }
+
+    /**
+     * Render chunk tiles into its layer buffer. Existing buffer is cleared and rendered again in place.
+     * 
+     * @param chunk The chunk to update.
+     * @param layer The layer index.
+     * @param renderers The layer renderers used.
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     */
+    private void updateChunk(Chunk chunk, int layer, List<MapTileRenderer> renderers, int cx, int cy)
+    {
+        final int width = chunkSize * tileWidth;
+        final int height = chunkSize * tileHeight;
+        ImageBuffer buffer = chunk.buffers[layer];
+        if (buffer == null)
+        {
+            buffer = Graphics.createImageBufferAlpha(width, height);
+            chunk.buffers[layer] = buffer;
+        }
+        else
+        {
+            buffer.setRgb(0, 0, width, height, blank, 0, width);
+        }
+        final Graphic g = buffer.createGraphic();
+
+        final int stx = cx * chunkSize;
+        final int sty = cy * chunkSize;
+        final int etx = Math.min(widthInTile, stx + chunkSize);
+        final int ety = Math.min(heightInTile, sty + chunkSize);
+
+        for (int ty = sty; ty < ety; ty++)
+        {
+            final int y = (sty + chunkSize - 1 - ty) * tileHeight;
+            for (int tx = stx; tx < etx; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    final int x = (tx - stx) * tileWidth;
+                    for (int i = 0; i < renderers.size(); i++)
+                    {
+                        renderers.get(i).renderTile(g, tile, x, y);
+                    }
+                }
+            }
+        }
+        g.dispose();
+        buffer.prepare();
+
+        chunk.dirty[layer] = false;
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        final int cx = tile.getInTileX() / chunkSize;
+        final int cy = tile.getInTileY() / chunkSize;
+        if (cx < chunksH && cy < chunksV)
+        {
+            final Chunk chunk = grid[cy * chunksH + cx];
+            if (chunk != null)
+            {
+                Arrays.fill(chunk.dirty, true);
+            }
+        }
+    }
+
+    /**
+     * Kept chunk, with one buffer per layer.
+     */
+    private static final class Chunk
+    {
+        /** Layers buffer, <code>null</code> if not rendered yet. */
+        private ImageBuffer[] buffers = new ImageBuffer[0];
+        /** Layers dirty flag. */
+        private boolean[] dirty;
+        /** Chunk index. */
+        private int index;
+
+        /**
+         * Create chunk.
+         * 
+         * @param layers The number of layers.
+         */
+        Chunk(int layers)
+        {
+            super();
+
+            setLayers(layers);
+        }
+
+        /**
+         * Set the number of layers, disposing removed layers buffer. All layers are invalidated.
+         * 
+         * @param layers The number of layers.
+         */
+        void setLayers(int layers)
+        {
+            for (int i = layers; i < buffers.length; i++)
+            {
+                if (buffers[i] != null)
+                {
+                    buffers[i].dispose();
+                }
+            }
+            buffers = Arrays.copyOf(buffers, layers);
+            dirty = new boolean[layers];
+            Arrays.fill(dirty, true);
+        }
+    }
+}
@@ -44,4 +44,13 @@ public interface MapTileViewer extends Displayable, MapTileRenderer
      * Remove all renderers.
      */
     void clear();
+
+    /**
+     * Invalidate cached rendering, if any. Must be called when a cacheable renderer output changed without any tile
+     * being set (such as a sheet or collision draw reloaded). Does nothing by default.
+     */
+    default void invalidate()
+    {
+        // Nothing by default
+    }
 }
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -33,16 +34,31 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * Map tile renderer default implementation.
+ * <p>
+ * Rendering can be cached by chunks of tiles (see {@link #MapTileViewerModel(Services, int)}). In that case, each
+ * run of consecutive {@link MapTileRenderer#isCacheable()} renderers is rendered into its own chunks buffer, only
+ * updated when one of their tile is set, or on {@link #invalidate()}. Other renderers (such as fog of war) are still
+ * rendered for each visible tile. Renderers order is kept.
+ * </p>
  */
 public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
 {
+    /** Default number of tiles per chunk side. */
+    public static final int DEFAULT_CHUNK_SIZE = 16;
+
     /** Map tiles renderers. */
     private final List<MapTileRenderer> renderers = new ArrayList<>();
+    /** Map tiles renderers grouped by consecutive cacheable state. */
+    private final List<List<MapTileRenderer>> runs = new ArrayList<>();
     /** Viewer reference. */
     private final Viewer viewer;
+    /** Number of tiles per chunk side, <code>0</code> if not cached. */
+    private final int chunkSize;
 
     /** Map tile surface. */
     private MapTileSurface map;
+    /** Chunks cache, <code>null</code> if not cached. */
+    private MapTileChunks chunks;
 
     /**
      * Create feature.
@@ -63,22 +79,52 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
      * @throws LionEngineException If invalid argument.
      */
     public MapTileViewerModel(Services services)
+    {
+        this(services, 0);
+    }
+
+    /**
+     * Create feature.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link MapTileSurface}</li>
+     * </ul>
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param chunkSize The number of tiles per chunk side, <code>0</code> to disable cache (must be positive).
+     * @throws LionEngineException If invalid argument.
+     * @see #DEFAULT_CHUNK_SIZE
+     */
+    public MapTileViewerModel(Services services, int chunkSize)
     {
         super();
 
+        Check.notNull(services);
+        Check.superiorOrEqual(chunkSize, 0);
+
         viewer = services.get(Viewer.class);
+        this.chunkSize = chunkSize;
     }
 
     /**
      * Render the tile from location.
      * 
      * @param g The graphic output.
+     * @param renderers The renderers used.
      * @param tx The horizontal tile location.
      * @param ty The vertical tile location.
      * @param viewX The horizontal view offset.
      * @param viewY The vertical view offset.
      */
-    private void renderTile(Graphic g, int tx, int ty, double viewX, double viewY)
+    private void renderTile(Graphic g, List<MapTileRenderer> renderers, int tx, int ty, double viewX, double viewY)
     {
         final Tile tile = map.getTile(tx, ty);
         if (tile != null)
@@ -97,13 +143,14 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
      * Render horizontal tiles.
      * 
      * @param g The graphic output.
+     * @param renderers The renderers used.
      * @param ty The current vertical tile location.
      * @param viewY The vertical view offset.
      */
-    private void renderHorizontal(Graphic g, int ty, double viewY)
+    private void renderHorizontal(Graphic g, List<MapTileRenderer> renderers, int ty, double viewY)
     {
-        final int inTileWidth = (int) Math.ceil(viewer.getWidth() / (double) map.getTileWidth());
-        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / map.getTileWidth());
+        final int inTileWidth = getInTileWidth();
+        final int sx = getStartX();
         final double viewX = viewer.getX();
 
         for (int h = 0; h <= inTileWidth; h++)
@@ -111,8 +158,55 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
             final int tx = h + sx;
             if (!(tx < 0 || tx >= map.getInTileWidth()))
             {
-                renderTile(g, tx, ty, viewX, viewY);
+                renderTile(g, renderers, tx, ty, viewX, viewY);
+            }
+        }
+    }
+
+    /**
+     * Get the number of visible horizontal tiles.
+     * 
+     * @return The number of visible horizontal tiles.
+     */
+    private int getInTileWidth()
+    {
+        return (int) Math.ceil(viewer.getWidth() / (double) map.getTileWidth());
+    }
+
+    /**
+     * Get the first visible horizontal tile.
+     * 
+     * @return The first visible horizontal tile.
+     */
+    private int getStartX()
+    {
+        return (int) Math.floor((viewer.getX() + viewer.getViewX()) / map.getTileWidth());
+    }
+
+    /**
+     * Group renderers by runs of consecutive cacheable renderers, keeping their order.
+     */
+    private void updateRuns()
+    {
+        runs.clear();
+        List<MapTileRenderer> run = null;
+        int layers = 0;
+        for (final MapTileRenderer renderer : renderers)
+        {
+            if (run == null || chunks != null && renderer.isCacheable() != run.get(0).isCacheable())
+            {
+                run = new ArrayList<>();
+                runs.add(run);
+                if (chunks != null && renderer.isCacheable())
+                {
+                    layers++;
+                }
             }
+            run.add(renderer);
+        }
+        if (chunks != null)
+        {
+            chunks.setLayers(layers);
         }
     }
 
@@ -126,25 +220,44 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
         super.prepare(provider);
 
         map = provider.getFeature(MapTileSurface.class);
-        renderers.add(this);
+        if (chunkSize > 0)
+        {
+            chunks = new MapTileChunks(map, chunkSize);
+            map.addListener(chunks);
+        }
+        addRenderer(this);
     }
 
     @Override
     public void addRenderer(MapTileRenderer renderer)
     {
         renderers.add(renderer);
+        updateRuns();
     }
 
     @Override
     public void removeRenderer(MapTileRenderer renderer)
     {
-        renderers.remove(renderer);
+        if (renderers.remove(renderer))
+        {
+            updateRuns();
+        }
     }
 
     @Override
     public void clear()
     {
         renderers.clear();
+        updateRuns();
+    }
+
+    @Override
+    public void invalidate()
+    {
+        if (chunks != null)
+        {
+            chunks.invalidate();
+        }
     }
 
     @Override
@@ -156,12 +269,27 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
             final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
             final double viewY = viewer.getY() + viewer.getScreenHeight();
 
-            for (int v = 0; v <= inTileHeight; v++)
+            int layer = 0;
+            for (int i = 0; i < runs.size(); i++)
             {
-                final int ty = v + sy;
-                if (!(ty < 0 || ty >= map.getInTileHeight()))
+                final List<MapTileRenderer> run = runs.get(i);
+                if (chunks != null && run.get(0).isCacheable())
+                {
+                    final int sx = getStartX();
+                    final int ex = sx + getInTileWidth();
+                    chunks.render(g, layer, run, sx, sy, ex, sy + inTileHeight, viewer.getX(), viewY);
+                    layer++;
+                }
+                else
                 {
-                    renderHorizontal(g, ty, viewY);
+                    for (int v = 0; v <= inTileHeight; v++)
+                    {
+                        final int ty = v + sy;
+                        if (!(ty < 0 || ty >= map.getInTileHeight()))
+                        {
+                            renderHorizontal(g, run, ty, viewY);
+                        }
+                    }
                 }
             }
         }
@@ -179,4 +307,10 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
         sprite.setTile(tile.getNumber());
         sprite.render(g);
     }
+
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
 }
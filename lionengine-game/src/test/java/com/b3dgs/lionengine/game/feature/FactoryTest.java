@@ -185,6 +185,21 @@ final class FactoryTest
         assertEquals(setup, factory.getSetup(Medias.create("Object.xml")));
     }
 
+    /**
+     * Test the clear.
+     */
+    @Test
+    void testClear()
+    {
+        final Setup setup = factory.getSetup(Medias.create("Object.xml"));
+        final int references = Graphics.getImageCache().getReferences(setup.getSurfaceFile());
+
+        factory.clear();
+
+        assertEquals(references - 1, Graphics.getImageCache().getReferences(setup.getSurfaceFile()));
+        assertNotEquals(setup, factory.getSetup(Medias.create("Object.xml")));
+    }
+
     /**
      * Test the object recycling.
      */
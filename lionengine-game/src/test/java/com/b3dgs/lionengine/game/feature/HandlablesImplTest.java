@@ -22,6 +22,9 @@ import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -160,6 +163,43 @@ final class HandlablesImplTest
         assertEquals(1, i);
     }
 
+    /**
+     * Test remove keeps other items indexed.
+     */
+    @Test
+    void testRemoveIndexed()
+    {
+        final FeaturableModel other1 = new FeaturableModel(services, setup);
+        final FeaturableModel other2 = new FeaturableModel(services, setup);
+        final Mirrorable mirrorable1 = other1.addFeatureAndGet(new MirrorableModel(services, setup));
+        final Mirrorable mirrorable2 = other2.addFeatureAndGet(new MirrorableModel(services, setup));
+        object.addFeature(new MirrorableModel(services, setup));
+
+        featurables.add(other1);
+        featurables.add(object);
+        featurables.add(object);
+        featurables.add(other2);
+
+        assertEquals(3, featurables.get(Mirrorable.class).size());
+        assertEquals(3, featurables.get(Featurable.class).size());
+
+        featurables.remove(object, object.getFeature(Identifiable.class).getId());
+
+        final List<Mirrorable> mirrorables = featurables.get(Mirrorable.class);
+        assertEquals(2, mirrorables.size());
+        assertEquals(mirrorable1, mirrorables.get(0));
+        assertEquals(mirrorable2, mirrorables.get(1));
+        assertEquals(Arrays.asList(other1, other2), featurables.get(Featurable.class));
+
+        featurables.remove(other1, other1.getFeature(Identifiable.class).getId());
+
+        assertEquals(Arrays.asList(mirrorable2), featurables.get(Mirrorable.class));
+        assertTrue(featurables.get(String.class).isEmpty());
+
+        other1.getFeature(Identifiable.class).notifyDestroyed();
+        other2.getFeature(Identifiable.class).notifyDestroyed();
+    }
+
     /**
      * Complex object with interface.
      */
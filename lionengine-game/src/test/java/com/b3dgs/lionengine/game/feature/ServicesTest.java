@@ -23,6 +23,9 @@ import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.Shape;
+import com.b3dgs.lionengine.Viewer;
+
 /**
  * Test {@link Services}.
  */
@@ -127,6 +130,33 @@ final class ServicesTest
         assertFalse(services.getOptional(String.class).isPresent());
     }
 
+    /**
+     * Test the service retrieved by its super types, first added first, and next one on remove.
+     */
+    @Test
+    void testSuperTypes()
+    {
+        final Services services = new Services();
+        final Camera camera1 = services.add(new Camera());
+        final Camera camera2 = services.add(new Camera());
+
+        assertEquals(camera1, services.get(Viewer.class));
+        assertEquals(camera1, services.get(Shape.class));
+        assertEquals(camera1, services.get(Featurable.class));
+        assertEquals(camera1, services.get(Object.class));
+
+        services.remove(camera1);
+
+        assertEquals(camera2, services.get(Viewer.class));
+        assertEquals(camera2, services.get(Shape.class));
+
+        services.remove(camera2);
+
+        assertFalse(services.getOptional(Viewer.class).isPresent());
+        assertFalse(services.getOptional(Object.class).isPresent());
+        assertEquals(services, services.get(Services.class));
+    }
+
     /**
      * Service without constructor.
      */
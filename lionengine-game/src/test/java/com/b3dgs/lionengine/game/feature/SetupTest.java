@@ -18,8 +18,14 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -30,8 +36,10 @@ import com.b3dgs.lionengine.EngineMock;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageCache;
 
 /**
  * Test {@link Setup}.
@@ -102,6 +110,43 @@ final class SetupTest
         assertNotNull(setup);
     }
 
+    /**
+     * Test the setup surface shared with other setups using the same image, and dropped once released.
+     */
+    @Test
+    void testSurfaceShared()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        final ImageCache cache = Graphics.getImageCache();
+        cache.setCapacity(0L);
+        try
+        {
+            final Media surface = Medias.create("surface.png");
+            final Setup setup = new Setup(Medias.create("Object.xml"));
+            final Setup other = new Setup(Medias.create("ObjectNoIcon.xml"));
+
+            assertTrue(setup.getSurface() == other.getSurface());
+            assertEquals(2, cache.getReferences(surface));
+            assertTrue(cache.getBytes() > 0L);
+
+            setup.dispose();
+            setup.dispose();
+
+            assertEquals(1, cache.getReferences(surface));
+            assertTrue(cache.getBytes() > 0L);
+
+            other.dispose();
+
+            assertEquals(0, cache.getReferences(surface));
+            assertEquals(0L, cache.getReleasedBytes());
+            assertEquals(0L, cache.getBytes());
+        }
+        finally
+        {
+            cache.setCapacity(ImageCache.DEFAULT_CAPACITY);
+        }
+    }
+
     /**
      * Test the setup class.
      */
@@ -115,6 +160,30 @@ final class SetupTest
         assertEquals(FeaturableModel.class, setup.getConfigClass(ClassLoader.getSystemClassLoader()));
     }
 
+    /**
+     * Test the setup features class loaded again on class loader change.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    void testFeaturesClassLoader() throws Exception
+    {
+        final Setup setup = new Setup(Medias.create("ObjectFeatures.xml"));
+        final ClassLoader loader = ClassLoader.getSystemClassLoader();
+        final List<Class<? extends Feature>> features = setup.getFeaturesClass(loader);
+
+        assertTrue(features == setup.getFeaturesClass(loader));
+
+        try (URLClassLoader other = new URLClassLoader(new URL[0], loader))
+        {
+            final List<Class<? extends Feature>> reloaded = setup.getFeaturesClass(other);
+
+            assertFalse(features == reloaded);
+            assertEquals(features, reloaded);
+            assertTrue(reloaded == setup.getFeaturesClass(other));
+        }
+    }
+
     /**
      * Test the setup with no class.
      */
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.ViewerMock;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.ComponentUpdater;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.geom.Geom;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link BroadPhase} implementations.
+ */
+final class BroadPhaseTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(BroadPhaseTest.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Get broad phases to test.
+     * 
+     * @return The broad phases.
+     */
+    private static Stream<Arguments> broadPhases()
+    {
+        final Function<Viewer, BroadPhase> tree = viewer -> new QuadTree(viewer, 16384);
+        final Function<Viewer, BroadPhase> grid = BroadPhaseGrid::new;
+        final Function<Viewer, BroadPhase> sweep = BroadPhaseSweep::new;
+
+        return Stream.of(Arguments.of(tree), Arguments.of(grid), Arguments.of(sweep));
+    }
+
+    private final Services services = new Services();
+    private final Handler handler = new Handler(services);
+    private final Setup setup = new Setup(config);
+    private final AtomicInteger collided = new AtomicInteger();
+
+    /**
+     * Create handler with broad phase.
+     * 
+     * @param factory The broad phase factory.
+     * @return The component.
+     */
+    private ComponentCollision createComponent(Function<Viewer, BroadPhase> factory)
+    {
+        services.add(new Camera());
+
+        final ComponentCollision component = new ComponentCollision(factory.apply(new ViewerMock()));
+        handler.addComponent((ComponentUpdater) component);
+
+        return component;
+    }
+
+    /**
+     * Create collidable.
+     * 
+     * @param size The collision size.
+     * @param group The group.
+     * @param accepted The accepted group.
+     * @return The created featurable.
+     */
+    private Featurable createCollidable(int size, int group, int accepted)
+    {
+        final Featurable featurable = new FeaturableModel(services, setup);
+        featurable.addFeature(new TransformableModel(services, setup));
+
+        final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+        collidable.setGroup(Integer.valueOf(group));
+        collidable.addAccept(Integer.valueOf(accepted));
+        collidable.addCollision(new Collision("test", 0, 0, size, size, false));
+        collidable.setEnabled(true);
+        collidable.addListener((c, with, by) -> collided.incrementAndGet());
+
+        handler.add(featurable);
+
+        return featurable;
+    }
+
+    /**
+     * Teleport featurable.
+     * 
+     * @param featurable The featurable.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    private static void teleport(Featurable featurable, double x, double y)
+    {
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.teleport(x, y);
+        transformable.check(true);
+    }
+
+    /**
+     * Test pair is notified once even if spanning many cells.
+     * 
+     * @param factory The broad phase factory.
+     */
+    @ParameterizedTest
+    @MethodSource("broadPhases")
+    void testPairOnce(Function<Viewer, BroadPhase> factory)
+    {
+        createComponent(factory);
+
+        final Featurable featurable1 = createCollidable(200, 1, 1);
+        final Featurable featurable2 = createCollidable(200, 1, 1);
+        teleport(featurable1, 100.0, 100.0);
+        teleport(featurable2, 150.0, 150.0);
+
+        handler.update(1.0);
+
+        assertEquals(4, collided.get());
+    }
+
+    /**
+     * Test pair not accepted is not notified.
+     * 
+     * @param factory The broad phase factory.
+     */
+    @ParameterizedTest
+    @MethodSource("broadPhases")
+    void testGroupFiltered(Function<Viewer, BroadPhase> factory)
+    {
+        createComponent(factory);
+
+        final Featurable featurable1 = createCollidable(4, 1, 2);
+        final Featurable featurable2 = createCollidable(4, 3, 4);
+        teleport(featurable1, 10.0, 10.0);
+        teleport(featurable2, 11.0, 11.0);
+
+        handler.update(1.0);
+
+        assertEquals(0, collided.get());
+
+        featurable2.getFeature(Collidable.class).addAccept(Integer.valueOf(1));
+        handler.update(1.0);
+
+        assertEquals(1, collided.get());
+    }
+
+    /**
+     * Test many collidables with a single overlap.
+     * 
+     * @param factory The broad phase factory.
+     */
+    @ParameterizedTest
+    @MethodSource("broadPhases")
+    void testMany(Function<Viewer, BroadPhase> factory)
+    {
+        createComponent(factory);
+
+        final Featurable[] featurables = new Featurable[100];
+        for (int i = 0; i < featurables.length; i++)
+        {
+            featurables[i] = createCollidable(3, 1, 1);
+            teleport(featurables[i], i % 10 * 100.0, i / 10 * 100.0);
+        }
+        handler.update(1.0);
+
+        assertEquals(0, collided.get());
+
+        teleport(featurables[55], 401.0, 501.0);
+        handler.update(1.0);
+
+        assertEquals(4, collided.get());
+
+        collided.set(0);
+        handler.remove(featurables[54]);
+        handler.update(1.0);
+
+        assertEquals(0, collided.get());
+    }
+
+    /**
+     * Test pairs after removals of first, last and middle collidables.
+     * 
+     * @param factory The broad phase factory.
+     */
+    @ParameterizedTest
+    @MethodSource("broadPhases")
+    void testRemoved(Function<Viewer, BroadPhase> factory)
+    {
+        createComponent(factory);
+
+        final Featurable[] featurables = new Featurable[20];
+        for (int i = 0; i < featurables.length; i++)
+        {
+            featurables[i] = createCollidable(3, 1, 1);
+            teleport(featurables[i], i / 2 * 100.0 + i % 2, i % 2);
+        }
+        handler.update(1.0);
+
+        assertEquals(40, collided.get());
+
+        collided.set(0);
+        handler.remove(featurables[0]);
+        handler.remove(featurables[7]);
+        handler.remove(featurables[10]);
+        handler.remove(featurables[11]);
+        handler.remove(featurables[19]);
+        handler.update(1.0);
+
+        assertEquals(24, collided.get());
+
+        collided.set(0);
+        handler.remove(featurables[2]);
+        teleport(featurables[4], 1.0, 1.0);
+        teleport(createCollidable(3, 1, 1), 101.0, 1.0);
+        handler.update(1.0);
+
+        assertEquals(24, collided.get());
+    }
+
+    /**
+     * Test get inside.
+     * 
+     * @param factory The broad phase factory.
+     */
+    @ParameterizedTest
+    @MethodSource("broadPhases")
+    void testGetInside(Function<Viewer, BroadPhase> factory)
+    {
+        final ComponentCollision component = createComponent(factory);
+
+        final Featurable featurable1 = createCollidable(3, 1, 2);
+        final Featurable featurable2 = createCollidable(3, 1, 2);
+        teleport(featurable1, 20.0, 20.0);
+        teleport(featurable2, 30.0, 30.0);
+        handler.update(1.0);
+
+        assertTrue(component.getInside(Geom.createArea(0, 0, 16, 16)).isEmpty());
+        assertEquals(2, component.getInside(Geom.createArea(15, 15, 32, 32)).size());
+        assertEquals(1, component.getInside(Geom.createArea(25, 25, 32, 32)).size());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.ViewerMock;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.geom.Geom;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link QuadTree}.
+ */
+final class QuadTreeTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(QuadTreeTest.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final Setup setup = new Setup(config);
+    private final AtomicInteger collided = new AtomicInteger();
+    private final QuadTree tree = new QuadTree(new ViewerMock(), 1024);
+    private final Transformable[] transformables = new Transformable[16];
+    private final Collidable[] collidables = new Collidable[16];
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+
+        for (int i = 0; i < collidables.length; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            transformables[i] = featurable.addFeatureAndGet(new TransformableModel(services, setup));
+            collidables[i] = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+            collidables[i].setGroup(Integer.valueOf(1));
+            collidables[i].addAccept(Integer.valueOf(1));
+            collidables[i].addCollision(new Collision("test", 0, 0, 4, 4, false));
+            collidables[i].setEnabled(true);
+            collidables[i].addListener((c, with, by) -> collided.incrementAndGet());
+
+            move(i, 32.0 + i % 4 * 256.0, 32.0 + i / 4 * 256.0);
+        }
+    }
+
+    /**
+     * Move collidable.
+     * 
+     * @param index The collidable index.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    private void move(int index, double x, double y)
+    {
+        transformables[index].teleport(x, y);
+        collidables[index].forceUpdate();
+        tree.move(transformables[index], collidables[index]);
+    }
+
+    /**
+     * Test move inside leaf and across leaves.
+     */
+    @Test
+    void testMove()
+    {
+        tree.compute();
+
+        assertEquals(0, collided.get());
+        assertEquals(1, tree.getInside(Geom.createArea(0, 0, 64, 64)).size());
+
+        move(0, 40.0, 40.0);
+        tree.compute();
+
+        assertEquals(0, collided.get());
+        assertEquals(1, tree.getInside(Geom.createArea(0, 0, 64, 64)).size());
+
+        move(0, 32.0 + 256.0, 32.0);
+        tree.compute();
+
+        assertEquals(4, collided.get());
+        assertTrue(tree.getInside(Geom.createArea(0, 0, 64, 64)).isEmpty());
+        assertEquals(2, tree.getInside(Geom.createArea(256, 0, 64, 64)).size());
+    }
+
+    /**
+     * Test remove and merge.
+     */
+    @Test
+    void testRemove()
+    {
+        tree.compute();
+
+        for (int i = 1; i < collidables.length; i++)
+        {
+            tree.remove(transformables[i], collidables[i]);
+        }
+        tree.compute();
+
+        assertEquals(1, tree.getInside(Geom.createArea(0, 0, 1024, 1024)).size());
+
+        move(1, 33.0, 33.0);
+        tree.compute();
+
+        assertEquals(4, collided.get());
+    }
+}
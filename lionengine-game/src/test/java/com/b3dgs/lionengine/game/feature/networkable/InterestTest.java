@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilTransformable;
+
+/**
+ * Test {@link Interest}.
+ */
+final class InterestTest
+{
+    /** Client id test. */
+    private static final Integer CLIENT_ID = Integer.valueOf(1);
+    /** Other client id test. */
+    private static final Integer OTHER_ID = Integer.valueOf(2);
+    /** Object config test. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilTransformable.createMedia(InterestTest.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final Setup setup = new Setup(config);
+    private final Interest interest = new Interest(100, 64, 128, 4);
+    private final List<Networkable> networkables = new ArrayList<>();
+    private final Replication server = new Replication();
+    private final Replication client = new Replication();
+    private final List<Integer> received = new ArrayList<>();
+    private final List<Integer> removed = new ArrayList<>();
+
+    /**
+     * Create networkable.
+     * 
+     * @param id The data id.
+     * @param located <code>true</code> to add {@link Transformable}, <code>false</code> else.
+     * @return The networkable.
+     */
+    private Networkable create(int id, boolean located)
+    {
+        final Featurable featurable = new FeaturableModel(services, setup);
+        if (located)
+        {
+            featurable.addFeature(new TransformableModel(services, setup));
+        }
+        final Networkable networkable = featurable.addFeatureAndGet(new NetworkableModel(services, setup));
+        networkable.setDataId(id);
+        networkables.add(networkable);
+        return networkable;
+    }
+
+    /**
+     * Create located networkable.
+     * 
+     * @param id The data id.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The networkable.
+     */
+    private Networkable create(int id, double x, double y)
+    {
+        final Networkable networkable = create(id, true);
+        networkable.getFeature(Transformable.class).teleport(x, y);
+        return networkable;
+    }
+
+    /**
+     * Update interest and send client snapshot of its relevant networkables.
+     * 
+     * @return <code>true</code> if snapshot sent, <code>false</code> if nothing to send.
+     */
+    private boolean replicate()
+    {
+        received.clear();
+        removed.clear();
+        interest.update(networkables);
+
+        final int sequence = server.getSequence();
+        final ByteBuffer snapshot = server.encode(interest.getRelevant(CLIENT_ID),
+                                                  n -> interest.isDue(CLIENT_ID, n),
+                                                  Snapshot.BUDGET);
+        if (snapshot == null)
+        {
+            return false;
+        }
+        assertTrue(client.decode(sequence, snapshot, id ->
+        {
+            received.add(Integer.valueOf(id));
+            return null;
+        }, id -> removed.add(Integer.valueOf(id))));
+        server.acknowledge(sequence);
+
+        return true;
+    }
+
+    /**
+     * Test all relevant without viewport.
+     */
+    @Test
+    void testNoViewport()
+    {
+        final Networkable far = create(1, 5000.0, 5000.0);
+        interest.update(networkables);
+
+        assertEquals(networkables, interest.getRelevant(CLIENT_ID));
+        assertTrue(interest.isDue(CLIENT_ID, far));
+        assertTrue(interest.isRelayed(CLIENT_ID, 1));
+    }
+
+    /**
+     * Test relevant networkables from viewport.
+     */
+    @Test
+    void testViewport()
+    {
+        final Networkable inside = create(1, 50.0, 50.0);
+        final Networkable near = create(2, 150.0, 50.0);
+        create(3, 250.0, 50.0);
+        create(4, -5000.0, 5000.0);
+        final Networkable global = create(5, false);
+
+        interest.setViewport(CLIENT_ID, 0, 0, 100, 100);
+        interest.update(networkables);
+
+        final List<Networkable> relevant = new ArrayList<>(interest.getRelevant(CLIENT_ID));
+        relevant.sort((a, b) -> Integer.compare(a.getDataId(), b.getDataId()));
+
+        assertEquals(Arrays.asList(inside, near, global), relevant);
+        assertTrue(interest.isRelayed(CLIENT_ID, 1));
+        assertTrue(interest.isRelayed(CLIENT_ID, 2));
+        assertFalse(interest.isRelayed(CLIENT_ID, 3));
+        assertFalse(interest.isRelayed(CLIENT_ID, 4));
+        assertTrue(interest.isRelayed(CLIENT_ID, 5));
+        assertTrue(interest.isRelayed(CLIENT_ID, 6));
+        assertTrue(interest.isRelayed(OTHER_ID, 4));
+
+        interest.remove(CLIENT_ID);
+
+        assertTrue(interest.isRelayed(CLIENT_ID, 4));
+    }
+
+    /**
+     * Test hysteresis between enter and exit margins.
+     */
+    @Test
+    void testHysteresis()
+    {
+        final Transformable transformable = create(1, 150.0, 50.0).getFeature(Transformable.class);
+        interest.setViewport(CLIENT_ID, 0, 0, 100, 100);
+        interest.update(networkables);
+
+        assertTrue(interest.isRelayed(CLIENT_ID, 1));
+
+        transformable.teleport(200.0, 50.0);
+        interest.update(networkables);
+
+        assertTrue(interest.isRelayed(CLIENT_ID, 1));
+
+        transformable.teleport(300.0, 50.0);
+        interest.update(networkables);
+
+        assertFalse(interest.isRelayed(CLIENT_ID, 1));
+
+        transformable.teleport(200.0, 50.0);
+        interest.update(networkables);
+
+        assertFalse(interest.isRelayed(CLIENT_ID, 1));
+    }
+
+    /**
+     * Test lower update rate with distance.
+     */
+    @Test
+    void testRate()
+    {
+        final Networkable inside = create(1, 50.0, 50.0);
+        final Networkable near = create(2, 150.0, 50.0);
+        interest.setViewport(CLIENT_ID, 0, 0, 100, 100);
+
+        int insideCount = 0;
+        int nearCount = 0;
+        for (int i = 0; i < 8; i++)
+        {
+            interest.update(networkables);
+            if (interest.isDue(CLIENT_ID, inside))
+            {
+                insideCount++;
+            }
+            if (interest.isDue(CLIENT_ID, near))
+            {
+                nearCount++;
+            }
+        }
+
+        assertEquals(8, insideCount);
+        assertEquals(4, nearCount);
+    }
+
+    /**
+     * Test client notified once networkable is out of range, and replicated again when back in range.
+     */
+    @Test
+    void testOutOfRange()
+    {
+        final Networkable networkable = create(1, 50.0, 50.0);
+        final Transformable transformable = networkable.getFeature(Transformable.class);
+        networkable.addReplicated(new Replicated(() -> (int) transformable.getX(), v ->
+        {
+            // Mock
+        }));
+        interest.setViewport(CLIENT_ID, 0, 0, 100, 100);
+
+        assertTrue(replicate());
+        assertEquals(Collections.singletonList(Integer.valueOf(1)), received);
+        assertTrue(removed.isEmpty());
+
+        transformable.teleport(5000.0, 50.0);
+
+        assertTrue(replicate());
+        assertTrue(received.isEmpty());
+        assertEquals(Collections.singletonList(Integer.valueOf(1)), removed);
+        assertFalse(interest.isRelayed(CLIENT_ID, 1));
+
+        assertFalse(replicate());
+
+        transformable.teleport(50.0, 50.0);
+
+        assertTrue(replicate());
+        assertEquals(Collections.singletonList(Integer.valueOf(1)), received);
+        assertTrue(removed.isEmpty());
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testInvalid()
+    {
+        assertThrows(() -> new Interest(0, 0, 0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new Interest(1, 2, 1, 1), "Invalid argument: 1 is not superior or equal to 2");
+    }
+}
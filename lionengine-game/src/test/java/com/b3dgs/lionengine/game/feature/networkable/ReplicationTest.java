@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.networkable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+
+/**
+ * Test {@link Replication}.
+ */
+final class ReplicationTest
+{
+    /** Object config test. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(ReplicationTest.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final Setup setup = new Setup(config);
+    private final Replication server = new Replication();
+    private final Replication client = new Replication();
+    private final List<Networkable> servers = new ArrayList<>();
+    private final Map<Integer, Networkable> clients = new HashMap<>();
+    private final Map<Integer, double[]> serverValues = new HashMap<>();
+    private final Map<Integer, double[]> clientValues = new HashMap<>();
+
+    /**
+     * Create networkable with a decimal and an integer field.
+     * 
+     * @param id The data id.
+     * @param values The fields value.
+     * @return The networkable.
+     */
+    private Networkable create(int id, double[] values)
+    {
+        final Networkable networkable = new NetworkableModel(services, setup);
+        networkable.setDataId(id);
+        networkable.addReplicated(new Replicated(() -> values[0], v -> values[0] = v, 0.25));
+        networkable.addReplicated(new Replicated(() -> (int) values[1], v -> values[1] = v));
+        return networkable;
+    }
+
+    /**
+     * Add networkable on server and client.
+     * 
+     * @param id The data id.
+     */
+    private void add(int id)
+    {
+        final double[] serverValue = new double[2];
+        final double[] clientValue = new double[2];
+        serverValues.put(Integer.valueOf(id), serverValue);
+        clientValues.put(Integer.valueOf(id), clientValue);
+        servers.add(create(id, serverValue));
+        clients.put(Integer.valueOf(id), create(id, clientValue));
+    }
+
+    /**
+     * Send snapshot from server to client.
+     * 
+     * @param budget The snapshot budget.
+     * @param acknowledge <code>true</code> to acknowledge snapshot, <code>false</code> if lost.
+     * @return The snapshot size, <code>0</code> if nothing sent.
+     */
+    private int replicate(int budget, boolean acknowledge)
+    {
+        final int sequence = server.getSequence();
+        final ByteBuffer snapshot = server.encode(servers, budget);
+        if (snapshot == null)
+        {
+            return 0;
+        }
+        final int size = snapshot.remaining();
+        if (acknowledge)
+        {
+            assertTrue(client.decode(sequence, snapshot, id -> clients.get(Integer.valueOf(id))));
+            server.acknowledge(sequence);
+        }
+        return size;
+    }
+
+    /**
+     * Check client values against server ones.
+     */
+    private void assertReplicated()
+    {
+        for (final Map.Entry<Integer, double[]> entry : serverValues.entrySet())
+        {
+            final double[] expected = entry.getValue();
+            final double[] actual = clientValues.get(entry.getKey());
+            assertEquals(expected[0], actual[0]);
+            assertEquals(expected[1], actual[1]);
+        }
+    }
+
+    /**
+     * Test only changed fields sent once acknowledged.
+     */
+    @Test
+    void testDelta()
+    {
+        add(1);
+        add(2);
+        serverValues.get(Integer.valueOf(1))[0] = 10.25;
+        serverValues.get(Integer.valueOf(1))[1] = 100;
+        serverValues.get(Integer.valueOf(2))[0] = -3.5;
+
+        final int full = replicate(Snapshot.BUDGET, true);
+
+        assertReplicated();
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+
+        serverValues.get(Integer.valueOf(2))[1] = 50;
+
+        final int delta = replicate(Snapshot.BUDGET, true);
+
+        assertReplicated();
+        assertTrue(delta < full);
+    }
+
+    /**
+     * Test entity created on client after its first snapshots receives unchanged fields.
+     */
+    @Test
+    void testCreatedLater()
+    {
+        add(1);
+        final Networkable created = clients.remove(Integer.valueOf(1));
+        serverValues.get(Integer.valueOf(1))[0] = 10.25;
+        serverValues.get(Integer.valueOf(1))[1] = 100;
+        replicate(Snapshot.BUDGET, true);
+
+        serverValues.get(Integer.valueOf(1))[1] = 50;
+        replicate(Snapshot.BUDGET, true);
+
+        assertEquals(0.0, clientValues.get(Integer.valueOf(1))[0]);
+
+        client.apply(1, created);
+        clients.put(Integer.valueOf(1), created);
+
+        assertReplicated();
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+
+        client.apply(2, created);
+
+        assertReplicated();
+    }
+
+    /**
+     * Test changes sent again against last acknowledged snapshot when snapshots are lost.
+     */
+    @Test
+    void testLost()
+    {
+        add(1);
+        replicate(Snapshot.BUDGET, true);
+
+        serverValues.get(Integer.valueOf(1))[0] = 1.0;
+        replicate(Snapshot.BUDGET, false);
+        serverValues.get(Integer.valueOf(1))[1] = 2;
+        replicate(Snapshot.BUDGET, false);
+
+        assertEquals(0.0, clientValues.get(Integer.valueOf(1))[0]);
+
+        replicate(Snapshot.BUDGET, true);
+
+        assertReplicated();
+    }
+
+    /**
+     * Test snapshot size bounded by budget, deferred entities sent by next snapshots.
+     */
+    @Test
+    void testBudget()
+    {
+        final int count = 100;
+        for (int i = 0; i < count; i++)
+        {
+            add(i);
+            serverValues.get(Integer.valueOf(i))[0] = i * 100.0;
+            serverValues.get(Integer.valueOf(i))[1] = i;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            assertTrue(replicate(Snapshot.BUDGET, true) <= Snapshot.BUDGET);
+        }
+
+        assertReplicated();
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+    }
+
+    /**
+     * Test nothing sent when nothing replicated or changed, unless last snapshot is not acknowledged.
+     */
+    @Test
+    void testUnchanged()
+    {
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+        assertEquals(0, server.getSequence());
+
+        add(1);
+        serverValues.get(Integer.valueOf(1))[1] = 1;
+
+        assertTrue(replicate(Snapshot.BUDGET, false) > 1);
+
+        serverValues.get(Integer.valueOf(1))[1] = 0;
+
+        assertTrue(replicate(Snapshot.BUDGET, true) > 0);
+        assertReplicated();
+
+        final int sequence = server.getSequence();
+
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+        assertEquals(sequence, server.getSequence());
+    }
+
+    /**
+     * Test removed entities sent until acknowledged.
+     */
+    @Test
+    void testRemoved()
+    {
+        add(1);
+        add(2);
+        replicate(Snapshot.BUDGET, true);
+        servers.remove(1);
+
+        final List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+        {
+            final int sequence = server.getSequence();
+            assertTrue(client.decode(sequence,
+                                     server.encode(servers, Snapshot.BUDGET),
+                                     id -> clients.get(Integer.valueOf(id)),
+                                     id -> removed.add(Integer.valueOf(id))));
+        }
+
+        assertEquals(Arrays.asList(Integer.valueOf(2), Integer.valueOf(2)), removed);
+
+        server.acknowledge(server.getSequence() - 1);
+
+        assertEquals(0, replicate(Snapshot.BUDGET, true));
+    }
+
+    /**
+     * Test ignored snapshots.
+     */
+    @Test
+    void testIgnored()
+    {
+        add(1);
+        serverValues.get(Integer.valueOf(1))[1] = 1;
+        replicate(Snapshot.BUDGET, true);
+
+        serverValues.get(Integer.valueOf(1))[1] = 2;
+        final ByteBuffer old = server.encode(servers, Snapshot.BUDGET);
+        replicate(Snapshot.BUDGET, true);
+
+        assertFalse(client.decode(1, old, id -> clients.get(Integer.valueOf(id))));
+        assertEquals(2.0, clientValues.get(Integer.valueOf(1))[1]);
+
+        final Replication other = new Replication();
+        final int sequence = server.getSequence();
+        serverValues.get(Integer.valueOf(1))[1] = 3;
+
+        assertFalse(other.decode(sequence,
+                                 server.encode(servers, Snapshot.BUDGET),
+                                 id -> clients.get(Integer.valueOf(id))));
+        assertEquals(2.0, clientValues.get(Integer.valueOf(1))[1]);
+    }
+
+    /**
+     * Test too many fields.
+     */
+    @Test
+    void testTooManyFields()
+    {
+        final Networkable networkable = new NetworkableModel(services, setup);
+        for (int i = 0; i <= Replication.MAX_FIELDS; i++)
+        {
+            networkable.addReplicated(new Replicated(() -> 0, v ->
+            {
+                // Mock
+            }));
+        }
+        servers.add(networkable);
+
+        final int count = Replication.MAX_FIELDS + 1;
+        assertThrows(() -> server.encode(servers, Snapshot.BUDGET),
+                     "Invalid argument: " + count + " is not inferior or equal to " + Replication.MAX_FIELDS);
+    }
+}
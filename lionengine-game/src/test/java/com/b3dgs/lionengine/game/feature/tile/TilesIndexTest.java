@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+
+/**
+ * Test {@link TilesIndex}.
+ */
+final class TilesIndexTest
+{
+    /**
+     * Test get pixels.
+     */
+    @Test
+    void testGetPixels()
+    {
+        final ImageBuffer image = new ImageBufferMock(2, 2);
+        image.setRgb(1, 1, 4);
+
+        assertEquals(Arrays.toString(new int[]
+        {
+            0, 0, 0, 4
+        }), Arrays.toString(TilesIndex.getPixels(image)));
+    }
+
+    /**
+     * Test index with identical tiles.
+     */
+    @Test
+    void testIndex()
+    {
+        final int[] pixels = new int[]
+        {
+            1, 2, 1, 2, 3, 4,
+            3, 4, 3, 4, 1, 2
+        };
+        final TilesIndex<Integer> index = new TilesIndex<>(2, 2);
+
+        assertNull(index.putIfAbsent(pixels, 6, 0, 0, Integer.valueOf(0)));
+        assertEquals(Integer.valueOf(0), index.putIfAbsent(pixels, 6, 2, 0, Integer.valueOf(1)));
+        assertNull(index.get(pixels, 6, 4, 0));
+        assertNull(index.putIfAbsent(pixels, 6, 4, 0, Integer.valueOf(2)));
+
+        assertEquals(2, index.size());
+        assertEquals(Integer.valueOf(0), index.get(pixels, 6, 2, 0));
+        assertEquals(Integer.valueOf(2), index.get(pixels, 6, 4, 0));
+    }
+
+    /**
+     * Test index with different tiles sharing the same hash.
+     */
+    @Test
+    void testCollision()
+    {
+        final int[] pixels = new int[]
+        {
+            0, 31, 1, 0
+        };
+        assertEquals(Arrays.hashCode(Arrays.copyOfRange(pixels, 0, 2)),
+                     Arrays.hashCode(Arrays.copyOfRange(pixels, 2, 4)));
+
+        final TilesIndex<Integer> index = new TilesIndex<>(2, 1);
+
+        assertNull(index.putIfAbsent(pixels, 4, 0, 0, Integer.valueOf(0)));
+        assertNull(index.putIfAbsent(pixels, 4, 2, 0, Integer.valueOf(1)));
+
+        assertEquals(2, index.size());
+        assertEquals(Integer.valueOf(0), index.get(pixels, 4, 0, 0));
+        assertEquals(Integer.valueOf(1), index.get(pixels, 4, 2, 0));
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    void testInvalid()
+    {
+        assertThrows(() -> new TilesIndex<>(0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new TilesIndex<>(1, 0), "Invalid argument: 0 is not strictly superior to 0");
+
+        final TilesIndex<Integer> index = new TilesIndex<>(2, 2);
+        final int[] pixels = new int[8];
+
+        assertThrows(() -> index.get(pixels, 4, 3, 0), "Invalid argument: 5 is not inferior or equal to 4");
+        assertThrows(() -> index.get(pixels, 4, 0, 1), "Invalid argument: 12 is not inferior or equal to 8");
+        assertThrows(() -> index.get(pixels, 4, -1, 0), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> index.putIfAbsent(pixels, 4, 0, 0, null), "Unexpected null argument !");
+    }
+}
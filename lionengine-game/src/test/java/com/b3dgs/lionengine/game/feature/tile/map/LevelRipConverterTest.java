@@ -16,15 +16,52 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
 /**
  * Test the level rip converter class.
  */
 final class LevelRipConverterTest
 {
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
     /**
      * Test the constructor.
      */
@@ -33,4 +70,37 @@ final class LevelRipConverterTest
     {
         assertPrivateConstructor(LevelRipConverter.class);
     }
+
+    /**
+     * Test progress is reported for each searched row.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testProgress() throws IOException
+    {
+        final Path level = Files.createTempFile("level", ".png");
+        try (InputStream input = LevelRipConverterTest.class.getResourceAsStream("level.png"))
+        {
+            Files.copy(input, level, StandardCopyOption.REPLACE_EXISTING);
+        }
+        final Media levelrip = Medias.create(level.toFile().getName());
+        final MapTileGame map = new MapTileGame();
+        map.create(levelrip, 7, 11, 7);
+
+        final List<Integer> percents = new ArrayList<>();
+
+        assertEquals(0, LevelRipConverter.start(levelrip, map, (percent, progressTileX, progressTileY) ->
+        {
+            synchronized (percents)
+            {
+                percents.add(Integer.valueOf(percent));
+            }
+            assertEquals(1, progressTileX);
+        }));
+
+        assertEquals(Arrays.asList(Integer.valueOf(50), Integer.valueOf(100)), percents);
+
+        Files.delete(level);
+    }
 }
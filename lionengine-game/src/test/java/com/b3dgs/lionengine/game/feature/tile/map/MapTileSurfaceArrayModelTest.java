@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link MapTileSurfaceArrayModel}.
+ */
+final class MapTileSurfaceArrayModelTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    private final MapTileSurfaceArrayModel surface = new MapTileSurfaceArrayModel(4);
+    private final MapTileGame map = new MapTileGame(surface);
+
+    /**
+     * Test map creation.
+     */
+    @Test
+    void testCreate()
+    {
+        assertFalse(map.isCreated());
+
+        map.create(16, 32, 2, 3);
+
+        assertTrue(map.isCreated());
+        assertEquals(2, map.getInTileWidth());
+        assertEquals(3, map.getInTileHeight());
+        assertEquals(0, map.getTilesNumber());
+        assertNull(map.getTile(0, 0));
+    }
+
+    /**
+     * Test set and get tile.
+     */
+    @Test
+    void testSetGet()
+    {
+        map.create(16, 16, 3, 3);
+
+        final List<Tile> set = new ArrayList<>();
+        map.addListener(set::add);
+
+        map.setTile(1, 2, 5);
+        map.setTile(1, 2, 5);
+
+        assertEquals(1, set.size());
+        assertEquals(1, map.getTilesNumber());
+
+        final Tile tile = map.getTile(1, 2);
+
+        assertTrue(set.get(0) == tile);
+        assertEquals(5, tile.getNumber());
+        assertEquals(1, tile.getInTileX());
+        assertEquals(2, tile.getInTileY());
+        assertEquals(16.0, tile.getX());
+        assertEquals(32.0, tile.getY());
+        assertEquals(tile, map.getTileAt(20.0, 40.0));
+        assertNull(map.getTile(-1, 0));
+        assertNull(map.getTile(3, 0));
+
+        map.setTile(1, 2, 6);
+
+        assertEquals(6, tile.getNumber());
+        assertEquals(2, set.size());
+
+        map.removeTile(1, 2);
+
+        assertNull(map.getTile(1, 2));
+        assertEquals(0, map.getTilesNumber());
+        assertThrows(() -> map.setTile(3, 0, 0), "Invalid argument: 3 is not strictly inferior to 3");
+    }
+
+    /**
+     * Test tiles evicted from cache are recreated from storage.
+     */
+    @Test
+    void testCache()
+    {
+        map.create(16, 16, 4, 4);
+
+        for (int ty = 0; ty < 4; ty++)
+        {
+            for (int tx = 0; tx < 4; tx++)
+            {
+                map.setTile(tx, ty, tx + ty * 4);
+            }
+        }
+
+        final Tile tile = map.getTile(0, 0);
+        final Tile other = map.getTile(0, 1);
+        final Tile again = map.getTile(0, 0);
+
+        assertFalse(tile == again);
+        assertEquals(tile, again);
+        assertEquals(4, other.getNumber());
+        assertEquals(16, map.getTilesNumber());
+    }
+
+    /**
+     * Test resize keeps tiles.
+     */
+    @Test
+    void testResize()
+    {
+        map.create(16, 16, 2, 2);
+        map.setTile(1, 1, 3);
+        surface.resize(4, 3);
+
+        assertEquals(4, map.getInTileWidth());
+        assertEquals(3, map.getInTileHeight());
+        assertEquals(3, map.getTile(1, 1).getNumber());
+        assertNull(map.getTile(3, 2));
+        assertEquals(1, map.getTilesNumber());
+
+        map.setTile(3, 2, 1);
+
+        assertEquals(1, map.getTile(3, 2).getNumber());
+
+        map.clear();
+
+        assertEquals(0, map.getInTileWidth());
+        assertEquals(0, map.getTilesNumber());
+    }
+}
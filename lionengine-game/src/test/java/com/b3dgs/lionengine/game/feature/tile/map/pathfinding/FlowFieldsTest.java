@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link FlowFields} and {@link FlowField}.
+ */
+final class FlowFieldsTest
+{
+    /** Map size. */
+    private static final int SIZE = 64;
+    /** Cache capacity. */
+    private static final int CAPACITY = 2;
+    /** Wall horizontal location. */
+    private static final int WALL = 32;
+    /** Wall gap vertical location. */
+    private static final int GAP = 40;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(FlowFieldsTest.class.getSimpleName(), Version.DEFAULT));
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig(FlowFieldsTest.class);
+        Medias.setLoadFromJar(FlowFieldsTest.class);
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+        Medias.setLoadFromJar(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = services.add(new MapTileGame());
+    private MapTilePath mapPath;
+    private FlowFields fields;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    void prepare()
+    {
+        mapPath = UtilPathfinding.createMap(services, map, SIZE);
+        UtilPathfinding.setWall(map, WALL, GAP);
+
+        fields = services.add(new FlowFields(map, CAPACITY));
+    }
+
+    /**
+     * Check path validity.
+     * 
+     * @param path The path to check.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     */
+    private void assertPath(Path path, int stx, int sty, int dtx, int dty)
+    {
+        UtilPathfinding.assertPath(map, path, stx, sty, dtx, dty, WALL, GAP);
+    }
+
+    /**
+     * Create object test.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The object test.
+     */
+    private Pathfindable createObject(int tx, int ty)
+    {
+        return UtilPathfinding.createObject(services, config, tx, ty);
+    }
+
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    void testConstructorInvalid()
+    {
+        assertThrows(() -> new FlowFields(null), "Unexpected null argument !");
+        assertThrows(() -> new FlowFields(map, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> fields.getField(null, 1, 1), "Unexpected null argument !");
+        assertThrows(() -> fields.getField(createObject(1, 1), SIZE, 1),
+                     "Invalid argument: " + SIZE + " is not strictly inferior to " + SIZE);
+    }
+
+    /**
+     * Test field content.
+     */
+    @Test
+    void testField()
+    {
+        final FlowField field = fields.getField(createObject(2, 10), 60, 10);
+
+        assertEquals(60, field.getDestinationX());
+        assertEquals(10, field.getDestinationY());
+        assertEquals(0.0, field.getCost(60, 10));
+        assertEquals(MovementTile.NONE, field.getDirection(60, 10));
+        assertEquals(MovementTile.LEFT, field.getDirection(61, 10));
+        assertNotEquals(MovementTile.NONE, field.getDirection(WALL, GAP));
+
+        assertFalse(field.isReachable(WALL, 0));
+        assertFalse(field.isReachable(-1, 0));
+        assertFalse(field.isReachable(0, SIZE));
+        assertEquals(Double.POSITIVE_INFINITY, field.getCost(WALL, 0));
+        assertEquals(MovementTile.NONE, field.getDirection(WALL, 0));
+
+        final Path path = field.getPath(2, 10);
+        assertPath(path, 2, 10, 60, 10);
+        assertEquals(path.getLength() - 1, (int) field.getCost(2, 10));
+        assertEquals(1, field.getPath(60, 10).getLength());
+    }
+
+    /**
+     * Test flow path compared to tiles path.
+     */
+    @Test
+    void testFindPath()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final PathFinder flow = Astar.createPathFinder(fields, SIZE * 2, Astar.createHeuristicClosest());
+        final PathFinder tiles = Astar.createPathFinder(map, SIZE * 2, Astar.createHeuristicClosest());
+
+        final Path path = flow.findPath(mover, 60, 10, false);
+        assertPath(path, 2, 10, 60, 10);
+
+        final Path reference = tiles.findPath(mover, 60, 10, false);
+        assertPath(reference, 2, 10, 60, 10);
+        assertTrue(path.getLength() <= reference.getLength());
+
+        assertTrue(mover.isPathAvailable(60, 10));
+        assertPath(flow.findPath(createObject(60, 60), 1, 1, false), 60, 60, 1, 1);
+    }
+
+    /**
+     * Test next step used by an object, free neighbour is taken.
+     */
+    @Test
+    void testFindPathAround()
+    {
+        final Pathfindable mover = createObject(50, 10);
+        final PathFinder flow = Astar.createPathFinder(fields, SIZE * 2, Astar.createHeuristicClosest());
+
+        final Path field = fields.getField(mover, 60, 10).getPath(50, 10);
+        final int nx = field.getX(1);
+        final int ny = field.getY(1);
+        mapPath.addObjectId(nx, ny, Integer.valueOf(100));
+        final Path path = flow.findPath(mover, 60, 10, false);
+
+        assertEquals(50, path.getX(0));
+        assertEquals(10, path.getY(0));
+        assertFalse(path.getX(1) == nx && path.getY(1) == ny);
+        assertEquals(60, path.getX(path.getLength() - 1));
+        assertEquals(10, path.getY(path.getLength() - 1));
+
+        final Path ignored = flow.findPath(mover, 60, 10, true);
+        assertEquals(nx, ignored.getX(1));
+        assertEquals(ny, ignored.getY(1));
+    }
+
+    /**
+     * Test destination used by an object, closest free location is reached unless objects are ignored.
+     */
+    @Test
+    void testFindPathDestinationUsed()
+    {
+        final Pathfindable mover = createObject(50, 10);
+        final PathFinder flow = Astar.createPathFinder(fields, SIZE * 2, Astar.createHeuristicClosest());
+        mapPath.addObjectId(60, 10, Integer.valueOf(100));
+
+        final Path path = flow.findPath(mover, 60, 10, false);
+        assertFalse(path.getX(path.getLength() - 1) == 60 && path.getY(path.getLength() - 1) == 10);
+
+        final Path ignored = flow.findPath(mover, 60, 10, true);
+        assertEquals(60, ignored.getX(ignored.getLength() - 1));
+        assertEquals(10, ignored.getY(ignored.getLength() - 1));
+    }
+
+    /**
+     * Test cache shared by movers and least recently used eviction.
+     */
+    @Test
+    void testCache()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final FlowField first = fields.getField(mover, 60, 10);
+
+        assertEquals(first, fields.getField(createObject(5, 5), 60, 10));
+        assertEquals(1, fields.getCount());
+        assertEquals(CAPACITY, fields.getCapacity());
+
+        final FlowField second = fields.getField(mover, 60, 20);
+        assertEquals(first, fields.getField(mover, 60, 10));
+        fields.getField(mover, 60, 30);
+
+        assertEquals(CAPACITY, fields.getCount());
+        assertEquals(first, fields.getField(mover, 60, 10));
+        assertNotEquals(second, fields.getField(mover, 60, 20));
+
+        fields.invalidate();
+        assertEquals(0, fields.getCount());
+    }
+
+    /**
+     * Test fields dropped on tile blocking change only.
+     */
+    @Test
+    void testInvalidate()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final FlowField field = fields.getField(mover, 60, 10);
+
+        mapPath.addObjectId(WALL, GAP, Integer.valueOf(100));
+        mapPath.removeObjectId(WALL, GAP, Integer.valueOf(100));
+        map.setTile(0, 0, UtilMap.TILE_GROUND);
+        assertEquals(field, fields.getField(mover, 60, 10));
+
+        map.setTile(WALL, GAP, UtilMap.TILE_TREE);
+        assertEquals(0, fields.getCount());
+        assertFalse(fields.getField(mover, 60, 10).isReachable(2, 10));
+
+        map.setTile(WALL, GAP, UtilMap.TILE_GROUND);
+        assertPath(fields.getField(mover, 60, 10).getPath(2, 10), 2, 10, 60, 10);
+    }
+
+    /**
+     * Test pathfindable using fields from services.
+     */
+    @Test
+    void testPathfindable()
+    {
+        assertTrue(createObject(2, 10).setDestination(60, 10));
+        assertTrue(createObject(2, 20).setDestination(60, 10));
+        assertTrue(createObject(WALL + 2, 5).setDestination(60, 10));
+
+        assertEquals(1, fields.getCount());
+    }
+}
@@ -19,8 +19,11 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -245,6 +248,63 @@ final class MapTilePathModelTest
         mapPath.removeObjectId(10, 10, Integer.valueOf(10));
     }
 
+    /**
+     * Test the path changed listener.
+     */
+    @Test
+    void testListener()
+    {
+        final AtomicReference<CoordTile> changed = new AtomicReference<>();
+        final MapTilePathListener listener = (tx, ty) -> changed.set(new CoordTile(tx, ty));
+        mapPath.addListener(listener);
+
+        mapPath.addObjectId(1, 2, Integer.valueOf(10));
+        assertEquals(new CoordTile(1, 2), changed.getAndSet(null));
+
+        mapPath.addObjectId(1, 2, Integer.valueOf(11));
+        assertNull(changed.get());
+
+        mapPath.removeObjectId(1, 2, Integer.valueOf(10));
+        assertNull(changed.get());
+
+        mapPath.removeObjectId(1, 2, Integer.valueOf(11));
+        assertEquals(new CoordTile(1, 2), changed.getAndSet(null));
+
+        map.setTile(3, 4, UtilMap.TILE_TREE);
+        assertEquals(new CoordTile(3, 4), changed.getAndSet(null));
+
+        mapPath.removeListener(listener);
+        map.setTile(3, 4, UtilMap.TILE_GROUND);
+        assertNull(changed.get());
+    }
+
+    /**
+     * Test the read only snapshot.
+     */
+    @Test
+    void testSnapshot()
+    {
+        mapPath.addObjectId(1, 2, Integer.valueOf(10));
+
+        final MapTilePath snapshot = mapPath.createSnapshot();
+        assertEquals(snapshot, snapshot.createSnapshot());
+
+        mapPath.addObjectId(1, 2, Integer.valueOf(11));
+        mapPath.addObjectId(3, 4, Integer.valueOf(12));
+
+        assertEquals(1, snapshot.getObjectsId(1, 2).size());
+        assertTrue(snapshot.getObjectsId(1, 2).contains(Integer.valueOf(10)));
+        assertTrue(snapshot.getObjectsId(3, 4).isEmpty());
+        assertEquals(mapPath.getCategories(), snapshot.getCategories());
+        assertTrue(snapshot.isBlocked(createObject(), 1, 2, false));
+        assertFalse(snapshot.isBlocked(createObject(), 3, 4, false));
+
+        assertThrows(() -> snapshot.addObjectId(1, 2, Integer.valueOf(13)), MapTilePathSnapshot.ERROR_READ_ONLY);
+        assertThrows(() -> snapshot.removeObjectId(1, 2, Integer.valueOf(10)), MapTilePathSnapshot.ERROR_READ_ONLY);
+        assertThrows(() -> snapshot.loadPathfinding(Medias.create("pathfinding.xml")),
+                     MapTilePathSnapshot.ERROR_READ_ONLY);
+    }
+
     /**
      * Create object test.
      * 
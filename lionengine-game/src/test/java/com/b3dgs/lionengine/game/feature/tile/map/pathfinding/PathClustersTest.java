@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathClusters}.
+ */
+final class PathClustersTest
+{
+    /** Map size. */
+    private static final int SIZE = 64;
+    /** Cluster size. */
+    private static final int CLUSTER = 8;
+    /** Wall horizontal location. */
+    private static final int WALL = 32;
+    /** Wall gap vertical location. */
+    private static final int GAP = 40;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathClustersTest.class.getSimpleName(), Version.DEFAULT));
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig(PathClustersTest.class);
+        Medias.setLoadFromJar(PathClustersTest.class);
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+        Medias.setLoadFromJar(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = services.add(new MapTileGame());
+    private MapTilePath mapPath;
+    private PathClusters clusters;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    void prepare()
+    {
+        mapPath = UtilPathfinding.createMap(services, map, SIZE);
+        UtilPathfinding.setWall(map, WALL, GAP);
+
+        clusters = services.add(new PathClusters(map, CLUSTER));
+    }
+
+    /**
+     * Check path validity.
+     * 
+     * @param path The path to check.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     */
+    private void assertPath(Path path, int stx, int sty, int dtx, int dty)
+    {
+        UtilPathfinding.assertPath(map, path, stx, sty, dtx, dty, WALL, GAP);
+    }
+
+    /**
+     * Create object test.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The object test.
+     */
+    private Pathfindable createObject(int tx, int ty)
+    {
+        return UtilPathfinding.createObject(services, config, tx, ty);
+    }
+
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    void testConstructorInvalid()
+    {
+        assertThrows(() -> new PathClusters(null), "Unexpected null argument !");
+        assertThrows(() -> new PathClusters(map, 1), "Invalid argument: 1 is not strictly superior to 1");
+    }
+
+    /**
+     * Test hierarchical path compared to tiles path.
+     */
+    @Test
+    void testFindPath()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final PathFinder hierarchical = Astar.createPathFinder(clusters, SIZE * 2, Astar.createHeuristicClosest());
+        final PathFinder tiles = Astar.createPathFinder(map, SIZE * 2, Astar.createHeuristicClosest());
+
+        final Path path = hierarchical.findPath(mover, 60, 10, false);
+        assertPath(path, 2, 10, 60, 10);
+
+        final Path reference = tiles.findPath(mover, 60, 10, false);
+        assertPath(reference, 2, 10, 60, 10);
+        assertTrue(path.getLength() <= reference.getLength() * 1.25);
+
+        assertTrue(mover.isPathAvailable(60, 10));
+        assertPath(hierarchical.findPath(createObject(60, 60), 1, 1, false), 60, 60, 1, 1);
+    }
+
+    /**
+     * Test short path, searched on tiles.
+     */
+    @Test
+    void testFindPathShort()
+    {
+        final Pathfindable mover = createObject(WALL - 2, GAP);
+        final PathFinder finder = Astar.createPathFinder(clusters, SIZE * 2, Astar.createHeuristicClosest());
+
+        assertPath(finder.findPath(mover, WALL + 2, GAP, false), WALL - 2, GAP, WALL + 2, GAP);
+    }
+
+    /**
+     * Test path update on tile set.
+     */
+    @Test
+    void testTileChanged()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final PathFinder finder = Astar.createPathFinder(clusters, SIZE * 2, Astar.createHeuristicClosest());
+
+        assertPath(finder.findPath(mover, 60, 10, false), 2, 10, 60, 10);
+
+        map.setTile(WALL, GAP, UtilMap.TILE_TREE);
+        assertNull(finder.findPath(mover, 60, 10, false));
+
+        map.setTile(WALL, GAP, UtilMap.TILE_GROUND);
+        assertPath(finder.findPath(mover, 60, 10, false), 2, 10, 60, 10);
+    }
+
+    /**
+     * Test path update on objects.
+     */
+    @Test
+    void testObjectsChanged()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final PathFinder finder = Astar.createPathFinder(clusters, SIZE * 2, Astar.createHeuristicClosest());
+
+        assertPath(finder.findPath(mover, 60, 10, false), 2, 10, 60, 10);
+
+        mapPath.addObjectId(WALL, GAP, Integer.valueOf(100));
+        assertNull(finder.findPath(mover, 60, 10, false));
+        assertPath(finder.findPath(mover, 60, 10, true), 2, 10, 60, 10);
+
+        mapPath.removeObjectId(WALL, GAP, Integer.valueOf(100));
+        assertPath(finder.findPath(mover, 60, 10, false), 2, 10, 60, 10);
+
+        clusters.invalidate();
+        assertPath(finder.findPath(mover, 60, 10, false), 2, 10, 60, 10);
+    }
+
+    /**
+     * Test blocked destination, closest available tile is used.
+     */
+    @Test
+    void testDestinationBlocked()
+    {
+        final Pathfindable mover = createObject(2, 10);
+        final PathFinder finder = Astar.createPathFinder(clusters, SIZE * 2, Astar.createHeuristicClosest());
+        map.setTile(60, 10, UtilMap.TILE_TREE);
+
+        final Path path = finder.findPath(mover, 60, 10, false);
+        assertNotNull(path);
+        assertFalse(path.getX(path.getLength() - 1) == 60 && path.getY(path.getLength() - 1) == 10);
+        assertTrue(Math.abs(path.getX(path.getLength() - 1) - 60) <= 1);
+        assertTrue(Math.abs(path.getY(path.getLength() - 1) - 10) <= 1);
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathRequestService}.
+ */
+final class PathRequestServiceTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathRequestServiceTest.class.getSimpleName(), Version.DEFAULT));
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig(PathRequestServiceTest.class);
+        Medias.setLoadFromJar(PathRequestServiceTest.class);
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+        Medias.setLoadFromJar(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = services.add(new MapTileGame());
+    private final List<Path> found = new ArrayList<>();
+    private final PathRequestListener listener = (mover, path) -> found.add(path);
+    private MapTilePath mapPath;
+    private PathRequestService service;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    void prepare()
+    {
+        mapPath = UtilPathfinding.createMap(services, map, 16);
+
+        service = services.add(new PathRequestService(services, 1));
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    void clean()
+    {
+        service.dispose();
+    }
+
+    /**
+     * Update service until expected results count are delivered.
+     * 
+     * @param count The expected delivered count.
+     */
+    private void waitDelivered(int count)
+    {
+        assertTimeout(5000L, () ->
+        {
+            while (service.getDelivered() < count)
+            {
+                service.update(1.0, null);
+                Thread.sleep(1L);
+            }
+        });
+    }
+
+    /**
+     * Create object test.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The object test.
+     */
+    private Pathfindable createObject(int tx, int ty)
+    {
+        return UtilPathfinding.createObject(services, config, tx, ty);
+    }
+
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    void testConstructorInvalid()
+    {
+        assertThrows(() -> new PathRequestService(null), "Unexpected null argument !");
+        assertThrows(() -> new PathRequestService(services, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test request delivery.
+     */
+    @Test
+    void testRequest()
+    {
+        final Pathfindable mover = createObject(1, 1);
+        service.request(mover, 10, 12, false, listener);
+
+        assertEquals(1, service.getQueueDepth());
+        assertTrue(found.isEmpty());
+
+        waitDelivered(1);
+
+        assertEquals(0, service.getQueueDepth());
+        assertEquals(1, found.size());
+        final Path path = found.get(0);
+        assertEquals(1, path.getX(0));
+        assertEquals(1, path.getY(0));
+        assertEquals(10, path.getX(path.getLength() - 1));
+        assertEquals(12, path.getY(path.getLength() - 1));
+        assertTrue(service.getLatencyAverage() > 0.0);
+        assertTrue(service.getLatencyMax() >= service.getLatencyAverage());
+    }
+
+    /**
+     * Test request without path.
+     */
+    @Test
+    void testRequestNone()
+    {
+        final Pathfindable mover = createObject(1, 1);
+        for (int x = 0; x < 3; x++)
+        {
+            for (int y = 0; y < 3; y++)
+            {
+                if (x != 1 || y != 1)
+                {
+                    map.setTile(x, y, UtilMap.TILE_TREE);
+                }
+            }
+        }
+        service.request(mover, 10, 12, false, listener);
+        waitDelivered(1);
+
+        assertEquals(1, found.size());
+        assertNull(found.get(0));
+    }
+
+    /**
+     * Test deduplicated and superseded requests.
+     */
+    @Test
+    void testDeduplicateAndCancel()
+    {
+        final Pathfindable mover = createObject(1, 1);
+        service.request(mover, 10, 12, false, listener);
+        service.request(mover, 10, 12, false, listener);
+
+        assertEquals(1, service.getDeduplicated());
+        assertEquals(1, service.getQueueDepth());
+
+        service.request(mover, 12, 10, false, listener);
+
+        assertEquals(1, service.getCancelled());
+        assertEquals(1, service.getQueueDepth());
+
+        waitDelivered(1);
+
+        assertEquals(1, found.size());
+        assertEquals(12, found.get(0).getX(found.get(0).getLength() - 1));
+        assertEquals(10, found.get(0).getY(found.get(0).getLength() - 1));
+
+        service.request(mover, 5, 5, false, listener);
+        service.cancel(mover);
+        service.cancel(mover);
+
+        assertEquals(2, service.getCancelled());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    /**
+     * Test snapshot is used by search.
+     */
+    @Test
+    void testSnapshot()
+    {
+        final Pathfindable mover = createObject(1, 1);
+        mapPath.addObjectId(2, 1, Integer.valueOf(100));
+        service.request(mover, 3, 1, false, listener);
+        mapPath.removeObjectId(2, 1, Integer.valueOf(100));
+        waitDelivered(1);
+
+        final Path path = found.get(0);
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertFalse(path.getX(i) == 2 && path.getY(i) == 1);
+        }
+    }
+
+    /**
+     * Test budget by update.
+     */
+    @Test
+    void testBudget()
+    {
+        assertThrows(() -> service.setBudget(-1), "Invalid argument: -1 is not superior or equal to 0");
+
+        service.setBudget(1);
+        service.request(createObject(1, 1), 10, 12, false, listener);
+        service.request(createObject(2, 2), 12, 10, false, listener);
+
+
+        assertEquals(0, service.getStarted());
+
+        service.update(1.0, null);
+
+        assertEquals(1, service.getStarted());
+
+        service.update(1.0, null);
+
+        assertEquals(2, service.getStarted());
+
+        waitDelivered(2);
+
+        assertEquals(2, found.size());
+    }
+
+    /**
+     * Test concurrent requests of a same frame give the same paths as a synchronous search.
+     */
+    @Test
+    void testConcurrent()
+    {
+        service.dispose();
+        service = services.add(new PathRequestService(services, 4));
+        UtilPathfinding.setWall(map, 8, 5);
+
+        final Map<Pathfindable, Path> paths = new HashMap<>();
+        final PathRequestListener collect = paths::put;
+        final List<Pathfindable> movers = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+        {
+            movers.add(createObject(i % 4, i));
+        }
+        for (int i = 0; i < movers.size(); i++)
+        {
+            service.request(movers.get(i), 12 + i % 3, 15 - i, false, collect);
+        }
+        waitDelivered(movers.size());
+
+        final PathFinder finder = new PathFinderImpl(map, mapPath, 22, Astar.createHeuristicClosest());
+        for (int i = 0; i < movers.size(); i++)
+        {
+            final Pathfindable mover = movers.get(i);
+            final Path expected = finder.findPath(mover, i % 4, i, 12 + i % 3, 15 - i, false);
+            final Path path = paths.get(mover);
+
+            assertEquals(expected.getLength(), path.getLength());
+            for (int step = 0; step < path.getLength(); step++)
+            {
+                assertEquals(expected.getX(step), path.getX(step));
+                assertEquals(expected.getY(step), path.getY(step));
+            }
+        }
+    }
+
+    /**
+     * Test pathfindable asynchronous destination.
+     */
+    @Test
+    void testPathfindable()
+    {
+        final Pathfindable mover = createObject(1, 1);
+        final AtomicBoolean started = new AtomicBoolean();
+        mover.addListener(new PathfindableListener()
+        {
+            @Override
+            public void notifyStartMove(Pathfindable pathfindable)
+            {
+                started.set(true);
+            }
+
+            @Override
+            public void notifyMoving(Pathfindable pathfindable)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyArrived(Pathfindable pathfindable)
+            {
+                // Nothing to do
+            }
+        });
+
+        assertTrue(mover.setDestination(4, 1));
+        assertFalse(started.get());
+
+        waitDelivered(1);
+
+        assertTrue(started.get());
+        mover.setSpeed(1.0, 1.0);
+        assertTimeout(5000L, () ->
+        {
+            while (!mover.isDestinationReached())
+            {
+                mover.update(1.0);
+                service.update(1.0, null);
+            }
+        });
+        assertEquals(4, mover.getInTileX());
+        assertEquals(1, mover.getInTileY());
+    }
+}
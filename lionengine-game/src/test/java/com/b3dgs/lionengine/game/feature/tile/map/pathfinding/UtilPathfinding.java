@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Factory;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Pathfinding test utility.
+ */
+final class UtilPathfinding
+{
+    /**
+     * Create the object configuration, with ground walkable and tree blocking.
+     * 
+     * @param caller The caller class.
+     * @return The configuration media.
+     */
+    static Media createConfig(Class<?> caller)
+    {
+        final Map<String, PathData> data = new HashMap<>();
+        data.put(UtilMap.GROUND, new PathData(UtilMap.GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        data.put(UtilMap.TREE, new PathData(UtilMap.TREE, 1.0, true, Arrays.asList(MovementTile.values())));
+
+        final Xml root = new Xml(Constant.XML_PREFIX + "featurable");
+        root.add(PathfindableConfig.exports(data));
+        final Media media = Medias.create("Object" + caller.getSimpleName() + Factory.FILE_DATA_DOT_EXTENSION);
+        root.save(media);
+
+        return media;
+    }
+
+    /**
+     * Create a ground map with pathfinding, categories mapping {@link UtilMap} groups.
+     * 
+     * @param services The services reference.
+     * @param map The map to create.
+     * @param size The map size in tile.
+     * @return The map path.
+     */
+    static MapTilePath createMap(Services services, MapTileGame map, int size)
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, size, size);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel());
+        mapPath.prepare(map);
+        mapPath.loadPathfinding(Medias.create("pathfindingGround.xml"));
+
+        return mapPath;
+    }
+
+    /**
+     * Set a vertical wall of trees with a single gap.
+     * 
+     * @param map The map reference.
+     * @param wall The wall horizontal location.
+     * @param gap The gap vertical location.
+     */
+    static void setWall(MapTileGame map, int wall, int gap)
+    {
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            if (ty != gap)
+            {
+                map.setTile(wall, ty, UtilMap.TILE_TREE);
+            }
+        }
+    }
+
+    /**
+     * Create object test.
+     * 
+     * @param services The services reference.
+     * @param config The object configuration.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The object test.
+     */
+    static Pathfindable createObject(Services services, Media config, int tx, int ty)
+    {
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel(services, setup);
+        object.addFeatureAndGet(new TransformableModel(services, setup)).setSize(1, 1);
+
+        final Pathfindable pathfindable = object.addFeatureAndGet(new PathfindableModel(services, setup));
+        pathfindable.setLocation(tx, ty);
+        return pathfindable;
+    }
+
+    /**
+     * Check path validity, going through ground only and through the wall gap.
+     * 
+     * @param map The map reference.
+     * @param path The path to check.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @param wall The wall horizontal location.
+     * @param gap The gap vertical location.
+     */
+    static void assertPath(MapTileGame map, Path path, int stx, int sty, int dtx, int dty, int wall, int gap)
+    {
+        assertNotNull(path);
+        assertEquals(stx, path.getX(0));
+        assertEquals(sty, path.getY(0));
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+
+        boolean crossed = false;
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertEquals(UtilMap.TILE_GROUND, map.getTile(path.getX(i), path.getY(i)).getNumber());
+            crossed |= path.getX(i) == wall && path.getY(i) == gap;
+        }
+        assertTrue(crossed);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2022 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.ImageSurface;
+import com.b3dgs.lionengine.graphic.drawable.Drawable;
+
+/**
+ * Test {@link MapTileChunks}.
+ */
+final class MapTileChunksTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Test chunks are bounded to the viewport and reused.
+     */
+    @Test
+    void testBounded()
+    {
+        final MapTileGame map = new MapTileGame();
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 40, 40);
+
+        final Set<ImageSurface> buffers = new HashSet<>();
+        final Graphic g = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image, int x, int y)
+            {
+                buffers.add(image);
+            }
+        };
+        final List<MapTileRenderer> renderers = new ArrayList<>();
+        final MapTileChunks chunks = new MapTileChunks(map.getFeature(MapTileSurface.class), 2);
+        chunks.setLayers(1);
+        map.addListener(chunks);
+
+        for (int i = 0; i < 36; i++)
+        {
+            chunks.render(g, 0, renderers, i, i, i + 3, i + 3, 0.0, 0.0);
+
+            assertTrue(chunks.getSize() <= 25);
+        }
+        assertTrue(buffers.size() <= 25);
+
+        buffers.clear();
+        chunks.render(g, 0, renderers, 35, 35, 38, 38, 0.0, 0.0);
+        final Set<ImageSurface> rendered = new HashSet<>(buffers);
+
+        buffers.clear();
+        chunks.invalidate();
+        map.setTile(36, 36, 0);
+        chunks.render(g, 0, renderers, 35, 35, 38, 38, 0.0, 0.0);
+
+        assertEquals(rendered, buffers);
+
+        chunks.dispose();
+
+        assertEquals(0, chunks.getSize());
+    }
+}
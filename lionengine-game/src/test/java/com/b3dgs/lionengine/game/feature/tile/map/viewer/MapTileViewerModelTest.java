@@ -16,11 +16,15 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -31,11 +35,15 @@ import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.ViewerMock;
 import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.GraphicMock;
 import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
 /**
@@ -50,6 +58,7 @@ final class MapTileViewerModelTest
     public static void beforeTests()
     {
         Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
     }
 
     /**
@@ -59,6 +68,7 @@ final class MapTileViewerModelTest
     public static void afterTests()
     {
         Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
     }
 
     private final Services services = new Services();
@@ -129,4 +139,109 @@ final class MapTileViewerModelTest
         map.clear();
         mapViewer.render(g);
     }
+
+    /**
+     * Test the viewer with chunks cache.
+     */
+    @Test
+    void testCached()
+    {
+        mapViewer = new MapTileViewerModel(services, 2);
+        mapViewer.prepare(map);
+        mapViewer.clear();
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 3, 3);
+        map.setTile(0, 0, 0);
+        map.setTile(2, 2, 1);
+
+        final AtomicInteger cachedCount = new AtomicInteger();
+        final AtomicInteger overlayCount = new AtomicInteger();
+        mapViewer.addRenderer(new MapTileRenderer()
+        {
+            @Override
+            public void renderTile(Graphic g, Tile tile, int x, int y)
+            {
+                cachedCount.incrementAndGet();
+            }
+
+            @Override
+            public boolean isCacheable()
+            {
+                return true;
+            }
+        });
+        mapViewer.addRenderer((g, tile, x, y) -> overlayCount.incrementAndGet());
+
+        mapViewer.render(g);
+
+        assertEquals(2, cachedCount.get());
+        assertEquals(2, overlayCount.get());
+
+        mapViewer.render(g);
+
+        assertEquals(2, cachedCount.get());
+        assertEquals(4, overlayCount.get());
+
+        map.setTile(2, 2, 0);
+        mapViewer.render(g);
+
+        assertEquals(3, cachedCount.get());
+        assertEquals(6, overlayCount.get());
+
+        mapViewer.invalidate();
+        mapViewer.render(g);
+
+        assertEquals(5, cachedCount.get());
+
+        map.clear();
+        mapViewer.render(g);
+    }
+
+    /**
+     * Test the viewer with chunks cache keeps renderers order.
+     */
+    @Test
+    void testCachedOrder()
+    {
+        mapViewer = new MapTileViewerModel(services, 2);
+        mapViewer.prepare(map);
+        mapViewer.clear();
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 3, 3);
+        map.setTile(0, 0, 0);
+
+        final List<String> rendered = new ArrayList<>();
+        final Graphic graphic = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image, int x, int y)
+            {
+                rendered.add("chunk");
+            }
+        };
+        final MapTileRenderer cacheable = new MapTileRenderer()
+        {
+            @Override
+            public void renderTile(Graphic g, Tile tile, int x, int y)
+            {
+                // Mock
+            }
+
+            @Override
+            public boolean isCacheable()
+            {
+                return true;
+            }
+        };
+        mapViewer.addRenderer(cacheable);
+        mapViewer.addRenderer((g, tile, x, y) -> rendered.add("overlay"));
+        mapViewer.addRenderer(cacheable);
+
+        mapViewer.render(graphic);
+
+        assertEquals(Arrays.asList("chunk", "chunk", "chunk", "chunk", "overlay", "chunk", "chunk", "chunk", "chunk"),
+                     rendered);
+    }
 }